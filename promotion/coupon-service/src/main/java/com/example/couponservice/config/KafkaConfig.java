@@ -1,16 +1,22 @@
 package com.example.couponservice.config;
 
 import com.example.couponservice.dto.v3.CouponDto;
+import com.example.couponservice.exception.CouponPolicyNotFoundException;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -19,6 +25,7 @@ import java.util.Map;
 public class KafkaConfig {
     private static final String BOOTSTRAP_SERVERS = "localhost:9092";
     private static final String GROUP_ID = "coupon-service";
+    private static final String DEAD_LETTER_SUFFIX = ".DLT";
 
     @Bean
     public ProducerFactory<String, CouponDto.IssueMessage> couponProducerFactory() {
@@ -73,4 +80,30 @@ public class KafkaConfig {
         factory.setConcurrency(3);
         return factory;
     }
+
+    // 실패한 메시지는 버리지 않고 coupon-issue-requests.DLT 로 보낸다.
+    // 파티션은 지정하지 않는다. (DLT 의 파티션 수가 원래 토픽과 달라도 전송되도록)
+    @Bean
+    public DeadLetterPublishingRecoverer couponDeadLetterPublishingRecoverer() {
+        return new DeadLetterPublishingRecoverer(couponKafkaTemplate(),
+                (record, ex) -> new TopicPartition(record.topic() + DEAD_LETTER_SUFFIX, -1));
+    }
+
+    // 한 번의 poll 로 가져온 메시지(최대 MAX_POLL_RECORDS 개)를 List 로 한꺼번에 전달하는 배치 리스너용 팩토리
+    // 오프셋은 리스너가 DB 저장을 마친 뒤 직접 커밋하고(MANUAL_IMMEDIATE),
+    // 리스너가 예외를 던지면 배치 전체를 1초 간격으로 2번 더 시도한 뒤 배치의 메시지를 모두 DLT 로 보낸다.
+    // BatchListenerFailedException 이면 그 앞의 오프셋을 커밋하고 실패한 메시지만 DLT 로 보낸다. (정책 없음은 재시도하지 않음)
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, CouponDto.IssueMessage> couponBatchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, CouponDto.IssueMessage> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(couponConsumerFactory());
+        factory.setConcurrency(3);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(couponDeadLetterPublishingRecoverer(), new FixedBackOff(1000L, 2L));
+        errorHandler.addNotRetryableExceptions(CouponPolicyNotFoundException.class);
+        factory.setCommonErrorHandler(errorHandler);
+        return factory;
+    }
 }
@@ -1,7 +1,10 @@
 package com.example.couponservice.config;
 
 import com.example.couponservice.aop.CouponMetricsAspect;
+import com.example.couponservice.service.v2.CouponPolicyCache;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
@@ -19,4 +22,10 @@ public class MetricsConfig {
     public CouponMetricsAspect couponMetricsAspect(MeterRegistry registry) {
         return new CouponMetricsAspect(registry);
     }
+
+    // 쿠폰 정책 로컬 캐시(L1)의 hit/miss, eviction, 크기 (hit ratio = hits / (hits + misses))
+    @Bean
+    public MeterBinder couponPolicyCacheMetrics(CouponPolicyCache couponPolicyCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, couponPolicyCache.getCache(), "coupon-policy-cache");
+    }
 }
\ No newline at end of file
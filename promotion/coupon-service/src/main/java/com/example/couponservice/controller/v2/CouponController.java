@@ -2,6 +2,7 @@ package com.example.couponservice.controller.v2;
 
 import com.example.couponservice.dto.v1.CouponDto;
 import com.example.couponservice.service.v2.CouponService;
+import com.example.couponservice.service.v2.CouponSoldOutService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,9 +13,12 @@ import org.springframework.web.bind.annotation.*;
 public class CouponController {
 
     private final CouponService couponService;
+    private final CouponSoldOutService couponSoldOutService;
 
     @PostMapping("/issue")
     public ResponseEntity<CouponDto.Response> issueCoupon(@RequestBody CouponDto.IssueRequest request) {
+        // 소진된 쿠폰 정책은 트랜잭션/락/Redis 를 거치지 않고 바로 거절한다.
+        couponSoldOutService.validateNotSoldOut(request.getCouponPolicyId());
         return ResponseEntity.ok(couponService.issueCoupon(request));
     }
 
@@ -2,6 +2,7 @@ package com.example.couponservice.controller.v3;
 
 import com.example.couponservice.dto.v3.CouponDto;
 import com.example.couponservice.service.v3.CouponService;
+import com.example.couponservice.service.v2.CouponSoldOutService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -11,9 +12,12 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/v3/coupons")
 public class CouponController {
     private final CouponService couponService;
+    private final CouponSoldOutService couponSoldOutService;
 
     @PostMapping("/issue")
     public ResponseEntity<Void> issueCoupon(@RequestBody CouponDto.IssueRequest request) {
+        // 소진된 쿠폰 정책은 트랜잭션/락/Redis 를 거치지 않고 바로 거절한다.
+        couponSoldOutService.validateNotSoldOut(request.getCouponPolicyId());
         couponService.requestCouponIssue(request);
         return ResponseEntity.accepted().build();
     }
@@ -3,6 +3,7 @@ package com.example.couponservice.controller.v3;
 import com.example.couponservice.dto.v3.CouponPolicyDto;
 import com.example.couponservice.service.v2.CouponPolicyService;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -27,6 +28,22 @@ public class CouponPolicyController {
         return ResponseEntity.ok(CouponPolicyDto.Response.from(couponPolicyService.getCouponPolicy(id)));
     }
 
+    // 종료 시간을 바꾸면 모든 인스턴스의 쿠폰 정책 로컬 캐시가 무효화된다.
+    @PatchMapping("/{id}/end-time")
+    public ResponseEntity<CouponPolicyDto.Response> updateEndTime(
+            @PathVariable Long id,
+            @Valid @RequestBody CouponPolicyDto.UpdateEndTimeRequest request) {
+        return ResponseEntity.ok(CouponPolicyDto.Response.from(couponPolicyService.updateEndTime(id, request.getEndTime())));
+    }
+
+    // 수량을 추가하면 모든 인스턴스에서 소진 표시가 지워져 다시 발급된다.
+    @PostMapping("/{id}/top-up")
+    public ResponseEntity<CouponPolicyDto.Response> topUpQuantity(
+            @PathVariable Long id,
+            @Valid @RequestBody CouponPolicyDto.TopUpRequest request) {
+        return ResponseEntity.ok(CouponPolicyDto.Response.from(couponPolicyService.topUpQuantity(id, request.getQuantity())));
+    }
+
     @GetMapping
     public ResponseEntity<List<CouponPolicyDto.Response>> getAllCouponPolicies() {
         return ResponseEntity.ok(couponPolicyService.getAllCouponPolicies().stream()
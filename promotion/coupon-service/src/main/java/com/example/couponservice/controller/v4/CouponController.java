@@ -0,0 +1,25 @@
+package com.example.couponservice.controller.v4;
+
+import com.example.couponservice.dto.v3.CouponDto;
+import com.example.couponservice.service.v4.CouponService;
+import com.example.couponservice.service.v2.CouponSoldOutService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// 쿠폰 사용/취소는 v3 API 를 그대로 사용한다.
+@RestController("couponControllerV4")
+@RequiredArgsConstructor
+@RequestMapping("/api/v4/coupons")
+public class CouponController {
+    private final CouponService couponService;
+    private final CouponSoldOutService couponSoldOutService;
+
+    @PostMapping("/issue")
+    public ResponseEntity<Void> issueCoupon(@RequestBody CouponDto.IssueRequest request) {
+        // 소진된 쿠폰 정책은 트랜잭션/락/Redis 를 거치지 않고 바로 거절한다.
+        couponSoldOutService.validateNotSoldOut(request.getCouponPolicyId());
+        couponService.requestCouponIssue(request);
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -10,7 +10,7 @@ import java.time.LocalDateTime;
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true) // 캐시에 보관할 사본을 만들 때 사용
 public class CouponPolicy {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -67,6 +67,13 @@ public class CouponPolicy {
         updatedAt = LocalDateTime.now();
     }
 
+    public void increaseTotalQuantity(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("추가 수량은 1 이상이어야 합니다.");
+        }
+        this.totalQuantity += quantity;
+    }
+
     public boolean isValidPeriod() {
         LocalDateTime now = LocalDateTime.now();
         return !now.isBefore(startTime) && !now.isAfter(endTime);
@@ -28,6 +28,17 @@ public class CouponDto {
         private Long userId;
     }
 
+    // 쿠폰 정책 소진/재오픈 알림 (CouponSoldOutService 가 Redis pub/sub 으로 주고받음)
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SoldOutEvent {
+        private Long policyId;
+        private boolean soldOut; // false 이면 수량이 다시 채워짐
+        private long version; // 재오픈 버전 (이보다 오래된 소진 알림은 무시)
+    }
+
     @Getter
     @Builder
     public static class CouponResponse {
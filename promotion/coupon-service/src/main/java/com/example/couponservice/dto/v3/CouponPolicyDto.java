@@ -4,8 +4,10 @@ import com.example.couponservice.domain.CouponPolicy;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
@@ -58,6 +60,23 @@ public class CouponPolicyDto {
         }
     }
 
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UpdateEndTimeRequest {
+        @NotNull(message = "종료 시간은 필수입니다.")
+        private LocalDateTime endTime;
+    }
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TopUpRequest {
+        @NotNull(message = "추가 수량은 필수입니다.")
+        @Min(value = 1, message = "추가 수량은 1 이상이어야 합니다.")
+        private Integer quantity;
+    }
+
     @Getter
     @Builder
     public static class Response {
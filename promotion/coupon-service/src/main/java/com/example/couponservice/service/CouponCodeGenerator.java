@@ -0,0 +1,77 @@
+package com.example.couponservice.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+쿠폰 코드 생성기 (12자리 base32)
+UUID.randomUUID 는 호출마다 SecureRandom 을 쓰고, 앞 8자리만 잘라 쓰면 발급 수가 많아질수록 중복될 확률이 커진다.
+대신 노드 ID(10bit) + 카운터(50bit) 를 Crockford base32(0-9, A-Z 에서 I, L, O, U 제외)로 인코딩해서 난수 없이 중복 없는 코드를 만든다.
+- 노드 ID 는 인스턴스마다 다르게 설정해야 한다. (coupon.code.node-id, 0 ~ 1023)
+  설정하지 않으면 local 프로필(또는 프로필 없이 실행)에서는 0 을 쓰고, 그 외 프로필에서는 모든 인스턴스가 같은 노드 ID 로 겹치지 않도록 시작을 실패시킨다.
+- 카운터는 (기준 시각 이후 밀리초 << 9) 보다 작아지지 않도록 증가시키므로 재시작해도 이전에 만든 코드와 겹치지 않는다.
+  (밀리초당 512개를 넘게 계속 만들면 시계를 앞질러 가고, 그 상태에서 재시작하면 겹칠 수 있다)
+*/
+@Slf4j
+@Component
+public class CouponCodeGenerator {
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int CODE_LENGTH = 12; // 60bit = 5bit * 12
+    private static final int NODE_BITS = 10;
+    private static final int COUNTER_BITS = 50;
+    private static final int SEQUENCE_BITS = 9; // 카운터 하위 bit - 밀리초마다 확보되는 코드 수 (512)
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long EPOCH_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    private static final long UNSET = -1L;
+
+    @Value("${coupon.code.node-id:-1}")
+    private long nodeId;
+
+    @Value("${spring.profiles.active:local}")
+    private String activeProfiles;
+
+    private final AtomicLong counter = new AtomicLong();
+
+    // 노드 ID 는 시작할 때 한 번만 검증한다.
+    @PostConstruct
+    void validateNodeId() {
+        if (nodeId == UNSET) {
+            if (!isLocalProfile()) {
+                throw new IllegalStateException("coupon.code.node-id 가 설정되지 않았습니다. (인스턴스마다 0 ~ " + MAX_NODE_ID + " 사이의 다른 값 필요)");
+            }
+            log.warn("coupon.code.node-id 가 설정되지 않아 0 을 사용합니다. (local 프로필)");
+            nodeId = 0;
+        }
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("coupon.code.node-id 는 0 ~ " + MAX_NODE_ID + " 사이여야 합니다.");
+        }
+    }
+
+    public String generate() {
+        long floor = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long next = counter.updateAndGet(previous -> Math.max(previous + 1, floor));
+        return encode((nodeId << COUNTER_BITS) | (next & COUNTER_MASK));
+    }
+
+    private boolean isLocalProfile() {
+        return Arrays.stream(activeProfiles.split(","))
+                .map(String::trim)
+                .anyMatch("local"::equals);
+    }
+
+    private String encode(long value) {
+        char[] code = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            code[i] = ALPHABET[(int) (value & 0x1F)];
+            value >>>= 5;
+        }
+        return new String(code);
+    }
+}
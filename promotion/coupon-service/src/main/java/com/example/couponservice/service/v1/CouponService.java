@@ -9,6 +9,7 @@ import com.example.couponservice.exception.CouponIssueException;
 import com.example.couponservice.exception.CouponNotFoundException;
 import com.example.couponservice.repository.CouponPolicyRepository;
 import com.example.couponservice.repository.CouponRepository;
+import com.example.couponservice.service.CouponCodeGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -17,7 +18,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +25,7 @@ import java.util.UUID;
 public class CouponService {
     private final CouponRepository couponRepository;
     private final CouponPolicyRepository couponPolicyRepository;
+    private final CouponCodeGenerator couponCodeGenerator;
 
     /**
      * 1. Race Condition 발생 가능성
@@ -68,7 +69,7 @@ public class CouponService {
         Coupon coupon = Coupon.builder()
                 .couponPolicy(couponPolicy)
                 .userId(UserIdInterceptor.getCurrentUserId())
-                .couponCode(generateCouponCode())
+                .couponCode(couponCodeGenerator.generate())
                 .build();
 
         return couponRepository.save(coupon);
@@ -76,10 +77,6 @@ public class CouponService {
         // 물론 v1 에서는 findByIdWithLock을 제외하고는 락을 걸지 않는다.
     }
 
-    private String generateCouponCode() {
-        return UUID.randomUUID().toString().substring(0, 8);
-    }
-
     @Transactional
     public Coupon useCoupon(Long couponId, Long orderId) {
         Long currentUserId = UserIdInterceptor.getCurrentUserId();
@@ -0,0 +1,73 @@
+package com.example.couponservice.service.v2;
+
+import com.example.couponservice.domain.CouponPolicy;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+쿠폰 정책 L1 캐시 (인스턴스 로컬, L2 는 Redis 의 coupon:policy:{id})
+쿠폰 발급/사용/Consumer 처리마다 Redis 에서 정책 JSON 을 읽고 파싱하지 않도록 한 번 읽은 정책을 메모리에 보관한다.
+- 보관할 때와 꺼낼 때 모두 사본을 만들기 때문에 호출자가 값을 바꾸거나 JPA 엔티티가 영속성 컨텍스트에 묶여 있어도 캐시에는 영향이 없다.
+- 정책이 바뀌면 Redis pub/sub 으로 모든 인스턴스에 무효화 메시지를 보내고, 메시지를 놓친 경우를 대비해 일정 시간이 지나면 만료시킨다.
+- hit ratio 는 MetricsConfig 에서 노출
+*/
+@Slf4j
+@Component
+public class CouponPolicyCache {
+    private static final String INVALIDATION_CHANNEL = "coupon-policy-invalidation-channel";
+    private static final long MAXIMUM_SIZE = 1_000L;
+    private static final Duration EXPIRE_AFTER_WRITE = Duration.ofMinutes(10);
+
+    private final RedissonClient redissonClient;
+    private final Cache<Long, CouponPolicy> cache;
+
+    public CouponPolicyCache(RedissonClient redissonClient) {
+        this.redissonClient = redissonClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .expireAfterWrite(EXPIRE_AFTER_WRITE)
+                .recordStats()
+                .build();
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        getTopic().addListener(Long.class, (channel, policyId) -> cache.invalidate(policyId));
+    }
+
+    // 캐시에 있으면 사본을 반환 (없으면 null)
+    public CouponPolicy get(Long policyId) {
+        CouponPolicy couponPolicy = cache.getIfPresent(policyId);
+        return couponPolicy != null ? couponPolicy.toBuilder().build() : null;
+    }
+
+    public void put(CouponPolicy couponPolicy) {
+        cache.put(couponPolicy.getId(), couponPolicy.toBuilder().build());
+    }
+
+    // 이 인스턴스를 포함한 모든 인스턴스의 L1 에서 정책을 지운다.
+    public void publishInvalidation(Long policyId) {
+        cache.invalidate(policyId);
+        try {
+            getTopic().publish(policyId);
+        } catch (Exception e) {
+            log.error("쿠폰 정책 캐시 무효화 메시지 발행 실패: {}", policyId, e);
+        }
+    }
+
+    public Cache<Long, CouponPolicy> getCache() {
+        return cache;
+    }
+
+    private RTopic getTopic() {
+        return redissonClient.getTopic(INVALIDATION_CHANNEL, LongCodec.INSTANCE);
+    }
+}
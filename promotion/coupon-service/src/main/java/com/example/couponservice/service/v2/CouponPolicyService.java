@@ -6,6 +6,8 @@ import com.example.couponservice.exception.CouponPolicyNotFoundException;
 import com.example.couponservice.repository.CouponPolicyRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RAtomicLong;
@@ -13,7 +15,11 @@ import org.redisson.api.RBucket;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
 @Service("couponPolicyServiceV2")
@@ -23,9 +29,13 @@ public class CouponPolicyService {
     private final CouponPolicyRepository couponPolicyRepository;
     private final RedissonClient redissonClient;
     private final ObjectMapper objectMapper;
+    private final CouponPolicyCache couponPolicyCache;
+    private final MeterRegistry meterRegistry;
+    private final CouponSoldOutService couponSoldOutService;
 
     private static final String COUPON_QUANTITY_KEY = "coupon:quantity:";
     private static final String COUPON_POLICY_KEY = "coupon:policy:";
+    private static final String COUPON_ISSUED_KEY = "coupon:issued:";
 
     @Transactional
     public CouponPolicy createCouponPolicy(CouponPolicyDto.CreateRequest request) throws JsonProcessingException {
@@ -40,34 +50,128 @@ public class CouponPolicyService {
         atomicQuantity.set(savedPolicy.getTotalQuantity());
 
         // Redis에 정책 정보 저장 - Redis에서 쿠폰 정책 상세 정보를 빠르게 가져오고 캐싱함
-        String policyKey = COUPON_POLICY_KEY + savedPolicy.getId();
-        String policyJson = objectMapper.writeValueAsString(CouponPolicyDto.Response.from(savedPolicy));
-        RBucket<String> bucket = redissonClient.getBucket(policyKey);
-        bucket.set(policyJson);
+        savePolicyToRedis(savedPolicy);
 
         return savedPolicy;
     }
 
-    // 쿠폰 정책 정보 조회 시 redis에서 먼저 찾고 없으면 DB에서 찾는다.
+    // 쿠폰 정책 정보 조회 시 로컬 캐시(L1) -> Redis(L2) -> DB 순서로 찾는다.
+    // DB 에서 찾은 정책은 Redis 와 로컬 캐시에 다시 넣어서 다음 조회부터는 DB 까지 가지 않는다.
     public CouponPolicy getCouponPolicy(Long id) {
-        String policyKey = COUPON_POLICY_KEY + id;
-        RBucket<String> bucket = redissonClient.getBucket(policyKey);
-        String policyJson = bucket.get();
-        log.info("~~~ getCouponPolicy 에서 policyKey : " + policyKey);
-        if (policyJson != null) {
-            try {
-                return objectMapper.readValue(policyJson, CouponPolicy.class);
-            } catch (JsonProcessingException e) {
-                log.error("쿠폰 정책 정보를 JSON으로 파싱하는 중 오류가 발생했습니다.", e);
-            }
+        CouponPolicy cached = couponPolicyCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        CouponPolicy couponPolicy = findPolicyInRedis(id);
+        recordRedisLookup(couponPolicy != null);
+        if (couponPolicy == null) {
+            couponPolicy = couponPolicyRepository.findById(id)
+                    .orElseThrow(() -> new CouponPolicyNotFoundException("쿠폰 정책을 찾을 수 없습니다."));
+            savePolicyToRedis(couponPolicy);
+        }
+
+        couponPolicyCache.put(couponPolicy);
+        return couponPolicy;
+    }
+
+    // 발급 종료 시간 변경 - DB 를 커밋한 뒤 Redis 를 갱신하고 모든 인스턴스의 로컬 캐시를 무효화한다.
+    // v4 발급 사용자 Set 의 만료 시각도 새 종료 시각으로 바꾼다. (기존 종료 시각에 지워지면 같은 사용자가 다시 발급받을 수 있음)
+    @Transactional
+    public CouponPolicy updateEndTime(Long id, LocalDateTime endTime) {
+        CouponPolicy couponPolicy = couponPolicyRepository.findById(id)
+                .orElseThrow(() -> new CouponPolicyNotFoundException("쿠폰 정책을 찾을 수 없습니다."));
+        if (endTime.isBefore(couponPolicy.getStartTime())) {
+            throw new IllegalArgumentException("종료 시간은 시작 시간 이후여야 합니다.");
         }
 
-        return couponPolicyRepository.findById(id)
+        couponPolicy.setEndTime(endTime);
+        CouponPolicy savedPolicy = couponPolicyRepository.saveAndFlush(couponPolicy); // 캐시를 바꾸기 전에 DB 반영을 확인
+        afterCommit(() -> {
+            savePolicyToRedis(savedPolicy);
+            expireIssuedUsers(savedPolicy);
+            couponPolicyCache.publishInvalidation(savedPolicy.getId());
+        });
+        return savedPolicy;
+    }
+
+    // 수량 추가 - DB 총 수량과 Redis 남은 수량을 늘리고, 소진 표시를 모든 인스턴스에서 지운다.
+    // Redis 수량과 캐시, 소진 표시는 커밋된 뒤에 바꾼다. (롤백되면 DB 에 없는 수량이 발급되므로)
+    @Transactional
+    public CouponPolicy topUpQuantity(Long id, int quantity) {
+        CouponPolicy couponPolicy = couponPolicyRepository.findById(id)
                 .orElseThrow(() -> new CouponPolicyNotFoundException("쿠폰 정책을 찾을 수 없습니다."));
+
+        couponPolicy.increaseTotalQuantity(quantity);
+        CouponPolicy savedPolicy = couponPolicyRepository.saveAndFlush(couponPolicy);
+        afterCommit(() -> {
+            redissonClient.getAtomicLong(COUPON_QUANTITY_KEY + id).addAndGet(quantity);
+            savePolicyToRedis(savedPolicy);
+            couponPolicyCache.publishInvalidation(id);
+            couponSoldOutService.markReopened(id);
+        });
+        return savedPolicy;
     }
 
     @Transactional(readOnly = true)
     public List<CouponPolicy> getAllCouponPolicies() {
         return couponPolicyRepository.findAll();
     }
+
+    // 트랜잭션 안이면 커밋된 뒤에, 아니면 바로 실행한다.
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
+    private CouponPolicy findPolicyInRedis(Long id) {
+        RBucket<String> bucket = redissonClient.getBucket(COUPON_POLICY_KEY + id);
+        String policyJson = bucket.get();
+        if (policyJson == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(policyJson, CouponPolicy.class);
+        } catch (JsonProcessingException e) {
+            log.error("쿠폰 정책 정보를 JSON으로 파싱하는 중 오류가 발생했습니다.", e);
+            return null;
+        }
+    }
+
+    // Redis 저장에 실패해도 DB 에는 반영되어 있으므로 조회는 DB 로 이어진다.
+    private void savePolicyToRedis(CouponPolicy couponPolicy) {
+        try {
+            String policyJson = objectMapper.writeValueAsString(CouponPolicyDto.Response.from(couponPolicy));
+            RBucket<String> bucket = redissonClient.getBucket(COUPON_POLICY_KEY + couponPolicy.getId());
+            bucket.set(policyJson);
+        } catch (Exception e) {
+            log.error("쿠폰 정책을 Redis 에 저장하지 못했습니다: {}", couponPolicy.getId(), e);
+        }
+    }
+
+    // 발급받은 사용자가 없으면 키가 없으므로 아무것도 바뀌지 않는다. (다음 발급 때 스크립트가 PEXPIREAT)
+    private void expireIssuedUsers(CouponPolicy couponPolicy) {
+        try {
+            redissonClient.getSet(COUPON_ISSUED_KEY + couponPolicy.getId())
+                    .expire(couponPolicy.getEndTime().atZone(ZoneId.systemDefault()).toInstant());
+        } catch (Exception e) {
+            log.error("발급 사용자 Set 의 만료 시각을 바꾸지 못했습니다: {}", couponPolicy.getId(), e);
+        }
+    }
+
+    // L2(Redis) hit ratio = hit / (hit + miss), L1 은 CaffeineCacheMetrics(coupon-policy-cache)
+    private void recordRedisLookup(boolean hit) {
+        Counter.builder("coupon.policy.cache.l2")
+                .tag("result", hit ? "hit" : "miss")
+                .register(meterRegistry)
+                .increment();
+    }
 }
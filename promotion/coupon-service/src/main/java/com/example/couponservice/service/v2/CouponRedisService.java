@@ -7,6 +7,7 @@ import com.example.couponservice.domain.CouponPolicy;
 import com.example.couponservice.dto.v1.CouponDto;
 import com.example.couponservice.exception.CouponIssueException;
 import com.example.couponservice.repository.CouponRepository;
+import com.example.couponservice.service.CouponCodeGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RAtomicLong;
@@ -25,6 +26,8 @@ public class CouponRedisService {
     private final RedissonClient redissonClient;
     private final CouponRepository couponRepository;
     private final CouponPolicyService couponPolicyService;
+    private final CouponCodeGenerator couponCodeGenerator;
+    private final CouponSoldOutService couponSoldOutService;
 
     private static final String COUPON_QUANTITY_KEY = "coupon:quantity:";
     private static final String COUPON_LOCK_KEY = "coupon:lock:";
@@ -66,14 +69,18 @@ public class CouponRedisService {
 
             if (remainingQuantity < 0) {
                 atomicQuantity.incrementAndGet();
+                couponSoldOutService.markSoldOut(request.getCouponPolicyId());
                 throw new CouponIssueException("쿠폰이 모두 소진되었습니다.");
             }
+            if (remainingQuantity == 0) { // 마지막 쿠폰
+                couponSoldOutService.markSoldOut(request.getCouponPolicyId());
+            }
 
             // 쿠폰 발급
             return couponRepository.save(Coupon.builder()
                     .couponPolicy(couponPolicy)
                     .userId(UserIdInterceptor.getCurrentUserId())
-                    .couponCode(generateCouponCode())
+                    .couponCode(couponCodeGenerator.generate())
                     .build());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -84,8 +91,4 @@ public class CouponRedisService {
             }
         }
     }
-
-    private String generateCouponCode() {
-        return java.util.UUID.randomUUID().toString().substring(0, 8);
-    }
 }
@@ -0,0 +1,162 @@
+package com.example.couponservice.service.v2;
+
+import com.example.couponservice.dto.v3.CouponDto;
+import com.example.couponservice.exception.CouponIssueException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+쿠폰 정책 소진 여부를 인스턴스마다 메모리에 들고 있는 서비스
+수량(coupon:quantity:{policyId})이 0 이 된 뒤에도 요청마다 락 획득, decrementAndGet, incrementAndGet 으로
+Redis 를 세 번 왕복해야 소진된 것을 알 수 있었다.
+1. 수량이 0 이 된 것을 확인한 인스턴스가 Redis 에서 수량이 0 이하인지 다시 확인하고, 그 시점의 재오픈 버전과 함께 모든 인스턴스에 알린다.
+2. 발급 요청은 컨트롤러에서 로컬 표시만 확인하므로 소진된 정책은 트랜잭션/락/Redis 없이 바로 거절된다.
+3. 관리자가 수량을 추가하면 재오픈 버전(coupon:reopen-version:{policyId})을 올리고 모든 인스턴스의 표시를 지운다.
+- 소진 알림은 마지막으로 본 재오픈 버전보다 오래된 것이면 무시하므로, 알림 순서가 바뀌어도 재오픈된 정책이 다시 막히지 않는다.
+- 재오픈 알림을 놓친 경우를 대비해 표시된 정책만 VERIFY_INTERVAL_MILLIS 마다 백그라운드에서 수량을 확인한다. (요청 경로에서는 확인하지 않음)
+*/
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CouponSoldOutService {
+    private static final String SOLD_OUT_CHANNEL = "coupon-sold-out-channel";
+    private static final String COUPON_QUANTITY_KEY = "coupon:quantity:";
+    private static final String REOPEN_VERSION_KEY = "coupon:reopen-version:";
+    private static final long VERIFY_INTERVAL_MILLIS = 5_000L;
+
+    // KEYS[1]: 남은 수량, KEYS[2]: 재오픈 버전
+    // 수량이 0 이하이면 현재 재오픈 버전을, 아니면 -1 을 반환
+    private static final String SOLD_OUT_VERSION_SCRIPT =
+            "if tonumber(redis.call('GET', KEYS[1]) or '0') > 0 then return -1 end " +
+            "return tonumber(redis.call('GET', KEYS[2]) or '0')";
+
+    private final RedissonClient redissonClient;
+
+    private final Map<Long, Long> soldOutVersions = new ConcurrentHashMap<>(); // 쿠폰 정책 ID -> 소진을 확인한 시점의 재오픈 버전
+    private final Map<Long, Long> reopenVersions = new ConcurrentHashMap<>(); // 쿠폰 정책 ID -> 마지막으로 본 재오픈 버전
+    private ScheduledExecutorService verifier;
+
+    @PostConstruct
+    public void subscribe() {
+        getTopic().addListener(CouponDto.SoldOutEvent.class, (channel, event) -> onEvent(event));
+        verifier = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coupon-sold-out-verify");
+            thread.setDaemon(true);
+            return thread;
+        });
+        verifier.scheduleWithFixedDelay(this::verifySoldOut, VERIFY_INTERVAL_MILLIS, VERIFY_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (verifier != null) {
+            verifier.shutdown();
+        }
+    }
+
+    public boolean isSoldOut(Long policyId) {
+        return soldOutVersions.containsKey(policyId);
+    }
+
+    // 소진된 쿠폰 정책이면 예외 (컨트롤러에서 서비스 호출 전에 사용)
+    public void validateNotSoldOut(Long policyId) {
+        if (isSoldOut(policyId)) {
+            throw new CouponIssueException("쿠폰이 모두 소진되었습니다.");
+        }
+    }
+
+    // 수량이 0 이 된 것을 확인한 요청이 호출 (이미 표시되어 있으면 다시 알리지 않는다)
+    public void markSoldOut(Long policyId) {
+        if (isSoldOut(policyId)) {
+            return;
+        }
+        try {
+            Long version = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                    RScript.Mode.READ_ONLY,
+                    SOLD_OUT_VERSION_SCRIPT,
+                    RScript.ReturnType.INTEGER,
+                    List.of(COUPON_QUANTITY_KEY + policyId, REOPEN_VERSION_KEY + policyId));
+            if (version == null || version < 0) {
+                return; // 그 사이에 수량이 다시 채워짐
+            }
+            if (applySoldOut(policyId, version)) {
+                publish(policyId, true, version);
+            }
+        } catch (Exception e) {
+            log.error("쿠폰 정책 소진 표시 실패: policyId={}", policyId, e);
+        }
+    }
+
+    // 수량을 다시 채운 뒤 호출 (재오픈 버전을 올려서 그 전에 발행된 소진 알림을 모두 무효로 만든다)
+    public void markReopened(Long policyId) {
+        long version = redissonClient.getAtomicLong(REOPEN_VERSION_KEY + policyId).incrementAndGet();
+        applyReopened(policyId, version);
+        publish(policyId, false, version);
+    }
+
+    void onEvent(CouponDto.SoldOutEvent event) {
+        if (event.isSoldOut()) {
+            applySoldOut(event.getPolicyId(), event.getVersion());
+        } else {
+            applyReopened(event.getPolicyId(), event.getVersion());
+        }
+    }
+
+    // 표시된 정책의 수량이 0 보다 크면 재오픈 알림을 놓친 것이므로 표시를 지운다.
+    void verifySoldOut() {
+        for (Long policyId : soldOutVersions.keySet()) {
+            try {
+                if (redissonClient.getAtomicLong(COUPON_QUANTITY_KEY + policyId).get() > 0) {
+                    soldOutVersions.remove(policyId);
+                    log.info("쿠폰 정책 소진 표시 해제 (재오픈 알림 누락): policyId={}", policyId);
+                }
+            } catch (Exception e) {
+                log.warn("쿠폰 정책 소진 여부 확인 실패: policyId={}", policyId, e);
+            }
+        }
+    }
+
+    // 소진 표시와 재오픈은 같은 정책에 대해 드물게 일어나므로 버전 비교와 반영을 한 번에 처리한다.
+    private synchronized boolean applySoldOut(Long policyId, long version) {
+        if (reopenVersions.getOrDefault(policyId, 0L) > version) {
+            return false; // 이미 재오픈된 뒤에 도착한 알림
+        }
+        return soldOutVersions.putIfAbsent(policyId, version) == null;
+    }
+
+    private synchronized void applyReopened(Long policyId, long version) {
+        reopenVersions.merge(policyId, version, Math::max);
+        soldOutVersions.computeIfPresent(policyId, (id, soldOutVersion) -> soldOutVersion < version ? null : soldOutVersion);
+    }
+
+    private void publish(Long policyId, boolean soldOut, long version) {
+        try {
+            getTopic().publish(CouponDto.SoldOutEvent.builder()
+                    .policyId(policyId)
+                    .soldOut(soldOut)
+                    .version(version)
+                    .build());
+        } catch (Exception e) {
+            log.error("쿠폰 정책 소진 상태 발행 실패: policyId={}, soldOut={}", policyId, soldOut, e);
+        }
+    }
+
+    private RTopic getTopic() {
+        return redissonClient.getTopic(SOLD_OUT_CHANNEL, new TypedJsonJacksonCodec(CouponDto.SoldOutEvent.class));
+    }
+}
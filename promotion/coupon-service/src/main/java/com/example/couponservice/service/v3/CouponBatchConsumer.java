@@ -0,0 +1,73 @@
+package com.example.couponservice.service.v3;
+
+import com.example.couponservice.dto.v3.CouponDto;
+import com.example.couponservice.exception.CouponPolicyNotFoundException;
+import com.example.couponservice.service.v2.CouponPolicyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponBatchConsumer {
+    // 쿠폰 발급 요청 메시지를 poll 단위로 묶어서 한 번에 저장한다.
+
+    private final CouponIssueBatchService couponIssueBatchService;
+    private final CouponPolicyService couponPolicyService;
+
+    // 1. poll 에 들어 있는 쿠폰 정책을 정책마다 한 번만 조회 (메시지마다 Redis 에서 정책 JSON 을 다시 읽지 않음)
+    // 2. 유효한 메시지를 한 번의 JDBC 배치로 저장하고, 저장 트랜잭션이 커밋된 뒤에 오프셋을 커밋한다.
+    // 3. 정책이 없거나 내용이 빠진 메시지를 만나면 그 앞까지만 저장하고 BatchListenerFailedException 으로 위치를 알린다.
+    //    에러 핸들러가 앞의 오프셋을 커밋하고 그 메시지만 재시도 없이 DLT 로 보낸 뒤 나머지를 다시 전달한다.
+    //    (리스너가 직접 DLT 로 보내면 저장 실패로 배치를 재시도할 때마다 같은 메시지가 DLT 로 다시 전송됨)
+    // 4. 저장 중 예외가 나면 오프셋을 커밋하지 않고 에러 핸들러가 배치를 재시도한 뒤 DLT 로 보낸다.
+    @KafkaListener(topics = "coupon-issue-requests", groupId = "coupon-service", containerFactory = "couponBatchKafkaListenerContainerFactory",
+            autoStartup = "${coupon.consumer.batch-enabled:true}")
+    public void consumeCouponIssueRequests(List<ConsumerRecord<String, CouponDto.IssueMessage>> records, Acknowledgment acknowledgment) {
+        Set<Long> policyIds = resolvePolicyIds(records);
+
+        List<CouponDto.IssueMessage> messages = new ArrayList<>();
+        for (int index = 0; index < records.size(); index++) {
+            CouponDto.IssueMessage message = records.get(index).value();
+            if (message == null || message.getUserId() == null || !policyIds.contains(message.getPolicyId())) {
+                log.error("Invalid coupon issue request sent to dead letter topic: {}", message);
+                if (!messages.isEmpty()) {
+                    couponIssueBatchService.issueCoupons(messages);
+                }
+                throw new BatchListenerFailedException("Invalid coupon issue request",
+                        new CouponPolicyNotFoundException("쿠폰 정책을 찾을 수 없습니다."), index);
+            }
+            messages.add(message);
+        }
+
+        couponIssueBatchService.issueCoupons(messages);
+        acknowledgment.acknowledge();
+    }
+
+    // 존재하는 쿠폰 정책 ID 만 반환 (Redis, DB 장애 같은 다른 예외는 그대로 던져서 배치를 재시도한다)
+    private Set<Long> resolvePolicyIds(List<ConsumerRecord<String, CouponDto.IssueMessage>> records) {
+        Set<Long> policyIds = new HashSet<>();
+        records.stream()
+                .map(ConsumerRecord::value)
+                .filter(Objects::nonNull)
+                .map(CouponDto.IssueMessage::getPolicyId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(policyId -> {
+                    try {
+                        couponPolicyService.getCouponPolicy(policyId);
+                        policyIds.add(policyId);
+                    } catch (CouponPolicyNotFoundException e) {
+                        log.warn("Coupon policy not found: {}", policyId);
+                    }
+                });
+        return policyIds;
+    }
+}
@@ -16,7 +16,9 @@ public class CouponConsumer {
 
     // CouponProducer에서 쿠폰 발급 요청에 대한 메시지를 쓰게 되고
     // 이 메시지가 쓰여지면 CouponConsumer에서 해당 메시지를 읽어서(consume해서) issueCoupon을 호출한다.
-    @KafkaListener(topics = "coupon-issue-requests", groupId = "coupon-service", containerFactory = "couponKafkaListenerContainerFactory")
+    // 배치 모드(coupon.consumer.batch-enabled=true)에서는 CouponBatchConsumer 가 처리한다.
+    @KafkaListener(topics = "coupon-issue-requests", groupId = "coupon-service", containerFactory = "couponKafkaListenerContainerFactory",
+            autoStartup = "#{!${coupon.consumer.batch-enabled:true}}")
     public void consumeCouponIssueRequest(CouponDto.IssueMessage message) {
         try {
             log.info("Received coupon issue request: {}", message);
@@ -0,0 +1,41 @@
+package com.example.couponservice.service.v3;
+
+import com.example.couponservice.domain.Coupon;
+import com.example.couponservice.dto.v3.CouponDto;
+import com.example.couponservice.repository.CouponPolicyRepository;
+import com.example.couponservice.repository.CouponRepository;
+import com.example.couponservice.service.CouponCodeGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CouponIssueBatchService {
+    private final CouponRepository couponRepository;
+    private final CouponPolicyRepository couponPolicyRepository;
+    private final CouponCodeGenerator couponCodeGenerator;
+
+    // 발급 메시지들을 한 트랜잭션으로 저장한다. (하나라도 실패하면 모두 롤백되고 배치 전체가 재시도된다)
+    // Coupon 키는 pooled 시퀀스라서 saveAll 이 hibernate.jdbc.batch_size 단위의 JDBC 배치로 INSERT 된다.
+    @Transactional
+    public void issueCoupons(List<CouponDto.IssueMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        List<Coupon> coupons = messages.stream()
+                .map(message -> Coupon.builder()
+                        .couponPolicy(couponPolicyRepository.getReferenceById(message.getPolicyId())) // 정책은 CouponBatchConsumer 에서 확인했으므로 조회하지 않고 참조만
+                        .userId(message.getUserId())
+                        .couponCode(couponCodeGenerator.generate())
+                        .build())
+                .toList();
+        couponRepository.saveAll(coupons);
+        log.info("Coupons issued in batch: count={}", coupons.size());
+    }
+}
@@ -8,7 +8,9 @@ import com.example.couponservice.dto.v3.CouponDto;
 import com.example.couponservice.exception.CouponIssueException;
 import com.example.couponservice.exception.CouponNotFoundException;
 import com.example.couponservice.repository.CouponRepository;
+import com.example.couponservice.service.CouponCodeGenerator;
 import com.example.couponservice.service.v2.CouponPolicyService;
+import com.example.couponservice.service.v2.CouponSoldOutService;
 import com.example.couponservice.service.v2.CouponStateService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,7 +21,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 @Service("couponServiceV3")
@@ -36,6 +37,8 @@ public class CouponService {
     private final CouponProducer couponProducer;
     private final CouponStateService couponStateService;
     private final CouponPolicyService couponPolicyService;
+    private final CouponCodeGenerator couponCodeGenerator;
+    private final CouponSoldOutService couponSoldOutService;
 
     /*
     실제 사용자가 쿠폰 서비스에서 엄청나게 많은 requestCouponIssue를 요청을 받더라도
@@ -76,8 +79,12 @@ public class CouponService {
 
             if (remainingQuantity < 0) {
                 atomicQuantity.incrementAndGet();
+                couponSoldOutService.markSoldOut(request.getCouponPolicyId());
                 throw new CouponIssueException("쿠폰이 모두 소진되었습니다.");
             }
+            if (remainingQuantity == 0) { // 마지막 쿠폰
+                couponSoldOutService.markSoldOut(request.getCouponPolicyId());
+            }
 
             // Kafka로 쿠폰 발급 요청 전송 - 비동기 이기 때문에 결과를 기다리지 않고 다음 로직으로 넘어간다. 그래서 finally에서 락을 해제한다.
             couponProducer.sendCouponIssueRequest(
@@ -109,7 +116,7 @@ public class CouponService {
             Coupon coupon = couponRepository.save(Coupon.builder()
                     .couponPolicy(policy)
                     .userId(message.getUserId())
-                    .couponCode(generateCouponCode())
+                    .couponCode(couponCodeGenerator.generate())
                     .build());
 
             log.info("Coupon issued successfully: policyId={}, userId={}", message.getPolicyId(), message.getUserId());
@@ -145,8 +152,4 @@ public class CouponService {
 
         return coupon;
     }
-
-    private String generateCouponCode() {
-        return UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.example.couponservice.service.v4;
+
+import com.example.couponservice.aop.CouponMetered;
+import com.example.couponservice.config.UserIdInterceptor;
+import com.example.couponservice.domain.CouponPolicy;
+import com.example.couponservice.dto.v3.CouponDto;
+import com.example.couponservice.exception.CouponIssueException;
+import com.example.couponservice.service.v2.CouponPolicyService;
+import com.example.couponservice.service.v2.CouponSoldOutService;
+import com.example.couponservice.service.v3.CouponProducer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/*
+v2, v3 는 이미 원자적인 RAtomicLong 차감을 쿠폰 정책별 RLock 으로 한 번 더 감싸고 있어서
+같은 쿠폰 정책의 발급 요청이 모두 한 줄로 서게 된다. (락을 얻기까지 최대 3초 대기)
+v4 는 발급 기간 확인, 1인 1매 확인, 수량 차감, 발급한 사용자 기록을 Lua 스크립트 하나로 Redis 에서 처리하므로 락이 필요 없다.
+실제 쿠폰 저장은 v3 와 같이 Kafka 로 보내 CouponBatchConsumer (coupon.consumer.batch-enabled=false 이면 CouponConsumer) 가 처리한다.
+Kafka 전송에 실패하면 스크립트가 반영한 수량 차감과 발급 기록을 되돌려서 수량이 사라지거나 사용자가 다시 발급받지 못하는 일이 없게 한다.
+버전별 초당 발급 수는 coupon.operation.success{version="v2|v3|v4"} 지표와 CouponIssueVersionLoadTest 로 비교한다.
+*/
+@Service("couponServiceV4")
+@RequiredArgsConstructor
+@Slf4j
+public class CouponService {
+    private static final String COUPON_QUANTITY_KEY = "coupon:quantity:";
+    private static final String COUPON_ISSUED_KEY = "coupon:issued:"; // 쿠폰 정책별로 발급받은 userId 를 담는 Set
+
+    // 스크립트 결과 - 0 이상이면 남은 수량
+    private static final long SOLD_OUT = -1L;
+    private static final long ALREADY_ISSUED = -2L;
+    private static final long INVALID_PERIOD = -3L;
+
+    // KEYS[1]: 남은 수량, KEYS[2]: 발급받은 사용자 Set
+    // ARGV[1]: userId, ARGV[2]: 현재 시각, ARGV[3]: 발급 시작 시각, ARGV[4]: 발급 종료 시각 (epoch millis)
+    // 수량 키가 없으면 v2, v3 의 decrementAndGet 과 같이 소진된 것으로 본다.
+    private static final String ISSUE_SCRIPT =
+            "local now = tonumber(ARGV[2]) " +
+            "if now < tonumber(ARGV[3]) or now > tonumber(ARGV[4]) then return -3 end " +
+            "if redis.call('SISMEMBER', KEYS[2], ARGV[1]) == 1 then return -2 end " +
+            "local quantity = tonumber(redis.call('GET', KEYS[1]) or '0') " +
+            "if quantity <= 0 then return -1 end " +
+            "local remaining = redis.call('DECR', KEYS[1]) " +
+            "redis.call('SADD', KEYS[2], ARGV[1]) " +
+            "redis.call('PEXPIREAT', KEYS[2], ARGV[4]) " + // 발급 기간이 끝나면 필요 없는 Set
+            "return remaining";
+
+    // 발급 기록이 남아 있을 때만 지우고 수량을 되돌린다. (같은 요청을 두 번 되돌려도 한 번만 반영, 결과: 되돌린 뒤 남은 수량 또는 -1)
+    private static final String RESTORE_SCRIPT =
+            "if redis.call('SREM', KEYS[2], ARGV[1]) == 1 then return redis.call('INCR', KEYS[1]) end " +
+            "return -1";
+
+    private final RedissonClient redissonClient;
+    private final CouponProducer couponProducer;
+    private final CouponPolicyService couponPolicyService;
+    private final CouponSoldOutService couponSoldOutService;
+
+    @CouponMetered(version = "v4")
+    public void requestCouponIssue(CouponDto.IssueRequest request) {
+        Long policyId = request.getCouponPolicyId();
+        Long userId = UserIdInterceptor.getCurrentUserId();
+        CouponPolicy couponPolicy = couponPolicyService.getCouponPolicy(policyId);
+
+        Long result = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                ISSUE_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                List.of(COUPON_QUANTITY_KEY + policyId, COUPON_ISSUED_KEY + policyId),
+                String.valueOf(userId),
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(toEpochMilli(couponPolicy.getStartTime())),
+                String.valueOf(toEpochMilli(couponPolicy.getEndTime())));
+
+        if (result == INVALID_PERIOD) {
+            throw new IllegalStateException("쿠폰 발급 기간이 아닙니다.");
+        }
+        if (result == ALREADY_ISSUED) {
+            throw new CouponIssueException("이미 발급받은 쿠폰입니다.");
+        }
+        if (result == SOLD_OUT) {
+            couponSoldOutService.markSoldOut(policyId);
+            throw new CouponIssueException("쿠폰이 모두 소진되었습니다.");
+        }
+        if (result == 0) { // 마지막 쿠폰
+            couponSoldOutService.markSoldOut(policyId);
+        }
+
+        // Kafka로 쿠폰 발급 요청 전송 - 락을 잡고 있지 않으므로 전송 결과를 기다리지 않고, 실패하면 콜백에서 되돌린다.
+        CouponDto.IssueMessage message = CouponDto.IssueMessage.builder()
+                .policyId(policyId)
+                .userId(userId)
+                .build();
+        try {
+            couponProducer.sendCouponIssueRequest(message)
+                    .whenComplete((sendResult, ex) -> {
+                        if (ex != null) {
+                            restoreIssue(policyId, userId);
+                        }
+                    });
+        } catch (RuntimeException e) { // 전송 전에 실패 (메타데이터 조회 시간 초과 등)
+            restoreIssue(policyId, userId);
+            throw new CouponIssueException("쿠폰 발급 요청을 처리하지 못했습니다. 잠시 후 다시 시도해주세요.", e);
+        }
+    }
+
+    // 전송에 실패한 요청의 수량 차감과 발급 기록을 되돌린다. (실패한 경우에만 실행되므로 producer 콜백에서 바로 처리)
+    private void restoreIssue(Long policyId, Long userId) {
+        try {
+            Long remaining = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                    RScript.Mode.READ_WRITE,
+                    RESTORE_SCRIPT,
+                    RScript.ReturnType.INTEGER,
+                    List.of(COUPON_QUANTITY_KEY + policyId, COUPON_ISSUED_KEY + policyId),
+                    String.valueOf(userId));
+            log.warn("Restored coupon issue after send failure: policyId={}, userId={}, remaining={}", policyId, userId, remaining);
+            if (remaining != null && remaining == 1) { // 소진 표시가 된 뒤에 수량이 생김
+                couponSoldOutService.markReopened(policyId);
+            }
+        } catch (Exception e) {
+            log.error("Failed to restore coupon issue: policyId={}, userId={}", policyId, userId, e);
+        }
+    }
+
+    private long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
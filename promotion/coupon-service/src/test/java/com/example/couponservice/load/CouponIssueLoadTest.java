@@ -0,0 +1,124 @@
+package com.example.couponservice.load;
+
+import com.example.couponservice.domain.Coupon;
+import com.example.couponservice.domain.CouponPolicy;
+import com.example.couponservice.dto.v3.CouponDto;
+import com.example.couponservice.repository.CouponPolicyRepository;
+import com.example.couponservice.repository.CouponRepository;
+import com.example.couponservice.service.CouponCodeGenerator;
+import com.example.couponservice.service.v3.CouponIssueBatchService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 쿠폰 저장 방식, 쿠폰 코드 생성 방식별 처리량을 비교하는 부하 테스트
+ * - ./gradlew loadTest 로 실행 (기본 test 태스크에서는 제외)
+ * - 저장: 메시지마다 트랜잭션 하나로 save (CouponConsumer) vs poll 단위 saveAll (CouponBatchConsumer, pooled 시퀀스 + JDBC 배치)
+ * - 코드: UUID 를 잘라 쓰는 이전 방식 vs CouponCodeGenerator
+ */
+@Tag("load")
+@DataJpaTest(properties = {"spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.format_sql=false"})
+@Import({CouponIssueBatchService.class, CouponCodeGenerator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // 저장 방식마다 트랜잭션 경계를 직접 정하도록 테스트 트랜잭션을 쓰지 않음
+class CouponIssueLoadTest {
+    private static final int COUPONS = 10_000;
+    private static final int BATCH_SIZE = 100; // MAX_POLL_RECORDS
+
+    @Autowired
+    private CouponRepository couponRepository;
+    @Autowired
+    private CouponPolicyRepository couponPolicyRepository;
+    @Autowired
+    private CouponIssueBatchService couponIssueBatchService;
+    @Autowired
+    private CouponCodeGenerator couponCodeGenerator;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("poll 단위 일괄 저장이 메시지마다 저장하는 것보다 초당 INSERT 수가 많음")
+    void insertThroughput() {
+        CouponPolicy policy = couponPolicyRepository.save(policy());
+        List<CouponDto.IssueMessage> messages = LongStream.rangeClosed(1, COUPONS)
+                .mapToObj(userId -> CouponDto.IssueMessage.builder().policyId(policy.getId()).userId(userId).build())
+                .toList();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        double perMessage = measure(COUPONS, () -> messages.forEach(message -> transactionTemplate.executeWithoutResult(status ->
+                couponRepository.save(Coupon.builder()
+                        .couponPolicy(policy)
+                        .userId(message.getUserId())
+                        .couponCode(couponCodeGenerator.generate())
+                        .build()))));
+        double batched = measure(COUPONS, () -> {
+            for (int from = 0; from < COUPONS; from += BATCH_SIZE) {
+                couponIssueBatchService.issueCoupons(messages.subList(from, Math.min(from + BATCH_SIZE, COUPONS)));
+            }
+        });
+
+        System.out.printf("per message: %.0f inserts/s, batched(%d): %.0f inserts/s%n", perMessage, BATCH_SIZE, batched);
+        assertThat(couponRepository.countByCouponPolicyId(policy.getId())).isEqualTo(2L * COUPONS);
+        assertThat(batched).isGreaterThan(perMessage);
+    }
+
+    @Test
+    @DisplayName("CouponCodeGenerator 가 UUID 를 잘라 쓰는 것보다 빠름")
+    void couponCodeThroughput() {
+        int codes = 1_000_000;
+        measure(codes, () -> generateUuidCodes(codes)); // 워밍업
+        measure(codes, () -> generateCodes(codes));
+
+        double uuid = measure(codes, () -> generateUuidCodes(codes));
+        double generator = measure(codes, () -> generateCodes(codes));
+
+        System.out.printf("UUID: %.0f codes/s, CouponCodeGenerator: %.0f codes/s%n", uuid, generator);
+        assertThat(generator).isGreaterThan(uuid);
+    }
+
+    private void generateUuidCodes(int count) {
+        for (int i = 0; i < count; i++) {
+            UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
+        }
+    }
+
+    private void generateCodes(int count) {
+        for (int i = 0; i < count; i++) {
+            couponCodeGenerator.generate();
+        }
+    }
+
+    // count 건을 처리하는 작업의 초당 처리 수를 반환
+    private double measure(int count, Runnable runnable) {
+        long startedAt = System.nanoTime();
+        runnable.run();
+        return count / ((System.nanoTime() - startedAt) / 1_000_000_000.0);
+    }
+
+    private CouponPolicy policy() {
+        return CouponPolicy.builder()
+                .name("부하 테스트 쿠폰")
+                .discountType(CouponPolicy.DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(COUPONS * 2)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+    }
+}
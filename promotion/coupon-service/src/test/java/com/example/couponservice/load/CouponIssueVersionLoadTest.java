@@ -0,0 +1,230 @@
+package com.example.couponservice.load;
+
+import com.example.couponservice.config.UserIdInterceptor;
+import com.example.couponservice.domain.CouponPolicy;
+import com.example.couponservice.dto.v3.CouponPolicyDto;
+import com.example.couponservice.repository.CouponRepository;
+import com.example.couponservice.service.v2.CouponPolicyService;
+import com.example.couponservice.service.v2.CouponRedisService;
+import com.example.couponservice.service.v3.CouponProducer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 같은 쿠폰 발급 부하를 v2, v3, v4 발급 경로에 주고 초당 발급 수를 비교하는 부하 테스트
+ * - ./gradlew loadTest --tests '*CouponIssueVersionLoadTest' 로 실행 (-Pload.requests, -Pload.concurrency 로 조정)
+ * - Redis 는 embedded-redis 로 띄우고, Kafka 전송(CouponProducer)은 바로 성공하는 mock 으로 바꿔서 발급 경로의 Redis 처리만 비교한다.
+ *   (브로커가 없으므로 쿠폰 리스너는 연결 경고만 남기고 메시지를 받지 않음)
+ *   (v2 는 요청 스레드에서 쿠폰을 저장하므로 H2 INSERT 가 포함됨)
+ * - 가상 사용자 concurrency 명이 서로 다른 userId 로 1장씩 요청하고, 수량은 요청 수와 같게 해서 모든 요청이 발급 대상이 되게 한다.
+ */
+@Tag("load")
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+class CouponIssueVersionLoadTest {
+    private static final int REQUESTS = Integer.getInteger("load.requests", 5000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 64);
+
+    private static final int REDIS_PORT = freePort();
+    private static RedisServer redisServer;
+
+    @Autowired
+    private CouponPolicyService couponPolicyService;
+    @Autowired
+    private CouponRedisService couponRedisService;
+    @Autowired
+    private com.example.couponservice.service.v3.CouponService couponServiceV3;
+    @Autowired
+    private com.example.couponservice.service.v4.CouponService couponServiceV4;
+    @Autowired
+    private CouponRepository couponRepository;
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @MockBean
+    private CouponProducer couponProducer;
+
+    private final UserIdInterceptor userIdInterceptor = new UserIdInterceptor();
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", () -> "localhost");
+        registry.add("spring.data.redis.port", () -> REDIS_PORT);
+    }
+
+    // 컨텍스트(Redisson)가 뜨기 전에 Redis 를 먼저 띄운다.
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("v2, v3, v4 에 같은 부하를 주고 초당 발급 수, 응답 지연, 초과 발급 비교")
+    void compareIssueThroughput() throws Exception {
+        when(couponProducer.sendCouponIssueRequest(any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        List<Report> reports = new ArrayList<>();
+        for (String version : List.of("v2", "v3", "v4")) {
+            reports.add(run(version));
+        }
+
+        System.out.printf("requests=%d, concurrency=%d%n", REQUESTS, CONCURRENCY);
+        System.out.printf("%-4s %8s %8s %12s %8s %8s %8s %8s%n",
+                "ver", "issued", "failed", "issued/s", "p50(ms)", "p95(ms)", "p99(ms)", "redis");
+        reports.forEach(Report::print);
+
+        for (Report report : reports) {
+            assertThat(report.redisRemaining).as("%s redis remaining", report.version).isGreaterThanOrEqualTo(0L);
+            assertThat(report.issued + report.redisRemaining).as("%s issued + remaining", report.version).isEqualTo(REQUESTS);
+        }
+        Report v4 = reports.get(2);
+        assertThat(v4.throughput).isGreaterThan(reports.get(1).throughput); // 락이 없는 v4 가 v3 보다 빠름
+    }
+
+    private Report run(String version) throws Exception {
+        CouponPolicy policy = couponPolicyService.createCouponPolicy(policyRequest(version));
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger issued = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        ExecutorService users = Executors.newFixedThreadPool(CONCURRENCY);
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            int index = i;
+            users.submit(() -> {
+                long requestStartedAt = System.nanoTime();
+                try {
+                    issue(version, policy.getId(), index + 1L);
+                    issued.incrementAndGet();
+                } catch (Exception e) {
+                    failed.incrementAndGet(); // 락 대기 시간 초과 등
+                } finally {
+                    latencies[index] = System.nanoTime() - requestStartedAt;
+                }
+            });
+        }
+        users.shutdown();
+        assertThat(users.awaitTermination(10, TimeUnit.MINUTES)).isTrue();
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+
+        long redisRemaining = redissonClient.getAtomicLong("coupon:quantity:" + policy.getId()).get();
+        if ("v2".equals(version)) {
+            assertThat(couponRepository.countByCouponPolicyId(policy.getId())).isEqualTo((long) issued.get());
+        }
+        return new Report(version, issued.get(), failed.get(), issued.get() / seconds, latencies, redisRemaining);
+    }
+
+    // 컨트롤러와 같이 UserIdInterceptor 로 요청 스레드에 userId 를 넣고 호출한다.
+    private void issue(String version, Long policyId, Long userId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-USER-ID", String.valueOf(userId));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        userIdInterceptor.preHandle(request, response, null);
+        try {
+            switch (version) {
+                case "v2" -> couponRedisService.issueCoupon(com.example.couponservice.dto.v1.CouponDto.IssueRequest.builder()
+                        .couponPolicyId(policyId)
+                        .build());
+                case "v3" -> couponServiceV3.requestCouponIssue(com.example.couponservice.dto.v3.CouponDto.IssueRequest.builder()
+                        .couponPolicyId(policyId)
+                        .build());
+                default -> couponServiceV4.requestCouponIssue(com.example.couponservice.dto.v3.CouponDto.IssueRequest.builder()
+                        .couponPolicyId(policyId)
+                        .build());
+            }
+        } finally {
+            userIdInterceptor.afterCompletion(request, response, null, null);
+        }
+    }
+
+    private CouponPolicyDto.CreateRequest policyRequest(String version) {
+        return CouponPolicyDto.CreateRequest.builder()
+                .name("부하 테스트 쿠폰 " + version)
+                .discountType(CouponPolicy.DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(REQUESTS)
+                .startTime(LocalDateTime.now().minusMinutes(1))
+                .endTime(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Report {
+        private final String version;
+        private final int issued;
+        private final int failed;
+        private final double throughput;
+        private final long[] sortedLatencies;
+        private final long redisRemaining;
+
+        Report(String version, int issued, int failed, double throughput, long[] latencies, long redisRemaining) {
+            this.version = version;
+            this.issued = issued;
+            this.failed = failed;
+            this.throughput = throughput;
+            this.sortedLatencies = latencies.clone();
+            Arrays.sort(this.sortedLatencies);
+            this.redisRemaining = redisRemaining;
+        }
+
+        void print() {
+            System.out.printf("%-4s %8d %8d %12.0f %8.1f %8.1f %8.1f %8d%n",
+                    version, issued, failed, throughput, percentile(0.50), percentile(0.95), percentile(0.99), redisRemaining);
+        }
+
+        private double percentile(double p) {
+            int index = Math.max((int) Math.ceil(p * sortedLatencies.length) - 1, 0);
+            return sortedLatencies[index] / 1_000_000.0;
+        }
+    }
+}
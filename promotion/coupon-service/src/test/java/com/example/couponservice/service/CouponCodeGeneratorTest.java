@@ -0,0 +1,87 @@
+package com.example.couponservice.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CouponCodeGeneratorTest {
+
+    private final CouponCodeGenerator couponCodeGenerator = new CouponCodeGenerator();
+
+    @Test
+    @DisplayName("쿠폰 코드 생성 - 12자리 base32 코드가 중복 없이 생성됨")
+    void generate_Unique() {
+        // Given
+        Set<String> codes = new HashSet<>();
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            codes.add(couponCodeGenerator.generate());
+        }
+
+        // Then
+        assertThat(codes).hasSize(100_000);
+        assertThat(codes).allMatch(code -> code.matches("[0-9A-HJKMNP-TV-Z]{12}"));
+    }
+
+    @Test
+    @DisplayName("쿠폰 코드 생성 - 노드 ID 가 다르면 앞자리가 달라 다른 인스턴스와 겹치지 않음")
+    void generate_NodePrefix() {
+        // Given
+        CouponCodeGenerator otherNode = new CouponCodeGenerator();
+        ReflectionTestUtils.setField(otherNode, "nodeId", 1L);
+
+        // When
+        String code = couponCodeGenerator.generate();
+        String otherCode = otherNode.generate();
+
+        // Then
+        assertThat(code.substring(0, 2)).isEqualTo("00");
+        assertThat(otherCode.substring(0, 2)).isEqualTo("01");
+    }
+
+    @Test
+    @DisplayName("노드 ID 검증 실패 - 범위 초과")
+    void validateNodeId_Fail_OutOfRange() {
+        // Given
+        ReflectionTestUtils.setField(couponCodeGenerator, "nodeId", 1024L);
+        ReflectionTestUtils.setField(couponCodeGenerator, "activeProfiles", "local");
+
+        // When & Then
+        assertThatThrownBy(couponCodeGenerator::validateNodeId)
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("노드 ID 검증 실패 - local 이 아닌 프로필에서 설정하지 않음")
+    void validateNodeId_Fail_UnsetOutsideLocal() {
+        // Given
+        ReflectionTestUtils.setField(couponCodeGenerator, "nodeId", -1L);
+        ReflectionTestUtils.setField(couponCodeGenerator, "activeProfiles", "prod");
+
+        // When & Then
+        assertThatThrownBy(couponCodeGenerator::validateNodeId)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("coupon.code.node-id 가 설정되지 않았습니다.");
+    }
+
+    @Test
+    @DisplayName("노드 ID 검증 - local 프로필에서 설정하지 않으면 0 사용")
+    void validateNodeId_UnsetLocal() {
+        // Given
+        ReflectionTestUtils.setField(couponCodeGenerator, "nodeId", -1L);
+        ReflectionTestUtils.setField(couponCodeGenerator, "activeProfiles", "local");
+
+        // When
+        couponCodeGenerator.validateNodeId();
+
+        // Then
+        assertThat(couponCodeGenerator.generate().substring(0, 2)).isEqualTo("00");
+    }
+}
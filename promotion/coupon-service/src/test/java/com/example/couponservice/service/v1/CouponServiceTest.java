@@ -7,6 +7,7 @@ import com.example.couponservice.dto.v1.CouponDto;
 import com.example.couponservice.exception.CouponNotFoundException;
 import com.example.couponservice.repository.CouponPolicyRepository;
 import com.example.couponservice.repository.CouponRepository;
+import com.example.couponservice.service.CouponCodeGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
@@ -35,6 +37,9 @@ class CouponServiceTest {
     @Mock
     private CouponPolicyRepository couponPolicyRepository;
 
+    @Spy
+    private CouponCodeGenerator couponCodeGenerator = new CouponCodeGenerator();
+
     private CouponPolicy couponPolicy;
     private Coupon coupon;
     private static final Long TEST_USER_ID = 1L;
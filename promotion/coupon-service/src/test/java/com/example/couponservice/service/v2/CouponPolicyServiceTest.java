@@ -0,0 +1,236 @@
+package com.example.couponservice.service.v2;
+
+import com.example.couponservice.domain.CouponPolicy;
+import com.example.couponservice.dto.v3.CouponPolicyDto;
+import com.example.couponservice.exception.CouponPolicyNotFoundException;
+import com.example.couponservice.repository.CouponPolicyRepository;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RBucket;
+import org.redisson.api.RSet;
+import org.redisson.api.RedissonClient;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponPolicyServiceTest {
+
+    @InjectMocks
+    private CouponPolicyService couponPolicyService;
+
+    @Mock
+    private CouponPolicyRepository couponPolicyRepository;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private CouponPolicyCache couponPolicyCache;
+
+    @Mock
+    private CouponSoldOutService couponSoldOutService;
+
+    @Mock
+    private RBucket<Object> bucket;
+
+    @Mock
+    private RAtomicLong atomicLong;
+
+    @Mock
+    private RSet<Object> issuedUsers;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CouponPolicy couponPolicy;
+    private static final Long TEST_POLICY_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        couponPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .name("테스트 쿠폰")
+                .discountType(CouponPolicy.DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(100)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+    }
+
+    @Test
+    @DisplayName("쿠폰 정책 조회 - 로컬 캐시에 있으면 Redis 를 조회하지 않음")
+    void getCouponPolicy_LocalCacheHit() {
+        // Given
+        when(couponPolicyCache.get(TEST_POLICY_ID)).thenReturn(couponPolicy);
+
+        // When
+        CouponPolicy result = couponPolicyService.getCouponPolicy(TEST_POLICY_ID);
+
+        // Then
+        assertThat(result).isSameAs(couponPolicy);
+        verifyNoInteractions(redissonClient, couponPolicyRepository);
+    }
+
+    @Test
+    @DisplayName("쿠폰 정책 조회 - Redis 에서 찾으면 로컬 캐시에 보관")
+    void getCouponPolicy_RedisHit() throws Exception {
+        // Given
+        String policyJson = objectMapper.writeValueAsString(CouponPolicyDto.Response.from(couponPolicy));
+        when(redissonClient.getBucket("coupon:policy:1")).thenReturn(bucket);
+        when(bucket.get()).thenReturn(policyJson);
+
+        // When
+        CouponPolicy result = couponPolicyService.getCouponPolicy(TEST_POLICY_ID);
+
+        // Then
+        assertThat(result.getName()).isEqualTo("테스트 쿠폰");
+        verify(couponPolicyCache).put(result);
+        verifyNoInteractions(couponPolicyRepository);
+        assertThat(meterRegistry.counter("coupon.policy.cache.l2", "result", "hit").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("쿠폰 정책 조회 - Redis 에 없으면 DB 에서 읽어 Redis 와 로컬 캐시에 다시 넣음")
+    void getCouponPolicy_WriteBackOnMiss() {
+        // Given
+        when(redissonClient.getBucket("coupon:policy:1")).thenReturn(bucket);
+        when(bucket.get()).thenReturn(null);
+        when(couponPolicyRepository.findById(TEST_POLICY_ID)).thenReturn(Optional.of(couponPolicy));
+
+        // When
+        CouponPolicy result = couponPolicyService.getCouponPolicy(TEST_POLICY_ID);
+
+        // Then
+        assertThat(result).isSameAs(couponPolicy);
+        verify(bucket).set(anyString());
+        verify(couponPolicyCache).put(couponPolicy);
+        assertThat(meterRegistry.counter("coupon.policy.cache.l2", "result", "miss").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("쿠폰 정책 조회 실패 - DB 에도 없음")
+    void getCouponPolicy_NotFound() {
+        // Given
+        when(redissonClient.getBucket("coupon:policy:1")).thenReturn(bucket);
+        when(couponPolicyRepository.findById(TEST_POLICY_ID)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> couponPolicyService.getCouponPolicy(TEST_POLICY_ID))
+                .isInstanceOf(CouponPolicyNotFoundException.class);
+        verify(couponPolicyCache, never()).put(any());
+    }
+
+    @Test
+    @DisplayName("종료 시간 변경 - DB, Redis 갱신 후 모든 인스턴스의 로컬 캐시 무효화")
+    void updateEndTime() {
+        // Given
+        LocalDateTime endTime = LocalDateTime.now().plusDays(7);
+        when(couponPolicyRepository.findById(TEST_POLICY_ID)).thenReturn(Optional.of(couponPolicy));
+        when(couponPolicyRepository.saveAndFlush(couponPolicy)).thenReturn(couponPolicy);
+        when(redissonClient.getBucket("coupon:policy:1")).thenReturn(bucket);
+        when(redissonClient.getSet("coupon:issued:1")).thenReturn(issuedUsers);
+
+        // When
+        CouponPolicy result = couponPolicyService.updateEndTime(TEST_POLICY_ID, endTime);
+
+        // Then
+        assertThat(result.getEndTime()).isEqualTo(endTime);
+        verify(bucket).set(anyString());
+        verify(issuedUsers).expire(endTime.atZone(ZoneId.systemDefault()).toInstant());
+        verify(couponPolicyCache).publishInvalidation(TEST_POLICY_ID);
+    }
+
+    @Test
+    @DisplayName("발급 종료 시간 변경 - 트랜잭션 안에서는 커밋된 뒤에 Redis 와 캐시를 바꿈")
+    void updateEndTime_AfterCommit() {
+        // Given
+        LocalDateTime endTime = LocalDateTime.now().plusDays(7);
+        when(couponPolicyRepository.findById(TEST_POLICY_ID)).thenReturn(Optional.of(couponPolicy));
+        when(couponPolicyRepository.saveAndFlush(couponPolicy)).thenReturn(couponPolicy);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            couponPolicyService.updateEndTime(TEST_POLICY_ID, endTime);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Then - 롤백되면 Redis 와 캐시는 그대로
+            verifyNoInteractions(redissonClient, couponPolicyCache);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("수량 추가 - DB 총 수량과 Redis 남은 수량을 늘리고 모든 인스턴스의 소진 표시를 지움")
+    void topUpQuantity() {
+        // Given
+        when(couponPolicyRepository.findById(TEST_POLICY_ID)).thenReturn(Optional.of(couponPolicy));
+        when(couponPolicyRepository.saveAndFlush(couponPolicy)).thenReturn(couponPolicy);
+        when(redissonClient.getAtomicLong("coupon:quantity:1")).thenReturn(atomicLong);
+        when(redissonClient.getBucket("coupon:policy:1")).thenReturn(bucket);
+
+        // When
+        CouponPolicy result = couponPolicyService.topUpQuantity(TEST_POLICY_ID, 50);
+
+        // Then
+        assertThat(result.getTotalQuantity()).isEqualTo(150);
+        verify(atomicLong).addAndGet(50L);
+        verify(couponPolicyCache).publishInvalidation(TEST_POLICY_ID);
+        verify(couponSoldOutService).markReopened(TEST_POLICY_ID);
+    }
+
+    @Test
+    @DisplayName("수량 추가 - 트랜잭션 안에서는 커밋된 뒤에 Redis 수량, 캐시, 소진 표시를 바꿈")
+    void topUpQuantity_AfterCommit() {
+        // Given
+        when(couponPolicyRepository.findById(TEST_POLICY_ID)).thenReturn(Optional.of(couponPolicy));
+        when(couponPolicyRepository.saveAndFlush(couponPolicy)).thenReturn(couponPolicy);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            couponPolicyService.topUpQuantity(TEST_POLICY_ID, 50);
+
+            // Then - 커밋 전
+            verifyNoInteractions(redissonClient, couponPolicyCache, couponSoldOutService);
+
+            // Then - 커밋 후
+            when(redissonClient.getAtomicLong("coupon:quantity:1")).thenReturn(atomicLong);
+            when(redissonClient.getBucket("coupon:policy:1")).thenReturn(bucket);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(atomicLong).addAndGet(50L);
+            verify(couponPolicyCache).publishInvalidation(TEST_POLICY_ID);
+            verify(couponSoldOutService).markReopened(TEST_POLICY_ID);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
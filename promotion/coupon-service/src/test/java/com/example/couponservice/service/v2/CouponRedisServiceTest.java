@@ -6,6 +6,7 @@ import com.example.couponservice.domain.CouponPolicy;
 import com.example.couponservice.dto.v1.CouponDto;
 import com.example.couponservice.exception.CouponIssueException;
 import com.example.couponservice.repository.CouponRepository;
+import com.example.couponservice.service.CouponCodeGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.redisson.api.RAtomicLong;
 import org.redisson.api.RLock;
@@ -41,6 +43,12 @@ class CouponRedisServiceTest {
     @Mock
     private CouponPolicyService couponPolicyService;
 
+    @Spy
+    private CouponCodeGenerator couponCodeGenerator = new CouponCodeGenerator();
+
+    @Mock
+    private CouponSoldOutService couponSoldOutService;
+
     @Mock
     private RLock rLock;
 
@@ -144,6 +152,7 @@ class CouponRedisServiceTest {
                 .hasMessage("쿠폰이 모두 소진되었습니다.");
 
         verify(atomicLong).incrementAndGet();
+        verify(couponSoldOutService).markSoldOut(TEST_POLICY_ID);
         verify(rLock).unlock();
     }
 
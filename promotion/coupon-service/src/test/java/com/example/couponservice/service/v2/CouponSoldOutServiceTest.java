@@ -0,0 +1,180 @@
+package com.example.couponservice.service.v2;
+
+import com.example.couponservice.dto.v3.CouponDto;
+import com.example.couponservice.exception.CouponIssueException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RScript;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponSoldOutServiceTest {
+
+    @InjectMocks
+    private CouponSoldOutService couponSoldOutService;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RTopic rTopic;
+
+    @Mock
+    private RScript rScript;
+
+    @Mock
+    private RAtomicLong reopenVersion;
+
+    @Mock
+    private RAtomicLong quantity;
+
+    private static final Long TEST_POLICY_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        // 테스트마다 쓰는 Redis 객체가 다르므로 lenient 로 둔다.
+        lenient().when(redissonClient.getTopic(anyString(), any(Codec.class))).thenReturn(rTopic);
+        lenient().when(redissonClient.getScript(any(Codec.class))).thenReturn(rScript);
+        lenient().when(redissonClient.getAtomicLong("coupon:reopen-version:" + TEST_POLICY_ID)).thenReturn(reopenVersion);
+        lenient().when(redissonClient.getAtomicLong("coupon:quantity:" + TEST_POLICY_ID)).thenReturn(quantity);
+    }
+
+    @Test
+    @DisplayName("소진 표시 - Redis 수량이 0 이하일 때만 현재 재오픈 버전으로 표시하고 한 번만 발행")
+    void markSoldOut() {
+        // Given
+        givenSoldOutVersion(3L);
+
+        // When
+        couponSoldOutService.markSoldOut(TEST_POLICY_ID);
+        couponSoldOutService.markSoldOut(TEST_POLICY_ID);
+
+        // Then
+        assertThat(couponSoldOutService.isSoldOut(TEST_POLICY_ID)).isTrue();
+        assertThatThrownBy(() -> couponSoldOutService.validateNotSoldOut(TEST_POLICY_ID))
+                .isInstanceOf(CouponIssueException.class)
+                .hasMessage("쿠폰이 모두 소진되었습니다.");
+        verify(rScript, times(1)).eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList());
+        verify(rTopic, times(1)).publish(argThat(event -> event instanceof CouponDto.SoldOutEvent soldOut
+                && soldOut.isSoldOut() && soldOut.getVersion() == 3L));
+    }
+
+    @Test
+    @DisplayName("소진 표시 - 그 사이에 수량이 다시 채워졌으면 표시하지 않음")
+    void markSoldOut_QuantityRefilled() {
+        // Given
+        givenSoldOutVersion(-1L);
+
+        // When
+        couponSoldOutService.markSoldOut(TEST_POLICY_ID);
+
+        // Then
+        assertThat(couponSoldOutService.isSoldOut(TEST_POLICY_ID)).isFalse();
+        verify(rTopic, never()).publish(any());
+    }
+
+    @Test
+    @DisplayName("재오픈 - 재오픈 버전을 올리고 소진 표시를 지운 뒤 모든 인스턴스에 발행")
+    void markReopened() {
+        // Given
+        givenSoldOutVersion(0L);
+        couponSoldOutService.markSoldOut(TEST_POLICY_ID);
+        when(reopenVersion.incrementAndGet()).thenReturn(1L);
+
+        // When
+        couponSoldOutService.markReopened(TEST_POLICY_ID);
+
+        // Then
+        assertThat(couponSoldOutService.isSoldOut(TEST_POLICY_ID)).isFalse();
+        couponSoldOutService.validateNotSoldOut(TEST_POLICY_ID);
+        verify(rTopic).publish(argThat(event -> event instanceof CouponDto.SoldOutEvent soldOut
+                && !soldOut.isSoldOut() && soldOut.getVersion() == 1L));
+    }
+
+    @Test
+    @DisplayName("소진 알림 수신 - 재오픈 뒤에 늦게 도착한 이전 버전의 소진 알림은 무시")
+    void onEvent_StaleSoldOutIgnored() {
+        // Given
+        couponSoldOutService.onEvent(event(false, 2L));
+
+        // When
+        couponSoldOutService.onEvent(event(true, 1L));
+
+        // Then
+        assertThat(couponSoldOutService.isSoldOut(TEST_POLICY_ID)).isFalse();
+
+        // 같은 재오픈 버전에서 다시 소진된 알림은 반영
+        couponSoldOutService.onEvent(event(true, 2L));
+        assertThat(couponSoldOutService.isSoldOut(TEST_POLICY_ID)).isTrue();
+    }
+
+    @Test
+    @DisplayName("재오픈 알림 수신 - 이전 버전의 재오픈 알림은 더 새로운 소진 표시를 지우지 않음")
+    void onEvent_StaleReopenIgnored() {
+        // Given
+        couponSoldOutService.onEvent(event(true, 2L));
+
+        // When
+        couponSoldOutService.onEvent(event(false, 2L));
+
+        // Then
+        assertThat(couponSoldOutService.isSoldOut(TEST_POLICY_ID)).isTrue();
+    }
+
+    @Test
+    @DisplayName("백그라운드 확인 - 재오픈 알림을 놓쳐서 수량이 남아 있으면 표시 해제")
+    void verifySoldOut_ReopenMissed() {
+        // Given
+        couponSoldOutService.onEvent(event(true, 0L));
+        when(quantity.get()).thenReturn(10L);
+
+        // When
+        couponSoldOutService.verifySoldOut();
+
+        // Then
+        assertThat(couponSoldOutService.isSoldOut(TEST_POLICY_ID)).isFalse();
+    }
+
+    @Test
+    @DisplayName("백그라운드 확인 - 수량이 0 이면 표시 유지")
+    void verifySoldOut_StillSoldOut() {
+        // Given
+        couponSoldOutService.onEvent(event(true, 0L));
+        when(quantity.get()).thenReturn(0L);
+
+        // When
+        couponSoldOutService.verifySoldOut();
+
+        // Then
+        assertThat(couponSoldOutService.isSoldOut(TEST_POLICY_ID)).isTrue();
+    }
+
+    private void givenSoldOutVersion(long version) {
+        when(rScript.eval(eq(RScript.Mode.READ_ONLY), anyString(), eq(RScript.ReturnType.INTEGER),
+                eq(List.of("coupon:quantity:" + TEST_POLICY_ID, "coupon:reopen-version:" + TEST_POLICY_ID))))
+                .thenReturn(version);
+    }
+
+    private CouponDto.SoldOutEvent event(boolean soldOut, long version) {
+        return CouponDto.SoldOutEvent.builder()
+                .policyId(TEST_POLICY_ID)
+                .soldOut(soldOut)
+                .version(version)
+                .build();
+    }
+}
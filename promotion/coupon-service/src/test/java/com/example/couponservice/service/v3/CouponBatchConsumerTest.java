@@ -0,0 +1,115 @@
+package com.example.couponservice.service.v3;
+
+import com.example.couponservice.domain.CouponPolicy;
+import com.example.couponservice.dto.v3.CouponDto;
+import com.example.couponservice.exception.CouponPolicyNotFoundException;
+import com.example.couponservice.service.v2.CouponPolicyService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponBatchConsumerTest {
+
+    @InjectMocks
+    private CouponBatchConsumer couponBatchConsumer;
+
+    @Mock
+    private CouponIssueBatchService couponIssueBatchService;
+
+    @Mock
+    private CouponPolicyService couponPolicyService;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    @Test
+    @DisplayName("배치 발급 성공 - 정책은 정책마다 한 번만 조회하고 일괄 저장 후 오프셋 커밋")
+    void consumeCouponIssueRequests_Success() {
+        // Given
+        List<ConsumerRecord<String, CouponDto.IssueMessage>> records = List.of(
+                record(0, 1L, 10L), record(1, 1L, 11L), record(2, 2L, 12L));
+        when(couponPolicyService.getCouponPolicy(anyLong())).thenReturn(CouponPolicy.builder().build());
+
+        // When
+        couponBatchConsumer.consumeCouponIssueRequests(records, acknowledgment);
+
+        // Then
+        verify(couponPolicyService).getCouponPolicy(1L);
+        verify(couponPolicyService).getCouponPolicy(2L);
+        InOrder inOrder = inOrder(couponIssueBatchService, acknowledgment);
+        inOrder.verify(couponIssueBatchService).issueCoupons(argThat(messages -> messages.size() == 3));
+        inOrder.verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    @DisplayName("배치 발급 - 정책이 없는 메시지 앞까지만 저장하고 그 위치를 에러 핸들러에 알림 (에러 핸들러가 그 메시지만 DLT 로 보냄)")
+    void consumeCouponIssueRequests_PolicyNotFound() {
+        // Given
+        List<ConsumerRecord<String, CouponDto.IssueMessage>> records = List.of(
+                record(0, 1L, 10L), record(1, 99L, 11L), record(2, 1L, 12L));
+        when(couponPolicyService.getCouponPolicy(1L)).thenReturn(CouponPolicy.builder().build());
+        when(couponPolicyService.getCouponPolicy(99L)).thenThrow(new CouponPolicyNotFoundException("쿠폰 정책을 찾을 수 없습니다."));
+
+        // When & Then
+        assertThatThrownBy(() -> couponBatchConsumer.consumeCouponIssueRequests(records, acknowledgment))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class, e -> {
+                    assertThat(e.getIndex()).isEqualTo(1);
+                    assertThat(e.getCause()).isInstanceOf(CouponPolicyNotFoundException.class);
+                });
+        verify(couponIssueBatchService).issueCoupons(argThat(messages ->
+                messages.size() == 1 && messages.get(0).getUserId().equals(10L)));
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("배치 발급 - 첫 메시지가 잘못되면 저장 없이 위치만 알림")
+    void consumeCouponIssueRequests_FirstInvalid() {
+        // Given
+        CouponDto.IssueMessage noUser = CouponDto.IssueMessage.builder().policyId(1L).build();
+        List<ConsumerRecord<String, CouponDto.IssueMessage>> records = List.of(
+                new ConsumerRecord<>("coupon-issue-requests", 0, 0L, "1", noUser), record(1, 1L, 11L));
+        when(couponPolicyService.getCouponPolicy(1L)).thenReturn(CouponPolicy.builder().build());
+
+        // When & Then
+        assertThatThrownBy(() -> couponBatchConsumer.consumeCouponIssueRequests(records, acknowledgment))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class, e -> assertThat(e.getIndex()).isZero());
+        verifyNoInteractions(couponIssueBatchService, acknowledgment);
+    }
+
+    @Test
+    @DisplayName("배치 발급 실패 - 저장에 실패하면 오프셋을 커밋하지 않고 예외를 던짐 (에러 핸들러가 재시도 후 DLT 로 보냄)")
+    void consumeCouponIssueRequests_Fail_Save() {
+        // Given
+        List<ConsumerRecord<String, CouponDto.IssueMessage>> records = List.of(record(0, 1L, 10L));
+        when(couponPolicyService.getCouponPolicy(1L)).thenReturn(CouponPolicy.builder().build());
+        doThrow(new RuntimeException("DB down")).when(couponIssueBatchService).issueCoupons(anyList());
+
+        // When & Then
+        assertThatThrownBy(() -> couponBatchConsumer.consumeCouponIssueRequests(records, acknowledgment))
+                .hasMessage("DB down");
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    private ConsumerRecord<String, CouponDto.IssueMessage> record(long offset, Long policyId, Long userId) {
+        CouponDto.IssueMessage message = CouponDto.IssueMessage.builder()
+                .policyId(policyId)
+                .userId(userId)
+                .build();
+        return new ConsumerRecord<>("coupon-issue-requests", 0, offset, String.valueOf(policyId), message);
+    }
+}
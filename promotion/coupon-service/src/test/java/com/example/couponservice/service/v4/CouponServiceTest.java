@@ -0,0 +1,178 @@
+package com.example.couponservice.service.v4;
+
+import com.example.couponservice.config.UserIdInterceptor;
+import com.example.couponservice.domain.CouponPolicy;
+import com.example.couponservice.dto.v3.CouponDto;
+import com.example.couponservice.exception.CouponIssueException;
+import com.example.couponservice.service.v2.CouponPolicyService;
+import com.example.couponservice.service.v2.CouponSoldOutService;
+import com.example.couponservice.service.v3.CouponProducer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponServiceTest {
+
+    @InjectMocks
+    private CouponService couponService;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private CouponProducer couponProducer;
+
+    @Mock
+    private CouponPolicyService couponPolicyService;
+
+    @Mock
+    private RScript rScript;
+
+    @Mock
+    private CouponSoldOutService couponSoldOutService;
+
+    private MockedStatic<UserIdInterceptor> mockedStatic;
+    private final CouponDto.IssueRequest request = CouponDto.IssueRequest.builder()
+            .couponPolicyId(TEST_POLICY_ID)
+            .build();
+    private static final Long TEST_USER_ID = 1L;
+    private static final Long TEST_POLICY_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        CouponPolicy couponPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+
+        mockedStatic = mockStatic(UserIdInterceptor.class);
+        mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(redissonClient.getScript(any(Codec.class))).thenReturn(rScript);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockedStatic.close();
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 요청 성공 - 락 없이 스크립트 한 번으로 차감하고 Kafka 로 전송")
+    void requestCouponIssue_Success() {
+        // Given
+        givenScriptResult(99L);
+        when(couponProducer.sendCouponIssueRequest(any())).thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        // When
+        couponService.requestCouponIssue(request);
+
+        // Then
+        verify(rScript).eval(eq(RScript.Mode.READ_WRITE), anyString(), eq(RScript.ReturnType.INTEGER),
+                eq(List.of("coupon:quantity:1", "coupon:issued:1")), any(Object[].class));
+        verify(couponProducer).sendCouponIssueRequest(argThat(message ->
+                message.getPolicyId().equals(TEST_POLICY_ID) && message.getUserId().equals(TEST_USER_ID)));
+        verify(redissonClient, never()).getLock(anyString());
+        verify(rScript, times(1)).eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 요청 - Kafka 전송에 실패하면 수량 차감과 발급 기록을 되돌림")
+    void requestCouponIssue_SendFailed_Restore() {
+        // Given
+        givenScriptResult(0L);
+        when(couponProducer.sendCouponIssueRequest(any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        when(rScript.eval(eq(RScript.Mode.READ_WRITE), argThat((String script) -> script != null && script.contains("SREM")),
+                eq(RScript.ReturnType.INTEGER), anyList(), any(Object[].class)))
+                .thenReturn(1L);
+
+        // When
+        couponService.requestCouponIssue(request);
+
+        // Then
+        verify(rScript).eval(eq(RScript.Mode.READ_WRITE), argThat((String script) -> script != null && script.contains("SREM")),
+                eq(RScript.ReturnType.INTEGER), eq(List.of("coupon:quantity:1", "coupon:issued:1")), eq(String.valueOf(TEST_USER_ID)));
+        verify(couponSoldOutService).markReopened(TEST_POLICY_ID); // 마지막 쿠폰이 돌아옴
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 요청 실패 - 전송 전에 실패하면 되돌리고 예외")
+    void requestCouponIssue_SendThrows_Restore() {
+        // Given
+        givenScriptResult(10L);
+        when(couponProducer.sendCouponIssueRequest(any())).thenThrow(new IllegalStateException("metadata timeout"));
+
+        // When & Then
+        assertThatThrownBy(() -> couponService.requestCouponIssue(request))
+                .isInstanceOf(CouponIssueException.class)
+                .hasMessage("쿠폰 발급 요청을 처리하지 못했습니다. 잠시 후 다시 시도해주세요.");
+        verify(rScript, times(2)).eval(eq(RScript.Mode.READ_WRITE), anyString(), eq(RScript.ReturnType.INTEGER),
+                eq(List.of("coupon:quantity:1", "coupon:issued:1")), any(Object[].class));
+        verify(couponSoldOutService, never()).markReopened(anyLong());
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 요청 실패 - 수량 소진")
+    void requestCouponIssue_Fail_NoQuantityLeft() {
+        // Given
+        givenScriptResult(-1L);
+
+        // When & Then
+        assertThatThrownBy(() -> couponService.requestCouponIssue(request))
+                .isInstanceOf(CouponIssueException.class)
+                .hasMessage("쿠폰이 모두 소진되었습니다.");
+        verify(couponSoldOutService).markSoldOut(TEST_POLICY_ID);
+        verifyNoInteractions(couponProducer);
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 요청 실패 - 이미 발급받은 사용자")
+    void requestCouponIssue_Fail_AlreadyIssued() {
+        // Given
+        givenScriptResult(-2L);
+
+        // When & Then
+        assertThatThrownBy(() -> couponService.requestCouponIssue(request))
+                .isInstanceOf(CouponIssueException.class)
+                .hasMessage("이미 발급받은 쿠폰입니다.");
+        verifyNoInteractions(couponProducer);
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 요청 실패 - 발급 기간 아님")
+    void requestCouponIssue_Fail_InvalidPeriod() {
+        // Given
+        givenScriptResult(-3L);
+
+        // When & Then
+        assertThatThrownBy(() -> couponService.requestCouponIssue(request))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("쿠폰 발급 기간이 아닙니다.");
+        verifyNoInteractions(couponProducer);
+    }
+
+    private void givenScriptResult(Long result) {
+        when(rScript.eval(eq(RScript.Mode.READ_WRITE), anyString(), eq(RScript.ReturnType.INTEGER), anyList(), any(Object[].class)))
+                .thenReturn(result);
+    }
+}
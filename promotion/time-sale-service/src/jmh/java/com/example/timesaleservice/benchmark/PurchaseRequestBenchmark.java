@@ -0,0 +1,62 @@
+package com.example.timesaleservice.benchmark;
+
+import com.example.timesaleservice.codec.PurchaseRequestMessageDeserializer;
+import com.example.timesaleservice.codec.PurchaseRequestMessageSerializer;
+import com.example.timesaleservice.dto.PurchaseRequestMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 비동기 구매(v3/v5) 요청 경로에서 Redis 왕복을 뺀 CPU 비용
+ * - outbox payload (TimeSaleProducer 의 JSON), Kafka 메시지 바이너리 직렬화/역직렬화
+ * - 대기 순번(getQueuePosition)은 ZRANK 한 번이라 애플리케이션에서 파싱하는 비용이 없으므로 제외
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class PurchaseRequestBenchmark {
+    private static final String TOPIC = "time-sale-requests";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PurchaseRequestMessageSerializer serializer = new PurchaseRequestMessageSerializer();
+    private final PurchaseRequestMessageDeserializer deserializer = new PurchaseRequestMessageDeserializer();
+
+    private PurchaseRequestMessage message;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws IOException {
+        message = TimeSaleFixtures.purchaseRequestMessage();
+        json = objectMapper.writeValueAsBytes(message);
+        binary = serializer.serialize(TOPIC, message);
+    }
+
+    @TearDown
+    public void tearDown() {
+        deserializer.close();
+    }
+
+    @Benchmark
+    public String outboxPayload() throws IOException {
+        return objectMapper.writeValueAsString(message);
+    }
+
+    @Benchmark
+    public byte[] binary_Write() {
+        return serializer.serialize(TOPIC, message);
+    }
+
+    @Benchmark
+    public PurchaseRequestMessage binary_Read() {
+        return deserializer.deserialize(TOPIC, binary);
+    }
+
+    @Benchmark
+    public PurchaseRequestMessage json_Read() {
+        return deserializer.deserialize(TOPIC, json);
+    }
+}
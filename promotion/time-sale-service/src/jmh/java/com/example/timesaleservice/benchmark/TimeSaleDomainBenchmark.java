@@ -0,0 +1,40 @@
+package com.example.timesaleservice.benchmark;
+
+import com.example.timesaleservice.domain.TimeSale;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TimeSale.purchase (상태/수량/기간 검증 + 차감) 비용
+ * - 실패한 구매는 검증에서 던지는 예외 생성 비용까지 포함 (v1~v3 Consumer 의 매진 이후 요청)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class TimeSaleDomainBenchmark {
+    private TimeSale timeSale;
+    private TimeSale soldOutTimeSale;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        timeSale = TimeSaleFixtures.timeSale(Long.MAX_VALUE / 2); // 측정 중에 재고가 떨어지지 않게 충분히 크게
+        soldOutTimeSale = TimeSaleFixtures.timeSale(0L);
+    }
+
+    @Benchmark
+    public Long purchase() {
+        timeSale.purchase(1L);
+        return timeSale.getRemainingQuantity();
+    }
+
+    @Benchmark
+    public Object purchase_Rejected() {
+        try {
+            soldOutTimeSale.purchase(1L);
+            return soldOutTimeSale;
+        } catch (IllegalStateException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.timesaleservice.benchmark;
+
+import com.example.timesaleservice.domain.Product;
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.dto.PurchaseRequestMessage;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// 벤치마크에서 쓰는 타임세일/구매 요청 (판매 중, 상품 설명과 감사 필드까지 채운 실제 크기)
+final class TimeSaleFixtures {
+    private TimeSaleFixtures() {
+    }
+
+    static TimeSale timeSale(Long remainingQuantity) {
+        LocalDateTime now = LocalDateTime.now();
+        Product product = Product.builder()
+                .id(1L)
+                .name("Time Sale Product")
+                .price(10000L)
+                .description("Time sale product description")
+                .build();
+        return TimeSale.builder()
+                .id(1L)
+                .product(product)
+                .quantity(remainingQuantity)
+                .remainingQuantity(remainingQuantity)
+                .discountPrice(5000L)
+                .startAt(now.minusHours(1))
+                .endAt(now.plusHours(1))
+                .status(TimeSaleStatus.ACTIVE)
+                .maxPurchasePerUser(2L)
+                .build()
+                .restoreAudit(3L, now.minusDays(1), now);
+    }
+
+    static PurchaseRequestMessage purchaseRequestMessage() {
+        return PurchaseRequestMessage.builder()
+                .timeSaleId(1L)
+                .userId(12345L)
+                .quantity(1L)
+                .requestId(UUID.randomUUID().toString())
+                .idempotencyKey(UUID.randomUUID().toString())
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.timesaleservice.benchmark;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.dto.TimeSaleDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 엔티티 -> 응답 DTO 매핑 비용 (조회/구매 API 마다 한 번)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class TimeSaleMappingBenchmark {
+    private TimeSale timeSale;
+
+    @Setup
+    public void setUp() {
+        timeSale = TimeSaleFixtures.timeSale(100L);
+    }
+
+    @Benchmark
+    public TimeSaleDto.Response response() {
+        return TimeSaleDto.Response.from(timeSale);
+    }
+
+    @Benchmark
+    public TimeSaleDto.PurchaseResponse purchaseResponse() {
+        return TimeSaleDto.PurchaseResponse.from(timeSale, 12345L, 1L);
+    }
+}
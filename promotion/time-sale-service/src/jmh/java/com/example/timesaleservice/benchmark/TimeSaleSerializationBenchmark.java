@@ -0,0 +1,51 @@
+package com.example.timesaleservice.benchmark;
+
+import com.example.timesaleservice.codec.TimeSaleBinaryCodec;
+import com.example.timesaleservice.domain.TimeSale;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis "time-sale:{id}" 사본의 직렬화 비용 (TimeSaleCacheCodec 의 json / binary 형식)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class TimeSaleSerializationBenchmark {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private TimeSale timeSale;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws IOException {
+        timeSale = TimeSaleFixtures.timeSale(100L);
+        json = objectMapper.writeValueAsBytes(timeSale);
+        binary = TimeSaleBinaryCodec.encode(timeSale);
+    }
+
+    @Benchmark
+    public byte[] json_Write() throws IOException {
+        return objectMapper.writeValueAsBytes(timeSale);
+    }
+
+    @Benchmark
+    public TimeSale json_Read() throws IOException {
+        return objectMapper.readValue(json, TimeSale.class);
+    }
+
+    @Benchmark
+    public byte[] binary_Write() {
+        return TimeSaleBinaryCodec.encode(timeSale);
+    }
+
+    @Benchmark
+    public TimeSale binary_Read() {
+        return TimeSaleBinaryCodec.decode(binary);
+    }
+}
@@ -3,9 +3,11 @@ package com.example.timesaleservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient // Eureka 서버와 통신할 수 있도록 설정
+@EnableScheduling // 구매 결과 스트림의 대기 순번 갱신 등 주기 작업 사용
 public class TimeSaleServiceApplication {
 
 	public static void main(String[] args) {
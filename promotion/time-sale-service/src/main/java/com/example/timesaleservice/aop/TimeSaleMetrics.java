@@ -0,0 +1,43 @@
+package com.example.timesaleservice.aop;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 타임세일 처리 성공/실패/소요 시간 메트릭
+ * - @TimeSaleMetered 메서드는 TimeSaleMetricsAspect 가 기록하고,
+ *   Kafka Consumer 처럼 예외를 밖으로 던지지 않는 곳은 이 컴포넌트를 직접 주입받아 같은 메트릭으로 집계한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TimeSaleMetrics {
+    private final MeterRegistry registry;
+
+    public void recordSuccess(String version, String operation, Timer.Sample sample) {
+        // 타임세일 처리 성공 메트릭
+        Counter.builder("time.sale.operation.success")
+                .tag("version", version)
+                .tag("operation", operation)
+                .register(registry)
+                .increment();
+
+        // 메서드의 실행 시간(duration) 을 기록한다.
+        sample.stop(Timer.builder("time.sale.operation.duration")
+                .tag("version", version)
+                .tag("operation", operation)
+                .register(registry));
+    }
+
+    // 타임세일 처리 실패 메트릭 (예외 클래스 이름을 error 태그로 사용, 예: PurchaseLimitExceededException)
+    public void recordFailure(String version, String operation, Exception e) {
+        Counter.builder("time.sale.operation.failure")
+                .tag("version", version)
+                .tag("operation", operation)
+                .tag("error", e.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+}
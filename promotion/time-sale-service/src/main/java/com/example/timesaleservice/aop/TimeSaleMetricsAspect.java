@@ -1,7 +1,5 @@
 package com.example.timesaleservice.aop;
 
-import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -9,12 +7,13 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 @Aspect
 @Component
 @RequiredArgsConstructor
 public class TimeSaleMetricsAspect {
-    private final MeterRegistry registry;
+    private final TimeSaleMetrics timeSaleMetrics;
 
     // @TimeSaleMetered 어노테이션이 붙은 메서드를 가로채서 실행 전후에 작업을 수행한다.
     @Around("@annotation(TimeSaleMetered)")
@@ -26,28 +25,16 @@ public class TimeSaleMetricsAspect {
         try {
             Object result = joinPoint.proceed(); // 이 줄에서 실제로 @TimeSaleMetered 가 붙은 메서드가 실행된다.
 
-            // 타임세일 처리 성공 메트릭
-            Counter.builder("time.sale.operation.success")
-                    .tag("version", version)
-                    .tag("operation", operation)
-                    .register(registry)
-                    .increment();
-
-            // 메서드의 실행 시간(duration) 을 기록한다.
-            sample.stop(Timer.builder("time.sale.operation.duration")
-                    .tag("version", version)
-                    .tag("operation", operation)
-                    .register(registry));
+            // Mono 를 반환하는 메서드(v5)는 반환 시점이 아니라 Mono 가 끝나는 시점까지를 잰다.
+            if (result instanceof Mono<?> mono) {
+                return mono.doOnSuccess(value -> timeSaleMetrics.recordSuccess(version, operation, sample))
+                        .doOnError(Exception.class, e -> timeSaleMetrics.recordFailure(version, operation, e));
+            }
 
+            timeSaleMetrics.recordSuccess(version, operation, sample);
             return result;
         } catch (Exception e) {
-            // 타임세일 처리 실패 메트릭
-            Counter.builder("time.sale.operation.failure")
-                    .tag("version", version)
-                    .tag("operation", operation)
-                    .tag("error", e.getClass().getSimpleName())
-                    .register(registry)
-                    .increment();
+            timeSaleMetrics.recordFailure(version, operation, e);
             throw e;
         }
     }
@@ -0,0 +1,55 @@
+package com.example.timesaleservice.codec;
+
+import com.example.timesaleservice.dto.PurchaseRequestMessage;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import static com.example.timesaleservice.codec.PurchaseRequestMessageSerializer.*;
+
+/**
+ * 구매 요청 메시지 Kafka Deserializer
+ * - 첫 바이트가 MAGIC 이면 바이너리, 아니면 JSON 으로 읽는다.
+ * - producer 의 형식 설정을 바꾸는 동안 토픽에 두 형식이 섞여 있어도 consumer 는 그대로 처리할 수 있다.
+ */
+public class PurchaseRequestMessageDeserializer implements Deserializer<PurchaseRequestMessage> {
+    private final JsonDeserializer<PurchaseRequestMessage> jsonDeserializer =
+            new JsonDeserializer<>(PurchaseRequestMessage.class, false); // 타입 헤더 대신 고정 타입 사용
+
+    @Override
+    public PurchaseRequestMessage deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length < 2 || data[0] != MAGIC) {
+            return jsonDeserializer.deserialize(topic, data);
+        }
+        if (data[1] > FORMAT_VERSION) {
+            throw new SerializationException("Unsupported PurchaseRequestMessage format version: " + data[1]);
+        }
+
+        try {
+            PurchaseRequestMessage.PurchaseRequestMessageBuilder message = PurchaseRequestMessage.builder();
+            TaggedBinary.Reader reader = new TaggedBinary.Reader(data, 2);
+            while (reader.hasNext()) {
+                switch (reader.nextField()) {
+                    case TIME_SALE_ID -> message.timeSaleId(reader.readLong());
+                    case USER_ID -> message.userId(reader.readLong());
+                    case QUANTITY -> message.quantity(reader.readLong());
+                    case REQUEST_ID -> message.requestId(reader.readString());
+                    case IDEMPOTENCY_KEY -> message.idempotencyKey(reader.readString());
+                    case STOCK_RESERVED -> message.stockReserved(reader.readInt() == 1);
+                    default -> reader.skip();
+                }
+            }
+            return message.build();
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Failed to deserialize PurchaseRequestMessage", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.timesaleservice.codec;
+
+import com.example.timesaleservice.dto.PurchaseRequestMessage;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * 구매 요청 메시지를 바이너리로 기록하는 Kafka Serializer (time-sale.serialization.format=binary)
+ * - [MAGIC][FORMAT_VERSION][필드...] 형식이며 타입 헤더를 붙이지 않는다.
+ * - 필드 번호 규칙은 TimeSaleBinaryCodec 과 같다. (추가만 하고 바꾸거나 재사용하지 않음)
+ */
+public class PurchaseRequestMessageSerializer implements Serializer<PurchaseRequestMessage> {
+    public static final byte MAGIC = (byte) 0xB8;
+    static final byte FORMAT_VERSION = 1;
+
+    // 필드 번호
+    static final int TIME_SALE_ID = 1;
+    static final int USER_ID = 2;
+    static final int QUANTITY = 3;
+    static final int REQUEST_ID = 4;
+    static final int IDEMPOTENCY_KEY = 5;
+    static final int STOCK_RESERVED = 6;
+
+    @Override
+    public byte[] serialize(String topic, PurchaseRequestMessage message) {
+        if (message == null) {
+            return null;
+        }
+        return new TaggedBinary.Writer()
+                .writeByte(MAGIC)
+                .writeByte(FORMAT_VERSION)
+                .writeLong(TIME_SALE_ID, message.getTimeSaleId())
+                .writeLong(USER_ID, message.getUserId())
+                .writeLong(QUANTITY, message.getQuantity())
+                .writeString(REQUEST_ID, message.getRequestId())
+                .writeString(IDEMPOTENCY_KEY, message.getIdempotencyKey())
+                .writeInt(STOCK_RESERVED, message.isStockReserved() ? 1 : null) // false 는 기록하지 않음
+                .toByteArray();
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.timesaleservice.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 필드 번호를 붙여 값을 기록하는 바이너리 형식 (protobuf 와 같은 방식)
+ * - 필드마다 (필드 번호 << 3 | 타입) 을 varint 로 쓰고 값이 뒤따른다. 타입은 VARINT(정수) 또는 BYTES(길이 + 바이트)
+ * - 정수는 zigzag varint 로 기록하므로 작은 값은 1~2 바이트로 끝난다.
+ * - null 인 필드는 기록하지 않는다.
+ * - 읽는 쪽은 모르는 필드 번호를 타입만 보고 건너뛰므로 필드를 추가해도 이전 버전이 그대로 읽을 수 있다.
+ */
+public final class TaggedBinary {
+    private static final int VARINT = 0;
+    private static final int BYTES = 2;
+
+    private TaggedBinary() {
+    }
+
+    public static class Writer {
+        private byte[] buffer = new byte[64];
+        private int size;
+
+        public Writer writeByte(byte value) {
+            ensureCapacity(1);
+            buffer[size++] = value;
+            return this;
+        }
+
+        public Writer writeLong(int field, Long value) {
+            if (value != null) {
+                writeVarint(((long) field << 3) | VARINT);
+                writeVarint((value << 1) ^ (value >> 63));
+            }
+            return this;
+        }
+
+        public Writer writeInt(int field, Integer value) {
+            return writeLong(field, value != null ? value.longValue() : null);
+        }
+
+        public Writer writeString(int field, String value) {
+            if (value != null) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarint(((long) field << 3) | BYTES);
+                writeVarint(bytes.length);
+                ensureCapacity(bytes.length);
+                System.arraycopy(bytes, 0, buffer, size, bytes.length);
+                size += bytes.length;
+            }
+            return this;
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        private void ensureCapacity(int length) {
+            if (size + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+            }
+        }
+    }
+
+    public static class Reader {
+        private final byte[] data;
+        private int position;
+        private int wireType;
+
+        public Reader(byte[] data, int offset) {
+            this.data = data;
+            this.position = offset;
+        }
+
+        public boolean hasNext() {
+            return position < data.length;
+        }
+
+        /**
+         * 다음 필드의 번호를 읽음 (값은 readLong/readString/skip 중 하나로 읽어야 함)
+         */
+        public int nextField() {
+            long tag = readVarint();
+            wireType = (int) (tag & 0x7);
+            return (int) (tag >>> 3);
+        }
+
+        public long readLong() {
+            expect(VARINT);
+            long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        public int readInt() {
+            return (int) readLong();
+        }
+
+        public String readString() {
+            expect(BYTES);
+            int length = (int) readVarint();
+            checkAvailable(length);
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        // 모르는 필드 (새 버전에서 추가된 필드) 는 건너뛴다.
+        public void skip() {
+            if (wireType == VARINT) {
+                readVarint();
+            } else if (wireType == BYTES) {
+                int length = (int) readVarint();
+                checkAvailable(length);
+                position += length;
+            } else {
+                throw new IllegalArgumentException("Unknown wire type: " + wireType);
+            }
+        }
+
+        private long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                checkAvailable(1);
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        private void expect(int type) {
+            if (wireType != type) {
+                throw new IllegalArgumentException("Unexpected wire type: " + wireType);
+            }
+        }
+
+        private void checkAvailable(int length) {
+            if (length < 0 || position + length > data.length) {
+                throw new IllegalArgumentException("Truncated data");
+            }
+        }
+    }
+}
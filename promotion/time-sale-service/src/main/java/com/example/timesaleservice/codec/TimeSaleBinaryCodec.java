@@ -0,0 +1,119 @@
+package com.example.timesaleservice.codec;
+
+import com.example.timesaleservice.domain.Product;
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Redis에 보관하는 타임세일 조회용 사본의 바이너리 형식
+ * - 조회/구매에 쓰는 필드만 기록 (상품은 ID, 이름, 가격만, 상품 설명과 생성/수정 시각은 제외)
+ * - [MAGIC][FORMAT_VERSION][필드...] 순서이며 JSON('{' 로 시작) 과 첫 바이트로 구분
+ * - 필드를 추가할 때는 새 번호를 쓰고, 기존 번호는 바꾸거나 재사용하지 않는다. (이전 버전은 새 필드를 건너뜀)
+ * - 기존 필드의 의미가 바뀌는 변경은 FORMAT_VERSION 을 올리고, 모르는 버전은 읽지 않고 캐시 미스로 처리
+ */
+public final class TimeSaleBinaryCodec {
+    public static final byte MAGIC = (byte) 0xB7;
+    private static final byte FORMAT_VERSION = 1;
+
+    // 필드 번호
+    private static final int ID = 1;
+    private static final int PRODUCT_ID = 2;
+    private static final int PRODUCT_NAME = 3;
+    private static final int PRODUCT_PRICE = 4;
+    private static final int QUANTITY = 5;
+    private static final int REMAINING_QUANTITY = 6;
+    private static final int DISCOUNT_PRICE = 7;
+    private static final int START_AT = 8;
+    private static final int END_AT = 9;
+    private static final int STATUS = 10;
+    private static final int MAX_PURCHASE_PER_USER = 11;
+    private static final int STOCK_SHARDS = 12;
+    private static final int VERSION = 13;
+    private static final int CREATED_AT = 14;
+    private static final int UPDATED_AT = 15;
+
+    private TimeSaleBinaryCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data.length > 1 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(TimeSale timeSale) {
+        Product product = timeSale.getProduct();
+        return new TaggedBinary.Writer()
+                .writeByte(MAGIC)
+                .writeByte(FORMAT_VERSION)
+                .writeLong(ID, timeSale.getId())
+                .writeLong(PRODUCT_ID, product.getId())
+                .writeString(PRODUCT_NAME, product.getName())
+                .writeLong(PRODUCT_PRICE, product.getPrice())
+                .writeLong(QUANTITY, timeSale.getQuantity())
+                .writeLong(REMAINING_QUANTITY, timeSale.getRemainingQuantity())
+                .writeLong(DISCOUNT_PRICE, timeSale.getDiscountPrice())
+                .writeLong(START_AT, toEpochMicros(timeSale.getStartAt()))
+                .writeLong(END_AT, toEpochMicros(timeSale.getEndAt()))
+                .writeString(STATUS, timeSale.getStatus().name()) // 순서가 바뀌어도 되도록 이름으로 기록
+                .writeLong(MAX_PURCHASE_PER_USER, timeSale.getMaxPurchasePerUser())
+                .writeInt(STOCK_SHARDS, timeSale.getStockShards())
+                .writeLong(VERSION, timeSale.getVersion())
+                .writeLong(CREATED_AT, toEpochMicros(timeSale.getCreatedAt()))
+                .writeLong(UPDATED_AT, toEpochMicros(timeSale.getUpdatedAt()))
+                .toByteArray();
+    }
+
+    public static TimeSale decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new IllegalArgumentException("Not a binary TimeSale");
+        }
+        if (data[1] > FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported TimeSale format version: " + data[1]);
+        }
+
+        TimeSale.TimeSaleBuilder timeSale = TimeSale.builder();
+        Product.ProductBuilder product = Product.builder();
+        Long version = null;
+        LocalDateTime createdAt = null;
+        LocalDateTime updatedAt = null;
+
+        TaggedBinary.Reader reader = new TaggedBinary.Reader(data, 2);
+        while (reader.hasNext()) {
+            switch (reader.nextField()) {
+                case ID -> timeSale.id(reader.readLong());
+                case PRODUCT_ID -> product.id(reader.readLong());
+                case PRODUCT_NAME -> product.name(reader.readString());
+                case PRODUCT_PRICE -> product.price(reader.readLong());
+                case QUANTITY -> timeSale.quantity(reader.readLong());
+                case REMAINING_QUANTITY -> timeSale.remainingQuantity(reader.readLong());
+                case DISCOUNT_PRICE -> timeSale.discountPrice(reader.readLong());
+                case START_AT -> timeSale.startAt(fromEpochMicros(reader.readLong()));
+                case END_AT -> timeSale.endAt(fromEpochMicros(reader.readLong()));
+                case STATUS -> timeSale.status(TimeSaleStatus.valueOf(reader.readString()));
+                case MAX_PURCHASE_PER_USER -> timeSale.maxPurchasePerUser(reader.readLong());
+                case STOCK_SHARDS -> timeSale.stockShards(reader.readInt());
+                case VERSION -> version = reader.readLong();
+                case CREATED_AT -> createdAt = fromEpochMicros(reader.readLong());
+                case UPDATED_AT -> updatedAt = fromEpochMicros(reader.readLong());
+                default -> reader.skip();
+            }
+        }
+        return timeSale.product(product.build()).build()
+                .restoreAudit(version, createdAt, updatedAt);
+    }
+
+    // LocalDateTime 은 시간대 없이 저장되므로 벽시계 값을 그대로 마이크로초로 바꾼다.
+    private static Long toEpochMicros(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return null;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000L;
+    }
+
+    private static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.timesaleservice.codec;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.exception.TimeSaleException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Redis "time-sale:{id}" 에 보관하는 타임세일 사본의 직렬화
+ * - 쓰기 형식은 time-sale.serialization.format 으로 선택 (json: 엔티티 전체 JSON, binary: TimeSaleBinaryCodec)
+ * - 읽을 때는 첫 바이트로 형식을 판단하므로 설정을 바꾸는 동안 두 형식이 섞여 있어도 읽을 수 있다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TimeSaleCacheCodec {
+    private static final String BINARY = "binary";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${time-sale.serialization.format:json}")
+    private String format;
+
+    public byte[] encode(TimeSale timeSale) {
+        if (BINARY.equals(format)) {
+            return TimeSaleBinaryCodec.encode(timeSale);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(timeSale);
+        } catch (IOException e) {
+            throw new TimeSaleException("Failed to serialize TimeSale: " + timeSale.getId(), e);
+        }
+    }
+
+    public TimeSale decode(byte[] data) {
+        try {
+            if (TimeSaleBinaryCodec.isBinary(data)) {
+                return TimeSaleBinaryCodec.decode(data);
+            }
+            return objectMapper.readValue(data, TimeSale.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new TimeSaleException("Failed to parse TimeSale from Redis", e);
+        }
+    }
+}
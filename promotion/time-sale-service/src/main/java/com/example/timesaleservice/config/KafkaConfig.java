@@ -1,15 +1,22 @@
 package com.example.timesaleservice.config;
 
+import com.example.timesaleservice.codec.PurchaseRequestMessageDeserializer;
+import com.example.timesaleservice.codec.PurchaseRequestMessageSerializer;
 import com.example.timesaleservice.dto.PurchaseRequestMessage;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
@@ -17,14 +24,45 @@ import java.util.Map;
 
 @Configuration
 public class KafkaConfig {
+    // 레코드 키가 timeSaleId 이므로 같은 타임세일의 요청은 항상 같은 파티션으로 가서 순서대로 처리된다.
+    // 파티션 수만큼 리스너 스레드를 늘릴 수 있고, 서로 다른 타임세일은 병렬로 처리된다.
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${time-sale.kafka.partitions:6}")
+    private int partitions;
+
+    @Value("${time-sale.consumer.concurrency:3}")
+    private int concurrency; // 파티션 수보다 크면 남는 스레드는 놀게 된다.
+
+    // 구매 요청 메시지 형식 (json: JsonSerializer, binary: PurchaseRequestMessageSerializer)
+    // consumer 는 두 형식을 모두 읽으므로 producer 쪽 설정만 바꿔서 전환할 수 있다.
+    @Value("${time-sale.serialization.format:json}")
+    private String serializationFormat;
+
+    @Bean
+    public NewTopic timeSaleRequestsTopic() {
+        return TopicBuilder.name("time-sale-requests")
+                .partitions(partitions)
+                .replicas(1)
+                .build();
+    }
 
     // 메시지를 생성해서 전달하기 위한 설정값
     @Bean
     public ProducerFactory<String, PurchaseRequestMessage> producerFactory() {
         Map<String, Object> config = new HashMap<>();
-        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class); // String
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class); // Json
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
+                "binary".equals(serializationFormat) ? PurchaseRequestMessageSerializer.class : JsonSerializer.class);
+        // 요청 ID/멱등성 키로 중복을 걸러내므로 브로커 응답 유실 시 재시도해도 주문이 중복되지 않는다.
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.RETRIES_CONFIG, Integer.MAX_VALUE);
+        // outbox relay 가 한 번에 보내는 레코드를 producer 배치로 묶는다.
+        config.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, 64 * 1024);
         return new DefaultKafkaProducerFactory<>(config);
     }
 
@@ -36,23 +74,43 @@ public class KafkaConfig {
     @Bean
     public ConsumerFactory<String, PurchaseRequestMessage> consumerFactory() {
         Map<String, Object> config = new HashMap<>();
-        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, "time-sale-group");
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        config.put(JsonDeserializer.TRUSTED_PACKAGES, "*"); // 모든 패키지를 신뢰한다.
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, PurchaseRequestMessageDeserializer.class);
         return new DefaultKafkaConsumerFactory<>(
                 config,
                 new StringDeserializer(),
-                new JsonDeserializer<>(PurchaseRequestMessage.class)
+                new PurchaseRequestMessageDeserializer() // JSON/바이너리 모두 읽음
         );
     }
 
     // consumerFactory를 사용하는 ConcurrentKafkaListenerContainerFactory를 생성
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, PurchaseRequestMessage> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, PurchaseRequestMessage> kafkaListenerContainerFactory(Environment environment) {
+        ConcurrentKafkaListenerContainerFactory<String, PurchaseRequestMessage> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
+        configureListenerExecutor(factory, environment);
+        return factory;
+    }
+
+    // 한 번의 poll 로 가져온 레코드들을 List 로 한꺼번에 전달하는 배치 리스너용 팩토리
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, PurchaseRequestMessage> batchKafkaListenerContainerFactory(Environment environment) {
         ConcurrentKafkaListenerContainerFactory<String, PurchaseRequestMessage> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        configureListenerExecutor(factory, environment);
         return factory;
     }
+
+    // spring.threads.virtual.enabled=true 이고 JDK 21 이상이면 리스너 스레드를 가상 스레드로 만든다.
+    // (직접 만든 팩토리에는 Spring Boot 의 가상 스레드 설정이 적용되지 않으므로 여기서 지정)
+    private void configureListenerExecutor(ConcurrentKafkaListenerContainerFactory<?, ?> factory, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            factory.getContainerProperties().setListenerTaskExecutor(new VirtualThreadTaskExecutor("time-sale-listener-"));
+        }
+    }
 }
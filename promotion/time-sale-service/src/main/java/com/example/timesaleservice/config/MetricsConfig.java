@@ -1,9 +1,11 @@
 package com.example.timesaleservice.config;
 
+import com.example.timesaleservice.aop.TimeSaleMetrics;
 import com.example.timesaleservice.aop.TimeSaleMetricsAspect;
-import io.micrometer.core.instrument.MeterRegistry;
+import com.example.timesaleservice.service.v2.TimeSaleNearCache;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import io.micrometer.core.instrument.binder.kafka.KafkaClientMetrics;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.Consumer;
@@ -22,9 +24,9 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class MetricsConfig {
 
-    @Bean // timeSaleMetricsAspect 라는 AOP 클래스를 빈으로 등록한다
-    public TimeSaleMetricsAspect timeSaleMetricsAspect(MeterRegistry registry) {
-        return new TimeSaleMetricsAspect(registry);
+    @Bean // timeSaleMetricsAspect 라는 AOP 클래스를 빈으로 등록한다 (메트릭 기록은 TimeSaleMetrics 에 위임)
+    public TimeSaleMetricsAspect timeSaleMetricsAspect(TimeSaleMetrics timeSaleMetrics) {
+        return new TimeSaleMetricsAspect(timeSaleMetrics);
     }
 
     @Bean
@@ -52,6 +54,12 @@ public class MetricsConfig {
         };
     }
 
+    // 타임세일 near cache 의 hit/miss, eviction, 크기 (hit ratio = hits / (hits + misses))
+    @Bean
+    public MeterBinder timeSaleNearCacheMetrics(TimeSaleNearCache timeSaleNearCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, timeSaleNearCache.getCache(), "time-sale-near-cache");
+    }
+
     @Bean
     public KafkaClientMetrics kafkaConsumerMetrics(ConsumerFactory<String, ?> consumerFactory) {
         Consumer<String, ?> consumer = consumerFactory.createConsumer();
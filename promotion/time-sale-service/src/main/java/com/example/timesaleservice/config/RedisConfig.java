@@ -2,6 +2,7 @@ package com.example.timesaleservice.config;
 
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
+import org.redisson.api.RedissonReactiveClient;
 import org.redisson.config.Config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -21,6 +22,14 @@ public class RedisConfig {
         Config config = new Config();
         config.useSingleServer()
                 .setAddress("redis://" + redisHost + ":" + redisPort);
+        // Lua 스크립트를 매번 전송하지 않고 EVALSHA로 실행한다. (v4 재고 스크립트)
+        config.setUseScriptCache(true);
         return Redisson.create(config);
     }
+
+    // 같은 연결을 쓰는 reactive API (v5 non-blocking 구매). 명령을 보내고 응답을 기다리는 동안 스레드를 점유하지 않는다.
+    @Bean
+    public RedissonReactiveClient redissonReactiveClient(RedissonClient redissonClient) {
+        return redissonClient.reactive();
+    }
 }
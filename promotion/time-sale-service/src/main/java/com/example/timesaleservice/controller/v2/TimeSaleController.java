@@ -3,6 +3,7 @@ package com.example.timesaleservice.controller.v2;
 import com.example.timesaleservice.domain.TimeSale;
 import com.example.timesaleservice.dto.TimeSaleDto;
 import com.example.timesaleservice.service.v2.TimeSaleRedisService;
+import com.example.timesaleservice.service.v2.TimeSaleStatusService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -17,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class TimeSaleController {
     private final TimeSaleRedisService timeSaleRedisService;
+    private final TimeSaleStatusService timeSaleStatusService;
 
     @PostMapping
     public ResponseEntity<TimeSaleDto.Response> createTimeSale(@Valid @RequestBody TimeSaleDto.CreateRequest request) {
@@ -41,6 +43,8 @@ public class TimeSaleController {
     public ResponseEntity<TimeSaleDto.PurchaseResponse> purchaseTimeSale(
             @PathVariable Long timeSaleId,
             @Valid @RequestBody TimeSaleDto.PurchaseRequest request) {
+        // 닫힌 타임세일은 분산 락을 잡기 전에 거절
+        timeSaleStatusService.validateOpen(timeSaleId);
         TimeSale timeSale = timeSaleRedisService.purchaseTimeSale(timeSaleId, request);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(TimeSaleDto.PurchaseResponse.from(timeSale, request.getUserId(), request.getQuantity()));
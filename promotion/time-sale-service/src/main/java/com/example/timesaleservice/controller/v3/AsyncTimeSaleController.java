@@ -1,18 +1,25 @@
 package com.example.timesaleservice.controller.v3;
 
 import com.example.timesaleservice.dto.TimeSaleDto;
+import com.example.timesaleservice.service.v2.TimeSaleStatusService;
 import com.example.timesaleservice.service.v3.AsyncTimeSaleService;
+import com.example.timesaleservice.service.v3.PurchaseResultStreamService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/v3/time-sales")
 @RequiredArgsConstructor
 public class AsyncTimeSaleController {
     private final AsyncTimeSaleService asyncTimeSaleService;
+    private final PurchaseResultStreamService purchaseResultStreamService;
+    private final TimeSaleStatusService timeSaleStatusService;
 
     @PostMapping
     public ResponseEntity<TimeSaleDto.Response> createTimeSale(@RequestBody TimeSaleDto.CreateRequest request) {
@@ -33,11 +40,14 @@ public class AsyncTimeSaleController {
     public ResponseEntity<TimeSaleDto.AsyncPurchaseResponse> purchaseTimeSale(
             @PathVariable Long id,
             @RequestBody TimeSaleDto.PurchaseRequest request) {
-        String requestId = asyncTimeSaleService.purchaseTimeSale(id, request);
-        return ResponseEntity.ok(TimeSaleDto.AsyncPurchaseResponse.builder()
-                .requestId(requestId)
-                .status("PENDING")
-                .build());
+        // 닫힌 타임세일은 대기열에 넣거나 Kafka 로 보내지 않음
+        timeSaleStatusService.validateOpen(id);
+        TimeSaleDto.AsyncPurchaseResponse response = asyncTimeSaleService.purchaseTimeSale(id, request);
+        // 대기실에 들어간 요청은 아직 접수되지 않았으므로 202 로 응답하고, 클라이언트는 waitingToken 으로 다시 요청한다.
+        if ("WAITING".equals(response.getStatus())) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        }
+        return ResponseEntity.ok(response);
     }
 
     // purchaseTimeSale 에서는 실제 구매되었는지 결과를 반환하지 않기 때문에 해당 메서드로 결과값을 확인한다.
@@ -47,4 +57,12 @@ public class AsyncTimeSaleController {
             @PathVariable String requestId) {
         return ResponseEntity.ok(asyncTimeSaleService.getPurchaseResult(timeSaleId, requestId));
     }
+
+    // 폴링 대신 연결 하나로 대기 순번(queue)과 최종 결과(result) 이벤트를 받는다.
+    @GetMapping(value = "/purchase/stream/{timeSaleId}/{requestId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPurchaseResult(
+            @PathVariable Long timeSaleId,
+            @PathVariable String requestId) {
+        return purchaseResultStreamService.connect(timeSaleId, requestId);
+    }
 }
@@ -0,0 +1,52 @@
+package com.example.timesaleservice.controller.v4;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.dto.TimeSaleDto;
+import com.example.timesaleservice.service.v2.TimeSaleStatusService;
+import com.example.timesaleservice.service.v4.TimeSaleAtomicService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController("TimeSaleControllerV4")
+@RequestMapping("/api/v4/time-sales")
+@RequiredArgsConstructor
+public class TimeSaleController {
+    private final TimeSaleAtomicService timeSaleAtomicService;
+    private final TimeSaleStatusService timeSaleStatusService;
+
+    @PostMapping
+    public ResponseEntity<TimeSaleDto.Response> createTimeSale(@Valid @RequestBody TimeSaleDto.CreateRequest request) {
+        TimeSale timeSale = timeSaleAtomicService.createTimeSale(request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(TimeSaleDto.Response.from(timeSale));
+    }
+
+    @GetMapping("/{timeSaleId}")
+    public ResponseEntity<TimeSaleDto.Response> getTimeSale(@PathVariable Long timeSaleId) {
+        TimeSale timeSale = timeSaleAtomicService.getTimeSale(timeSaleId);
+        return ResponseEntity.ok(TimeSaleDto.Response.from(timeSale));
+    }
+
+    @GetMapping
+    public ResponseEntity<Page<TimeSaleDto.Response>> getOngoingTimeSales(@PageableDefault Pageable pageable) {
+        Page<TimeSale> timeSales = timeSaleAtomicService.getOngoingTimeSales(pageable);
+        return ResponseEntity.ok(timeSales.map(TimeSaleDto.Response::from));
+    }
+
+    @PostMapping("/{timeSaleId}/purchase")
+    public ResponseEntity<TimeSaleDto.PurchaseResponse> purchaseTimeSale(
+            @PathVariable Long timeSaleId,
+            @Valid @RequestBody TimeSaleDto.PurchaseRequest request) {
+        // 닫힌 타임세일은 Redis 스크립트 호출 없이 거절
+        timeSaleStatusService.validateOpen(timeSaleId);
+        TimeSale timeSale = timeSaleAtomicService.purchaseTimeSale(timeSaleId, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(TimeSaleDto.PurchaseResponse.from(timeSale, request.getUserId(), request.getQuantity()));
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.timesaleservice.controller.v5;
+
+import com.example.timesaleservice.dto.TimeSaleDto;
+import com.example.timesaleservice.service.v5.ReactiveTimeSaleService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+// Mono 를 반환하면 Spring MVC 는 비동기 요청으로 처리하고 요청 스레드를 바로 반환한다. (응답은 Mono 가 끝날 때 기록)
+// 생성/조회는 v4, 구매 결과 조회/스트림은 v3 API 를 그대로 사용한다.
+@RestController
+@RequestMapping("/api/v5/time-sales")
+@RequiredArgsConstructor
+public class ReactiveTimeSaleController {
+    private final ReactiveTimeSaleService reactiveTimeSaleService;
+
+    @PostMapping("/{timeSaleId}/purchase")
+    public Mono<ResponseEntity<TimeSaleDto.AsyncPurchaseResponse>> purchaseTimeSale(
+            @PathVariable Long timeSaleId,
+            @Valid @RequestBody TimeSaleDto.PurchaseRequest request) {
+        return reactiveTimeSaleService.purchaseTimeSale(timeSaleId, request)
+                .map(ResponseEntity::ok);
+    }
+}
@@ -44,6 +44,10 @@ public class TimeSale {
     @Column(nullable = false)
     private TimeSaleStatus status;
 
+    private Long maxPurchasePerUser; // 1인당 최대 구매 수량 (null 이면 제한 없음)
+
+    private Integer stockShards; // v4 재고 카운터를 나눌 샤드 수 (null 이면 카운터 1개)
+
     @Version
     private Long version;
 
@@ -56,7 +60,7 @@ public class TimeSale {
     private LocalDateTime updatedAt;
 
     @Builder
-    public TimeSale(Long id, Product product, Long quantity, Long remainingQuantity, Long discountPrice, LocalDateTime startAt, LocalDateTime endAt, TimeSaleStatus status) {
+    public TimeSale(Long id, Product product, Long quantity, Long remainingQuantity, Long discountPrice, LocalDateTime startAt, LocalDateTime endAt, TimeSaleStatus status, Long maxPurchasePerUser, Integer stockShards) {
         this.id = id;
         this.product = product;
         this.quantity = quantity;
@@ -65,12 +69,17 @@ public class TimeSale {
         this.startAt = startAt;
         this.endAt = endAt;
         this.status = status;
+        this.maxPurchasePerUser = maxPurchasePerUser;
+        this.stockShards = stockShards;
         this.version = 0L;
     }
 
     public void purchase(Long quantity) {
         validatePurchase(quantity);
         this.remainingQuantity -= quantity;
+        if (this.remainingQuantity == 0) {
+            this.status = TimeSaleStatus.SOLD_OUT; // 재고 소진
+        }
     }
 
     private void validatePurchase(Long quantity) {
@@ -99,6 +108,36 @@ public class TimeSale {
         }
     }
 
+    public boolean hasPurchaseLimit() {
+        return maxPurchasePerUser != null;
+    }
+
+    public boolean hasStockShards() {
+        return stockShards != null && stockShards > 1;
+    }
+
+    // Redis 재고 카운터에서 읽은 남은 수량을 반영한다. (v4)
+    public void updateRemainingQuantity(Long remainingQuantity) {
+        this.remainingQuantity = remainingQuantity;
+    }
+
+    // near cache 에서 불변 필드(상품, 가격, 기간)는 그대로 두고 수량/상태만 바꾼 사본을 만든다.
+    public TimeSale copyWith(Long remainingQuantity, TimeSaleStatus status) {
+        TimeSale copy = new TimeSale(id, getProduct(), quantity, remainingQuantity, discountPrice, startAt, endAt, status, maxPurchasePerUser, stockShards);
+        copy.version = this.version;
+        copy.createdAt = this.createdAt;
+        copy.updatedAt = this.updatedAt;
+        return copy;
+    }
+
+    // 바이너리 캐시에서 복원할 때 빌더로 채울 수 없는 버전과 생성/수정 시각을 채운다.
+    public TimeSale restoreAudit(Long version, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.version = version;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        return this;
+    }
+
     public Product getProduct() {
         if (this.product instanceof HibernateProxy) {
             return (Product) ((HibernateProxy) this.product).getHibernateLazyInitializer().getImplementation();
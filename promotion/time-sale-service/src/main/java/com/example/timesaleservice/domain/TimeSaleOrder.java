@@ -18,8 +18,10 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class) // AuditingEntityListener를 사용해 엔티티의 생성 및 수정 시간을 자동으로 관리
 public class TimeSaleOrder {
 
+    // IDENTITY 전략은 Hibernate JDBC 배치 insert 를 막기 때문에 시퀀스(pooled)를 사용한다.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "time_sale_order_seq")
+    @SequenceGenerator(name = "time_sale_order_seq", sequenceName = "time_sale_order_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -14,4 +14,6 @@ public class PurchaseRequestMessage {
     private Long userId;
     private Long quantity;
     private String requestId;
+    private String idempotencyKey;
+    private boolean stockReserved; // v5 처럼 요청 시점에 Redis 재고 카운터를 이미 차감한 요청이면 true
 }
@@ -0,0 +1,17 @@
+package com.example.timesaleservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 구매 요청 처리 결과를 Redis pub/sub 으로 모든 인스턴스에 전달하기 위한 메시지
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchaseResultEvent {
+    private Long timeSaleId;
+    private String requestId;
+    private String status;
+}
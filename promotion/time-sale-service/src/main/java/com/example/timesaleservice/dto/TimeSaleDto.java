@@ -28,6 +28,13 @@ public class TimeSaleDto {
         @NotNull(message = "End time is required")
         @Future(message = "End time must be in the future") // 오직 미래 시간이어야 한다
         private LocalDateTime endAt;
+
+        @Positive(message = "Max purchase per user must be positive")
+        private Long maxPurchasePerUser; // 1인당 최대 구매 수량 (없으면 제한 없음)
+
+        @Min(value = 2, message = "Stock shards must be at least 2")
+        @Max(value = 64, message = "Stock shards must be at most 64")
+        private Integer stockShards; // 주문이 몰리는 타임세일의 재고 카운터를 나눌 샤드 수 (v4, 없으면 나누지 않음)
     }
 
     @Getter
@@ -39,6 +46,12 @@ public class TimeSaleDto {
         @NotNull(message = "quantity must not be null")
         @Min(value = 1, message = "quantity must be greater than 0")
         private Long quantity; // 구매하려는 수량
+
+        @Size(max = 64, message = "idempotencyKey must be at most 64 characters")
+        private String idempotencyKey; // 재시도해도 같은 값을 보내면 한 번만 처리 (선택)
+
+        @Size(max = 64, message = "waitingToken must be at most 64 characters")
+        private String waitingToken; // 대기실에서 받은 토큰 (v3, 다시 요청할 때 그대로 보냄)
     }
 
     @Getter
@@ -53,6 +66,8 @@ public class TimeSaleDto {
         private LocalDateTime endAt;
         private LocalDateTime createdAt;
         private String status;
+        private Long maxPurchasePerUser;
+        private Integer stockShards;
 
         public static Response from(TimeSale timeSale) {
             return Response.builder()
@@ -65,6 +80,8 @@ public class TimeSaleDto {
                     .endAt(timeSale.getEndAt())
                     .createdAt(timeSale.getCreatedAt())
                     .status(timeSale.getStatus().name())
+                    .maxPurchasePerUser(timeSale.getMaxPurchasePerUser())
+                    .stockShards(timeSale.getStockShards())
                     .build();
         }
     }
@@ -101,5 +118,7 @@ public class TimeSaleDto {
         private String status;
         private Integer queuePosition;
         private Long totalWaiting;
+        private String waitingToken; // status 가 WAITING 일 때만
+        private Long estimatedWaitMillis; // status 가 WAITING 일 때만
     }
 }
@@ -0,0 +1,17 @@
+package com.example.timesaleservice.dto;
+
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 타임세일이 매진/종료된 사실을 모든 인스턴스에 전달하기 위한 메시지
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSaleStatusEvent {
+    private Long timeSaleId;
+    private TimeSaleStatus status;
+}
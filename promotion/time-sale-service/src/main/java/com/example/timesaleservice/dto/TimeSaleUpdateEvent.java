@@ -0,0 +1,20 @@
+package com.example.timesaleservice.dto;
+
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// saveToRedis 로 변경된 타임세일의 수량/상태를 각 인스턴스의 near cache 에 전달하기 위한 메시지
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSaleUpdateEvent {
+    private Long timeSaleId;
+    private Long remainingQuantity;
+    private TimeSaleStatus status;
+    private Long version;
+    private Long publishedAt; // 발행 시각 (epoch millis) - staleness 측정용
+}
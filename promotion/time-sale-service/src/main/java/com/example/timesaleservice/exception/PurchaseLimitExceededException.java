@@ -0,0 +1,8 @@
+package com.example.timesaleservice.exception;
+
+// 1인당 최대 구매 수량을 넘는 구매 요청
+public class PurchaseLimitExceededException extends TimeSaleException {
+    public PurchaseLimitExceededException(String message) {
+        super(message);
+    }
+}
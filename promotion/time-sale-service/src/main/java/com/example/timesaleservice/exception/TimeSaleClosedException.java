@@ -0,0 +1,8 @@
+package com.example.timesaleservice.exception;
+
+// 매진(SOLD_OUT) 또는 종료(ENDED)된 타임세일에 대한 구매 요청
+public class TimeSaleClosedException extends TimeSaleException {
+    public TimeSaleClosedException(String message) {
+        super(message);
+    }
+}
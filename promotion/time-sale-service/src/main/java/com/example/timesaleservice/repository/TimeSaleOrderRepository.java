@@ -1,7 +1,24 @@
 package com.example.timesaleservice.repository;
 
+import com.example.timesaleservice.domain.OrderStatus;
 import com.example.timesaleservice.domain.TimeSaleOrder;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface TimeSaleOrderRepository extends JpaRepository<TimeSaleOrder, Long> {
+    // 타임세일별 주문 수량 합계 (excludedStatus 인 주문 제외, 주문이 없는 타임세일은 결과에 없음) - 재고 정합성 점검용
+    @Query("SELECT o.timeSale.id AS timeSaleId, SUM(o.quantity) AS quantity FROM TimeSaleOrder o " +
+            "WHERE o.timeSale.id IN :timeSaleIds AND o.status <> :excludedStatus GROUP BY o.timeSale.id")
+    List<OrderedQuantity> sumQuantityByTimeSaleIds(@Param("timeSaleIds") Collection<Long> timeSaleIds,
+                                                   @Param("excludedStatus") OrderStatus excludedStatus);
+
+    interface OrderedQuantity {
+        Long getTimeSaleId();
+
+        Long getQuantity();
+    }
 }
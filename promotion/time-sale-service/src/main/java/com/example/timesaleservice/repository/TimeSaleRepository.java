@@ -5,12 +5,16 @@ import com.example.timesaleservice.domain.TimeSaleStatus;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface TimeSaleRepository extends JpaRepository<TimeSale, Long> {
@@ -20,7 +24,40 @@ public interface TimeSaleRepository extends JpaRepository<TimeSale, Long> {
             @Param("status") TimeSaleStatus status,
             Pageable pageable);
 
+    // 상품을 함께 읽는다. (트랜잭션 밖에서 캐시에 쓸 때 LAZY 상품을 초기화하지 못하는 문제 방지)
+    @Query("SELECT ts FROM TimeSale ts JOIN FETCH ts.product WHERE ts.id = :id")
+    Optional<TimeSale> findWithProductById(@Param("id") Long id);
+
+    // id 커서로 다음 묶음을 읽는다. (OFFSET/COUNT 쿼리 없음, 잠금 없음) - 재고 정합성 점검용
+    Slice<TimeSale> findByStatusAndIdGreaterThanOrderByIdAsc(TimeSaleStatus status, Long id, Pageable pageable);
+
+    // 아직 끝나지 않은 타임세일 (시작 전 포함) - Redis 인덱스 재구성용
+    List<TimeSale> findAllByEndAtAfterAndStatus(LocalDateTime now, TimeSaleStatus status);
+
+    // 종료 시각이 지났는데 아직 닫히지 않은 타임세일 - 서버가 꺼져 있는 동안 놓친 종료 전환용
+    List<TimeSale> findAllByEndAtLessThanEqualAndStatus(LocalDateTime now, TimeSaleStatus status);
+
+    // 닫힌 타임세일 ID만 읽는다. - 서버가 뜰 때 닫힌 타임세일 집합 복원용
+    @Query("SELECT ts.id FROM TimeSale ts WHERE ts.status <> :status")
+    List<Long> findIdsByStatusNot(@Param("status") TimeSaleStatus status);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT ts FROM TimeSale ts WHERE ts.id = :id")
     Optional<TimeSale> findByIdWithPessimisticLock(@Param("id") Long id);
+
+    // 엔티티를 읽지 않고 재고만 차감한다. (재고 검증은 Redis에서 이미 끝난 상태)
+    // 버전도 올려서 이전 버전으로 읽은 엔티티(v2 의 Redis 사본)를 저장하면 낙관적 락 예외가 나게 한다. (차감분을 덮어쓰지 않음)
+    // 영속성 컨텍스트에 남은 이전 값은 비워서 이어서 읽을 때 차감된 행을 읽게 한다.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TimeSale ts SET ts.remainingQuantity = ts.remainingQuantity - :quantity, ts.version = ts.version + 1 " +
+            "WHERE ts.id = :id AND ts.remainingQuantity >= :quantity")
+    int decreaseRemainingQuantity(@Param("id") Long id, @Param("quantity") Long quantity);
+
+    // 현재 상태가 일치할 때만 바꾸므로 여러 인스턴스가 동시에 호출해도 한 번만 반영된다.
+    @Transactional
+    @Modifying
+    @Query("UPDATE TimeSale ts SET ts.status = :status WHERE ts.id = :id AND ts.status = :currentStatus")
+    int updateStatus(@Param("id") Long id,
+                     @Param("currentStatus") TimeSaleStatus currentStatus,
+                     @Param("status") TimeSaleStatus status);
 }
@@ -9,6 +9,8 @@ import com.example.timesaleservice.dto.TimeSaleDto;
 import com.example.timesaleservice.repository.ProductRepository;
 import com.example.timesaleservice.repository.TimeSaleOrderRepository;
 import com.example.timesaleservice.repository.TimeSaleRepository;
+import com.example.timesaleservice.service.v2.TimeSalePurchaseLimitService;
+import com.example.timesaleservice.service.v2.TimeSaleStatusService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -24,6 +26,8 @@ public class TimeSaleService {
     private final ProductRepository productRepository;
     private final TimeSaleRepository timeSaleRepository;
     private final TimeSaleOrderRepository timeSaleOrderRepository;
+    private final TimeSaleStatusService timeSaleStatusService;
+    private final TimeSalePurchaseLimitService timeSalePurchaseLimitService;
 
     @Transactional
     public TimeSale createTimeSale(TimeSaleDto.CreateRequest request) {
@@ -41,6 +45,8 @@ public class TimeSaleService {
                 .startAt(request.getStartAt())
                 .endAt(request.getEndAt())
                 .status(TimeSaleStatus.ACTIVE)
+                .maxPurchasePerUser(request.getMaxPurchasePerUser())
+                .stockShards(request.getStockShards())
                 .build();
 
         return timeSaleRepository.save(timeSale);
@@ -65,19 +71,31 @@ public class TimeSaleService {
         TimeSale timeSale = timeSaleRepository.findByIdWithPessimisticLock(timeSaleId)
                 .orElseThrow(() -> new IllegalArgumentException("TimeSale not found"));
 
-        // timeSale 이 정상적으로 있으면 구매 로직을 실행한다.
-        timeSale.purchase(request.getQuantity());
-        timeSaleRepository.save(timeSale);
-
-        TimeSaleOrder order = TimeSaleOrder.builder()
-                .userId(request.getUserId())
-                .timeSale(timeSale)
-                .quantity(request.getQuantity())
-                .discountPrice(timeSale.getDiscountPrice())
-                .build();
+        // 1인당 구매 제한은 Redis 에서 확인하고, 이후 단계가 실패하면 되돌린다.
+        timeSalePurchaseLimitService.acquire(timeSale, request.getUserId(), request.getQuantity());
+        try {
+            // timeSale 이 정상적으로 있으면 구매 로직을 실행한다.
+            timeSale.purchase(request.getQuantity());
+            timeSaleRepository.save(timeSale);
+
+            TimeSaleOrder order = TimeSaleOrder.builder()
+                    .userId(request.getUserId())
+                    .timeSale(timeSale)
+                    .quantity(request.getQuantity())
+                    .discountPrice(timeSale.getDiscountPrice())
+                    .build();
+
+            TimeSaleOrder savedOrder = timeSaleOrderRepository.save(order);
+            savedOrder.complete(); // status를 COMPLETE로 변경
+        } catch (RuntimeException e) {
+            timeSalePurchaseLimitService.release(timeSale, request.getUserId(), request.getQuantity());
+            throw e;
+        }
 
-        TimeSaleOrder savedOrder = timeSaleOrderRepository.save(order);
-        savedOrder.complete(); // status를 COMPLETE로 변경
+        // 마지막 재고를 팔았으면 다른 인스턴스에도 매진을 알림
+        if (timeSale.getStatus() == TimeSaleStatus.SOLD_OUT) {
+            timeSaleStatusService.markClosed(timeSaleId, TimeSaleStatus.SOLD_OUT);
+        }
 
         return timeSale;
     }
@@ -0,0 +1,151 @@
+package com.example.timesaleservice.service.v2;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 클라이언트가 보낸 멱등성 키로 중복 구매 요청을 걸러내는 서비스
+ * - "purchase-idempotency:{timeSaleId}:{userId}:{key}" 에 처음 요청한 요청 ID 를 기록 (dedup window 동안 유지)
+ * - 중복 여부 확인과 기록을 Lua 스크립트 한 번으로 처리하므로 Redis 왕복 1회, DB 조회 없음
+ * - Consumer 에서는 이미 결과(SUCCESS/FAIL)가 기록된 요청 ID 를 다시 처리하지 않음 (Kafka 재전송 대비)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PurchaseIdempotencyService {
+    private static final String IDEMPOTENCY_KEY = "purchase-idempotency:";
+    private static final String RESULTS_KEY = "purchase-results:";
+
+    // 키가 없으면 요청 ID 를 기록하고, 있으면 먼저 기록된 요청 ID 를 돌려준다.
+    private static final String CLAIM_SCRIPT = """
+            local existing = redis.call('GET', KEYS[1])
+            if existing then
+                return existing
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            return ARGV[1]
+            """;
+
+    // 자기가 기록한 키만 지운다. (window 가 지나 다른 요청이 기록한 키는 건드리지 않음)
+    private static final String RELEASE_SCRIPT = """
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """;
+
+    private final RedissonClient redissonClient;
+    private final RedissonReactiveClient redissonReactiveClient;
+
+    @Value("${time-sale.idempotency.window:10m}")
+    private Duration window;
+
+    /**
+     * 멱등성 키에 요청 ID 를 기록하고, 이 키를 처음 사용한 요청 ID 를 반환
+     * - 반환값이 requestId 와 다르면 중복 요청이다.
+     */
+    public String claim(Long timeSaleId, Long userId, String idempotencyKey, String requestId) {
+        return redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                CLAIM_SCRIPT,
+                RScript.ReturnType.VALUE,
+                List.of(toKey(timeSaleId, userId, idempotencyKey)),
+                requestId,
+                String.valueOf(window.toMillis()));
+    }
+
+    /**
+     * claim 의 non-blocking 버전 (v5)
+     */
+    public Mono<String> claimReactive(Long timeSaleId, Long userId, String idempotencyKey, String requestId) {
+        return redissonReactiveClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                CLAIM_SCRIPT,
+                RScript.ReturnType.VALUE,
+                List.of(toKey(timeSaleId, userId, idempotencyKey)),
+                requestId,
+                String.valueOf(window.toMillis()));
+    }
+
+    /**
+     * 처리에 실패한 요청의 키를 풀어서 클라이언트가 같은 키로 다시 시도할 수 있게 함
+     */
+    public void release(Long timeSaleId, Long userId, String idempotencyKey, String requestId) {
+        try {
+            redissonClient.getScript(StringCodec.INSTANCE).eval(
+                    RScript.Mode.READ_WRITE,
+                    RELEASE_SCRIPT,
+                    RScript.ReturnType.INTEGER,
+                    List.of(toKey(timeSaleId, userId, idempotencyKey)),
+                    requestId);
+        } catch (Exception e) {
+            log.error("Failed to release idempotency key: timeSaleId={}, userId={}, key={}", timeSaleId, userId, idempotencyKey, e);
+        }
+    }
+
+    /**
+     * release 의 non-blocking 버전 (v5, 실패해도 에러를 내보내지 않음)
+     */
+    public Mono<Void> releaseReactive(Long timeSaleId, Long userId, String idempotencyKey, String requestId) {
+        return redissonReactiveClient.getScript(StringCodec.INSTANCE).eval(
+                        RScript.Mode.READ_WRITE,
+                        RELEASE_SCRIPT,
+                        RScript.ReturnType.INTEGER,
+                        List.of(toKey(timeSaleId, userId, idempotencyKey)),
+                        requestId)
+                .onErrorResume(e -> {
+                    log.error("Failed to release idempotency key: timeSaleId={}, userId={}, key={}", timeSaleId, userId, idempotencyKey, e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * 이미 처리 결과가 기록된 요청인지 확인
+     */
+    public boolean isProcessed(Long timeSaleId, String requestId) {
+        String result = redissonClient.<String, String>getMap(RESULTS_KEY + timeSaleId, StringCodec.INSTANCE).get(requestId);
+        return isFinished(result);
+    }
+
+    /**
+     * 여러 요청 중 이미 처리된 요청 ID 를 한 번의 왕복으로 조회 (타임세일마다 HMGET 한 번)
+     */
+    public Set<String> findProcessed(Map<Long, ? extends Collection<String>> requestIdsByTimeSale) {
+        RBatch batch = redissonClient.createBatch();
+        List<RFuture<Map<String, String>>> results = new ArrayList<>();
+        requestIdsByTimeSale.forEach((timeSaleId, requestIds) -> results.add(
+                batch.<String, String>getMap(RESULTS_KEY + timeSaleId, StringCodec.INSTANCE).getAllAsync(new HashSet<>(requestIds))));
+        batch.execute();
+
+        Set<String> processed = new HashSet<>();
+        for (RFuture<Map<String, String>> result : results) {
+            result.toCompletableFuture().join().forEach((requestId, status) -> {
+                if (isFinished(status)) {
+                    processed.add(requestId);
+                }
+            });
+        }
+        return processed;
+    }
+
+    private boolean isFinished(String result) {
+        return "SUCCESS".equals(result) || "FAIL".equals(result);
+    }
+
+    private String toKey(Long timeSaleId, Long userId, String idempotencyKey) {
+        return IDEMPOTENCY_KEY + timeSaleId + ":" + userId + ":" + idempotencyKey;
+    }
+}
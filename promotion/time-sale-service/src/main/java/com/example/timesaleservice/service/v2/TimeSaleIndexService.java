@@ -0,0 +1,146 @@
+package com.example.timesaleservice.service.v2;
+
+import com.example.timesaleservice.domain.TimeSale;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RBatch;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 진행 중인 타임세일 목록을 DB 없이 조회하기 위한 Redis 인덱스
+ * - "time-sale-index:start" : 타임세일 ID -> 시작 시각(epoch millis)
+ * - "time-sale-index:end"   : 타임세일 ID -> 종료 시각(epoch millis)
+ * - ACTIVE 상태인 타임세일만 인덱스에 존재 (상태가 바뀌면 제거)
+ */
+@Service
+@RequiredArgsConstructor
+public class TimeSaleIndexService {
+    private static final String START_INDEX_KEY = "time-sale-index:start";
+    private static final String END_INDEX_KEY = "time-sale-index:end";
+    private static final String SORT_PROPERTY = "startAt";
+
+    // 시작한 타임세일(startAt <= now) 중 종료되지 않은 것(now < endAt)의 한 페이지를 시작 시각 순으로 반환
+    // KEYS[1]: 시작 인덱스, KEYS[2]: 종료 인덱스
+    // ARGV[1]: now, ARGV[2]: offset, ARGV[3]: 페이지 크기(음수면 전체), ARGV[4]: '1' 이면 시작 시각 내림차순
+    // 반환: { 전체 개수, ID... }
+    // - 종료됐지만 아직 인덱스에서 빠지지 않은 ID(종료 타이머가 닫기 전)만 따로 읽어서 offset 을 보정하므로
+    //   전체를 훑지 않고 ZRANGEBYSCORE LIMIT 로 페이지만 읽는다. (O(log N + 페이지 크기 + 종료 대기 수))
+    private static final String ONGOING_PAGE_SCRIPT = """
+            local now = tonumber(ARGV[1])
+            local offset = tonumber(ARGV[2])
+            local limit = tonumber(ARGV[3])
+            local desc = ARGV[4] == '1'
+            local started = redis.call('ZCOUNT', KEYS[1], '-inf', now)
+            local ended = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', now)
+            local result = { started - #ended }
+            if limit == 0 then
+                return result
+            end
+
+            local endedIds = {}
+            local ranks = {}
+            for _, id in ipairs(ended) do
+                endedIds[id] = true
+                local rank = redis.call('ZRANK', KEYS[1], id)
+                if rank then
+                    if desc then
+                        rank = started - 1 - rank
+                    end
+                    table.insert(ranks, rank)
+                end
+            end
+            table.sort(ranks)
+            for _, rank in ipairs(ranks) do
+                if rank < offset then
+                    offset = offset + 1
+                else
+                    break
+                end
+            end
+
+            local count = -1
+            if limit > 0 then
+                count = limit + #ranks
+            end
+            local ids
+            if desc then
+                ids = redis.call('ZREVRANGEBYSCORE', KEYS[1], now, '-inf', 'LIMIT', offset, count)
+            else
+                ids = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', now, 'LIMIT', offset, count)
+            end
+            for _, id in ipairs(ids) do
+                if limit > 0 and #result > limit then
+                    break
+                end
+                if not endedIds[id] then
+                    table.insert(result, id)
+                end
+            end
+            return result
+            """;
+
+    private final RedissonClient redissonClient;
+
+    public void add(TimeSale timeSale) {
+        RBatch batch = redissonClient.createBatch();
+        batch.<String>getScoredSortedSet(START_INDEX_KEY, StringCodec.INSTANCE)
+                .addAsync(toEpochMilli(timeSale.getStartAt()), String.valueOf(timeSale.getId()));
+        batch.<String>getScoredSortedSet(END_INDEX_KEY, StringCodec.INSTANCE)
+                .addAsync(toEpochMilli(timeSale.getEndAt()), String.valueOf(timeSale.getId()));
+        batch.execute();
+    }
+
+    public void remove(Long timeSaleId) {
+        RBatch batch = redissonClient.createBatch();
+        batch.<String>getScoredSortedSet(START_INDEX_KEY, StringCodec.INSTANCE).removeAsync(String.valueOf(timeSaleId));
+        batch.<String>getScoredSortedSet(END_INDEX_KEY, StringCodec.INSTANCE).removeAsync(String.valueOf(timeSaleId));
+        batch.execute();
+    }
+
+    /**
+     * 진행 중인 타임세일 ID 한 페이지 (시작 시각 순, 같으면 ID 문자열 순)
+     * - 정렬은 startAt 오름차순/내림차순만 지원 (인덱스 순서로 페이지를 읽으므로 다른 정렬은 예외)
+     */
+    public Page<Long> findOngoingIds(LocalDateTime now, Pageable pageable) {
+        List<Object> result = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_ONLY,
+                ONGOING_PAGE_SCRIPT,
+                RScript.ReturnType.MULTI,
+                List.of(START_INDEX_KEY, END_INDEX_KEY),
+                String.valueOf(toEpochMilli(now)),
+                String.valueOf(pageable.isPaged() ? pageable.getOffset() : 0L),
+                String.valueOf(pageable.isPaged() ? pageable.getPageSize() : -1),
+                isDescending(pageable.getSort()) ? "1" : "0");
+
+        long total = Math.max(Long.parseLong(result.get(0).toString()), 0L);
+        List<Long> ids = result.subList(1, result.size()).stream()
+                .map(id -> Long.valueOf(id.toString()))
+                .toList();
+        return new PageImpl<>(ids, pageable, total);
+    }
+
+    private boolean isDescending(Sort sort) {
+        if (sort.isUnsorted()) {
+            return false;
+        }
+        Sort.Order order = sort.getOrderFor(SORT_PROPERTY);
+        if (order == null || sort.stream().count() > 1) {
+            throw new IllegalArgumentException("Unsupported sort for ongoing time sales: " + sort + " (only " + SORT_PROPERTY + ")");
+        }
+        return order.isDescending();
+    }
+
+    private long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.timesaleservice.service.v2;
+
+import com.example.timesaleservice.domain.TimeSale;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 타임세일별 Redis 키의 수명 관리
+ * 1. 타임세일 키는 종료 시각 + retention 에 만료되도록 쓰는 쪽에서 PEXPIREAT 을 함께 보냄
+ *    (TimeSaleProducer, TimeSaleAdmissionService, TimeSalePurchaseLimitService, v4 TimeSaleStockService, TimeSaleShardedStockService)
+ * 2. 타임세일이 닫히면 남은 키를 정리 (TimeSaleStatusService)
+ *    - 입장 슬롯/대기실은 바로 삭제 (더 이상 입장시키지 않음)
+ *    - 샤드 재고 등록 집합(time-sale-stock-sharded)에서 제외
+ *    - 구매 결과, 대기열, 1인당 구매 수량, v4 재고 카운터는 만료 시각이 없는 경우에만 retention 뒤에 만료
+ *      (쓰기 때 붙인 만료 시각을 앞당기지 않으므로 닫힌 뒤에도 종료 시각 + retention 까지 결과 조회, 남은 메시지 처리 가능)
+ * - 닫히는 시점을 놓쳐도 쓰기 때 붙인 만료 시각으로 결국 지워진다. (샤드 재고 "time-sale-stock:{id}:{n}" 도 적재 때 붙인 만료 시각으로 지워짐)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimeSaleKeyLifecycleService {
+    private static final String RESULTS_KEY = "purchase-results:";
+    private static final String QUEUE_KEY = "time-sale-queue:";
+    private static final String QUEUE_SEQUENCE_KEY = "time-sale-queue-seq:"; // 대기열보다 먼저 없어지면 score 가 1 부터 다시 시작하므로 같이 만료
+    private static final String USER_PURCHASES_KEY = "time-sale-user-purchases:";
+    private static final String STOCK_KEY = "time-sale-stock:";
+    private static final String ADMISSION_KEY = "time-sale-admission-slots:";
+    private static final String WAITING_ROOM_KEY = "time-sale-waiting-room:";
+    private static final String WAITING_SEEN_KEY = "time-sale-waiting-seen:";
+    private static final String LEGACY_TOTAL_REQUESTS_KEY = "time-sale-total-requests:"; // 대기열 크기(ZCARD)로 대체
+    private static final String SHARDED_KEY = "time-sale-stock-sharded";
+
+    // 만료 시각이 없는 키에만 retention 을 건다. (PTTL -1: 만료 없음, -2: 키 없음)
+    private static final String EXPIRE_IF_PERSISTENT_SCRIPT = """
+            for _, key in ipairs(KEYS) do
+                if redis.call('PTTL', key) == -1 then
+                    redis.call('PEXPIRE', key, ARGV[1])
+                end
+            end
+            return 0
+            """;
+
+    private final RedissonClient redissonClient;
+
+    @Value("${time-sale.keys.retention:10m}")
+    private Duration retention; // 종료 후 구매 결과를 조회할 수 있는 기간
+
+    /**
+     * 타임세일 키가 만료될 시각 (종료 시각 + retention)
+     */
+    public Instant getExpireAt(TimeSale timeSale) {
+        return timeSale.getEndAt().atZone(ZoneId.systemDefault()).toInstant().plus(retention);
+    }
+
+    /**
+     * 쓰기 때 PEXPIREAT 대신 스크립트 안에서 종료 시각(endAt 필드) 기준으로 만료 시각을 계산할 때 사용
+     */
+    public long getRetentionMillis() {
+        return retention.toMillis();
+    }
+
+    /**
+     * 닫힌 타임세일의 키 정리 (한 번의 왕복)
+     */
+    public void sweep(Long timeSaleId) {
+        try {
+            RBatch batch = redissonClient.createBatch();
+            batch.getKeys().deleteAsync(
+                    ADMISSION_KEY + timeSaleId,
+                    WAITING_ROOM_KEY + timeSaleId,
+                    WAITING_SEEN_KEY + timeSaleId,
+                    LEGACY_TOTAL_REQUESTS_KEY + timeSaleId);
+            batch.getSet(SHARDED_KEY, StringCodec.INSTANCE).removeAsync(String.valueOf(timeSaleId));
+            batch.getScript(StringCodec.INSTANCE).evalAsync(
+                    RScript.Mode.READ_WRITE,
+                    EXPIRE_IF_PERSISTENT_SCRIPT,
+                    RScript.ReturnType.INTEGER,
+                    List.of(RESULTS_KEY + timeSaleId, QUEUE_KEY + timeSaleId, QUEUE_SEQUENCE_KEY + timeSaleId, USER_PURCHASES_KEY + timeSaleId, STOCK_KEY + timeSaleId),
+                    String.valueOf(retention.toMillis()));
+            batch.execute();
+            log.info("TimeSale keys swept: timeSaleId={}, retention={}", timeSaleId, retention);
+        } catch (Exception e) {
+            log.error("Failed to sweep TimeSale keys: timeSaleId={}", timeSaleId, e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.timesaleservice.service.v2;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.dto.TimeSaleUpdateEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 인스턴스 로컬에 타임세일 조회 결과를 보관하는 near cache
+ * - 상품, 가격, 판매 기간 같은 불변 필드는 한 번 읽은 TimeSale 을 그대로 보관
+ * - 자주 바뀌는 남은 수량/상태는 따로 보관하고 Redis pub/sub 으로 받은 값으로 갱신 (Redis 재조회 없음)
+ * - 크기 제한이 있는 Caffeine 캐시를 사용하며 hit ratio 와 staleness 는 MetricsConfig 에서 노출
+ */
+@Slf4j
+@Component
+public class TimeSaleNearCache {
+    private static final String UPDATE_CHANNEL = "time-sale-update-channel";
+    private static final long MAXIMUM_SIZE = 10_000L;
+
+    private final RedissonClient redissonClient;
+    private final Cache<Long, Entry> cache;
+    private final Timer stalenessTimer;
+
+    public TimeSaleNearCache(RedissonClient redissonClient, MeterRegistry registry) {
+        this.redissonClient = redissonClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .recordStats()
+                .build();
+        // saveToRedis 에서 발행한 시점부터 이 인스턴스의 캐시에 반영될 때까지 걸린 시간
+        this.stalenessTimer = Timer.builder("time.sale.near.cache.staleness")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        getTopic().addListener(TimeSaleUpdateEvent.class, (channel, event) -> applyUpdate(event));
+    }
+
+    /**
+     * 캐시에서 조회하고 없으면 loader 로 읽어서 보관
+     * - 호출할 때마다 새 사본을 반환하므로 호출자가 값을 바꿔도 캐시에는 영향이 없다.
+     * - loader(Redis/DB 조회)는 캐시 락 밖에서 실행한다. cache.get(key, loader) 는 ConcurrentHashMap.compute 안에서
+     *   loader 를 실행하므로 가상 스레드가 I/O 동안 캐리어 스레드에 고정(pinning)된다. 동시에 놓친 요청은 각자 읽고 먼저 넣은 값을 쓴다.
+     */
+    public TimeSale get(Long timeSaleId, Supplier<TimeSale> loader) {
+        Entry entry = cache.getIfPresent(timeSaleId);
+        if (entry == null) {
+            Entry loaded = new Entry(loader.get());
+            Entry existing = cache.asMap().putIfAbsent(timeSaleId, loaded);
+            entry = existing != null ? existing : loaded;
+        }
+        return entry.toTimeSale();
+    }
+
+    /**
+     * 캐시에 있을 때만 사본을 반환 (없으면 null, 호출자가 직접 읽어서 get 으로 보관)
+     */
+    public TimeSale getIfPresent(Long timeSaleId) {
+        Entry entry = cache.getIfPresent(timeSaleId);
+        return entry != null ? entry.toTimeSale() : null;
+    }
+
+    public void put(TimeSale timeSale) {
+        cache.put(timeSale.getId(), new Entry(timeSale));
+    }
+
+    /**
+     * 변경된 수량/상태를 모든 인스턴스에 발행
+     */
+    public void publishUpdate(TimeSale timeSale) {
+        try {
+            getTopic().publish(TimeSaleUpdateEvent.builder()
+                    .timeSaleId(timeSale.getId())
+                    .remainingQuantity(timeSale.getRemainingQuantity())
+                    .status(timeSale.getStatus())
+                    .version(timeSale.getVersion())
+                    .publishedAt(System.currentTimeMillis())
+                    .build());
+        } catch (Exception e) {
+            log.error("Failed to publish TimeSale update: {}", timeSale.getId(), e);
+        }
+    }
+
+    public void updateStatus(Long timeSaleId, TimeSaleStatus status) {
+        Entry entry = cache.asMap().get(timeSaleId);
+        if (entry != null) {
+            entry.updateStatus(status);
+        }
+    }
+
+    public Cache<Long, ?> getCache() {
+        return cache;
+    }
+
+    void applyUpdate(TimeSaleUpdateEvent event) {
+        // getIfPresent 는 hit/miss 통계에 잡히므로 asMap 으로 조회한다.
+        Entry entry = cache.asMap().get(event.getTimeSaleId());
+        if (entry != null) {
+            entry.update(event.getRemainingQuantity(), event.getStatus(), event.getVersion());
+        }
+        if (event.getPublishedAt() != null) {
+            stalenessTimer.record(Math.max(0L, System.currentTimeMillis() - event.getPublishedAt()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private RTopic getTopic() {
+        return redissonClient.getTopic(UPDATE_CHANNEL, new TypedJsonJacksonCodec(TimeSaleUpdateEvent.class));
+    }
+
+    private static class Entry {
+        private final TimeSale timeSale; // 불변 필드만 사용
+        private volatile Stock stock;
+
+        Entry(TimeSale timeSale) {
+            this.timeSale = timeSale;
+            this.stock = new Stock(timeSale.getRemainingQuantity(), timeSale.getStatus(), timeSale.getVersion());
+        }
+
+        // 여러 인스턴스가 발행한 메시지가 순서가 바뀌어 도착할 수 있으므로 이전 버전은 무시한다.
+        void update(Long remainingQuantity, TimeSaleStatus status, Long version) {
+            Stock current = stock;
+            if (version != null && current.version != null && version < current.version) {
+                return;
+            }
+            stock = new Stock(remainingQuantity, status, version);
+        }
+
+        void updateStatus(TimeSaleStatus status) {
+            Stock current = stock;
+            stock = new Stock(current.remainingQuantity, status, current.version);
+        }
+
+        TimeSale toTimeSale() {
+            Stock current = stock;
+            return timeSale.copyWith(current.remainingQuantity, current.status);
+        }
+    }
+
+    private static class Stock {
+        private final Long remainingQuantity;
+        private final TimeSaleStatus status;
+        private final Long version;
+
+        Stock(Long remainingQuantity, TimeSaleStatus status, Long version) {
+            this.remainingQuantity = remainingQuantity;
+            this.status = status;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.timesaleservice.service.v2;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.exception.PurchaseLimitExceededException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * 1인당 구매 수량 제한을 Redis 해시로 관리하는 서비스 (v1~v3 공용, v4 는 재고 스크립트에서 같은 해시를 사용)
+ * - "time-sale-user-purchases:{timeSaleId}" 해시의 userId 필드에 구매한 수량을 누적
+ * - 제한 확인과 누적을 Lua 스크립트 한 번으로 처리 (DB 조회 없음)
+ * - 재고 차감이나 주문 저장에 실패하면 누적한 수량을 되돌림
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimeSalePurchaseLimitService {
+    private static final String USER_PURCHASES_KEY = "time-sale-user-purchases:";
+
+    // ARGV[4]: 해시 만료 시각 (종료 시각 + retention, epoch millis)
+    private static final String ACQUIRE_SCRIPT = """
+            local purchased = tonumber(redis.call('HGET', KEYS[1], ARGV[1]) or '0')
+            if purchased + tonumber(ARGV[2]) > tonumber(ARGV[3]) then
+                return -1
+            end
+            local total = redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2])
+            redis.call('PEXPIREAT', KEYS[1], ARGV[4])
+            return total
+            """;
+
+    private static final String RELEASE_SCRIPT = """
+            if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 0 then
+                return -1
+            end
+            return redis.call('HINCRBY', KEYS[1], ARGV[1], -tonumber(ARGV[2]))
+            """;
+
+    private final RedissonClient redissonClient;
+    private final TimeSaleKeyLifecycleService timeSaleKeyLifecycleService;
+
+    /**
+     * 사용자의 구매 수량을 누적하고, 제한을 넘으면 예외
+     * - 제한이 없는 타임세일은 Redis 를 호출하지 않는다.
+     */
+    public void acquire(TimeSale timeSale, Long userId, Long quantity) {
+        if (!timeSale.hasPurchaseLimit()) {
+            return;
+        }
+
+        Long purchased = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                ACQUIRE_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                List.of(getKey(timeSale.getId())),
+                String.valueOf(userId),
+                String.valueOf(quantity),
+                String.valueOf(timeSale.getMaxPurchasePerUser()),
+                String.valueOf(timeSaleKeyLifecycleService.getExpireAt(timeSale).toEpochMilli()));
+        if (purchased == null || purchased < 0) {
+            throw new PurchaseLimitExceededException("Purchase limit exceeded");
+        }
+    }
+
+    /**
+     * 누적했던 구매 수량을 되돌림 (누적한 적이 없으면 아무것도 하지 않음)
+     */
+    public void release(TimeSale timeSale, Long userId, Long quantity) {
+        if (!timeSale.hasPurchaseLimit()) {
+            return;
+        }
+
+        try {
+            redissonClient.getScript(StringCodec.INSTANCE).eval(
+                    RScript.Mode.READ_WRITE,
+                    RELEASE_SCRIPT,
+                    RScript.ReturnType.INTEGER,
+                    List.of(getKey(timeSale.getId())),
+                    String.valueOf(userId),
+                    String.valueOf(quantity));
+        } catch (Exception e) {
+            log.error("Failed to release purchase limit: timeSaleId={}, userId={}, quantity={}", timeSale.getId(), userId, quantity, e);
+        }
+    }
+
+    public String getKey(Long timeSaleId) {
+        return USER_PURCHASES_KEY + timeSaleId;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.timesaleservice.service.v2;
 
 import com.example.timesaleservice.aop.TimeSaleMetered;
+import com.example.timesaleservice.codec.TimeSaleCacheCodec;
 import com.example.timesaleservice.domain.Product;
 import com.example.timesaleservice.domain.TimeSale;
 import com.example.timesaleservice.domain.TimeSaleOrder;
@@ -10,19 +11,29 @@ import com.example.timesaleservice.exception.TimeSaleException;
 import com.example.timesaleservice.repository.ProductRepository;
 import com.example.timesaleservice.repository.TimeSaleOrderRepository;
 import com.example.timesaleservice.repository.TimeSaleRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
 import org.redisson.api.RBucket;
+import org.redisson.api.RBucketAsync;
+import org.redisson.api.RFuture;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -38,7 +49,14 @@ public class TimeSaleRedisService {
     private final ProductRepository productRepository;
     private final TimeSaleOrderRepository timeSaleOrderRepository;
     private final RedissonClient redissonClient;
-    private final ObjectMapper objectMapper;
+    private final RedissonReactiveClient redissonReactiveClient;
+    private final TimeSaleCacheCodec timeSaleCacheCodec;
+    private final TimeSaleNearCache timeSaleNearCache;
+    private final TimeSaleIndexService timeSaleIndexService;
+    private final TimeSaleStatusService timeSaleStatusService;
+    private final PurchaseIdempotencyService purchaseIdempotencyService;
+    private final TimeSalePurchaseLimitService timeSalePurchaseLimitService;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     public TimeSale createTimeSale(TimeSaleDto.CreateRequest request) {
@@ -53,28 +71,93 @@ public class TimeSaleRedisService {
                 .startAt(request.getStartAt())
                 .endAt(request.getEndAt())
                 .status(TimeSaleStatus.ACTIVE)
+                .maxPurchasePerUser(request.getMaxPurchasePerUser())
+                .stockShards(request.getStockShards())
                 .build();
 
         TimeSale savedTimeSale = timeSaleRepository.save(timeSale);
         saveToRedis(savedTimeSale);
+        timeSaleIndexService.add(savedTimeSale);
+        timeSaleStatusService.scheduleEnd(savedTimeSale);
         return savedTimeSale;
     }
 
-    // redis를 사용하지 않고 db에서 가져옴
-    @Transactional(readOnly = true)
+    // db를 사용하지 않고 redis 인덱스에서 진행 중인 ID를 페이지 단위로 찾고, 상세는 near cache 에서 가져옴
     public Page<TimeSale> getOngoingTimeSales(Pageable pageable) {
-        LocalDateTime now = LocalDateTime.now();
-        return timeSaleRepository.findAllByStartAtBeforeAndEndAtAfterAndStatus(now, TimeSaleStatus.ACTIVE, pageable);
+        return timeSaleIndexService.findOngoingIds(LocalDateTime.now(), pageable)
+                .map(this::getTimeSale);
     }
 
-    @Transactional(readOnly = true)
+    // near cache 에 있으면 Redis 조회와 JSON 파싱 없이 반환한다.
     public TimeSale getTimeSale(Long timeSaleId) {
-        return getFromRedis(timeSaleId);
+        return timeSaleNearCache.get(timeSaleId, () -> getFromRedis(timeSaleId));
     }
 
-    @Transactional
+    /**
+     * getTimeSale 의 non-blocking 버전 (v5)
+     * - near cache 에 없으면 Redis 사본을 reactive API 로 읽어서 보관
+     * - Redis 에도 없을 때의 DB 조회만 boundedElastic 스케줄러에서 실행 (warm up 뒤에는 거의 없음)
+     */
+    public Mono<TimeSale> getTimeSaleReactive(Long timeSaleId) {
+        TimeSale cached = timeSaleNearCache.getIfPresent(timeSaleId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return redissonReactiveClient.<byte[]>getBucket(TIME_SALE_KEY + timeSaleId, ByteArrayCodec.INSTANCE).get()
+                .flatMap(data -> Mono.justOrEmpty(decode(timeSaleId, data)))
+                .switchIfEmpty(Mono.fromCallable(() -> loadFromDb(timeSaleId))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .map(timeSale -> timeSaleNearCache.get(timeSaleId, () -> timeSale));
+    }
+
+    // 서버가 뜨면 끝나지 않은 타임세일로 목록 인덱스를 채우고 near cache 에 미리 적재한다. (종료 타이머도 다시 등록)
+    // 이미 닫힌 타임세일은 구매 전 검증에서 거절되게 복원하고, 꺼져 있는 동안 종료 시각이 지난 타임세일은 닫는다.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            timeSaleStatusService.restoreClosed();
+            for (TimeSale expired : timeSaleRepository.findAllByEndAtLessThanEqualAndStatus(now, TimeSaleStatus.ACTIVE)) {
+                timeSaleStatusService.scheduleEnd(expired); // 이 트랜잭션이 끝난 뒤에 ENDED 로 전환
+            }
+            List<TimeSale> timeSales = timeSaleRepository.findAllByEndAtAfterAndStatus(now, TimeSaleStatus.ACTIVE);
+            for (TimeSale timeSale : timeSales) {
+                timeSaleIndexService.add(timeSale);
+                timeSaleNearCache.get(timeSale.getId(), () -> getFromRedis(timeSale.getId()));
+                timeSaleStatusService.scheduleEnd(timeSale);
+            }
+        } catch (Exception e) {
+            log.error("Failed to warm up TimeSale index and near cache", e);
+        }
+    }
+
+    // 트랜잭션은 락을 잡은 뒤에 시작한다. (락을 기다리는 동안 DB 커넥션을 잡고 있지 않음)
     @TimeSaleMetered(version = "v2")
     public TimeSale purchaseTimeSale(Long timeSaleId, TimeSaleDto.PurchaseRequest request) {
+        String idempotencyKey = request.getIdempotencyKey();
+        if (idempotencyKey == null) {
+            return purchaseWithLock(timeSaleId, request);
+        }
+
+        // 같은 멱등성 키로 재시도한 요청은 다시 구매하지 않고 현재 타임세일 정보를 반환
+        String requestId = UUID.randomUUID().toString();
+        String claimedRequestId = purchaseIdempotencyService.claim(timeSaleId, request.getUserId(), idempotencyKey, requestId);
+        if (!requestId.equals(claimedRequestId)) {
+            log.info("Duplicate purchase request: timeSaleId={}, userId={}, key={}", timeSaleId, request.getUserId(), idempotencyKey);
+            return getTimeSale(timeSaleId);
+        }
+
+        try {
+            return purchaseWithLock(timeSaleId, request);
+        } catch (RuntimeException e) {
+            // 실패한 요청은 같은 키로 다시 시도할 수 있어야 한다.
+            purchaseIdempotencyService.release(timeSaleId, request.getUserId(), idempotencyKey, requestId);
+            throw e;
+        }
+    }
+
+    private TimeSale purchaseWithLock(Long timeSaleId, TimeSaleDto.PurchaseRequest request) {
         // 분산 락 획득 - // 분산 락을 획득하기 위한 준비 작업
         RLock lock = redissonClient.getLock(TIME_SALE_LOCK + timeSaleId);
         if (lock == null) {
@@ -88,26 +171,16 @@ public class TimeSaleRedisService {
                 throw new TimeSaleException("Failed to acquire lock");
             }
 
-            // Redis에서 타임세일 정보 가져와서 속도가 개선됨
-            TimeSale timeSale = getFromRedis(timeSaleId);
-            timeSale.purchase(request.getQuantity());
-
-            // Save changes to DB
-            timeSale = timeSaleRepository.save(timeSale);
-
-            TimeSaleOrder order = TimeSaleOrder.builder()
-                    .userId(request.getUserId())
-                    .timeSale(timeSale)
-                    .quantity(request.getQuantity())
-                    .discountPrice(timeSale.getDiscountPrice())
-                    .build();
-
-            // status는 변경 안함?
-            timeSaleOrderRepository.save(order);
+            // 커밋까지 끝낸 뒤에 락을 풀어야 다음 요청이 커밋되지 않은 수량을 읽지 않는다.
+            TimeSale timeSale = transactionTemplate.execute(status -> purchaseInTransaction(timeSaleId, request));
             saveToRedis(timeSale);
 
             return timeSale;
 
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Redis 사본이 DB 보다 이전 버전 (v3 배치/v4 가 벌크 쿼리로 차감함) - 사본을 지워서 다음 요청은 DB 값으로 다시 읽게 한다.
+            redissonClient.getBucket(TIME_SALE_KEY + timeSaleId).delete();
+            throw new TimeSaleException("TimeSale was modified concurrently, please retry: " + timeSaleId);
         } catch (InterruptedException e) {
             // 락 획득 중 인터럽트 발생
             Thread.currentThread().interrupt();
@@ -123,37 +196,101 @@ public class TimeSaleRedisService {
         }
     }
 
+    private TimeSale purchaseInTransaction(Long timeSaleId, TimeSaleDto.PurchaseRequest request) {
+        // Redis에서 타임세일 정보 가져와서 속도가 개선됨
+        TimeSale timeSale = getFromRedis(timeSaleId);
+        timeSalePurchaseLimitService.acquire(timeSale, request.getUserId(), request.getQuantity());
+        try {
+            timeSale.purchase(request.getQuantity());
+
+            // Save changes to DB
+            timeSale = timeSaleRepository.save(timeSale);
+
+            TimeSaleOrder order = TimeSaleOrder.builder()
+                    .userId(request.getUserId())
+                    .timeSale(timeSale)
+                    .quantity(request.getQuantity())
+                    .discountPrice(timeSale.getDiscountPrice())
+                    .build();
+            order.complete(); // 재고 차감과 같은 트랜잭션이므로 바로 완료 (v1, v3, v4 와 같음)
+
+            timeSaleOrderRepository.save(order);
+        } catch (RuntimeException e) {
+            timeSalePurchaseLimitService.release(timeSale, request.getUserId(), request.getQuantity());
+            throw e;
+        }
+        return timeSale;
+    }
+
     public void saveToRedis(TimeSale timeSale) {
         try {
-            String json = objectMapper.writeValueAsString(timeSale);
-            RBucket<String> bucket = redissonClient.getBucket(TIME_SALE_KEY + timeSale.getId());
-            bucket.set(json);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize TimeSale: {}", timeSale.getId(), e);
+            // 형식(JSON/바이너리)은 TimeSaleCacheCodec 설정을 따른다.
+            RBucket<byte[]> bucket = redissonClient.getBucket(TIME_SALE_KEY + timeSale.getId(), ByteArrayCodec.INSTANCE);
+            bucket.set(timeSaleCacheCodec.encode(timeSale));
+            // 각 인스턴스의 near cache 에 변경된 수량/상태를 전달
+            timeSaleNearCache.publishUpdate(timeSale);
+            // 구매로 매진되었으면 컨트롤러에서 바로 거절할 수 있게 알린다.
+            if (timeSale.getStatus() != TimeSaleStatus.ACTIVE) {
+                timeSaleStatusService.markClosed(timeSale.getId(), timeSale.getStatus());
+            }
         } catch (Exception e) {
             log.error("Failed to save TimeSale to Redis: {}", timeSale.getId(), e);
         }
     }
 
-    private TimeSale getFromRedis(Long timeSaleId) {
-        RBucket<String> bucket = redissonClient.getBucket(TIME_SALE_KEY + timeSaleId);
-        String json = bucket.get();
+    /**
+     * Redis에 저장된 타임세일을 한 번에 조회 (near cache 와 DB 는 거치지 않음, Redis에 없는 ID는 결과에 없음)
+     */
+    public Map<Long, TimeSale> findAllInRedis(Collection<Long> timeSaleIds) {
+        RBatch batch = redissonClient.createBatch();
+        Map<Long, RFuture<byte[]>> futures = new LinkedHashMap<>();
+        for (Long timeSaleId : timeSaleIds) {
+            RBucketAsync<byte[]> bucket = batch.getBucket(TIME_SALE_KEY + timeSaleId, ByteArrayCodec.INSTANCE);
+            futures.put(timeSaleId, bucket.getAsync());
+        }
+        batch.execute();
 
-        try {
-            if (json != null) {
-                return objectMapper.readValue(json, TimeSale.class);
+        Map<Long, TimeSale> timeSales = new HashMap<>();
+        futures.forEach((timeSaleId, future) -> {
+            byte[] data = future.getNow();
+            if (data == null) {
+                return;
+            }
+            try {
+                timeSales.put(timeSaleId, timeSaleCacheCodec.decode(data));
+            } catch (TimeSaleException e) {
+                log.error("Failed to parse TimeSale from Redis: {}", timeSaleId, e);
             }
+        });
+        return timeSales;
+    }
 
-            // Redis에 없으면 DB에서 조회
-            TimeSale timeSale = timeSaleRepository.findById(timeSaleId)
-                    .orElseThrow(() -> new IllegalArgumentException("TimeSale not found"));
+    private TimeSale getFromRedis(Long timeSaleId) {
+        RBucket<byte[]> bucket = redissonClient.getBucket(TIME_SALE_KEY + timeSaleId, ByteArrayCodec.INSTANCE);
+        byte[] data = bucket.get();
 
-            // Redis에 저장
-            saveToRedis(timeSale);
+        TimeSale cached = data != null ? decode(timeSaleId, data) : null;
+        return cached != null ? cached : loadFromDb(timeSaleId);
+    }
 
-            return timeSale;
-        } catch (JsonProcessingException e) {
-            throw new TimeSaleException("Failed to parse TimeSale from Redis", e);
+    // 읽을 수 없는 형식(이전 codec 으로 저장된 값, 더 새로운 버전)은 캐시 미스로 보고 DB 값으로 덮어쓴다.
+    private TimeSale decode(Long timeSaleId, byte[] data) {
+        try {
+            return timeSaleCacheCodec.decode(data);
+        } catch (TimeSaleException e) {
+            log.warn("Failed to parse TimeSale from Redis, reloading from DB: {}", timeSaleId, e);
+            return null;
         }
     }
+
+    private TimeSale loadFromDb(Long timeSaleId) {
+        // Redis에 없으면 DB에서 조회 (near cache loader, v5 boundedElastic 스레드처럼 트랜잭션이 없는 곳에서도 호출되므로 상품을 함께 읽음)
+        TimeSale timeSale = timeSaleRepository.findWithProductById(timeSaleId)
+                .orElseThrow(() -> new IllegalArgumentException("TimeSale not found"));
+
+        // Redis에 저장
+        saveToRedis(timeSale);
+
+        return timeSale;
+    }
 }
@@ -0,0 +1,222 @@
+package com.example.timesaleservice.service.v2;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.dto.TimeSaleStatusEvent;
+import com.example.timesaleservice.exception.TimeSaleClosedException;
+import com.example.timesaleservice.repository.TimeSaleRepository;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 타임세일의 매진(SOLD_OUT)/종료(ENDED) 상태 전환을 관리하는 서비스
+ * 1. 종료 시각은 hashed wheel timer 에 등록해 두고 시각이 되면 ENDED 로 전환 (타임세일 수와 관계없이 타이머 스레드 1개)
+ * 2. DB 는 현재 상태가 ACTIVE 일 때만 바꾸므로 여러 인스턴스가 동시에 전환해도 한 번만 반영
+ * 3. 전환 사실을 Redis pub/sub 으로 알리고 각 인스턴스는 로컬 집합에 기록
+ * 4. 전환한 인스턴스가 타임세일 Redis 키를 정리 (TimeSaleKeyLifecycleService)
+ * 5. 컨트롤러는 로컬 집합만 확인하므로 닫힌 타임세일은 락/DB 조회 없이 O(1) 로 거절
+ * 6. 서버가 뜰 때 이미 닫힌 타임세일을 DB 에서 읽어 로컬 집합을 다시 채움 (놓친 전파 이벤트 보완)
+ * - 전파/키 정리는 되돌릴 수 없으므로 트랜잭션 안에서 호출되면 커밋된 뒤에 실행한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimeSaleStatusService {
+    private static final String STATUS_CHANNEL = "time-sale-status-channel";
+    private static final String TIME_SALE_KEY = "time-sale:";
+    private static final long TICK_DURATION_MILLIS = 100L;
+    private static final int TICKS_PER_WHEEL = 512;
+    private static final int CLOSE_THREADS = 2;
+    private static final long CLOSE_RETRY_DELAY_MILLIS = 1000L;
+
+    private final TimeSaleRepository timeSaleRepository;
+    private final TimeSaleIndexService timeSaleIndexService;
+    private final TimeSaleNearCache timeSaleNearCache;
+    private final TimeSaleKeyLifecycleService timeSaleKeyLifecycleService;
+    private final RedissonClient redissonClient;
+
+    private final Set<Long> closedTimeSaleIds = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Timeout> endTimeouts = new ConcurrentHashMap<>();
+    private HashedWheelTimer wheelTimer;
+    private ExecutorService closeExecutor; // 종료 시각 전환 전용 (공용 ForkJoinPool 에서 DB/Redis 를 기다리지 않도록)
+
+    @PostConstruct
+    public void init() {
+        wheelTimer = new HashedWheelTimer(runnable -> {
+            Thread thread = new Thread(runnable, "time-sale-status-wheel");
+            thread.setDaemon(true);
+            return thread;
+        }, TICK_DURATION_MILLIS, TimeUnit.MILLISECONDS, TICKS_PER_WHEEL);
+        closeExecutor = Executors.newFixedThreadPool(CLOSE_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "time-sale-status-close");
+            thread.setDaemon(true);
+            return thread;
+        });
+        getTopic().addListener(TimeSaleStatusEvent.class, (channel, event) -> applyClosed(event.getTimeSaleId(), event.getStatus()));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        wheelTimer.stop();
+        closeExecutor.shutdown();
+    }
+
+    /**
+     * 이미 닫힌 타임세일을 로컬 집합에 다시 채운다. (재시작/새 인스턴스는 이전 전파 이벤트를 받지 못했으므로 DB 기준)
+     */
+    public void restoreClosed() {
+        List<Long> timeSaleIds = timeSaleRepository.findIdsByStatusNot(TimeSaleStatus.ACTIVE);
+        closedTimeSaleIds.addAll(timeSaleIds);
+        log.info("Restored closed TimeSales: count={}", timeSaleIds.size());
+    }
+
+    /**
+     * 종료 시각에 ENDED 로 전환되도록 등록 (이미 지났으면 바로 전환)
+     * - 바로 전환할 때는 전환 스레드에서 실행하고, 트랜잭션 안에서 호출되면 커밋된 뒤에 실행한다.
+     *   (저장 중인 행이 커밋되기 전이거나 읽기 전용 트랜잭션이어도 상태가 바뀌게)
+     */
+    public void scheduleEnd(TimeSale timeSale) {
+        Long timeSaleId = timeSale.getId();
+        long delayMillis = Duration.between(LocalDateTime.now(), timeSale.getEndAt()).toMillis();
+        if (delayMillis <= 0) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        closeExecutor.execute(() -> close(timeSaleId, TimeSaleStatus.ENDED));
+                    }
+                });
+                return;
+            }
+            closeExecutor.execute(() -> close(timeSaleId, TimeSaleStatus.ENDED));
+            return;
+        }
+        // 타이머 스레드는 하나이므로 DB/Redis 작업은 다른 스레드에서 처리한다.
+        endTimeouts.computeIfAbsent(timeSaleId, id -> wheelTimer.newTimeout(
+                timeout -> closeExecutor.execute(() -> close(id, TimeSaleStatus.ENDED)),
+                delayMillis, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * DB 상태를 바꾸고 닫힌 타임세일로 전파 (v4 재고 소진, 종료 시각 도달)
+     * - DB 에서 닫힌 것이 확인될 때만 전파한다. (바꿨거나 다른 인스턴스가 이미 바꾼 경우)
+     * - DB 오류면 전파하지 않고 잠시 뒤에 다시 시도한다. (DB 는 ACTIVE 인데 구매만 막히지 않게)
+     */
+    public void close(Long timeSaleId, TimeSaleStatus status) {
+        TimeSaleStatus closedStatus;
+        try {
+            int updated = timeSaleRepository.updateStatus(timeSaleId, TimeSaleStatus.ACTIVE, status);
+            if (updated > 0) {
+                // Redis 사본은 지워서 다음 조회 때 바뀐 상태로 다시 적재되게 한다.
+                redissonClient.getBucket(TIME_SALE_KEY + timeSaleId).delete();
+                log.info("TimeSale closed: timeSaleId={}, status={}", timeSaleId, status);
+                closedStatus = status;
+            } else {
+                closedStatus = timeSaleRepository.findById(timeSaleId)
+                        .map(TimeSale::getStatus)
+                        .filter(current -> current != TimeSaleStatus.ACTIVE)
+                        .orElse(null);
+            }
+        } catch (Exception e) {
+            log.error("Failed to update TimeSale status, retrying: timeSaleId={}, status={}", timeSaleId, status, e);
+            scheduleRetry(timeSaleId, status);
+            return;
+        }
+        if (closedStatus == null) {
+            log.warn("TimeSale not closed: timeSaleId={}, status={}", timeSaleId, status);
+            return;
+        }
+        markClosed(timeSaleId, closedStatus);
+    }
+
+    // 다른 인스턴스가 먼저 닫으면 applyClosed 에서 취소된다.
+    private void scheduleRetry(Long timeSaleId, TimeSaleStatus status) {
+        Timeout previous = endTimeouts.put(timeSaleId, wheelTimer.newTimeout(
+                timeout -> closeExecutor.execute(() -> close(timeSaleId, status)),
+                CLOSE_RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    /**
+     * 이미 DB 에 반영된 상태 변경을 모든 인스턴스에 전파 (v1~v3 구매로 매진된 경우)
+     * - 트랜잭션 안에서 호출되면 커밋된 뒤에 전파 (롤백되면 전파하지 않음)
+     */
+    public void markClosed(Long timeSaleId, TimeSaleStatus status) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    propagateClosed(timeSaleId, status);
+                }
+            });
+            return;
+        }
+        propagateClosed(timeSaleId, status);
+    }
+
+    private void propagateClosed(Long timeSaleId, TimeSaleStatus status) {
+        if (closedTimeSaleIds.contains(timeSaleId)) {
+            return;
+        }
+        applyClosed(timeSaleId, status);
+        try {
+            timeSaleIndexService.remove(timeSaleId);
+            getTopic().publish(TimeSaleStatusEvent.builder()
+                    .timeSaleId(timeSaleId)
+                    .status(status)
+                    .build());
+        } catch (Exception e) {
+            log.error("Failed to publish TimeSale status: timeSaleId={}, status={}", timeSaleId, status, e);
+        }
+        // 입장 슬롯/대기실은 삭제하고 구매 결과 등은 retention 뒤에 만료되게 한다.
+        timeSaleKeyLifecycleService.sweep(timeSaleId);
+    }
+
+    public boolean isClosed(Long timeSaleId) {
+        return closedTimeSaleIds.contains(timeSaleId);
+    }
+
+    /**
+     * 닫힌 타임세일이면 예외 (컨트롤러에서 서비스 호출 전에 사용)
+     */
+    public void validateOpen(Long timeSaleId) {
+        if (isClosed(timeSaleId)) {
+            throw new TimeSaleClosedException("Time sale is closed: " + timeSaleId);
+        }
+    }
+
+    private void applyClosed(Long timeSaleId, TimeSaleStatus status) {
+        closedTimeSaleIds.add(timeSaleId);
+        timeSaleNearCache.updateStatus(timeSaleId, status);
+        Timeout timeout = endTimeouts.remove(timeSaleId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private RTopic getTopic() {
+        return redissonClient.getTopic(STATUS_CHANNEL, new TypedJsonJacksonCodec(TimeSaleStatusEvent.class));
+    }
+}
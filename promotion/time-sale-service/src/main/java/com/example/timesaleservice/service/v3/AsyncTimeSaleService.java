@@ -5,19 +5,23 @@ import com.example.timesaleservice.domain.TimeSale;
 import com.example.timesaleservice.dto.TimeSaleDto;
 import com.example.timesaleservice.service.v2.TimeSaleRedisService;
 import lombok.RequiredArgsConstructor;
-import org.redisson.api.RBucket;
+import org.redisson.api.RMap;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.UUID;
+
 @Service
 @RequiredArgsConstructor
 public class AsyncTimeSaleService {
     private final TimeSaleRedisService timeSaleRedisService;
     private final TimeSaleProducer timeSaleProducer;
     private final RedissonClient redissonClient;
-    private static final String RESULT_PREFIX = "purchase-result:";
+    private final TimeSaleAdmissionService timeSaleAdmissionService;
+    private static final String RESULTS_KEY = "purchase-results:";
 
     public TimeSale createTimeSale(TimeSaleDto.CreateRequest request) {
         return timeSaleRedisService.createTimeSale(request);
@@ -31,15 +35,47 @@ public class AsyncTimeSaleService {
         return timeSaleRedisService.getOngoingTimeSales(pageable);
     }
 
-    public String purchaseTimeSale(Long timeSaleId, TimeSaleDto.PurchaseRequest request) {
-        // 구매 요청을 Kafka로 전송하고 요청 ID를 반환
-        return timeSaleProducer.sendPurchaseRequest(timeSaleId, request.getUserId(), request.getQuantity());
+    /**
+     * 구매 요청 접수
+     * 1. 입장 슬롯이 없으면 outbox/Kafka 에 쓰지 않고 대기 토큰과 예상 대기 시간을 반환 (WAITING)
+     * 2. 입장하면 구매 요청을 Kafka로 전송하고 요청 ID를 반환 (PENDING, 같은 멱등성 키로 재시도하면 처음 요청 ID를 반환)
+     * 3. 전송 실패, 중복 요청은 Consumer 까지 가지 않으므로 여기서 슬롯을 반환
+     */
+    public TimeSaleDto.AsyncPurchaseResponse purchaseTimeSale(Long timeSaleId, TimeSaleDto.PurchaseRequest request) {
+        TimeSale timeSale = timeSaleRedisService.getTimeSale(timeSaleId);
+        String requestId = UUID.randomUUID().toString(); // 입장하면 이 요청 ID 로 슬롯을 잡는다.
+        TimeSaleAdmissionService.Admission admission = timeSaleAdmissionService.admit(timeSale, requestId, request.getWaitingToken());
+        if (!admission.isAdmitted()) {
+            return TimeSaleDto.AsyncPurchaseResponse.builder()
+                    .status("WAITING")
+                    .waitingToken(admission.getWaitingToken())
+                    .queuePosition(Math.toIntExact(admission.getPosition()))
+                    .estimatedWaitMillis(admission.getEstimatedWaitMillis())
+                    .build();
+        }
+
+        String sentRequestId;
+        try {
+            sentRequestId = timeSaleProducer.sendPurchaseRequest(
+                    requestId, timeSale, request.getUserId(), request.getQuantity(), request.getIdempotencyKey());
+        } catch (RuntimeException e) {
+            timeSaleAdmissionService.release(timeSaleId, requestId);
+            throw e;
+        }
+        if (!requestId.equals(sentRequestId)) {
+            timeSaleAdmissionService.release(timeSaleId, requestId); // 처음 요청이 자기 요청 ID 로 이미 슬롯을 잡고 있음
+        }
+
+        return TimeSaleDto.AsyncPurchaseResponse.builder()
+                .requestId(sentRequestId)
+                .status("PENDING")
+                .build();
     }
 
     @TimeSaleMetered(version = "v3")
     public TimeSaleDto.AsyncPurchaseResponse getPurchaseResult(Long timeSaleId, String requestId) {
-        RBucket<String> resultBucket = redissonClient.getBucket(RESULT_PREFIX + requestId);
-        String result = resultBucket.get();
+        RMap<String, String> results = redissonClient.getMap(RESULTS_KEY + timeSaleId, StringCodec.INSTANCE);
+        String result = results.get(requestId);
         String status = result != null ? result : "PENDING";
 
         // 대기 순서 정보 조회
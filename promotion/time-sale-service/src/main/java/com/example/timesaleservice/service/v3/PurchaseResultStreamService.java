@@ -0,0 +1,170 @@
+package com.example.timesaleservice.service.v3;
+
+import com.example.timesaleservice.dto.PurchaseResultEvent;
+import com.example.timesaleservice.dto.TimeSaleDto;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 구매 결과를 SSE 로 클라이언트에게 push 하는 서비스
+ * - 요청마다 하나의 SseEmitter 를 인스턴스 로컬에 보관
+ * - Consumer 가 Redis pub/sub 채널로 결과를 발행하면 모든 인스턴스가 수신해서 자신이 가진 연결에만 전송
+ *   (Consumer 는 트랜잭션이 커밋된 뒤에 발행하므로 SUCCESS 를 받은 시점에는 주문이 이미 저장되어 있음)
+ * - 결과가 나올 때마다 같은 타임세일의 대기 순번을 모아서 주기적으로 갱신 (요청마다 조회하지 않음)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PurchaseResultStreamService {
+    private static final String RESULT_CHANNEL = "purchase-result-channel";
+    private static final long EMITTER_TIMEOUT = 5 * 60 * 1000L; // 5분
+
+    private final AsyncTimeSaleService asyncTimeSaleService;
+    private final TimeSaleProducer timeSaleProducer;
+    private final RedissonClient redissonClient;
+
+    private final Map<String, SseEmitter> emitters = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> requestIdsByTimeSale = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyTimeSaleIds = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void subscribe() {
+        getTopic().addListener(PurchaseResultEvent.class, (channel, event) -> onPurchaseResult(event));
+    }
+
+    /**
+     * 구매 결과 스트림 연결
+     * - 연결을 먼저 등록한 뒤 현재 상태를 보내므로 그 사이에 끝난 요청도 놓치지 않는다.
+     * - 같은 요청으로 다시 연결하면(EventSource 재연결) 이전 연결은 닫고 새 연결로 바꾼다.
+     */
+    public SseEmitter connect(Long timeSaleId, String requestId) {
+        SseEmitter emitter = createEmitter();
+        SseEmitter previous = emitters.put(requestId, emitter);
+        if (previous != null) {
+            previous.complete();
+        }
+        requestIdsByTimeSale.compute(timeSaleId, (id, requestIds) -> {
+            Set<String> ids = requestIds != null ? requestIds : ConcurrentHashMap.newKeySet();
+            ids.add(requestId);
+            return ids;
+        });
+
+        emitter.onCompletion(() -> disconnect(timeSaleId, requestId, emitter));
+        emitter.onTimeout(() -> disconnect(timeSaleId, requestId, emitter));
+        emitter.onError(e -> disconnect(timeSaleId, requestId, emitter));
+
+        send(requestId, asyncTimeSaleService.getPurchaseResult(timeSaleId, requestId));
+        return emitter;
+    }
+
+    /**
+     * 처리 결과를 모든 인스턴스에 발행
+     */
+    public void publish(PurchaseResultEvent event) {
+        try {
+            getTopic().publish(event);
+        } catch (Exception e) {
+            log.error("Failed to publish purchase result: {}", event, e);
+        }
+    }
+
+    /**
+     * 처리 결과 발행을 배치에 추가 (배치 Consumer 에서 결과 저장과 한 번에 전송)
+     */
+    public void publish(RBatch batch, PurchaseResultEvent event) {
+        batch.getTopic(RESULT_CHANNEL, new TypedJsonJacksonCodec(PurchaseResultEvent.class)).publishAsync(event);
+    }
+
+    /**
+     * 결과를 받은 타임세일의 대기 순번을 한 번에 조회해서 연결된 클라이언트에게 전송
+     */
+    @Scheduled(fixedDelay = 500)
+    public void refreshQueuePositions() {
+        for (Long timeSaleId : new ArrayList<>(dirtyTimeSaleIds)) {
+            dirtyTimeSaleIds.remove(timeSaleId);
+            Set<String> requestIds = requestIdsByTimeSale.get(timeSaleId);
+            if (requestIds == null || requestIds.isEmpty()) {
+                continue;
+            }
+
+            try {
+                Map<String, Integer> positions = timeSaleProducer.getQueuePositions(timeSaleId, requestIds);
+                Long totalWaiting = timeSaleProducer.getTotalWaiting(timeSaleId);
+                positions.forEach((requestId, position) -> send(requestId, TimeSaleDto.AsyncPurchaseResponse.builder()
+                        .requestId(requestId)
+                        .status("PENDING")
+                        .queuePosition(position)
+                        .totalWaiting(totalWaiting)
+                        .build()));
+            } catch (Exception e) {
+                log.error("Failed to refresh queue positions: timeSaleId={}", timeSaleId, e);
+            }
+        }
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(EMITTER_TIMEOUT);
+    }
+
+    private void onPurchaseResult(PurchaseResultEvent event) {
+        send(event.getRequestId(), TimeSaleDto.AsyncPurchaseResponse.builder()
+                .requestId(event.getRequestId())
+                .status(event.getStatus())
+                .totalWaiting(0L)
+                .build());
+
+        // 앞선 요청이 빠졌으므로 이 인스턴스에 연결된 같은 타임세일 요청들의 순번을 갱신해야 한다.
+        if (requestIdsByTimeSale.containsKey(event.getTimeSaleId())) {
+            dirtyTimeSaleIds.add(event.getTimeSaleId());
+        }
+    }
+
+    private void send(String requestId, TimeSaleDto.AsyncPurchaseResponse response) {
+        SseEmitter emitter = emitters.get(requestId);
+        if (emitter == null) {
+            return;
+        }
+
+        boolean finished = !"PENDING".equals(response.getStatus());
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(finished ? "result" : "queue")
+                    .data(response));
+            if (finished) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // 클라이언트가 연결을 끊은 경우
+            emitter.completeWithError(e);
+        }
+    }
+
+    // 재연결로 이미 바뀐 연결이면 새 연결을 지우지 않는다.
+    private void disconnect(Long timeSaleId, String requestId, SseEmitter emitter) {
+        if (!emitters.remove(requestId, emitter)) {
+            return;
+        }
+        requestIdsByTimeSale.computeIfPresent(timeSaleId, (id, requestIds) -> {
+            requestIds.remove(requestId);
+            return requestIds.isEmpty() ? null : requestIds;
+        });
+    }
+
+    private RTopic getTopic() {
+        return redissonClient.getTopic(RESULT_CHANNEL, new TypedJsonJacksonCodec(PurchaseResultEvent.class));
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.timesaleservice.service.v3;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.service.v2.TimeSaleKeyLifecycleService;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 비동기 구매(v3) 앞단의 입장 제어 (가상 대기실)
+ * 1. 동시에 처리 중인 요청 수(입장 슬롯)를 남은 재고 × factor 까지만 허용
+ * 2. 남은 슬롯이 대기 인원보다 적으면 대기 토큰과 예상 대기 시간을 발급 (outbox/Kafka/DB 작업 없음)
+ * 3. 토큰을 들고 다시 요청하면 대기 순번이 남은 슬롯 안에 들어올 때 입장 (다시 오지 않은 토큰은 일정 시간 뒤 정리)
+ * 4. Consumer 가 요청 처리를 끝내면 요청 ID 로 그 슬롯만 반환, 타임세일이 닫히면 슬롯/대기실 키 삭제 (TimeSaleStatusService)
+ * - 슬롯은 요청 ID -> 임대 만료 시각의 sorted set 으로 관리한다. 반환되지 않은 슬롯(인스턴스 종료, 유실된 메시지)은
+ *   임대 시간이 지나면 다음 입장 시도에서 회수되고, 같은 요청을 두 번 반환해도 다른 요청의 슬롯을 빼앗지 않는다.
+ * - 입장 여부 판단, 슬롯 임대, 대기실 등록은 하나의 Lua 스크립트로 처리하므로 동시에 들어와도 슬롯을 넘지 않는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimeSaleAdmissionService {
+    private static final String ADMISSION_KEY = "time-sale-admission-slots:";
+    private static final String WAITING_ROOM_KEY = "time-sale-waiting-room:";
+    private static final String WAITING_SEEN_KEY = "time-sale-waiting-seen:";
+
+    // KEYS[1]: 입장 슬롯(요청 ID -> 임대 만료 시각), KEYS[2]: 대기실(줄 선 시각), KEYS[3]: 대기 토큰 확인 시각
+    // ARGV[1]: 슬롯 수, ARGV[2]: 대기 토큰, ARGV[3]: now, ARGV[4]: 대기 토큰 정리 기준 시각, ARGV[5]: 키 만료 시각,
+    // ARGV[6]: 슬롯을 잡을 요청 ID, ARGV[7]: 슬롯 임대 만료 시각
+    // 결과: -1 이면 입장, 0 이상이면 대기실 순번 (0부터)
+    // 대기실은 줄 선 시각, 확인 시각 두 개의 sorted set 으로 관리하고 한동안 다시 오지 않은 토큰은 정리한다.
+    // 키를 만들거나 늘릴 때마다 만료 시각(종료 시각 + retention)을 다시 건다. (닫힌 뒤 늦게 들어온 요청이 만든 키도 남지 않음)
+    private static final String ADMIT_SCRIPT = """
+            local function touch()
+                for i = 1, 3 do
+                    redis.call('PEXPIREAT', KEYS[i], ARGV[5])
+                end
+            end
+            local function admit()
+                redis.call('ZADD', KEYS[1], ARGV[7], ARGV[6])
+                touch()
+                return -1
+            end
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[3])
+            local expired = redis.call('ZRANGEBYSCORE', KEYS[3], '-inf', ARGV[4], 'LIMIT', 0, 100)
+            if #expired > 0 then
+                redis.call('ZREM', KEYS[2], unpack(expired))
+                redis.call('ZREM', KEYS[3], unpack(expired))
+            end
+            local free = tonumber(ARGV[1]) - redis.call('ZCARD', KEYS[1])
+            local token = ARGV[2]
+            local rank = redis.call('ZRANK', KEYS[2], token)
+            if rank then
+                if rank < free then
+                    redis.call('ZREM', KEYS[2], token)
+                    redis.call('ZREM', KEYS[3], token)
+                    return admit()
+                end
+                redis.call('ZADD', KEYS[3], ARGV[3], token)
+                return rank
+            end
+            if free > redis.call('ZCARD', KEYS[2]) then
+                return admit()
+            end
+            redis.call('ZADD', KEYS[2], ARGV[3], token)
+            redis.call('ZADD', KEYS[3], ARGV[3], token)
+            touch()
+            return redis.call('ZRANK', KEYS[2], token)
+            """;
+
+    private final RedissonClient redissonClient;
+    private final TimeSaleKeyLifecycleService timeSaleKeyLifecycleService;
+
+    @Value("${time-sale.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${time-sale.admission.factor:1.5}")
+    private double factor;
+
+    @Value("${time-sale.admission.waiting-token-ttl-ms:30000}")
+    private long waitingTokenTtlMillis; // 이 시간 안에 다시 요청하지 않은 대기 토큰은 줄에서 빠진다.
+
+    @Value("${time-sale.admission.slot-lease-ms:60000}")
+    private long slotLeaseMillis; // 이 시간 안에 반환되지 않은 슬롯은 다음 입장 시도에서 회수한다.
+
+    @Value("${time-sale.admission.slot-hold-millis:200}")
+    private long slotHoldMillis; // 입장한 요청이 Consumer 처리를 마칠 때까지 슬롯을 잡고 있는 평균 시간 (예상 대기 시간 계산용)
+
+    /**
+     * 입장 시도 (waitingToken 이 있으면 그 토큰의 순번으로 판단, 없으면 새로 줄을 섬)
+     * - 입장하면 requestId 로 슬롯을 임대하므로 처리가 끝난 뒤 같은 requestId 로 반환해야 한다.
+     */
+    public Admission admit(TimeSale timeSale, String requestId, String waitingToken) {
+        if (!enabled) {
+            return Admission.admitted();
+        }
+
+        long capacity = getCapacity(timeSale);
+        String token = waitingToken != null ? waitingToken : UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        Long result = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                ADMIT_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                List.of(ADMISSION_KEY + timeSale.getId(), WAITING_ROOM_KEY + timeSale.getId(), WAITING_SEEN_KEY + timeSale.getId()),
+                String.valueOf(capacity),
+                token,
+                String.valueOf(now),
+                String.valueOf(now - waitingTokenTtlMillis),
+                String.valueOf(timeSaleKeyLifecycleService.getExpireAt(timeSale).toEpochMilli()),
+                requestId,
+                String.valueOf(now + slotLeaseMillis));
+        if (result == null || result < 0) {
+            return Admission.admitted();
+        }
+        return Admission.waiting(token, result + 1, estimateWaitMillis(result, capacity));
+    }
+
+    /**
+     * 처리가 끝난 요청의 슬롯을 반환 (Consumer, outbox 기록 실패, 중복 요청)
+     */
+    public void release(Long timeSaleId, String requestId) {
+        release(timeSaleId, List.of(requestId));
+    }
+
+    /**
+     * 처리가 끝난 요청들의 슬롯을 한 번에 반환 (배치 Consumer)
+     * - 슬롯을 잡은 요청 ID 만 지우므로 이미 반환했거나 임대가 만료된 요청은 아무것도 바꾸지 않는다.
+     */
+    public void release(Long timeSaleId, Collection<String> requestIds) {
+        if (!enabled || requestIds.isEmpty()) {
+            return;
+        }
+        try {
+            redissonClient.<String>getScoredSortedSet(ADMISSION_KEY + timeSaleId, StringCodec.INSTANCE).removeAll(requestIds);
+        } catch (Exception e) {
+            log.error("Failed to release admission slots: timeSaleId={}, count={}", timeSaleId, requestIds.size(), e);
+        }
+    }
+
+    // 남은 재고보다 조금 더 받아서 실패/취소로 생기는 빈자리를 메운다. (재고가 남아 있으면 최소 1)
+    long getCapacity(TimeSale timeSale) {
+        long remaining = timeSale.getRemainingQuantity();
+        if (remaining <= 0) {
+            return 0L;
+        }
+        return Math.max(1L, (long) Math.ceil(remaining * factor));
+    }
+
+    // 앞사람들이 슬롯을 몇 바퀴 돌아야 내 차례가 오는지로 추정
+    long estimateWaitMillis(long rank, long capacity) {
+        if (capacity <= 0) {
+            return 0L; // 재고 없음, 곧 닫힌다.
+        }
+        return (rank / capacity + 1) * slotHoldMillis;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Admission {
+        private final boolean admitted;
+        private final String waitingToken;
+        private final Long position;
+        private final Long estimatedWaitMillis;
+
+        static Admission admitted() {
+            return new Admission(true, null, null, null);
+        }
+
+        static Admission waiting(String waitingToken, long position, long estimatedWaitMillis) {
+            return new Admission(false, waitingToken, position, estimatedWaitMillis);
+        }
+    }
+}
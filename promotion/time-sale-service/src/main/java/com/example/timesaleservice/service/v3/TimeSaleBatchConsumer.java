@@ -0,0 +1,165 @@
+package com.example.timesaleservice.service.v3;
+
+import com.example.timesaleservice.dto.PurchaseRequestMessage;
+import com.example.timesaleservice.dto.PurchaseResultEvent;
+import com.example.timesaleservice.service.v2.PurchaseIdempotencyService;
+import com.example.timesaleservice.service.v2.TimeSaleRedisService;
+import com.example.timesaleservice.service.v4.TimeSaleStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RMapAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 타임세일 구매 요청을 poll 단위로 묶어서 처리하는 배치 Consumer
+ * - time-sale.consumer.batch-enabled=true 일 때만 동작 (기본은 TimeSaleConsumer)
+ * - timeSaleId 별로 묶어 타임세일마다 한 번의 트랜잭션으로 재고 차감 및 주문 저장
+ * - 모든 요청의 처리 결과 저장과 대기열 제거는 RBatch 로 한 번의 왕복에 Redis에 반영
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimeSaleBatchConsumer {
+    private final TimeSalePurchaseBatchService timeSalePurchaseBatchService;
+    private final TimeSaleRedisService timeSaleRedisService;
+    private final RedissonClient redissonClient;
+    private final PurchaseResultStreamService purchaseResultStreamService;
+    private final PurchaseIdempotencyService purchaseIdempotencyService;
+    private final TimeSaleAdmissionService timeSaleAdmissionService;
+    private final TimeSaleStockService timeSaleStockService;
+
+    // Redis 키 접두사
+    private static final String RESULTS_KEY = "purchase-results:";
+    private static final String QUEUE_KEY = "time-sale-queue:";
+
+    /**
+     * 한 번의 poll 로 수신한 구매 요청들을 처리
+     * 0. 같은 poll 안의 중복과 이미 결과가 기록된 요청을 제외 (재전송된 메시지)
+     * 1. timeSaleId 별로 그룹핑 (수신 순서 유지)
+     * 2. 타임세일별로 재고 차감 및 주문 일괄 저장
+     * 3. 요청별 SUCCESS/FAIL 결과 저장 및 대기열에서 제거
+     * 4. 처리한 요청 수만큼 타임세일별 입장 슬롯 반환 (입장 제어를 거치지 않은 v5 요청은 제외)
+     *
+     * @param messages 구매 요청 메시지 목록
+     */
+    @KafkaListener(topics = "time-sale-requests", groupId = "time-sale-group",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "${time-sale.consumer.batch-enabled:false}")
+    public void consumePurchaseRequests(List<PurchaseRequestMessage> messages) {
+        List<PurchaseRequestMessage> pending = filterUnprocessed(messages);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<PurchaseRequestMessage>> messagesByTimeSale = pending.stream()
+                .collect(Collectors.groupingBy(PurchaseRequestMessage::getTimeSaleId, LinkedHashMap::new, Collectors.toList()));
+
+        Map<String, String> results = new LinkedHashMap<>();
+        messagesByTimeSale.forEach((timeSaleId, group) -> {
+            Set<String> succeededRequestIds = applyPurchases(timeSaleId, group);
+            for (PurchaseRequestMessage message : group) {
+                results.put(message.getRequestId(), succeededRequestIds.contains(message.getRequestId()) ? "SUCCESS" : "FAIL");
+            }
+        });
+
+        savePurchaseResults(messagesByTimeSale, results);
+        messagesByTimeSale.forEach((timeSaleId, group) -> timeSaleAdmissionService.release(timeSaleId,
+                group.stream()
+                        .filter(message -> !message.isStockReserved())
+                        .map(PurchaseRequestMessage::getRequestId)
+                        .toList()));
+    }
+
+    /**
+     * 같은 요청 ID 는 한 번만 남기고, 이미 결과가 기록된 요청을 제외 (결과 조회는 한 번의 왕복)
+     */
+    private List<PurchaseRequestMessage> filterUnprocessed(List<PurchaseRequestMessage> messages) {
+        Map<String, PurchaseRequestMessage> messagesByRequestId = new LinkedHashMap<>();
+        for (PurchaseRequestMessage message : messages) {
+            messagesByRequestId.putIfAbsent(message.getRequestId(), message);
+        }
+
+        Map<Long, List<String>> requestIdsByTimeSale = messagesByRequestId.values().stream()
+                .collect(Collectors.groupingBy(PurchaseRequestMessage::getTimeSaleId,
+                        Collectors.mapping(PurchaseRequestMessage::getRequestId, Collectors.toList())));
+        Set<String> processed = purchaseIdempotencyService.findProcessed(requestIdsByTimeSale);
+        if (!processed.isEmpty()) {
+            log.info("Skip already processed purchase requests: {}", processed);
+        }
+        return messagesByRequestId.values().stream()
+                .filter(message -> !processed.contains(message.getRequestId()))
+                .toList();
+    }
+
+    /**
+     * 타임세일 하나에 대한 요청 묶음을 처리하고 성공한 요청 ID를 반환
+     * - 트랜잭션이 실패하면 DB에 반영된 것이 없으므로 묶음 전체를 실패로 처리
+     */
+    private Set<String> applyPurchases(Long timeSaleId, List<PurchaseRequestMessage> group) {
+        Map<Boolean, List<PurchaseRequestMessage>> messagesByReserved = group.stream()
+                .collect(Collectors.partitioningBy(PurchaseRequestMessage::isStockReserved));
+        Set<String> succeededRequestIds = new HashSet<>();
+        List<PurchaseRequestMessage> messages = messagesByReserved.get(false);
+        if (!messages.isEmpty()) {
+            try {
+                succeededRequestIds.addAll(saveToRedis(timeSalePurchaseBatchService.applyPurchases(timeSaleId, messages)));
+            } catch (Exception e) {
+                log.error("Failed to process purchase batch: timeSaleId={}, size={}", timeSaleId, messages.size(), e);
+            }
+        }
+
+        List<PurchaseRequestMessage> reservedMessages = messagesByReserved.get(true);
+        if (!reservedMessages.isEmpty()) {
+            try {
+                succeededRequestIds.addAll(saveToRedis(timeSalePurchaseBatchService.applyReservedPurchases(timeSaleId, reservedMessages)));
+            } catch (Exception e) {
+                log.error("Failed to process reserved purchase batch, releasing stock: timeSaleId={}, size={}",
+                        timeSaleId, reservedMessages.size(), e);
+                for (PurchaseRequestMessage message : reservedMessages) {
+                    timeSaleStockService.release(timeSaleId, message.getUserId(), message.getQuantity());
+                }
+            }
+        }
+        return succeededRequestIds;
+    }
+
+    // 커밋이 끝난 뒤에 Redis 캐시를 갱신한다.
+    private Set<String> saveToRedis(TimeSalePurchaseBatchService.Result result) {
+        timeSaleRedisService.saveToRedis(result.getTimeSale());
+        return result.getSucceededRequestIds();
+    }
+
+    /**
+     * 처리 결과 저장/발행, 대기열 제거를 하나의 배치로 전송
+     * - 결과는 PENDING 필드가 남아 있을 때만 바꾸므로 retention 이 지나 만료된 해시를 다시 만들지 않는다.
+     */
+    private void savePurchaseResults(Map<Long, List<PurchaseRequestMessage>> messagesByTimeSale, Map<String, String> results) {
+        try {
+            RBatch batch = redissonClient.createBatch();
+            messagesByTimeSale.forEach((timeSaleId, group) -> {
+                RMapAsync<String, String> resultMap = batch.getMap(RESULTS_KEY + timeSaleId, StringCodec.INSTANCE);
+                for (PurchaseRequestMessage message : group) {
+                    String result = results.get(message.getRequestId());
+                    resultMap.fastReplaceAsync(message.getRequestId(), result);
+                    purchaseResultStreamService.publish(batch, PurchaseResultEvent.builder()
+                            .timeSaleId(timeSaleId)
+                            .requestId(message.getRequestId())
+                            .status(result)
+                            .build());
+                }
+                List<String> requestIds = group.stream().map(PurchaseRequestMessage::getRequestId).toList();
+                batch.<String>getScoredSortedSet(QUEUE_KEY + timeSaleId, StringCodec.INSTANCE).removeAllAsync(requestIds);
+            });
+            batch.execute();
+        } catch (Exception e) {
+            log.error("Failed to save purchase results: size={}", results.size(), e);
+        }
+    }
+}
@@ -1,25 +1,36 @@
 package com.example.timesaleservice.service.v3;
 
+import com.example.timesaleservice.aop.TimeSaleMetrics;
 import com.example.timesaleservice.domain.TimeSale;
 import com.example.timesaleservice.domain.TimeSaleOrder;
 import com.example.timesaleservice.dto.PurchaseRequestMessage;
+import com.example.timesaleservice.dto.PurchaseResultEvent;
 import com.example.timesaleservice.repository.TimeSaleOrderRepository;
 import com.example.timesaleservice.repository.TimeSaleRepository;
+import com.example.timesaleservice.service.v2.PurchaseIdempotencyService;
+import com.example.timesaleservice.service.v2.TimeSalePurchaseLimitService;
 import com.example.timesaleservice.service.v2.TimeSaleRedisService;
+import com.example.timesaleservice.service.v4.TimeSaleOrderService;
+import com.example.timesaleservice.service.v4.TimeSaleStockService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RAtomicLong;
-import org.redisson.api.RBucket;
+import org.redisson.api.RMap;
+import org.redisson.api.RScoredSortedSet;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * 타임세일 구매 요청을 처리하는 Consumer
  * - Kafka를 통해 비동기로 전달된 구매 요청을 처리
  * - Redis의 재고를 감소시키고 주문을 생성
  * - 대기열에서 처리된 요청을 제거
+ * - 요청 시점에 Redis 재고 카운터를 이미 차감한 요청(v5)은 검증 없이 주문만 저장하고, 실패하면 차감한 재고를 되돌림
+ * - 처리 결과는 트랜잭션이 끝난 뒤에 저장/발행하므로 클라이언트가 SUCCESS 를 받으면 주문은 이미 커밋되어 있다.
  */
 @Slf4j
 @Service
@@ -29,29 +40,50 @@ public class TimeSaleConsumer {
     private final TimeSaleOrderRepository timeSaleOrderRepository;
     private final TimeSaleRepository timeSaleRepository;
     private final RedissonClient redissonClient;
+    private final PurchaseResultStreamService purchaseResultStreamService;
+    private final PurchaseIdempotencyService purchaseIdempotencyService;
+    private final TimeSalePurchaseLimitService timeSalePurchaseLimitService;
+    private final TimeSaleMetrics timeSaleMetrics;
+    private final TimeSaleAdmissionService timeSaleAdmissionService;
+    private final TimeSaleOrderService timeSaleOrderService;
+    private final TimeSaleStockService timeSaleStockService;
 
     // Redis 키 접두사
-    private static final String RESULT_PREFIX = "purchase-result:";
+    private static final String RESULTS_KEY = "purchase-results:";
     private static final String QUEUE_KEY = "time-sale-queue:";
-    private static final String TOTAL_REQUESTS_KEY = "time-sale-total-requests:";
 
     /**
      * Kafka로부터 수신한 구매 요청을 처리
+     * 0. 이미 결과가 기록된 요청이면 건너뜀 (재전송된 메시지)
      * 1. DB에서 타임세일 정보 조회
-     * 2. 재고 감소
+     * 2. 1인당 구매 제한 확인 및 재고 감소
      * 3. 주문 생성
      * 4. 결과 저장
-     * 5. 대기열에서 제거
+     * 5. 대기열에서 제거 및 입장 슬롯 반환
      *
      * @param message 구매 요청 메시지
      */
     @Transactional
-    @KafkaListener(topics = "time-sale-requests", groupId = "time-sale-group")
+    @KafkaListener(topics = "time-sale-requests", groupId = "time-sale-group",
+            autoStartup = "#{!${time-sale.consumer.batch-enabled:false}}") // 배치 모드에서는 TimeSaleBatchConsumer 가 처리
     public void consumePurchaseRequest(PurchaseRequestMessage message) {
+        if (purchaseIdempotencyService.isProcessed(message.getTimeSaleId(), message.getRequestId())) {
+            log.info("Skip already processed purchase request: {}", message.getRequestId());
+            return;
+        }
+
+        if (message.isStockReserved()) {
+            consumeReservedPurchaseRequest(message);
+            return;
+        }
+
+        TimeSale limitedTimeSale = null; // 1인당 구매 수량을 누적한 타임세일 (실패 시 되돌림)
         try {
             // DB에서 타임세일 정보 조회 및 재고 감소
             TimeSale timeSale = timeSaleRepository.findById(message.getTimeSaleId())
                     .orElseThrow(() -> new IllegalArgumentException("TimeSale not found"));
+            timeSalePurchaseLimitService.acquire(timeSale, message.getUserId(), message.getQuantity());
+            limitedTimeSale = timeSale;
             timeSale.purchase(message.getQuantity());
 
             // DB에 변경사항 저장
@@ -72,62 +104,89 @@ public class TimeSaleConsumer {
             savedOrder.complete();
 
             // 성공 결과 저장
-            savePurchaseResult(message.getRequestId(), "SUCCESS");
+            savePurchaseResult(message, "SUCCESS");
         } catch (Exception e) {
             log.error("Failed to process purchase request: {}", message, e);
+            timeSaleMetrics.recordFailure("v3", "consumePurchaseRequest", e);
+            if (limitedTimeSale != null) {
+                timeSalePurchaseLimitService.release(limitedTimeSale, message.getUserId(), message.getQuantity());
+            }
             // 실패 결과 저장
-            savePurchaseResult(message.getRequestId(), "FAIL");
+            savePurchaseResult(message, "FAIL");
+        } finally {
+            // 대기열에서 제거하고 다음 대기자가 들어올 수 있도록 입장 슬롯 반환
+            removeFromQueue(message.getTimeSaleId(), message.getRequestId());
+            timeSaleAdmissionService.release(message.getTimeSaleId(), message.getRequestId());
+        }
+    }
+
+    /**
+     * 재고 카운터와 1인당 구매 수량을 이미 차감한 요청(v5) 처리
+     * - 타임세일 엔티티를 조회하지 않고 DB 재고 차감 쿼리와 주문 저장만 수행 (v4 와 같음)
+     * - 주문 저장은 리스너 트랜잭션과 별도 트랜잭션으로 실행되므로 실패해도 리스너 트랜잭션은 정상 커밋된다. (재전달 없음)
+     * - 입장 제어를 거치지 않은 요청이므로 입장 슬롯은 반환하지 않는다.
+     */
+    private void consumeReservedPurchaseRequest(PurchaseRequestMessage message) {
+        try {
+            TimeSale timeSale = timeSaleRedisService.getTimeSale(message.getTimeSaleId());
+            timeSaleOrderService.createOrder(message.getTimeSaleId(), message.getUserId(), message.getQuantity(), timeSale.getDiscountPrice());
+            savePurchaseResult(message, "SUCCESS");
+        } catch (Exception e) {
+            log.error("Failed to process reserved purchase request, releasing stock: {}", message, e);
+            timeSaleMetrics.recordFailure("v5", "consumePurchaseRequest", e);
+            timeSaleStockService.release(message.getTimeSaleId(), message.getUserId(), message.getQuantity());
+            savePurchaseResult(message, "FAIL");
         } finally {
-            // 대기열에서 제거
             removeFromQueue(message.getTimeSaleId(), message.getRequestId());
         }
     }
 
     /**
-     * 구매 요청의 처리 결과를 Redis에 저장
+     * 구매 요청의 처리 결과를 Redis에 저장하고 스트림 구독자에게 발행
+     * - 트랜잭션 안에서 호출되면 트랜잭션이 끝난 뒤에 저장/발행 (커밋되기 전에 SUCCESS 를 알리지 않고, 롤백되면 FAIL 로 저장)
      *
-     * @param requestId 요청 ID
+     * @param message 구매 요청 메시지
      * @param result 처리 결과 (SUCCESS/FAIL)
      */
-    private void savePurchaseResult(String requestId, String result) {
-        RBucket<String> resultBucket = redissonClient.getBucket(RESULT_PREFIX + requestId);
-        resultBucket.set(result);
+    private void savePurchaseResult(PurchaseRequestMessage message, String result) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    writePurchaseResult(message, status == STATUS_COMMITTED ? result : "FAIL");
+                }
+            });
+            return;
+        }
+        writePurchaseResult(message, result);
+    }
+
+    // PENDING 필드가 남아 있을 때만 바꾸므로 retention 이 지나 만료된 해시를 다시 만들지 않는다.
+    private void writePurchaseResult(PurchaseRequestMessage message, String result) {
+        try {
+            RMap<String, String> results = redissonClient.getMap(RESULTS_KEY + message.getTimeSaleId(), StringCodec.INSTANCE);
+            results.fastReplace(message.getRequestId(), result);
+        } catch (Exception e) {
+            log.error("Failed to save purchase result: requestId={}, result={}", message.getRequestId(), result, e);
+        }
+        purchaseResultStreamService.publish(PurchaseResultEvent.builder()
+                .timeSaleId(message.getTimeSaleId())
+                .requestId(message.getRequestId())
+                .status(result)
+                .build());
     }
 
     /**
-     * 대기열에서 처리 완료된 요청을 제거
-     * 1. 대기열에서 요청 ID 제거
-     * 2. 총 대기 수 감소
+     * 대기열에서 처리 완료된 요청을 제거 (총 대기 수는 대기열 크기이므로 따로 줄이지 않음)
      *
      * @param timeSaleId 타임세일 ID
      * @param requestId 요청 ID
      */
     private void removeFromQueue(Long timeSaleId, String requestId) {
         try {
-            // 대기열에서 요청 제거
-            String queueKey = QUEUE_KEY + timeSaleId;
-            RBucket<String> queueBucket = redissonClient.getBucket(queueKey);
-            String queueValue = queueBucket.get();
-
-            if (queueValue != null && !queueValue.isEmpty()) {
-                // 콤마로 구분된 문자열에서 해당 요청 ID 제거
-                String[] queueValues = queueValue.split(",");
-                StringBuilder newQueue = new StringBuilder();
-                for (String value : queueValues) {
-                    if (!requestId.equals(value)) {
-                        if (!newQueue.isEmpty()) {
-                            newQueue.append(",");
-                        }
-                        newQueue.append(value);
-                    }
-                }
-                queueBucket.set(newQueue.toString());
-            }
-
-            // 총 대기 수 감소
-            String totalKey = TOTAL_REQUESTS_KEY + timeSaleId;
-            RAtomicLong totalCounter = redissonClient.getAtomicLong(totalKey);
-            totalCounter.decrementAndGet();
+            // 대기열(Sorted Set)에서 요청 제거 - ZREM 한 번으로 원자적으로 처리
+            RScoredSortedSet<String> queue = redissonClient.getScoredSortedSet(QUEUE_KEY + timeSaleId, StringCodec.INSTANCE);
+            queue.remove(requestId);
         } catch (Exception e) {
             log.error("Failed to remove request from queue: timeSaleId={}, requestId={}", timeSaleId, requestId, e);
         }
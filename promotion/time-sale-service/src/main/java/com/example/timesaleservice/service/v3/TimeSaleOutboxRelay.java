@@ -0,0 +1,192 @@
+package com.example.timesaleservice.service.v3;
+
+import com.example.timesaleservice.dto.PurchaseRequestMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RStream;
+import org.redisson.api.RStreamAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.api.stream.StreamCreateGroupArgs;
+import org.redisson.api.stream.StreamReadGroupArgs;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * TimeSaleProducer 가 Redis Stream outbox 에 기록한 구매 요청을 Kafka 로 전달하는 relay
+ * 1. consumer group 으로 읽으므로 여러 인스턴스가 같은 레코드를 중복 전송하지 않음
+ * 2. 한 번에 읽은 레코드를 모두 send 한 뒤 전체 응답을 한 번의 제한 시간 안에서 기다림 (producer 내부에서 배치로 묶임)
+ * 3. 키(timeSaleId)마다 처음 실패한 레코드 앞까지만 ack 후 삭제하고, 나머지는 남겨서 다음에 다시 전송
+ * 4. 새 레코드를 읽기 전에 남겨둔 레코드를 먼저 다시 보내므로 같은 타임세일의 요청이 앞질러 가지 않음
+ *    (idempotent producer 는 같은 파티션에서 앞 레코드가 실패하면 뒤 레코드도 성공시키지 않는다)
+ * 5. 다른 인스턴스가 읽고 처리하지 못한 레코드는 일정 시간이 지나면 가져와서 전송
+ * - 같은 레코드가 두 번 전송될 수 있지만 Consumer 가 요청 ID 로 중복을 걸러낸다.
+ */
+@Slf4j
+@Component
+public class TimeSaleOutboxRelay {
+    private static final String TOPIC = "time-sale-requests";
+    private static final String OUTBOX_KEY = "time-sale-outbox";
+    private static final String RELAY_GROUP = "time-sale-outbox-relay";
+    private static final long SEND_TIMEOUT_SECONDS = 10L;
+
+    private final RedissonClient redissonClient;
+    private final KafkaTemplate<String, PurchaseRequestMessage> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final Timer lagTimer;
+    private final DistributionSummary batchSizeSummary;
+    private final String consumerName = "relay-" + UUID.randomUUID();
+
+    @Value("${time-sale.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${time-sale.outbox.claim-idle-ms:30000}")
+    private long claimIdleMillis;
+
+    public TimeSaleOutboxRelay(RedissonClient redissonClient,
+                               KafkaTemplate<String, PurchaseRequestMessage> kafkaTemplate,
+                               ObjectMapper objectMapper,
+                               MeterRegistry registry) {
+        this.redissonClient = redissonClient;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        // outbox 에 기록된 시점부터 브로커가 받을 때까지 걸린 시간
+        this.lagTimer = Timer.builder("time.sale.outbox.relay.lag")
+                .publishPercentileHistogram()
+                .register(registry);
+        // relay 한 번에 전송한 레코드 수
+        this.batchSizeSummary = DistributionSummary.builder("time.sale.outbox.relay.batch.size")
+                .register(registry);
+        // 아직 전송되지 않은 outbox 레코드 수
+        Gauge.builder("time.sale.outbox.size", this, relay -> relay.getOutbox().size())
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void createGroup() {
+        try {
+            getOutbox().createGroup(StreamCreateGroupArgs.name(RELAY_GROUP)
+                    .id(StreamMessageId.ALL)
+                    .makeStream());
+        } catch (Exception e) {
+            // 다른 인스턴스가 이미 만든 경우 (BUSYGROUP)
+            log.debug("Outbox relay group already exists: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${time-sale.outbox.relay-interval-ms:20}")
+    public void relay() {
+        try {
+            RStream<String, String> outbox = getOutbox();
+            // 지난번에 보내지 못하고 남겨둔 레코드 (이 relay 가 읽고 ack 하지 않은 것)
+            Map<StreamMessageId, Map<String, String>> records = outbox.readGroup(RELAY_GROUP, consumerName,
+                    StreamReadGroupArgs.greaterThan(StreamMessageId.ALL).count(batchSize));
+            if (records.isEmpty()) {
+                records = outbox.readGroup(RELAY_GROUP, consumerName,
+                        StreamReadGroupArgs.neverDelivered().count(batchSize));
+            }
+            if (records.isEmpty()) {
+                records = outbox.autoClaim(RELAY_GROUP, consumerName, claimIdleMillis, TimeUnit.MILLISECONDS,
+                        StreamMessageId.MIN, batchSize).getMessages();
+            }
+            if (!records.isEmpty()) {
+                dispatch(records);
+            }
+        } catch (Exception e) {
+            log.error("Failed to relay outbox records", e);
+        }
+    }
+
+    private void dispatch(Map<StreamMessageId, Map<String, String>> records) {
+        batchSizeSummary.record(records.size());
+
+        List<StreamMessageId> dispatched = new ArrayList<>();
+        Map<StreamMessageId, String> keys = new HashMap<>();
+        Map<StreamMessageId, CompletableFuture<SendResult<String, PurchaseRequestMessage>>> futures = new LinkedHashMap<>();
+        records.forEach((id, fields) -> {
+            try {
+                PurchaseRequestMessage message = objectMapper.readValue(fields.get("payload"), PurchaseRequestMessage.class);
+                // 같은 타임세일의 요청이 같은 파티션으로 가도록 timeSaleId 를 키로 사용
+                String key = String.valueOf(message.getTimeSaleId());
+                keys.put(id, key);
+                futures.put(id, kafkaTemplate.send(TOPIC, key, message));
+            } catch (JsonProcessingException e) {
+                // 다시 보내도 실패하는 레코드는 남겨두지 않는다.
+                log.error("Dropping unreadable outbox record: id={}", id, e);
+                dispatched.add(id);
+            }
+        });
+
+        awaitAll(futures.values());
+
+        // 레코드는 stream ID 순서이므로 키마다 처음 실패한 레코드 뒤로는 성공했어도 ack 하지 않는다.
+        long now = System.currentTimeMillis();
+        Set<String> failedKeys = new HashSet<>();
+        for (Map.Entry<StreamMessageId, CompletableFuture<SendResult<String, PurchaseRequestMessage>>> entry : futures.entrySet()) {
+            StreamMessageId id = entry.getKey();
+            String key = keys.get(id);
+            if (failedKeys.contains(key)) {
+                continue;
+            }
+            CompletableFuture<SendResult<String, PurchaseRequestMessage>> future = entry.getValue();
+            if (!future.isDone() || future.isCompletedExceptionally()) {
+                failedKeys.add(key);
+                log.warn("Failed to dispatch outbox record, will retry from here: id={}, key={}", id, key);
+                continue;
+            }
+            dispatched.add(id);
+            String createdAt = records.get(id).get("createdAt");
+            if (createdAt != null) {
+                lagTimer.record(Math.max(0L, now - Long.parseLong(createdAt)), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        markDispatched(dispatched);
+    }
+
+    // 레코드 수와 관계없이 전체를 SEND_TIMEOUT_SECONDS 까지만 기다림 (실패/미완료 여부는 레코드마다 따로 확인)
+    private void awaitAll(Collection<CompletableFuture<SendResult<String, PurchaseRequestMessage>>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Some outbox records were not dispatched: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ack 와 삭제를 한 번의 왕복으로 처리
+    private void markDispatched(List<StreamMessageId> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        StreamMessageId[] idArray = ids.toArray(new StreamMessageId[0]);
+        RBatch batch = redissonClient.createBatch();
+        RStreamAsync<String, String> outbox = batch.getStream(OUTBOX_KEY, StringCodec.INSTANCE);
+        outbox.ackAsync(RELAY_GROUP, idArray);
+        outbox.removeAsync(idArray);
+        batch.execute();
+    }
+
+    private RStream<String, String> getOutbox() {
+        return redissonClient.getStream(OUTBOX_KEY, StringCodec.INSTANCE);
+    }
+}
@@ -1,44 +1,82 @@
 package com.example.timesaleservice.service.v3;
 
+import com.example.timesaleservice.domain.TimeSale;
 import com.example.timesaleservice.dto.PurchaseRequestMessage;
+import com.example.timesaleservice.exception.TimeSaleException;
+import com.example.timesaleservice.service.v2.PurchaseIdempotencyService;
+import com.example.timesaleservice.service.v2.TimeSaleKeyLifecycleService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import org.redisson.api.RAtomicLong;
-import org.redisson.api.RBucket;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
+import org.redisson.api.RMapAsync;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RScoredSortedSetAsync;
+import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.client.codec.StringCodec;
 import org.springframework.stereotype.Service;
 
-import java.util.UUID;
+import java.time.Instant;
+import java.util.*;
 
 /**
  * 타임세일 구매 요청을 처리하는 Producer
- * - Kafka를 통해 비동기로 구매 요청을 처리
- * - Redis를 사용하여 대기열 관리
+ * - 요청은 Redis Stream outbox 에 기록하고, Kafka 전송은 TimeSaleOutboxRelay 가 묶어서 처리 (요청 스레드는 브로커 응답을 기다리지 않음)
+ * - Redis Sorted Set을 사용하여 대기열 관리 (타임세일별 INCR 시퀀스를 score로 사용해서 도착 순서대로 정렬, 총 대기 수는 대기열 크기)
+ * - 요청 상태는 타임세일마다 해시 하나("purchase-results:{timeSaleId}")의 필드로 저장하고 종료 시각 + retention 에 만료
  * - Redisson을 사용하여 분산 환경에서의 동시성 제어
  */
 @Service
 @RequiredArgsConstructor
 public class TimeSaleProducer {
-    // Kafka 토픽 이름
-    private static final String TOPIC = "time-sale-requests";
     // Redis 키 접두사
     private static final String QUEUE_KEY = "time-sale-queue:";
-    private static final String TOTAL_REQUESTS_KEY = "time-sale-total-requests:";
-    private static final String RESULT_PREFIX = "purchase-result:";
+    private static final String QUEUE_SEQUENCE_KEY = "time-sale-queue-seq:";
+    private static final String RESULTS_KEY = "purchase-results:";
+    private static final String OUTBOX_KEY = "time-sale-outbox";
+
+    // KEYS[1]: 대기열, KEYS[2]: 대기열 시퀀스
+    // ARGV[1]: 요청 ID, ARGV[2]: 만료 시각 (epoch millis)
+    // 같은 밀리초에 들어온 요청도 도착 순서대로 정렬되도록 요청 시각 대신 시퀀스를 score 로 사용 (2^53 까지 정확한 정수)
+    public static final String ENQUEUE_SCRIPT =
+            "local sequence = redis.call('INCR', KEYS[2]) " +
+            "redis.call('PEXPIREAT', KEYS[2], ARGV[2]) " +
+            "redis.call('ZADD', KEYS[1], 'NX', sequence, ARGV[1]) " +
+            "redis.call('PEXPIREAT', KEYS[1], ARGV[2]) " +
+            "return sequence";
 
-    private final KafkaTemplate<String, PurchaseRequestMessage> kafkaTemplate;
     private final RedissonClient redissonClient;
+    private final PurchaseIdempotencyService purchaseIdempotencyService;
+    private final TimeSaleKeyLifecycleService timeSaleKeyLifecycleService;
+    private final ObjectMapper objectMapper;
 
     /**
      * 타임세일 구매 요청을 처리
-     * 1. 요청 ID 생성
-     * 2. Redis에 요청 상태 저장
-     * 3. 대기열에 요청 추가
-     * 4. Kafka로 메시지 전송
+     * 1. 요청 ID 생성 (멱등성 키가 이미 사용되었으면 기존 요청 ID 반환)
+     * 2. 요청 상태(PENDING), 대기열, outbox 레코드를 MULTI/EXEC 로 한 번에 기록 (상태/대기열 키에는 만료 시각을 함께 설정)
+     * 3. Kafka 전송은 outbox relay 가 비동기로 처리
      */
-    public String sendPurchaseRequest(Long timeSaleId, Long userId, Long quantity) {
+    public String sendPurchaseRequest(TimeSale timeSale, Long userId, Long quantity, String idempotencyKey) {
         // 고유한 요청 ID 생성
-        String requestId = UUID.randomUUID().toString();
+        return sendPurchaseRequest(UUID.randomUUID().toString(), timeSale, userId, quantity, idempotencyKey);
+    }
+
+    /**
+     * 호출하는 쪽에서 만든 요청 ID 로 구매 요청을 처리 (반환값이 requestId 와 다르면 이미 처리 중인 중복 요청)
+     */
+    public String sendPurchaseRequest(String requestId, TimeSale timeSale, Long userId, Long quantity, String idempotencyKey) {
+        Long timeSaleId = timeSale.getId();
+        // 재시도로 들어온 중복 요청은 대기열/Kafka 에 넣지 않는다.
+        if (idempotencyKey != null) {
+            String claimedRequestId = purchaseIdempotencyService.claim(timeSaleId, userId, idempotencyKey, requestId);
+            if (!requestId.equals(claimedRequestId)) {
+                return claimedRequestId;
+            }
+        }
 
         // 구매 요청 메시지 생성
         PurchaseRequestMessage message = PurchaseRequestMessage.builder()
@@ -46,52 +84,89 @@ public class TimeSaleProducer {
                 .timeSaleId(timeSaleId)
                 .userId(userId)
                 .quantity(quantity)
+                .idempotencyKey(idempotencyKey)
                 .build();
 
-        // Redis에 초기 상태 저장
-        RBucket<String> resultBucket = redissonClient.getBucket(RESULT_PREFIX + requestId);
-        resultBucket.set("PENDING");
+        try {
+            appendToOutbox(message, timeSaleKeyLifecycleService.getExpireAt(timeSale));
+        } catch (RuntimeException e) {
+            if (idempotencyKey != null) {
+                purchaseIdempotencyService.release(timeSaleId, userId, idempotencyKey, requestId);
+            }
+            throw e;
+        }
+        return requestId;
+    }
 
-        // 대기열에 추가하고 카운터 증가
-        String queueKey = QUEUE_KEY + timeSaleId;
-        String totalKey = TOTAL_REQUESTS_KEY + timeSaleId;
-        RBucket<String> queueBucket = redissonClient.getBucket(queueKey);
-        queueBucket.set(requestId);
-        RAtomicLong totalCounter = redissonClient.getAtomicLong(totalKey);
-        totalCounter.incrementAndGet();
+    // 쓰기가 모두 반영되거나 모두 반영되지 않으므로, 대기열에는 있는데 Kafka 로 가지 않는 요청이 생기지 않는다.
+    private void appendToOutbox(PurchaseRequestMessage message, Instant expireAt) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new TimeSaleException("Failed to serialize purchase request", e);
+        }
 
-        // Kafka로 메시지 전송
-        kafkaTemplate.send(TOPIC, requestId, message);
-        return requestId;
+        long now = System.currentTimeMillis();
+        RBatch batch = redissonClient.createBatch(BatchOptions.defaults()
+                .executionMode(BatchOptions.ExecutionMode.IN_MEMORY_ATOMIC));
+        RMapAsync<String, String> results = batch.getMap(RESULTS_KEY + message.getTimeSaleId(), StringCodec.INSTANCE);
+        results.fastPutAsync(message.getRequestId(), "PENDING");
+        results.expireAsync(expireAt);
+        batch.getScript(StringCodec.INSTANCE).evalAsync(
+                RScript.Mode.READ_WRITE,
+                ENQUEUE_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                List.of(QUEUE_KEY + message.getTimeSaleId(), QUEUE_SEQUENCE_KEY + message.getTimeSaleId()),
+                message.getRequestId(),
+                String.valueOf(expireAt.toEpochMilli())); // O(log n)
+        batch.<String, String>getStream(OUTBOX_KEY, StringCodec.INSTANCE)
+                .addAsync(StreamAddArgs.entries(Map.of(
+                        "payload", payload,
+                        "createdAt", String.valueOf(now))));
+        batch.execute();
     }
 
     /**
-     * 대기열에서 요청의 위치를 조회
+     * 대기열에서 요청의 위치를 조회 (1부터 시작, 대기열에 없으면 null)
+     * - ZRANK 한 번으로 조회하므로 대기열 크기와 관계없이 O(log n)
      */
     public Integer getQueuePosition(Long timeSaleId, String requestId) {
-        String queueKey = QUEUE_KEY + timeSaleId;
-        RBucket<String> queueBucket = redissonClient.getBucket(queueKey);
-        String queueValue = queueBucket.get();
+        Integer rank = getQueue(timeSaleId).rank(requestId);
+        return rank != null ? rank + 1 : null;
+    }
 
-        if (queueValue == null || queueValue.isEmpty()) {
-            return null;
+    /**
+     * 여러 요청의 대기열 위치를 한 번의 왕복으로 조회 (대기열에 없는 요청은 결과에서 제외)
+     */
+    public Map<String, Integer> getQueuePositions(Long timeSaleId, Collection<String> requestIds) {
+        RBatch batch = redissonClient.createBatch();
+        RScoredSortedSetAsync<String> queue = batch.getScoredSortedSet(QUEUE_KEY + timeSaleId, StringCodec.INSTANCE);
+        Map<String, RFuture<Integer>> ranks = new HashMap<>();
+        for (String requestId : requestIds) {
+            ranks.put(requestId, queue.rankAsync(requestId));
         }
+        batch.execute();
 
-        String[] queueValues = queueValue.split(",");
-        for (int i = 0; i < queueValues.length; i++) {
-            if (requestId.equals(queueValues[i])) {
-                return i + 1;
+        Map<String, Integer> positions = new HashMap<>();
+        ranks.forEach((requestId, rank) -> {
+            Integer value = rank.toCompletableFuture().join();
+            if (value != null) {
+                positions.put(requestId, value + 1);
             }
-        }
-        return null;
+        });
+        return positions;
     }
 
     /**
-     * 총 대기 중인 요청 수를 조회
+     * 총 대기 중인 요청 수를 조회 (ZCARD, 별도 카운터 없음)
      */
     public Long getTotalWaiting(Long timeSaleId) {
-        String totalKey = TOTAL_REQUESTS_KEY + timeSaleId;
-        RAtomicLong totalCounter = redissonClient.getAtomicLong(totalKey);
-        return totalCounter.get();
+        return (long) getQueue(timeSaleId).size();
+    }
+
+    // 대기열 멤버는 요청 ID 문자열 그대로 저장한다.
+    private RScoredSortedSet<String> getQueue(Long timeSaleId) {
+        return redissonClient.getScoredSortedSet(QUEUE_KEY + timeSaleId, StringCodec.INSTANCE);
     }
 }
\ No newline at end of file
@@ -0,0 +1,129 @@
+package com.example.timesaleservice.service.v3;
+
+import com.example.timesaleservice.aop.TimeSaleMetrics;
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleOrder;
+import com.example.timesaleservice.dto.PurchaseRequestMessage;
+import com.example.timesaleservice.exception.TimeSaleException;
+import com.example.timesaleservice.repository.TimeSaleOrderRepository;
+import com.example.timesaleservice.repository.TimeSaleRepository;
+import com.example.timesaleservice.service.v2.TimeSalePurchaseLimitService;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 같은 타임세일에 대한 구매 요청 묶음을 한 트랜잭션으로 DB에 반영
+ * - 타임세일은 한 번만 조회/저장하고, 요청마다 1인당 구매 제한 확인과 재고 검증 및 차감
+ * - 검증에 실패한 요청만 제외하고 나머지 주문은 saveAll 로 한 번에 저장
+ * - Redis 재고 카운터를 이미 차감한 요청(v5)은 검증 없이 재고 차감 쿼리 한 번과 주문 저장만 수행
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimeSalePurchaseBatchService {
+    private final TimeSaleRepository timeSaleRepository;
+    private final TimeSaleOrderRepository timeSaleOrderRepository;
+    private final TimeSalePurchaseLimitService timeSalePurchaseLimitService;
+    private final TimeSaleMetrics timeSaleMetrics;
+
+    @Transactional
+    public Result applyPurchases(Long timeSaleId, List<PurchaseRequestMessage> messages) {
+        TimeSale timeSale = timeSaleRepository.findById(timeSaleId)
+                .orElseThrow(() -> new IllegalArgumentException("TimeSale not found"));
+
+        List<TimeSaleOrder> orders = new ArrayList<>();
+        List<PurchaseRequestMessage> succeededMessages = new ArrayList<>();
+        Set<String> succeededRequestIds = new HashSet<>();
+        for (PurchaseRequestMessage message : messages) {
+            try {
+                timeSalePurchaseLimitService.acquire(timeSale, message.getUserId(), message.getQuantity());
+            } catch (RuntimeException e) {
+                reject(message, e);
+                continue;
+            }
+            try {
+                // 검증에 실패하면 재고는 변경되지 않으므로 다음 요청을 계속 처리할 수 있다.
+                timeSale.purchase(message.getQuantity());
+            } catch (RuntimeException e) {
+                timeSalePurchaseLimitService.release(timeSale, message.getUserId(), message.getQuantity());
+                reject(message, e);
+                continue;
+            }
+
+            TimeSaleOrder order = TimeSaleOrder.builder()
+                    .userId(message.getUserId())
+                    .timeSale(timeSale)
+                    .quantity(message.getQuantity())
+                    .discountPrice(timeSale.getDiscountPrice())
+                    .build();
+            order.complete();
+            orders.add(order);
+            succeededMessages.add(message);
+            succeededRequestIds.add(message.getRequestId());
+        }
+
+        if (!orders.isEmpty()) {
+            try {
+                timeSale = timeSaleRepository.save(timeSale);
+                timeSaleOrderRepository.saveAll(orders);
+            } catch (RuntimeException e) {
+                // 묶음 전체가 롤백되므로 누적했던 구매 수량도 모두 되돌린다.
+                for (PurchaseRequestMessage message : succeededMessages) {
+                    timeSalePurchaseLimitService.release(timeSale, message.getUserId(), message.getQuantity());
+                }
+                throw e;
+            }
+        }
+        return new Result(timeSale, succeededRequestIds);
+    }
+
+    /**
+     * 재고 카운터와 1인당 구매 수량을 이미 차감한 요청(v5) 묶음을 반영
+     * - 실패하면 묶음 전체가 롤백되므로 호출하는 쪽에서 차감했던 재고를 되돌린다.
+     */
+    @Transactional
+    public Result applyReservedPurchases(Long timeSaleId, List<PurchaseRequestMessage> messages) {
+        long quantity = messages.stream().mapToLong(PurchaseRequestMessage::getQuantity).sum();
+        if (timeSaleRepository.decreaseRemainingQuantity(timeSaleId, quantity) == 0) {
+            throw new TimeSaleException("Failed to decrease remaining quantity: " + timeSaleId);
+        }
+        TimeSale timeSale = timeSaleRepository.findById(timeSaleId)
+                .orElseThrow(() -> new IllegalArgumentException("TimeSale not found"));
+
+        List<TimeSaleOrder> orders = new ArrayList<>();
+        Set<String> succeededRequestIds = new HashSet<>();
+        for (PurchaseRequestMessage message : messages) {
+            TimeSaleOrder order = TimeSaleOrder.builder()
+                    .userId(message.getUserId())
+                    .timeSale(timeSale)
+                    .quantity(message.getQuantity())
+                    .discountPrice(timeSale.getDiscountPrice())
+                    .build();
+            order.complete();
+            orders.add(order);
+            succeededRequestIds.add(message.getRequestId());
+        }
+        timeSaleOrderRepository.saveAll(orders);
+        return new Result(timeSale, succeededRequestIds);
+    }
+
+    private void reject(PurchaseRequestMessage message, RuntimeException e) {
+        log.warn("Purchase rejected: requestId={}, reason={}", message.getRequestId(), e.getMessage());
+        timeSaleMetrics.recordFailure("v3", "consumePurchaseRequests", e);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Result {
+        private final TimeSale timeSale;
+        private final Set<String> succeededRequestIds;
+    }
+}
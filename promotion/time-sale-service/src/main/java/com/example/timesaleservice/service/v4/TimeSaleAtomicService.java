@@ -0,0 +1,95 @@
+package com.example.timesaleservice.service.v4;
+
+import com.example.timesaleservice.aop.TimeSaleMetered;
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.dto.TimeSaleDto;
+import com.example.timesaleservice.service.v2.TimeSaleRedisService;
+import com.example.timesaleservice.service.v2.TimeSaleStatusService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+/**
+ * 분산 락 없이 Redis 재고 카운터로 구매를 처리하는 타임세일 서비스 (v4)
+ * 1. Lua 스크립트로 상태/기간/재고 검증 및 차감 (원자적)
+ * 2. 차감에 성공한 요청만 DB에 주문 저장
+ * 3. DB 저장 실패 시 차감한 재고를 되돌림
+ * 4. 재고가 0이 되면 SOLD_OUT 으로 전환
+ * - stockShards 를 지정한 타임세일은 재고 카운터를 여러 샤드로 나눠 차감 (TimeSaleShardedStockService)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimeSaleAtomicService {
+    private final TimeSaleRedisService timeSaleRedisService;
+    private final TimeSaleStockService timeSaleStockService;
+    private final TimeSaleShardedStockService timeSaleShardedStockService;
+    private final TimeSaleOrderService timeSaleOrderService;
+    private final TimeSaleStatusService timeSaleStatusService;
+
+    public TimeSale createTimeSale(TimeSaleDto.CreateRequest request) {
+        TimeSale timeSale = timeSaleRedisService.createTimeSale(request);
+        if (timeSale.hasStockShards()) {
+            timeSaleShardedStockService.initStock(timeSale);
+        } else {
+            timeSaleStockService.initStock(timeSale);
+        }
+        return timeSale;
+    }
+
+    // 남은 수량은 Redis 재고 카운터 값을 기준으로 한다.
+    public TimeSale getTimeSale(Long timeSaleId) {
+        TimeSale timeSale = timeSaleRedisService.getTimeSale(timeSaleId);
+        Long remainingQuantity = timeSale.hasStockShards()
+                ? timeSaleShardedStockService.getRemainingQuantity(timeSale)
+                : timeSaleStockService.getRemainingQuantity(timeSaleId);
+        if (remainingQuantity != null) {
+            timeSale.updateRemainingQuantity(remainingQuantity);
+        }
+        return timeSale;
+    }
+
+    public Page<TimeSale> getOngoingTimeSales(Pageable pageable) {
+        return timeSaleRedisService.getOngoingTimeSales(pageable);
+    }
+
+    @TimeSaleMetered(version = "v4")
+    public TimeSale purchaseTimeSale(Long timeSaleId, TimeSaleDto.PurchaseRequest request) {
+        // 샤드 수와 할인가는 near cache 에서 읽는다.
+        TimeSale timeSale = timeSaleRedisService.getTimeSale(timeSaleId);
+
+        // 재고 차감 (부족하거나 판매 기간이 아니거나 1인당 구매 제한을 넘으면 예외)
+        Long remainingQuantity = reserve(timeSale, request);
+
+        try {
+            timeSaleOrderService.createOrder(timeSaleId, request.getUserId(), request.getQuantity(), timeSale.getDiscountPrice());
+            timeSale.updateRemainingQuantity(remainingQuantity);
+            if (remainingQuantity == 0) {
+                timeSaleStatusService.close(timeSaleId, TimeSaleStatus.SOLD_OUT);
+            }
+            return timeSale;
+        } catch (RuntimeException e) {
+            log.error("Failed to save order, releasing stock: timeSaleId={}, userId={}", timeSaleId, request.getUserId(), e);
+            release(timeSale, request);
+            throw e;
+        }
+    }
+
+    private Long reserve(TimeSale timeSale, TimeSaleDto.PurchaseRequest request) {
+        if (timeSale.hasStockShards()) {
+            return timeSaleShardedStockService.reserve(timeSale, request.getUserId(), request.getQuantity());
+        }
+        return timeSaleStockService.reserve(timeSale.getId(), request.getUserId(), request.getQuantity());
+    }
+
+    private void release(TimeSale timeSale, TimeSaleDto.PurchaseRequest request) {
+        if (timeSale.hasStockShards()) {
+            timeSaleShardedStockService.release(timeSale, request.getUserId(), request.getQuantity());
+        } else {
+            timeSaleStockService.release(timeSale.getId(), request.getUserId(), request.getQuantity());
+        }
+    }
+}
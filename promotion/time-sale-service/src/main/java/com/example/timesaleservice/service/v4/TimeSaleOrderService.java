@@ -0,0 +1,65 @@
+package com.example.timesaleservice.service.v4;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleOrder;
+import com.example.timesaleservice.exception.TimeSaleException;
+import com.example.timesaleservice.repository.TimeSaleOrderRepository;
+import com.example.timesaleservice.repository.TimeSaleRepository;
+import com.example.timesaleservice.service.v2.TimeSaleRedisService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Redis에서 재고 차감이 끝난 구매 건을 DB에 기록하는 서비스
+ * - 타임세일 엔티티를 수정하지 않고 재고 차감 쿼리와 주문 저장만 수행
+ * - 차감한 행을 다시 읽어서 커밋된 뒤에 Redis 사본과 near cache 를 갱신 (v2 가 이전 수량으로 구매하지 않게)
+ */
+@Service
+@RequiredArgsConstructor
+public class TimeSaleOrderService {
+    private final TimeSaleRepository timeSaleRepository;
+    private final TimeSaleOrderRepository timeSaleOrderRepository;
+    private final TimeSaleRedisService timeSaleRedisService;
+
+    // 트랜잭션 안에서 호출돼도(v3 Consumer 의 재고 선차감 요청) 따로 커밋/롤백한다.
+    // 참여하면 차감 실패 예외가 바깥 트랜잭션을 rollback-only 로 만들어서, 호출하는 쪽이 예외를 처리해도 커밋할 때 UnexpectedRollbackException 이 난다.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public TimeSaleOrder createOrder(Long timeSaleId, Long userId, Long quantity, Long discountPrice) {
+        int updated = timeSaleRepository.decreaseRemainingQuantity(timeSaleId, quantity);
+        if (updated == 0) {
+            throw new TimeSaleException("Failed to decrease remaining quantity: " + timeSaleId);
+        }
+
+        TimeSale timeSale = timeSaleRepository.findWithProductById(timeSaleId)
+                .orElseThrow(() -> new IllegalArgumentException("TimeSale not found"));
+        saveToRedisAfterCommit(timeSale);
+
+        TimeSaleOrder order = TimeSaleOrder.builder()
+                .userId(userId)
+                .timeSale(timeSale)
+                .quantity(quantity)
+                .discountPrice(discountPrice)
+                .build();
+        order.complete();
+
+        return timeSaleOrderRepository.save(order);
+    }
+
+    // 롤백되면 Redis 사본은 그대로 둔다.
+    private void saveToRedisAfterCommit(TimeSale timeSale) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    timeSaleRedisService.saveToRedis(timeSale);
+                }
+            });
+            return;
+        }
+        timeSaleRedisService.saveToRedis(timeSale);
+    }
+}
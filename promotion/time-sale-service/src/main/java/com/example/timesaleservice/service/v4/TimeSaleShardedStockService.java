@@ -0,0 +1,392 @@
+package com.example.timesaleservice.service.v4;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.repository.TimeSaleRepository;
+import com.example.timesaleservice.service.v2.TimeSaleKeyLifecycleService;
+import com.example.timesaleservice.service.v2.TimeSalePurchaseLimitService;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.*;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문이 몰리는 타임세일의 재고를 여러 Redis 카운터로 나눠 관리하는 서비스 (v4, stockShards 지정 시)
+ * 1. 재고를 "time-sale-stock:{id}:{shard}" 해시 N개에 나눠 저장 (해시마다 상태/기간/남은 수량)
+ * 2. 구매는 임의의 샤드에서 차감하고, 부족하면 옆 샤드로 넘어가며 시도 (스크립트는 키 하나만 사용)
+ * 3. 남은 수량은 모든 샤드를 한 번의 파이프라인으로 읽어 합산
+ * 4. 샤드 간 남은 수량 차이는 TimeSaleStockRebalancer 가 주기적으로 맞춤
+ * - 1인당 구매 제한은 샤드 스크립트와 분리해 TimeSalePurchaseLimitService 로 먼저 확보하고 실패 시 되돌린다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimeSaleShardedStockService {
+    private static final String STOCK_KEY = "time-sale-stock:";
+    private static final String SHARDED_KEY = "time-sale-stock-sharded"; // 샤드 재고를 사용하는 타임세일 ID 집합
+    private static final String LOAD_LOCK = "time-sale-stock-load:";
+    private static final long LOAD_LOCK_WAIT_MILLIS = 500L; // 다른 인스턴스가 적재하는 동안 기다리는 시간
+    private static final long LOAD_LOCK_LEASE_MILLIS = 3_000L;
+
+    // 스크립트 결과 코드 (0 이상이면 차감 후 샤드의 남은 수량)
+    private static final long NOT_LOADED = -1L;
+    private static final long NOT_ACTIVE = -2L;
+    private static final long NOT_IN_PERIOD = -3L;
+    private static final long NOT_ENOUGH = -4L;
+
+    private static final String RESERVE_SCRIPT = """
+            local values = redis.call('HMGET', KEYS[1], 'status', 'startAt', 'endAt', 'remaining')
+            if not values[1] then
+                return -1
+            end
+            if values[1] ~= 'ACTIVE' then
+                return -2
+            end
+            local now = tonumber(ARGV[2])
+            if now < tonumber(values[2]) or now > tonumber(values[3]) then
+                return -3
+            end
+            local quantity = tonumber(ARGV[1])
+            if tonumber(values[4]) < quantity then
+                return -4
+            end
+            return redis.call('HINCRBY', KEYS[1], 'remaining', -quantity)
+            """;
+
+    private static final String RELEASE_SCRIPT = """
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return -1
+            end
+            return redis.call('HINCRBY', KEYS[1], 'remaining', ARGV[1])
+            """;
+
+    // 요청한 수량까지만, 남아 있는 만큼 가져간다. (리밸런싱)
+    private static final String TAKE_SCRIPT = """
+            local remaining = tonumber(redis.call('HGET', KEYS[1], 'remaining') or '0')
+            local amount = math.min(remaining, tonumber(ARGV[1]))
+            if amount > 0 then
+                redis.call('HINCRBY', KEYS[1], 'remaining', -amount)
+            end
+            return amount
+            """;
+
+    private final TimeSaleRepository timeSaleRepository;
+    private final RedissonClient redissonClient;
+    private final TimeSalePurchaseLimitService timeSalePurchaseLimitService;
+    private final TimeSaleKeyLifecycleService timeSaleKeyLifecycleService;
+
+    /**
+     * 남은 수량을 샤드 수만큼 나눠 Redis에 저장 (기존 값이 있으면 덮어씀)
+     */
+    public void initStock(TimeSale timeSale) {
+        writeShards(timeSale, timeSale.getRemainingQuantity());
+        getShardedIds().add(String.valueOf(timeSale.getId()));
+    }
+
+    /**
+     * 재고를 차감하고 남은 수량을 반환
+     * - 0 이면 전체 재고 소진, 그 외에는 차감한 샤드의 남은 수량 (전체 남은 수량보다 작거나 같음)
+     * - 모든 샤드가 부족하면 재고 부족 (샤드에 흩어진 재고를 합쳐서 차감하지는 않음)
+     */
+    public Long reserve(TimeSale timeSale, Long userId, Long quantity) {
+        timeSalePurchaseLimitService.acquire(timeSale, userId, quantity);
+        try {
+            long remaining = reserveFromShards(timeSale, quantity);
+            if (remaining == 0) {
+                Long total = getRemainingQuantity(timeSale);
+                return total != null ? total : 0L;
+            }
+            return remaining;
+        } catch (RuntimeException e) {
+            timeSalePurchaseLimitService.release(timeSale, userId, quantity);
+            throw e;
+        }
+    }
+
+    /**
+     * 차감했던 재고와 사용자 구매 수량을 되돌림 (주문 저장 실패 시 보상 처리)
+     * - 재고는 어느 샤드에 돌려줘도 같으므로 임의의 샤드에 더한다.
+     */
+    public void release(TimeSale timeSale, Long userId, Long quantity) {
+        int shard = ThreadLocalRandom.current().nextInt(timeSale.getStockShards());
+        if (!addToShard(timeSale.getId(), shard, quantity)) {
+            log.warn("Stock shard not found while releasing: timeSaleId={}, shard={}, quantity={}", timeSale.getId(), shard, quantity);
+        }
+        timeSalePurchaseLimitService.release(timeSale, userId, quantity);
+    }
+
+    /**
+     * 모든 샤드의 남은 수량 합계 (적재된 샤드가 없으면 null)
+     */
+    public Long getRemainingQuantity(TimeSale timeSale) {
+        long[] remainings = readRemainings(timeSale.getId(), timeSale.getStockShards());
+        return remainings != null ? Arrays.stream(remainings).sum() : null;
+    }
+
+    /**
+     * 남은 수량이 고르게 되도록 많은 샤드에서 적은 샤드로 옮김
+     * - 가져오기와 더하기는 각각 원자적이며, 그 사이에는 옮기는 수량이 잠시 보이지 않을 뿐 초과 판매는 없다.
+     */
+    public void rebalance(TimeSale timeSale) {
+        Long timeSaleId = timeSale.getId();
+        long[] remainings = readRemainings(timeSaleId, timeSale.getStockShards());
+        if (remainings == null) {
+            return;
+        }
+        for (Move move : planMoves(remainings)) {
+            long taken = takeFromShard(timeSaleId, move.getFrom(), move.getAmount());
+            if (taken == 0) {
+                continue;
+            }
+            try {
+                addToShard(timeSaleId, move.getTo(), taken);
+            } catch (Exception e) {
+                // 가져온 재고는 원래 샤드로 돌려놓는다. 이마저 실패하면 재고 정합성 점검으로 복구한다.
+                log.error("Failed to move stock: timeSaleId={}, from={}, to={}, quantity={}", timeSaleId, move.getFrom(), move.getTo(), taken, e);
+                addToShard(timeSaleId, move.getFrom(), taken);
+            }
+        }
+    }
+
+    /**
+     * 모든 샤드의 남은 수량 합계를 delta 만큼 보정 (재고 정합성 점검에서 DB 기준으로 맞출 때 사용)
+     * - 늘릴 때는 임의의 샤드부터 적재된 샤드를 찾아 더하고, 줄일 때는 앞 샤드부터 남은 만큼 가져온다.
+     */
+    public void adjustRemainingQuantity(TimeSale timeSale, long delta) {
+        if (delta > 0) {
+            int shards = timeSale.getStockShards();
+            int start = ThreadLocalRandom.current().nextInt(shards);
+            for (int i = 0; i < shards; i++) {
+                if (addToShard(timeSale.getId(), (start + i) % shards, delta)) {
+                    return;
+                }
+            }
+            log.warn("No stock shard loaded while adjusting: timeSaleId={}, delta={}", timeSale.getId(), delta);
+            return;
+        }
+        long toTake = -delta;
+        for (int shard = 0; shard < timeSale.getStockShards() && toTake > 0; shard++) {
+            toTake -= takeFromShard(timeSale.getId(), shard, toTake);
+        }
+    }
+
+    public Set<Long> getShardedTimeSaleIds() {
+        Set<Long> ids = new HashSet<>();
+        for (String id : getShardedIds().readAll()) {
+            ids.add(Long.parseLong(id));
+        }
+        return ids;
+    }
+
+    public void removeShardedTimeSale(Long timeSaleId) {
+        getShardedIds().remove(String.valueOf(timeSaleId));
+    }
+
+    private long reserveFromShards(TimeSale timeSale, Long quantity) {
+        int shards = timeSale.getStockShards();
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        boolean reloaded = false;
+        boolean found = false; // 적재된 샤드를 하나라도 만났는지
+        for (int i = 0; i < shards; i++) {
+            int shard = (start + i) % shards;
+            long result = executeReserve(timeSale.getId(), shard, quantity);
+            if (result == NOT_LOADED && !reloaded) {
+                loadStock(timeSale);
+                reloaded = true;
+                result = executeReserve(timeSale.getId(), shard, quantity);
+            }
+
+            if (result >= 0) {
+                return result;
+            }
+            if (result == NOT_ENOUGH) {
+                found = true;
+                continue; // 옆 샤드에서 다시 시도
+            }
+            if (result == NOT_LOADED) {
+                continue; // 이 샤드만 없어진 경우 (남은 샤드에서 시도하고, 없어진 수량은 재고 정합성 점검으로 복구)
+            }
+            if (result == NOT_ACTIVE) {
+                throw new IllegalStateException("Time sale is not active");
+            }
+            if (result == NOT_IN_PERIOD) {
+                throw new IllegalStateException("Time sale is not in valid period");
+            }
+        }
+        if (!found) {
+            throw new IllegalArgumentException("TimeSale not found");
+        }
+        throw new IllegalStateException("Not enough quantity available");
+    }
+
+    private long executeReserve(Long timeSaleId, int shard, Long quantity) {
+        Long result = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                RESERVE_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                List.of(getShardKey(timeSaleId, shard)),
+                String.valueOf(quantity),
+                String.valueOf(toEpochMilli(LocalDateTime.now())));
+        return result != null ? result : NOT_LOADED;
+    }
+
+    private long takeFromShard(Long timeSaleId, int shard, long amount) {
+        Long taken = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                TAKE_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                List.of(getShardKey(timeSaleId, shard)),
+                String.valueOf(amount));
+        return taken != null ? taken : 0L;
+    }
+
+    private boolean addToShard(Long timeSaleId, int shard, long amount) {
+        Long result = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                RELEASE_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                List.of(getShardKey(timeSaleId, shard)),
+                String.valueOf(amount));
+        return result != null && result >= 0;
+    }
+
+    // Redis 재시작 등으로 샤드가 하나도 없으면 DB 의 남은 수량으로 다시 나눠 적재한다.
+    // 락을 잡은 인스턴스만 적재하고, 나머지는 적재가 끝날 때까지 기다렸다가 다시 차감한다.
+    // 샤드가 하나라도 남아 있으면 적재하지 않는다. (DB 수량으로 덮으면 남은 샤드의 수량과 겹쳐서 초과 판매)
+    private void loadStock(TimeSale timeSale) {
+        RLock lock = redissonClient.getLock(LOAD_LOCK + timeSale.getId());
+        try {
+            if (!lock.tryLock(LOAD_LOCK_WAIT_MILLIS, LOAD_LOCK_LEASE_MILLIS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            if (readRemainings(timeSale.getId(), timeSale.getStockShards()) != null) {
+                return;
+            }
+            timeSaleRepository.findById(timeSale.getId()).ifPresent(saved -> {
+                writeShards(saved, saved.getRemainingQuantity());
+                getShardedIds().add(String.valueOf(saved.getId()));
+            });
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    // 샤드마다 종료 시각 + retention 에 만료되도록 함께 PEXPIREAT (닫힐 때 샤드 수를 몰라도 지워짐)
+    private void writeShards(TimeSale timeSale, Long remainingQuantity) {
+        long[] quantities = split(remainingQuantity, timeSale.getStockShards());
+        Instant expireAt = timeSaleKeyLifecycleService.getExpireAt(timeSale);
+        RBatch batch = redissonClient.createBatch();
+        for (int shard = 0; shard < quantities.length; shard++) {
+            RMapAsync<String, String> stock = batch.getMap(getShardKey(timeSale.getId(), shard), StringCodec.INSTANCE);
+            stock.putAllAsync(Map.of(
+                    "status", timeSale.getStatus().name(),
+                    "startAt", String.valueOf(toEpochMilli(timeSale.getStartAt())),
+                    "endAt", String.valueOf(toEpochMilli(timeSale.getEndAt())),
+                    "remaining", String.valueOf(quantities[shard])));
+            stock.expireAsync(expireAt);
+        }
+        batch.execute();
+    }
+
+    // 샤드별 남은 수량 (하나도 적재되지 않았으면 null)
+    private long[] readRemainings(Long timeSaleId, int shards) {
+        RBatch batch = redissonClient.createBatch();
+        List<RFuture<String>> futures = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            RMapAsync<String, String> stock = batch.getMap(getShardKey(timeSaleId, shard), StringCodec.INSTANCE);
+            futures.add(stock.getAsync("remaining"));
+        }
+        batch.execute();
+
+        long[] remainings = new long[shards];
+        boolean loaded = false;
+        for (int shard = 0; shard < shards; shard++) {
+            String remaining = futures.get(shard).getNow();
+            if (remaining != null) {
+                remainings[shard] = Long.parseLong(remaining);
+                loaded = true;
+            }
+        }
+        return loaded ? remainings : null;
+    }
+
+    /**
+     * 수량을 샤드 수만큼 고르게 나눔 (나머지는 앞 샤드부터 1개씩)
+     */
+    static long[] split(long quantity, int shards) {
+        long[] quantities = new long[shards];
+        for (int shard = 0; shard < shards; shard++) {
+            quantities[shard] = quantity / shards + (shard < quantity % shards ? 1 : 0);
+        }
+        return quantities;
+    }
+
+    /**
+     * 평균보다 많은 샤드에서 평균보다 적은 샤드로 옮길 수량 계산 (차이가 1 이하면 옮기지 않음)
+     */
+    static List<Move> planMoves(long[] remainings) {
+        long total = Arrays.stream(remainings).sum();
+        long[] targets = split(total, remainings.length);
+        long[] diffs = new long[remainings.length]; // 양수면 남는 수량, 음수면 부족한 수량
+        long max = Long.MIN_VALUE;
+        long min = Long.MAX_VALUE;
+        for (int shard = 0; shard < remainings.length; shard++) {
+            diffs[shard] = remainings[shard] - targets[shard];
+            max = Math.max(max, remainings[shard]);
+            min = Math.min(min, remainings[shard]);
+        }
+        if (max - min <= 1) {
+            return List.of();
+        }
+
+        List<Move> moves = new ArrayList<>();
+        int from = 0;
+        for (int to = 0; to < diffs.length; to++) {
+            while (diffs[to] < 0) {
+                while (diffs[from] <= 0) {
+                    from++;
+                }
+                long amount = Math.min(diffs[from], -diffs[to]);
+                moves.add(new Move(from, to, amount));
+                diffs[from] -= amount;
+                diffs[to] += amount;
+            }
+        }
+        return moves;
+    }
+
+    private RSet<String> getShardedIds() {
+        return redissonClient.getSet(SHARDED_KEY, StringCodec.INSTANCE);
+    }
+
+    private String getShardKey(Long timeSaleId, int shard) {
+        return STOCK_KEY + timeSaleId + ":" + shard;
+    }
+
+    private long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static class Move {
+        private final int from;
+        private final int to;
+        private final long amount;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.timesaleservice.service.v4;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.service.v2.TimeSaleRedisService;
+import com.example.timesaleservice.service.v2.TimeSaleStatusService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 샤드 재고를 사용하는 타임세일의 샤드별 남은 수량을 주기적으로 맞추는 작업
+ * 1. 등록된 타임세일 중 닫혔거나 종료 시각이 지난 것은 등록 해제
+ * 2. 타임세일마다 락을 잡은 인스턴스 하나만 옮김 (못 잡으면 이번 주기는 건너뜀)
+ * - 한 샤드가 먼저 비어서 옆 샤드로 넘어가는 요청이 늘어나는 것을 줄인다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TimeSaleStockRebalancer {
+    private static final String REBALANCE_LOCK = "time-sale-stock-rebalance-lock:";
+    private static final long LOCK_LEASE_SECONDS = 5L;
+
+    private final TimeSaleShardedStockService timeSaleShardedStockService;
+    private final TimeSaleRedisService timeSaleRedisService;
+    private final TimeSaleStatusService timeSaleStatusService;
+    private final RedissonClient redissonClient;
+
+    @Scheduled(fixedDelayString = "${time-sale.stock.rebalance-interval-ms:500}")
+    public void rebalance() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long timeSaleId : timeSaleShardedStockService.getShardedTimeSaleIds()) {
+            try {
+                rebalance(timeSaleId, now);
+            } catch (Exception e) {
+                log.error("Failed to rebalance stock shards: timeSaleId={}", timeSaleId, e);
+            }
+        }
+    }
+
+    private void rebalance(Long timeSaleId, LocalDateTime now) throws InterruptedException {
+        TimeSale timeSale = timeSaleRedisService.getTimeSale(timeSaleId);
+        if (timeSaleStatusService.isClosed(timeSaleId) || now.isAfter(timeSale.getEndAt()) || !timeSale.hasStockShards()) {
+            timeSaleShardedStockService.removeShardedTimeSale(timeSaleId);
+            return;
+        }
+
+        RLock lock = redissonClient.getLock(REBALANCE_LOCK + timeSaleId);
+        if (!lock.tryLock(0, LOCK_LEASE_SECONDS, TimeUnit.SECONDS)) {
+            return;
+        }
+        try {
+            timeSaleShardedStockService.rebalance(timeSale);
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+}
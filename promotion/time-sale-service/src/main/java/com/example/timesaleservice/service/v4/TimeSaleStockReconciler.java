@@ -0,0 +1,214 @@
+package com.example.timesaleservice.service.v4;
+
+import com.example.timesaleservice.domain.OrderStatus;
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.repository.TimeSaleOrderRepository;
+import com.example.timesaleservice.repository.TimeSaleRepository;
+import com.example.timesaleservice.service.v2.TimeSaleRedisService;
+import com.example.timesaleservice.service.v3.TimeSaleProducer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 진행 중인 타임세일의 재고를 DB, 주문, Redis 사이에서 비교하는 정합성 점검 작업
+ * 1. ACTIVE 타임세일을 id 커서로 조금씩 읽음 (주기마다 한 묶음, 끝까지 읽으면 처음부터 다시)
+ * 2. DB 남은 수량 = 전체 수량 - 실패하지 않은 주문 수량 합계 인지 확인 (다르면 알림만)
+ *    (재고는 주문 저장과 같은 트랜잭션에서 차감되므로 완료 처리 전인 PENDING 주문도 재고를 차지한다.)
+ * 3. "time-sale:{id}" 사본과 v4 재고 카운터의 남은 수량을 DB 와 비교 (다르면 DB 기준으로 보정)
+ * 4. 구매 도중에 읽으면 잠깐 다를 수 있으므로 같은 차이가 연속 두 번 보일 때만 불일치로 본다.
+ * 5. 대기열에 요청이 남아 있으면 재고 카운터는 보정하지 않는다. (v5 는 Kafka 로 보내기 전에 카운터를 차감하므로
+ *    relay/consumer 가 밀리면 카운터가 DB 보다 작은 상태가 오래 유지됨)
+ * - 조회만 하고 행 잠금을 걸지 않으므로 판매 중에도 계속 실행할 수 있다.
+ * - 여러 인스턴스 중 락을 잡은 하나만 실행해 같은 차이를 두 번 보정하지 않는다.
+ */
+@Slf4j
+@Component
+public class TimeSaleStockReconciler {
+    private static final String RECONCILE_LOCK = "time-sale-reconciliation-lock";
+    private static final long LOCK_LEASE_SECONDS = 30L;
+
+    private final TimeSaleRepository timeSaleRepository;
+    private final TimeSaleOrderRepository timeSaleOrderRepository;
+    private final TimeSaleRedisService timeSaleRedisService;
+    private final TimeSaleStockService timeSaleStockService;
+    private final TimeSaleShardedStockService timeSaleShardedStockService;
+    private final TimeSaleProducer timeSaleProducer;
+    private final RedissonClient redissonClient;
+    private final MeterRegistry registry;
+
+    // 직전 점검에서 본 차이 (타임세일 ID:비교 대상 -> 차이)
+    private final Map<String, Long> pendingMismatches = new ConcurrentHashMap<>();
+    private volatile long cursor = 0L;
+
+    @Value("${time-sale.reconciliation.page-size:100}")
+    private int pageSize;
+
+    @Value("${time-sale.reconciliation.repair:true}")
+    private boolean repair;
+
+    public TimeSaleStockReconciler(TimeSaleRepository timeSaleRepository,
+                                   TimeSaleOrderRepository timeSaleOrderRepository,
+                                   TimeSaleRedisService timeSaleRedisService,
+                                   TimeSaleStockService timeSaleStockService,
+                                   TimeSaleShardedStockService timeSaleShardedStockService,
+                                   TimeSaleProducer timeSaleProducer,
+                                   RedissonClient redissonClient,
+                                   MeterRegistry registry) {
+        this.timeSaleRepository = timeSaleRepository;
+        this.timeSaleOrderRepository = timeSaleOrderRepository;
+        this.timeSaleRedisService = timeSaleRedisService;
+        this.timeSaleStockService = timeSaleStockService;
+        this.timeSaleShardedStockService = timeSaleShardedStockService;
+        this.timeSaleProducer = timeSaleProducer;
+        this.redissonClient = redissonClient;
+        this.registry = registry;
+    }
+
+    @Scheduled(fixedDelayString = "${time-sale.reconciliation.interval-ms:5000}")
+    public void reconcile() {
+        RLock lock = redissonClient.getLock(RECONCILE_LOCK);
+        try {
+            if (!lock.tryLock(0, LOCK_LEASE_SECONDS, TimeUnit.SECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            reconcileNextPage();
+        } catch (Exception e) {
+            log.error("Failed to reconcile TimeSale stock: cursor={}", cursor, e);
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    void reconcileNextPage() {
+        Slice<TimeSale> page = timeSaleRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                TimeSaleStatus.ACTIVE, cursor, PageRequest.of(0, pageSize));
+        List<TimeSale> timeSales = page.getContent();
+        cursor = page.hasNext() ? timeSales.get(timeSales.size() - 1).getId() : 0L;
+        if (timeSales.isEmpty()) {
+            return;
+        }
+
+        List<Long> timeSaleIds = timeSales.stream().map(TimeSale::getId).toList();
+        Map<Long, Long> orderedQuantities = timeSaleOrderRepository.sumQuantityByTimeSaleIds(timeSaleIds, OrderStatus.FAILED)
+                .stream()
+                .collect(Collectors.toMap(TimeSaleOrderRepository.OrderedQuantity::getTimeSaleId,
+                        TimeSaleOrderRepository.OrderedQuantity::getQuantity));
+        Map<Long, TimeSale> cachedTimeSales = timeSaleRedisService.findAllInRedis(timeSaleIds);
+
+        for (TimeSale timeSale : timeSales) {
+            reconcileOrders(timeSale, orderedQuantities.getOrDefault(timeSale.getId(), 0L));
+            reconcileCache(timeSale, cachedTimeSales.get(timeSale.getId()));
+            reconcileStockCounter(timeSale);
+        }
+    }
+
+    // DB 자체가 주문과 맞지 않으면 어느 쪽이 맞는지 알 수 없으므로 보정하지 않는다.
+    private void reconcileOrders(TimeSale timeSale, Long orderedQuantity) {
+        long expected = timeSale.getQuantity() - orderedQuantity;
+        if (isConfirmedMismatch(timeSale.getId(), "orders", expected - timeSale.getRemainingQuantity())) {
+            log.error("TimeSale remaining quantity does not match orders: timeSaleId={}, remaining={}, quantity={}, ordered={}",
+                    timeSale.getId(), timeSale.getRemainingQuantity(), timeSale.getQuantity(), orderedQuantity);
+            recordMismatch("orders", "alerted");
+        }
+    }
+
+    private void reconcileCache(TimeSale timeSale, TimeSale cached) {
+        if (cached == null) {
+            return;
+        }
+        if (!isConfirmedMismatch(timeSale.getId(), "cache", timeSale.getRemainingQuantity() - cached.getRemainingQuantity())) {
+            return;
+        }
+        log.warn("Redis TimeSale does not match DB: timeSaleId={}, redis={}, db={}",
+                timeSale.getId(), cached.getRemainingQuantity(), timeSale.getRemainingQuantity());
+        if (!repair) {
+            recordMismatch("cache", "alerted");
+            return;
+        }
+        // 상품 등 나머지 필드는 Redis 사본을 그대로 쓰고 수량/상태만 DB 값으로 바꿔 저장 (near cache 에도 전파)
+        timeSaleRedisService.saveToRedis(cached.copyWith(timeSale.getRemainingQuantity(), timeSale.getStatus()));
+        recordMismatch("cache", "repaired");
+    }
+
+    // v4 재고 카운터는 주문 저장보다 먼저 차감되므로 구매 중에는 DB 보다 작게 보일 수 있다.
+    private void reconcileStockCounter(TimeSale timeSale) {
+        Long counter = timeSale.hasStockShards()
+                ? timeSaleShardedStockService.getRemainingQuantity(timeSale)
+                : timeSaleStockService.getRemainingQuantity(timeSale.getId());
+        if (counter == null) {
+            return; // v4 로 구매한 적 없는 타임세일
+        }
+        long delta = timeSale.getRemainingQuantity() - counter;
+        if (delta > 0 && hasInFlightRequests(timeSale.getId())) {
+            // outbox/Kafka 에 있는 요청이 DB 에 반영되기 전이므로 차이를 기억하지 않고 다음 점검으로 넘긴다.
+            pendingMismatches.remove(timeSale.getId() + ":stock");
+            recordMismatch("stock", "deferred");
+            return;
+        }
+        if (!isConfirmedMismatch(timeSale.getId(), "stock", delta)) {
+            return;
+        }
+        log.warn("Redis stock counter does not match DB: timeSaleId={}, redis={}, db={}",
+                timeSale.getId(), counter, timeSale.getRemainingQuantity());
+        if (!repair) {
+            recordMismatch("stock", "alerted");
+            return;
+        }
+        if (timeSale.hasStockShards()) {
+            timeSaleShardedStockService.adjustRemainingQuantity(timeSale, delta);
+        } else {
+            timeSaleStockService.adjustRemainingQuantity(timeSale.getId(), delta);
+        }
+        recordMismatch("stock", "repaired");
+    }
+
+    // 대기열 항목은 outbox 기록과 함께 추가되고 consumer 가 처리를 마치면 제거되므로, relay 와 consumer 지연을 모두 포함한다.
+    private boolean hasInFlightRequests(Long timeSaleId) {
+        return timeSaleProducer.getTotalWaiting(timeSaleId) > 0;
+    }
+
+    // 같은 차이가 연속 두 번 보이면 true (차이가 없거나 달라지면 다시 처음부터)
+    private boolean isConfirmedMismatch(Long timeSaleId, String source, long delta) {
+        String key = timeSaleId + ":" + source;
+        if (delta == 0) {
+            pendingMismatches.remove(key);
+            return false;
+        }
+        Long previous = pendingMismatches.put(key, delta);
+        if (previous != null && previous == delta) {
+            pendingMismatches.remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    private void recordMismatch(String source, String action) {
+        Counter.builder("time.sale.reconciliation.mismatch")
+                .tag("source", source)
+                .tag("action", action)
+                .register(registry)
+                .increment();
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.timesaleservice.service.v4;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.exception.PurchaseLimitExceededException;
+import com.example.timesaleservice.repository.TimeSaleRepository;
+import com.example.timesaleservice.service.v2.TimeSaleKeyLifecycleService;
+import com.example.timesaleservice.service.v2.TimeSalePurchaseLimitService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RMap;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 타임세일 재고를 Redis 해시 카운터로 관리하는 서비스
+ * - "time-sale-stock:{id}" 해시에 상태, 기간, 남은 수량, 1인당 최대 구매 수량을 저장
+ * - 상태/기간/1인당 구매 제한 검증과 재고 차감을 하나의 Lua 스크립트로 원자적으로 처리 (분산 락 없음)
+ * - 사용자별 구매 수량은 v1~v3 와 같은 "time-sale-user-purchases:{id}" 해시에 누적
+ * - v5 는 같은 스크립트를 Redisson reactive API 로 실행 (reserveReactive, releaseReactive)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimeSaleStockService {
+    private static final String STOCK_KEY = "time-sale-stock:";
+
+    // 스크립트 결과 코드 (0 이상이면 차감 후 남은 수량)
+    private static final long NOT_LOADED = -1L;
+    private static final long NOT_ACTIVE = -2L;
+    private static final long NOT_IN_PERIOD = -3L;
+    private static final long NOT_ENOUGH = -4L;
+    private static final long LIMIT_EXCEEDED = -5L;
+
+    // 상태 -> 기간 -> 수량 -> 1인당 구매 제한 순서로 검증하고, 모두 통과해야 사용자 구매 수량과 재고를 함께 바꾼다.
+    // 사용자 구매 수량 해시는 재고 해시의 종료 시각(endAt) + retention(ARGV[4]) 에 만료되도록 함께 PEXPIREAT
+    private static final String RESERVE_SCRIPT = """
+            local values = redis.call('HMGET', KEYS[1], 'status', 'startAt', 'endAt', 'remaining', 'maxPerUser')
+            if not values[1] then
+                return -1
+            end
+            if values[1] ~= 'ACTIVE' then
+                return -2
+            end
+            local now = tonumber(ARGV[2])
+            if now < tonumber(values[2]) or now > tonumber(values[3]) then
+                return -3
+            end
+            local quantity = tonumber(ARGV[1])
+            if tonumber(values[4]) < quantity then
+                return -4
+            end
+            local maxPerUser = tonumber(values[5] or '0')
+            if maxPerUser > 0 then
+                local purchased = tonumber(redis.call('HGET', KEYS[2], ARGV[3]) or '0')
+                if purchased + quantity > maxPerUser then
+                    return -5
+                end
+                redis.call('HINCRBY', KEYS[2], ARGV[3], quantity)
+                redis.call('PEXPIREAT', KEYS[2], tonumber(values[3]) + tonumber(ARGV[4]))
+            end
+            return redis.call('HINCRBY', KEYS[1], 'remaining', -quantity)
+            """;
+
+    // 이미 적재된 재고는 덮어쓰지 않는다. (동시에 여러 요청이 적재를 시도할 수 있음)
+    // ARGV[6]: 재고 해시 만료 시각 (종료 시각 + retention, epoch millis)
+    private static final String LOAD_SCRIPT = """
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], 'status', ARGV[1], 'startAt', ARGV[2], 'endAt', ARGV[3], 'remaining', ARGV[4], 'maxPerUser', ARGV[5])
+            redis.call('PEXPIREAT', KEYS[1], ARGV[6])
+            return 1
+            """;
+
+    private static final String RELEASE_SCRIPT = """
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return -1
+            end
+            if redis.call('HEXISTS', KEYS[2], ARGV[2]) == 1 then
+                redis.call('HINCRBY', KEYS[2], ARGV[2], -tonumber(ARGV[1]))
+            end
+            return redis.call('HINCRBY', KEYS[1], 'remaining', ARGV[1])
+            """;
+
+    // 남은 수량을 delta 만큼 바꾸되 0 아래로는 내리지 않는다. (정합성 점검 보정)
+    private static final String ADJUST_SCRIPT = """
+            local remaining = redis.call('HGET', KEYS[1], 'remaining')
+            if not remaining then
+                return -1
+            end
+            local delta = math.max(tonumber(ARGV[1]), -tonumber(remaining))
+            return redis.call('HINCRBY', KEYS[1], 'remaining', delta)
+            """;
+
+    private final TimeSaleRepository timeSaleRepository;
+    private final RedissonClient redissonClient;
+    private final RedissonReactiveClient redissonReactiveClient;
+    private final TimeSalePurchaseLimitService timeSalePurchaseLimitService;
+    private final TimeSaleKeyLifecycleService timeSaleKeyLifecycleService;
+
+    /**
+     * 타임세일 재고를 Redis에 저장 (기존 값이 있으면 덮어씀, 종료 시각 + retention 에 만료)
+     */
+    public void initStock(TimeSale timeSale) {
+        RMap<String, String> stock = getStockMap(timeSale.getId());
+        stock.putAll(toStockFields(timeSale));
+        stock.expire(timeSaleKeyLifecycleService.getExpireAt(timeSale));
+    }
+
+    /**
+     * 재고를 차감하고 남은 수량을 반환
+     * - Redis에 재고가 없으면 DB에서 한 번 적재 후 다시 시도
+     */
+    public Long reserve(Long timeSaleId, Long userId, Long quantity) {
+        long result = executeReserve(timeSaleId, userId, quantity);
+        if (result == NOT_LOADED) {
+            loadStock(timeSaleId);
+            result = executeReserve(timeSaleId, userId, quantity);
+        }
+        return checkReserveResult(result);
+    }
+
+    /**
+     * reserve 의 non-blocking 버전 (v5)
+     * - 스크립트 응답을 기다리는 동안 스레드를 점유하지 않는다.
+     * - Redis에 재고가 없을 때의 DB 적재(타임세일마다 처음 한 번)만 boundedElastic 스케줄러에서 실행
+     */
+    public Mono<Long> reserveReactive(Long timeSaleId, Long userId, Long quantity) {
+        return executeReserveReactive(timeSaleId, userId, quantity)
+                .flatMap(result -> result != NOT_LOADED
+                        ? Mono.just(result)
+                        : Mono.fromRunnable(() -> loadStock(timeSaleId))
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .then(executeReserveReactive(timeSaleId, userId, quantity)))
+                .map(this::checkReserveResult);
+    }
+
+    /**
+     * 차감했던 재고와 사용자 구매 수량을 되돌림 (주문 저장 실패 시 보상 처리)
+     */
+    public void release(Long timeSaleId, Long userId, Long quantity) {
+        try {
+            Long result = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                    RScript.Mode.READ_WRITE,
+                    RELEASE_SCRIPT,
+                    RScript.ReturnType.INTEGER,
+                    List.of(STOCK_KEY + timeSaleId, timeSalePurchaseLimitService.getKey(timeSaleId)),
+                    String.valueOf(quantity),
+                    String.valueOf(userId));
+            logReleaseResult(timeSaleId, quantity, result);
+        } catch (Exception e) {
+            log.error("Failed to release stock: timeSaleId={}, quantity={}", timeSaleId, quantity, e);
+        }
+    }
+
+    /**
+     * release 의 non-blocking 버전 (v5 outbox 기록 실패 시 보상 처리, 실패해도 에러를 내보내지 않음)
+     */
+    public Mono<Void> releaseReactive(Long timeSaleId, Long userId, Long quantity) {
+        return redissonReactiveClient.getScript(StringCodec.INSTANCE).<Long>eval(
+                        RScript.Mode.READ_WRITE,
+                        RELEASE_SCRIPT,
+                        RScript.ReturnType.INTEGER,
+                        List.of(STOCK_KEY + timeSaleId, timeSalePurchaseLimitService.getKey(timeSaleId)),
+                        String.valueOf(quantity),
+                        String.valueOf(userId))
+                .doOnNext(result -> logReleaseResult(timeSaleId, quantity, result))
+                .onErrorResume(e -> {
+                    log.error("Failed to release stock: timeSaleId={}, quantity={}", timeSaleId, quantity, e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private long checkReserveResult(long result) {
+        if (result == NOT_LOADED) {
+            throw new IllegalArgumentException("TimeSale not found");
+        }
+        if (result == NOT_ACTIVE) {
+            throw new IllegalStateException("Time sale is not active");
+        }
+        if (result == NOT_IN_PERIOD) {
+            throw new IllegalStateException("Time sale is not in valid period");
+        }
+        if (result == NOT_ENOUGH) {
+            throw new IllegalStateException("Not enough quantity available");
+        }
+        if (result == LIMIT_EXCEEDED) {
+            throw new PurchaseLimitExceededException("Purchase limit exceeded");
+        }
+        return result;
+    }
+
+    private void logReleaseResult(Long timeSaleId, Long quantity, Long result) {
+        if (result != null && result < 0) {
+            log.warn("Stock not found while releasing: timeSaleId={}, quantity={}", timeSaleId, quantity);
+        }
+    }
+
+    /**
+     * Redis에 저장된 남은 수량 조회 (없으면 null)
+     */
+    public Long getRemainingQuantity(Long timeSaleId) {
+        String remaining = getStockMap(timeSaleId).get("remaining");
+        return remaining != null ? Long.parseLong(remaining) : null;
+    }
+
+    /**
+     * 남은 수량을 delta 만큼 보정 (재고 정합성 점검에서 DB 기준으로 맞출 때 사용)
+     */
+    public void adjustRemainingQuantity(Long timeSaleId, long delta) {
+        redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                ADJUST_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                List.of(STOCK_KEY + timeSaleId),
+                String.valueOf(delta));
+    }
+
+    private long executeReserve(Long timeSaleId, Long userId, Long quantity) {
+        Long result = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                RESERVE_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                List.of(STOCK_KEY + timeSaleId, timeSalePurchaseLimitService.getKey(timeSaleId)),
+                String.valueOf(quantity),
+                String.valueOf(toEpochMilli(LocalDateTime.now())),
+                String.valueOf(userId),
+                String.valueOf(timeSaleKeyLifecycleService.getRetentionMillis()));
+        return result != null ? result : NOT_LOADED;
+    }
+
+    private Mono<Long> executeReserveReactive(Long timeSaleId, Long userId, Long quantity) {
+        return redissonReactiveClient.getScript(StringCodec.INSTANCE).<Long>eval(
+                        RScript.Mode.READ_WRITE,
+                        RESERVE_SCRIPT,
+                        RScript.ReturnType.INTEGER,
+                        List.of(STOCK_KEY + timeSaleId, timeSalePurchaseLimitService.getKey(timeSaleId)),
+                        String.valueOf(quantity),
+                        String.valueOf(toEpochMilli(LocalDateTime.now())),
+                        String.valueOf(userId),
+                        String.valueOf(timeSaleKeyLifecycleService.getRetentionMillis()))
+                .defaultIfEmpty(NOT_LOADED);
+    }
+
+    private void loadStock(Long timeSaleId) {
+        timeSaleRepository.findById(timeSaleId).ifPresent(timeSale -> {
+            Map<String, String> fields = toStockFields(timeSale);
+            redissonClient.getScript(StringCodec.INSTANCE).eval(
+                    RScript.Mode.READ_WRITE,
+                    LOAD_SCRIPT,
+                    RScript.ReturnType.INTEGER,
+                    List.of(STOCK_KEY + timeSaleId),
+                    fields.get("status"),
+                    fields.get("startAt"),
+                    fields.get("endAt"),
+                    fields.get("remaining"),
+                    fields.get("maxPerUser"),
+                    String.valueOf(timeSaleKeyLifecycleService.getExpireAt(timeSale).toEpochMilli()));
+        });
+    }
+
+    private Map<String, String> toStockFields(TimeSale timeSale) {
+        return Map.of(
+                "status", timeSale.getStatus().name(),
+                "startAt", String.valueOf(toEpochMilli(timeSale.getStartAt())),
+                "endAt", String.valueOf(toEpochMilli(timeSale.getEndAt())),
+                "remaining", String.valueOf(timeSale.getRemainingQuantity()),
+                "maxPerUser", String.valueOf(timeSale.hasPurchaseLimit() ? timeSale.getMaxPurchasePerUser() : 0L)); // 0 이면 제한 없음
+    }
+
+    private RMap<String, String> getStockMap(Long timeSaleId) {
+        return redissonClient.getMap(STOCK_KEY + timeSaleId, StringCodec.INSTANCE);
+    }
+
+    private long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.timesaleservice.service.v5;
+
+import com.example.timesaleservice.aop.TimeSaleMetered;
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.dto.PurchaseRequestMessage;
+import com.example.timesaleservice.dto.TimeSaleDto;
+import com.example.timesaleservice.exception.TimeSaleClosedException;
+import com.example.timesaleservice.exception.TimeSaleException;
+import com.example.timesaleservice.service.v2.PurchaseIdempotencyService;
+import com.example.timesaleservice.service.v2.TimeSaleKeyLifecycleService;
+import com.example.timesaleservice.service.v2.TimeSaleRedisService;
+import com.example.timesaleservice.service.v2.TimeSaleStatusService;
+import com.example.timesaleservice.service.v3.TimeSaleProducer;
+import com.example.timesaleservice.service.v4.TimeSaleStockService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatchReactive;
+import org.redisson.api.RMapReactive;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 요청 스레드를 멈추지 않고 구매를 접수하는 타임세일 서비스 (v5)
+ * 1. 닫힌 타임세일은 메모리에서 바로 거절하고, 타임세일은 near cache 에서 읽음 (없으면 Redis 사본을 reactive API 로 조회)
+ * 2. 멱등성 키 확인 후 v4 재고 스크립트로 재고와 1인당 구매 수량을 차감
+ * 3. 요청 상태(PENDING), 대기열, outbox 레코드를 reactive 배치 하나로 기록 (v3 와 같은 키, Kafka 전송은 TimeSaleOutboxRelay)
+ * 4. 요청 ID 를 반환하고, 결과는 v3 결과 조회/스트림 API 로 확인
+ * - Redis 명령은 모두 Redisson reactive API 로 보내므로 응답을 기다리는 동안 스레드를 점유하지 않는다.
+ * - Consumer 는 stockReserved 요청을 검증 없이 주문만 저장하고, outbox 기록에 실패하면 여기서 재고와 멱등성 키를 되돌림
+ * - 재고를 여러 샤드로 나눈 타임세일은 지원하지 않음 (v4 사용)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveTimeSaleService {
+    // Redis 키 접두사
+    private static final String QUEUE_KEY = "time-sale-queue:";
+    private static final String QUEUE_SEQUENCE_KEY = "time-sale-queue-seq:";
+    private static final String RESULTS_KEY = "purchase-results:";
+    private static final String OUTBOX_KEY = "time-sale-outbox";
+
+    private final RedissonReactiveClient redissonReactiveClient;
+    private final TimeSaleRedisService timeSaleRedisService;
+    private final TimeSaleStockService timeSaleStockService;
+    private final TimeSaleStatusService timeSaleStatusService;
+    private final PurchaseIdempotencyService purchaseIdempotencyService;
+    private final TimeSaleKeyLifecycleService timeSaleKeyLifecycleService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 구매 요청 접수 (같은 멱등성 키로 재시도하면 재고를 다시 차감하지 않고 처음 요청 ID를 반환)
+     */
+    @TimeSaleMetered(version = "v5")
+    public Mono<TimeSaleDto.AsyncPurchaseResponse> purchaseTimeSale(Long timeSaleId, TimeSaleDto.PurchaseRequest request) {
+        if (timeSaleStatusService.isClosed(timeSaleId)) {
+            return Mono.error(new TimeSaleClosedException("Time sale is closed: " + timeSaleId));
+        }
+
+        String requestId = UUID.randomUUID().toString();
+        return timeSaleRedisService.getTimeSaleReactive(timeSaleId)
+                .flatMap(timeSale -> {
+                    if (timeSale.hasStockShards()) {
+                        return Mono.<String>error(new TimeSaleException("Sharded stock is not supported in v5: " + timeSaleId));
+                    }
+                    return claim(timeSaleId, request, requestId)
+                            .flatMap(claimedRequestId -> requestId.equals(claimedRequestId)
+                                    ? reserveAndEnqueue(timeSale, request, requestId)
+                                    : Mono.just(claimedRequestId));
+                })
+                .map(sentRequestId -> TimeSaleDto.AsyncPurchaseResponse.builder()
+                        .requestId(sentRequestId)
+                        .status("PENDING")
+                        .build());
+    }
+
+    // 재시도로 들어온 중복 요청은 재고를 차감하거나 대기열/Kafka 에 넣지 않는다.
+    private Mono<String> claim(Long timeSaleId, TimeSaleDto.PurchaseRequest request, String requestId) {
+        if (request.getIdempotencyKey() == null) {
+            return Mono.just(requestId);
+        }
+        return purchaseIdempotencyService.claimReactive(timeSaleId, request.getUserId(), request.getIdempotencyKey(), requestId);
+    }
+
+    private Mono<String> reserveAndEnqueue(TimeSale timeSale, TimeSaleDto.PurchaseRequest request, String requestId) {
+        Long timeSaleId = timeSale.getId();
+        PurchaseRequestMessage message = PurchaseRequestMessage.builder()
+                .requestId(requestId)
+                .timeSaleId(timeSaleId)
+                .userId(request.getUserId())
+                .quantity(request.getQuantity())
+                .idempotencyKey(request.getIdempotencyKey())
+                .stockReserved(true)
+                .build();
+
+        return timeSaleStockService.reserveReactive(timeSaleId, request.getUserId(), request.getQuantity())
+                .flatMap(remainingQuantity -> appendToOutbox(message, timeSaleKeyLifecycleService.getExpireAt(timeSale))
+                        .onErrorResume(e -> timeSaleStockService.releaseReactive(timeSaleId, request.getUserId(), request.getQuantity())
+                                .then(Mono.error(e)))
+                        .doOnSuccess(ignored -> {
+                            if (remainingQuantity == 0) {
+                                closeSoldOut(timeSaleId);
+                            }
+                        }))
+                .onErrorResume(e -> releaseIdempotencyKey(message).then(Mono.error(e)))
+                .thenReturn(requestId);
+    }
+
+    // 쓰기가 모두 반영되거나 모두 반영되지 않으므로, 대기열에는 있는데 Kafka 로 가지 않는 요청이 생기지 않는다. (TimeSaleProducer 와 같음)
+    private Mono<Void> appendToOutbox(PurchaseRequestMessage message, Instant expireAt) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            return Mono.error(new TimeSaleException("Failed to serialize purchase request", e));
+        }
+
+        long now = System.currentTimeMillis();
+        RBatchReactive batch = redissonReactiveClient.createBatch(BatchOptions.defaults()
+                .executionMode(BatchOptions.ExecutionMode.IN_MEMORY_ATOMIC));
+        RMapReactive<String, String> results = batch.getMap(RESULTS_KEY + message.getTimeSaleId(), StringCodec.INSTANCE);
+        results.fastPut(message.getRequestId(), "PENDING");
+        results.expire(expireAt);
+        batch.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                TimeSaleProducer.ENQUEUE_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                List.of(QUEUE_KEY + message.getTimeSaleId(), QUEUE_SEQUENCE_KEY + message.getTimeSaleId()),
+                message.getRequestId(),
+                String.valueOf(expireAt.toEpochMilli()));
+        batch.<String, String>getStream(OUTBOX_KEY, StringCodec.INSTANCE)
+                .add(StreamAddArgs.entries(Map.of(
+                        "payload", payload,
+                        "createdAt", String.valueOf(now))));
+        return batch.execute().then();
+    }
+
+    private Mono<Void> releaseIdempotencyKey(PurchaseRequestMessage message) {
+        if (message.getIdempotencyKey() == null) {
+            return Mono.empty();
+        }
+        return purchaseIdempotencyService.releaseReactive(
+                message.getTimeSaleId(), message.getUserId(), message.getIdempotencyKey(), message.getRequestId());
+    }
+
+    // 상태 변경은 DB 쓰기이므로 응답을 기다리지 않고 boundedElastic 스케줄러에서 처리한다.
+    private void closeSoldOut(Long timeSaleId) {
+        Mono.fromRunnable(() -> timeSaleStatusService.close(timeSaleId, TimeSaleStatus.SOLD_OUT))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> log.error("Failed to close sold out TimeSale: {}", timeSaleId, e));
+    }
+}
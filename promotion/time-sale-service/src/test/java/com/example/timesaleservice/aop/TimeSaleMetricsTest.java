@@ -0,0 +1,51 @@
+package com.example.timesaleservice.aop;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeSaleMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private TimeSaleMetrics timeSaleMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        timeSaleMetrics = new TimeSaleMetrics(registry);
+    }
+
+    @Test
+    @DisplayName("성공 기록 - 성공 횟수와 소요 시간을 version/operation 태그로 기록")
+    void recordSuccess() {
+        // when
+        timeSaleMetrics.recordSuccess("v3", "consumePurchaseRequest", Timer.start(registry));
+
+        // then
+        assertThat(registry.get("time.sale.operation.success")
+                .tag("version", "v3")
+                .tag("operation", "consumePurchaseRequest")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("time.sale.operation.duration")
+                .tag("version", "v3")
+                .timer().count()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("실패 기록 - 예외 클래스 이름을 error 태그로 기록")
+    void recordFailure() {
+        // when
+        timeSaleMetrics.recordFailure("v5", "consumePurchaseRequest", new IllegalStateException("Not enough quantity available"));
+        timeSaleMetrics.recordFailure("v5", "consumePurchaseRequest", new IllegalStateException("Not enough quantity available"));
+
+        // then
+        assertThat(registry.get("time.sale.operation.failure")
+                .tag("version", "v5")
+                .tag("error", "IllegalStateException")
+                .counter().count()).isEqualTo(2.0);
+    }
+}
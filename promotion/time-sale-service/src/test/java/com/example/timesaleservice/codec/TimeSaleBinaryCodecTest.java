@@ -0,0 +1,141 @@
+package com.example.timesaleservice.codec;
+
+import com.example.timesaleservice.domain.Product;
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.dto.PurchaseRequestMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimeSaleBinaryCodecTest {
+    private TimeSale timeSale;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.of(2026, 10, 18, 12, 30, 15, 123_456_000);
+
+        Product product = Product.builder()
+                .id(1L)
+                .name("Test Product")
+                .price(10000L)
+                .description("Test Description")
+                .build();
+
+        timeSale = TimeSale.builder()
+                .id(1L)
+                .product(product)
+                .quantity(100L)
+                .remainingQuantity(42L)
+                .discountPrice(5000L)
+                .startAt(now.minusHours(1))
+                .endAt(now.plusHours(1))
+                .status(TimeSaleStatus.ACTIVE)
+                .maxPurchasePerUser(2L)
+                .build()
+                .restoreAudit(3L, now.minusDays(1), now);
+    }
+
+    @Test
+    @DisplayName("타임세일 바이너리 - 조회에 쓰는 필드를 그대로 복원")
+    void timeSale_RoundTrip() {
+        // when
+        TimeSale decoded = TimeSaleBinaryCodec.decode(TimeSaleBinaryCodec.encode(timeSale));
+
+        // then
+        assertThat(decoded.getId()).isEqualTo(1L);
+        assertThat(decoded.getProduct().getId()).isEqualTo(1L);
+        assertThat(decoded.getProduct().getName()).isEqualTo("Test Product");
+        assertThat(decoded.getRemainingQuantity()).isEqualTo(42L);
+        assertThat(decoded.getStartAt()).isEqualTo(timeSale.getStartAt());
+        assertThat(decoded.getEndAt()).isEqualTo(timeSale.getEndAt());
+        assertThat(decoded.getStatus()).isEqualTo(TimeSaleStatus.ACTIVE);
+        assertThat(decoded.getMaxPurchasePerUser()).isEqualTo(2L);
+        assertThat(decoded.getStockShards()).isNull();
+        assertThat(decoded.getVersion()).isEqualTo(3L);
+        assertThat(decoded.getCreatedAt()).isEqualTo(timeSale.getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("타임세일 바이너리 - JSON 보다 작음")
+    void timeSale_SmallerThanJson() throws Exception {
+        // given
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        // when
+        byte[] binary = TimeSaleBinaryCodec.encode(timeSale);
+        byte[] json = objectMapper.writeValueAsBytes(timeSale);
+
+        // then
+        double ratio = (double) binary.length / json.length;
+        assertThat(ratio).as("binary %d bytes / json %d bytes", binary.length, json.length).isLessThan(1.0 / 3);
+    }
+
+    @Test
+    @DisplayName("타임세일 바이너리 - 모르는 필드는 건너뛰고 읽음 (새 버전이 추가한 필드)")
+    void timeSale_SkipUnknownField() {
+        // given
+        byte[] encoded = TimeSaleBinaryCodec.encode(timeSale);
+        byte[] extra = new TaggedBinary.Writer()
+                .writeString(99, "added in a later version")
+                .writeLong(100, 7L)
+                .toByteArray();
+        byte[] withUnknownFields = new byte[encoded.length + extra.length];
+        System.arraycopy(encoded, 0, withUnknownFields, 0, encoded.length);
+        System.arraycopy(extra, 0, withUnknownFields, encoded.length, extra.length);
+
+        // when
+        TimeSale decoded = TimeSaleBinaryCodec.decode(withUnknownFields);
+
+        // then
+        assertThat(decoded.getRemainingQuantity()).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("타임세일 바이너리 - 더 새로운 형식 버전은 읽지 않음")
+    void timeSale_UnsupportedVersion() {
+        // given
+        byte[] encoded = TimeSaleBinaryCodec.encode(timeSale);
+        encoded[1] = 2;
+
+        // when & then
+        assertThatThrownBy(() -> TimeSaleBinaryCodec.decode(encoded))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("구매 요청 메시지 - 바이너리와 JSON 모두 읽음")
+    void purchaseRequestMessage_ReadsBothFormats() {
+        // given
+        PurchaseRequestMessage message = PurchaseRequestMessage.builder()
+                .timeSaleId(1L)
+                .userId(2L)
+                .quantity(3L)
+                .requestId("request-1")
+                .idempotencyKey("key-1")
+                .stockReserved(true)
+                .build();
+        PurchaseRequestMessageDeserializer deserializer = new PurchaseRequestMessageDeserializer();
+
+        // when
+        byte[] binary = new PurchaseRequestMessageSerializer().serialize("time-sale-requests", message);
+        byte[] json;
+        try (JsonSerializer<PurchaseRequestMessage> jsonSerializer = new JsonSerializer<>()) {
+            json = jsonSerializer.serialize("time-sale-requests", message);
+        }
+
+        // then
+        assertThat(deserializer.deserialize("time-sale-requests", binary)).isEqualTo(message);
+        assertThat(deserializer.deserialize("time-sale-requests", json)).isEqualTo(message);
+        double ratio = (double) binary.length / json.length;
+        assertThat(ratio).as("binary %d bytes / json %d bytes", binary.length, json.length).isLessThan(0.5);
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.timesaleservice.load;
+
+import com.example.timesaleservice.domain.Product;
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.repository.ProductRepository;
+import com.example.timesaleservice.repository.TimeSaleRepository;
+import com.example.timesaleservice.service.v2.TimeSaleRedisService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 플래시 세일 부하를 v1, v2, v3 구매 API 에 주고 결과를 비교하는 부하 시뮬레이션
+ * - ./gradlew loadTest --tests '*FlashSaleLoadSimulation' 로 실행 (-Pload.requests, -Pload.concurrency, -Pload.stock 으로 조정)
+ * - Redis 는 embedded-redis(redis-server 프로세스), Kafka 는 EmbeddedKafka 로 띄우므로 외부 인프라 없이 실행된다.
+ * - 가상 사용자 concurrency 명이 서로 다른 userId 로 1개씩 구매 요청을 보내고, 버전별로 처리량, 응답 지연 분위수, 초과 판매 수, 최종 재고 정합성을 출력
+ * - v3 는 대기실(WAITING) 응답을 받으면 예상 대기 시간만큼 기다렸다가 토큰으로 다시 요청하고, 접수한 요청의 결과가 모두 기록될 때까지를 처리 시간에 포함한다.
+ */
+@Tag("load")
+@EmbeddedKafka(partitions = 6, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+class FlashSaleLoadSimulation {
+    private static final int REQUESTS = Integer.getInteger("load.requests", 2000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 64);
+    private static final long STOCK = Long.getLong("load.stock", 500L);
+    private static final Duration RETRY_TIMEOUT = Duration.ofSeconds(30); // v3 대기실에서 다시 요청하는 최대 시간
+    private static final Duration SETTLE_TIMEOUT = Duration.ofSeconds(60); // v3 구매 결과가 모두 기록될 때까지 기다리는 최대 시간
+
+    private static final int REDIS_PORT = freePort();
+    private static RedisServer redisServer;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private TimeSaleRepository timeSaleRepository;
+    @Autowired
+    private TimeSaleRedisService timeSaleRedisService;
+    @Autowired
+    private RedissonClient redissonClient;
+    @Autowired
+    private EntityManager entityManager;
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", () -> "localhost");
+        registry.add("spring.data.redis.port", () -> REDIS_PORT);
+    }
+
+    // 컨텍스트(Redisson)가 뜨기 전에 Redis 를 먼저 띄운다.
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("v1, v2, v3 에 같은 부하를 주고 처리량, 응답 지연, 초과 판매, 재고 정합성 비교")
+    void simulate() throws Exception {
+        List<Report> reports = new ArrayList<>();
+        for (String version : List.of("v1", "v2", "v3")) {
+            reports.add(run(version));
+        }
+
+        System.out.printf("requests=%d, concurrency=%d, stock=%d%n", REQUESTS, CONCURRENCY, STOCK);
+        System.out.printf("%-4s %8s %8s %7s %10s %8s %8s %8s %8s %8s %8s %8s %8s%n",
+                "ver", "success", "rejected", "errors", "req/s", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)",
+                "ordered", "db", "redis", "oversold");
+        reports.forEach(Report::print);
+
+        for (Report report : reports) {
+            assertThat(report.oversold).as("%s oversold", report.version).isZero();
+            assertThat(report.dbRemaining + report.ordered).as("%s db remaining + ordered", report.version).isEqualTo(STOCK);
+        }
+    }
+
+    private Report run(String version) throws Exception {
+        Long timeSaleId = createTimeSale();
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        Set<String> requestIds = ConcurrentHashMap.newKeySet();
+
+        ExecutorService users = Executors.newFixedThreadPool(CONCURRENCY);
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            int index = i;
+            users.submit(() -> {
+                long requestStartedAt = System.nanoTime();
+                try {
+                    if (purchase(version, timeSaleId, index + 1L, requestIds)) {
+                        accepted.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                } finally {
+                    latencies[index] = System.nanoTime() - requestStartedAt;
+                }
+            });
+        }
+        users.shutdown();
+        assertThat(users.awaitTermination(10, TimeUnit.MINUTES)).isTrue();
+
+        // v1, v2 는 응답이 곧 구매 결과이고, v3 는 Consumer 가 결과를 기록해야 끝난다.
+        int succeeded = "v3".equals(version) ? awaitResults(timeSaleId, requestIds) : accepted.get();
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+
+        long ordered = orderedQuantity(timeSaleId);
+        long dbRemaining = timeSaleRepository.findById(timeSaleId).orElseThrow().getRemainingQuantity();
+        TimeSale redisCopy = timeSaleRedisService.findAllInRedis(List.of(timeSaleId)).get(timeSaleId); // v1 은 Redis 사본을 쓰지 않음
+        return new Report(version, succeeded, REQUESTS - succeeded - errors.get(), errors.get(), REQUESTS / seconds,
+                latencies, ordered, dbRemaining, redisCopy == null ? null : redisCopy.getRemainingQuantity());
+    }
+
+    private boolean purchase(String version, Long timeSaleId, Long userId, Set<String> requestIds) throws Exception {
+        String uri = "http://localhost:" + port + "/api/" + version + "/time-sales/" + timeSaleId + "/purchase";
+        String waitingToken = null;
+        long deadline = System.nanoTime() + RETRY_TIMEOUT.toNanos();
+        while (true) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("userId", userId);
+            body.put("quantity", 1L);
+            body.put("waitingToken", waitingToken);
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(uri))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            // v3 대기실: 토큰을 받아 예상 대기 시간 뒤에 다시 요청
+            if (response.statusCode() == 202) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Waiting room timeout: " + userId);
+                }
+                JsonNode node = objectMapper.readTree(response.body());
+                waitingToken = node.get("waitingToken").asText();
+                Thread.sleep(Math.min(Math.max(node.path("estimatedWaitMillis").asLong(), 10L), 1000L));
+                continue;
+            }
+            if (response.statusCode() != 200) {
+                return false; // 재고 부족, 닫힌 타임세일 등 (ControllerAdvice 가 없어 500 으로도 온다)
+            }
+            if ("v3".equals(version)) {
+                requestIds.add(objectMapper.readTree(response.body()).get("requestId").asText());
+            }
+            return true;
+        }
+    }
+
+    // 접수한 요청이 모두 PENDING 에서 벗어나면 SUCCESS 수를 반환
+    private int awaitResults(Long timeSaleId, Set<String> requestIds) throws InterruptedException {
+        long deadline = System.nanoTime() + SETTLE_TIMEOUT.toNanos();
+        while (true) {
+            Map<String, String> results = redissonClient.<String, String>getMap("purchase-results:" + timeSaleId, StringCodec.INSTANCE)
+                    .getAll(requestIds);
+            boolean settled = requestIds.stream().noneMatch(requestId -> "PENDING".equals(results.get(requestId)));
+            if (settled || System.nanoTime() > deadline) {
+                return (int) results.values().stream().filter("SUCCESS"::equals).count();
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    // v2 주문은 COMPLETED 로 바뀌지 않으므로 상태와 관계없이 저장된 주문 수량을 모두 더한다.
+    private long orderedQuantity(Long timeSaleId) {
+        return entityManager.createQuery(
+                        "select coalesce(sum(o.quantity), 0) from TimeSaleOrder o where o.timeSale.id = :timeSaleId", Long.class)
+                .setParameter("timeSaleId", timeSaleId)
+                .getSingleResult();
+    }
+
+    private Long createTimeSale() {
+        Product product = productRepository.save(Product.builder()
+                .name("load-test-product")
+                .price(10000L)
+                .description("flash sale load simulation")
+                .build());
+        // 생성 API 는 시작 시각이 현재 이후여야 하므로 이미 시작된 타임세일을 직접 저장한다.
+        TimeSale timeSale = timeSaleRepository.save(TimeSale.builder()
+                .product(product)
+                .quantity(STOCK)
+                .remainingQuantity(STOCK)
+                .discountPrice(5000L)
+                .startAt(LocalDateTime.now().minusMinutes(1))
+                .endAt(LocalDateTime.now().plusHours(1))
+                .status(TimeSaleStatus.ACTIVE)
+                .build());
+        return timeSale.getId();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Report {
+        private final String version;
+        private final int succeeded;
+        private final int rejected;
+        private final int errors;
+        private final double throughput;
+        private final long[] sortedLatencies;
+        private final long ordered;
+        private final long dbRemaining;
+        private final Long redisRemaining;
+        private final long oversold;
+
+        Report(String version, int succeeded, int rejected, int errors, double throughput, long[] latencies,
+               long ordered, long dbRemaining, Long redisRemaining) {
+            this.version = version;
+            this.succeeded = succeeded;
+            this.rejected = rejected;
+            this.errors = errors;
+            this.throughput = throughput;
+            this.sortedLatencies = latencies.clone();
+            Arrays.sort(this.sortedLatencies);
+            this.ordered = ordered;
+            this.dbRemaining = dbRemaining;
+            this.redisRemaining = redisRemaining;
+            this.oversold = Math.max(0L, ordered - STOCK);
+        }
+
+        void print() {
+            System.out.printf("%-4s %8d %8d %7d %10.0f %8.1f %8.1f %8.1f %8.1f %8d %8d %8s %8d%n",
+                    version, succeeded, rejected, errors, throughput,
+                    percentile(0.50), percentile(0.95), percentile(0.99), percentile(1.0),
+                    ordered, dbRemaining, redisRemaining == null ? "-" : redisRemaining, oversold);
+        }
+
+        private double percentile(double p) {
+            int index = Math.max((int) Math.ceil(p * sortedLatencies.length) - 1, 0);
+            return sortedLatencies[index] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.timesaleservice.load;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RBatch;
+import org.redisson.api.RMapAsync;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 구매 결과를 요청마다 문자열 키로 저장할 때와 타임세일별 해시 필드로 저장할 때의 Redis 메모리를 MEMORY USAGE 로 측정하는 부하 테스트
+ * - ./gradlew loadTest --tests '*PurchaseResultMemoryLoadTest' 로 실행 (-Pload.requests 로 조정)
+ * - embedded-redis 에 요청 수만큼 결과를 쓰고, 키마다 MEMORY USAGE {key} SAMPLES 0 (전체 필드 측정) 을 합산해서 요청당 바이트를 출력
+ * - 해시는 필드 수가 hash-max-listpack-entries(기본 128) 를 넘으면 hashtable 로 바뀌므로 두 구간을 모두 측정한다.
+ */
+@Tag("load")
+class PurchaseResultMemoryLoadTest {
+    private static final int REQUESTS = Integer.getInteger("load.requests", 10000);
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String MEMORY_USAGE_SCRIPT = "return redis.call('MEMORY', 'USAGE', KEYS[1], 'SAMPLES', '0')";
+
+    private static final int REDIS_PORT = freePort();
+    private static RedisServer redisServer;
+    private static RedissonClient redissonClient;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://localhost:" + REDIS_PORT);
+        redissonClient = Redisson.create(config);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        if (redissonClient != null) {
+            redissonClient.shutdown();
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("구매 결과 저장 방식별 요청당 Redis 메모리 (MEMORY USAGE)")
+    void measureBytesPerRequest() {
+        redissonClient.getKeys().flushall();
+
+        double legacy = measureStringKeys(REQUESTS);
+        double listpack = measureHash(1L, 100); // hash-max-listpack-entries 이하
+        double hashtable = measureHash(2L, REQUESTS);
+
+        System.out.printf("requests=%d%n", REQUESTS);
+        System.out.printf("%-40s %10s%n", "layout", "bytes/req");
+        System.out.printf("%-40s %10.1f%n", "purchase-result:{requestId} (string)", legacy);
+        System.out.printf("%-40s %10.1f%n", "purchase-results:{id} (listpack, 100)", listpack);
+        System.out.printf("%-40s %10.1f%n", "purchase-results:{id} (hashtable)", hashtable);
+
+        assertThat(hashtable).isLessThan(legacy);
+        assertThat(listpack).isLessThan(hashtable);
+    }
+
+    // 이전 방식: 요청마다 "purchase-result:{requestId}" 문자열 키
+    private double measureStringKeys(int requests) {
+        List<String> keys = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i += BATCH_SIZE) {
+            RBatch batch = redissonClient.createBatch();
+            for (int j = i; j < Math.min(i + BATCH_SIZE, requests); j++) {
+                String key = "purchase-result:" + UUID.randomUUID();
+                keys.add(key);
+                batch.getBucket(key, StringCodec.INSTANCE).setAsync("SUCCESS");
+            }
+            batch.execute();
+        }
+        long total = 0;
+        for (String key : keys) {
+            total += memoryUsage(key);
+        }
+        return (double) total / requests;
+    }
+
+    // 현재 방식: 타임세일별 "purchase-results:{timeSaleId}" 해시의 requestId 필드
+    private double measureHash(Long timeSaleId, int requests) {
+        String key = "purchase-results:" + timeSaleId;
+        for (int i = 0; i < requests; i += BATCH_SIZE) {
+            RBatch batch = redissonClient.createBatch();
+            RMapAsync<String, String> results = batch.getMap(key, StringCodec.INSTANCE);
+            for (int j = i; j < Math.min(i + BATCH_SIZE, requests); j++) {
+                results.fastPutAsync(UUID.randomUUID().toString(), "SUCCESS");
+            }
+            batch.execute();
+        }
+        return (double) memoryUsage(key) / requests;
+    }
+
+    private long memoryUsage(String key) {
+        Long bytes = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_ONLY,
+                MEMORY_USAGE_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                List.of(key));
+        return bytes != null ? bytes : 0L;
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
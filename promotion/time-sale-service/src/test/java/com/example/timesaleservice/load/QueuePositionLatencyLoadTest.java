@@ -0,0 +1,168 @@
+package com.example.timesaleservice.load;
+
+import com.example.timesaleservice.service.v2.PurchaseIdempotencyService;
+import com.example.timesaleservice.service.v2.TimeSaleKeyLifecycleService;
+import com.example.timesaleservice.service.v3.TimeSaleProducer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RBatch;
+import org.redisson.api.RScoredSortedSetAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 대기열 크기별로 상태 조회(대기열 위치) 지연을 측정하는 부하 테스트
+ * - ./gradlew loadTest --tests '*QueuePositionLatencyLoadTest' 로 실행 (-Pload.queueSizes=10000,100000,1000000, -Pload.polls 로 조정)
+ * - embedded-redis 의 대기열에 시퀀스 score 로 요청을 채우고, 결과 조회 API 가 쓰는 getQueuePosition(ZRANK 1회)과
+ *   SSE 스트림이 쓰는 getQueuePositions(요청 100개씩 한 번의 왕복) 지연의 p50/p95/p99 를 출력
+ * - ZRANK 는 O(log n) 이므로 대기열이 100배 커져도 지연이 크게 늘지 않아야 한다.
+ */
+@Tag("load")
+class QueuePositionLatencyLoadTest {
+    private static final int[] QUEUE_SIZES = Arrays.stream(System.getProperty("load.queueSizes", "10000,100000,1000000").split(","))
+            .mapToInt(size -> Integer.parseInt(size.trim()))
+            .toArray();
+    private static final int POLLS = Integer.getInteger("load.polls", 5000);
+    private static final int POLL_BATCH_SIZE = 100;
+    private static final int FILL_BATCH_SIZE = 10000;
+    private static final int WARMUP_POLLS = 1000;
+
+    private static final int REDIS_PORT = freePort();
+    private static RedisServer redisServer;
+    private static RedissonClient redissonClient;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://localhost:" + REDIS_PORT);
+        redissonClient = Redisson.create(config);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        if (redissonClient != null) {
+            redissonClient.shutdown();
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("대기열 크기별 상태 조회 지연 (p50/p95/p99)")
+    void measureStatusPollLatency() {
+        redissonClient.getKeys().flushall();
+        TimeSaleProducer timeSaleProducer = new TimeSaleProducer(redissonClient, mock(PurchaseIdempotencyService.class),
+                mock(TimeSaleKeyLifecycleService.class), new ObjectMapper());
+
+        List<Report> reports = new ArrayList<>();
+        for (int i = 0; i < QUEUE_SIZES.length; i++) {
+            long timeSaleId = i + 1L;
+            fillQueue(timeSaleId, QUEUE_SIZES[i]);
+            reports.add(run(timeSaleProducer, timeSaleId, QUEUE_SIZES[i]));
+        }
+
+        System.out.printf("polls=%d, batch=%d%n", POLLS, POLL_BATCH_SIZE);
+        System.out.printf("%-10s %-9s %8s %8s %8s%n", "queue", "api", "p50(ms)", "p95(ms)", "p99(ms)");
+        reports.forEach(Report::print);
+
+        Report smallest = reports.get(0);
+        Report largest = reports.get(reports.size() - 1);
+        assertThat(largest.single.percentile(0.50)).isLessThan(smallest.single.percentile(0.50) * 5 + 1.0);
+    }
+
+    // 요청 ID 는 "{timeSaleId}-{순번}", score 는 등록 스크립트와 같이 1 부터 시작하는 시퀀스
+    private void fillQueue(long timeSaleId, int size) {
+        for (int i = 0; i < size; i += FILL_BATCH_SIZE) {
+            RBatch batch = redissonClient.createBatch();
+            RScoredSortedSetAsync<String> queue = batch.getScoredSortedSet("time-sale-queue:" + timeSaleId, StringCodec.INSTANCE);
+            for (int j = i; j < Math.min(i + FILL_BATCH_SIZE, size); j++) {
+                queue.addAsync(j + 1, timeSaleId + "-" + j);
+            }
+            batch.execute();
+        }
+    }
+
+    private Report run(TimeSaleProducer timeSaleProducer, long timeSaleId, int size) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < WARMUP_POLLS; i++) {
+            timeSaleProducer.getQueuePosition(timeSaleId, timeSaleId + "-" + random.nextInt(size));
+        }
+
+        long[] single = new long[POLLS];
+        for (int i = 0; i < POLLS; i++) {
+            int index = random.nextInt(size);
+            long startedAt = System.nanoTime();
+            Integer position = timeSaleProducer.getQueuePosition(timeSaleId, timeSaleId + "-" + index);
+            single[i] = System.nanoTime() - startedAt;
+            assertThat(position).isEqualTo(index + 1);
+        }
+
+        long[] batched = new long[POLLS / POLL_BATCH_SIZE];
+        for (int i = 0; i < batched.length; i++) {
+            List<String> requestIds = new ArrayList<>(POLL_BATCH_SIZE);
+            for (int j = 0; j < POLL_BATCH_SIZE; j++) {
+                requestIds.add(timeSaleId + "-" + random.nextInt(size));
+            }
+            long startedAt = System.nanoTime();
+            Map<String, Integer> positions = timeSaleProducer.getQueuePositions(timeSaleId, requestIds);
+            batched[i] = System.nanoTime() - startedAt;
+            assertThat(positions).hasSize((int) requestIds.stream().distinct().count());
+        }
+        return new Report(size, new Latencies(single), new Latencies(batched));
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Report(int queueSize, Latencies single, Latencies batched) {
+        void print() {
+            single.print(queueSize, "single");
+            batched.print(queueSize, "batch100");
+        }
+    }
+
+    private static class Latencies {
+        private final long[] sorted;
+
+        Latencies(long[] latencies) {
+            this.sorted = latencies.clone();
+            Arrays.sort(this.sorted);
+        }
+
+        void print(int queueSize, String api) {
+            System.out.printf("%-10d %-9s %8.3f %8.3f %8.3f%n",
+                    queueSize, api, percentile(0.50), percentile(0.95), percentile(0.99));
+        }
+
+        double percentile(double p) {
+            int index = Math.max((int) Math.ceil(p * sorted.length) - 1, 0);
+            return sorted[index] / 1_000_000.0;
+        }
+    }
+}
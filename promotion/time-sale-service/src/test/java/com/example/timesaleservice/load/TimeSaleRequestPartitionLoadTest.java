@@ -0,0 +1,216 @@
+package com.example.timesaleservice.load;
+
+import com.example.timesaleservice.domain.Product;
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleOrder;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.dto.PurchaseRequestMessage;
+import com.example.timesaleservice.repository.ProductRepository;
+import com.example.timesaleservice.repository.TimeSaleOrderRepository;
+import com.example.timesaleservice.repository.TimeSaleRepository;
+import com.example.timesaleservice.service.v3.TimeSaleConsumer;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * time-sale-requests 를 timeSaleId 로 키잉했을 때 파티션/리스너 수에 따라 v3 Consumer 처리량이 늘어나는지 확인하는 부하 테스트
+ * - ./gradlew loadTest --tests '*TimeSaleRequestPartitionLoadTest' 로 실행 (-Pload.timeSales, -Pload.requestsPerTimeSale 로 조정)
+ * - 애플리케이션 컨텍스트의 TimeSaleConsumer 빈(트랜잭션, H2 저장, Redis 갱신 포함)과 kafkaListenerContainerFactory 로 리스너를 만든다.
+ *   (파티션 수마다 별도 토픽을 만들어서 같은 팩토리에 concurrency 만 바꿔 붙임, Redis 는 embedded-redis, Kafka 는 EmbeddedKafka)
+ * - 같은 타임세일의 요청은 보낸 순서대로 주문이 저장되는지(주문 ID 순서 = 보낸 순서)도 함께 확인
+ */
+@Tag("load")
+@EmbeddedKafka(bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+class TimeSaleRequestPartitionLoadTest {
+    private static final int TIME_SALES = Integer.getInteger("load.timeSales", 32);
+    private static final int REQUESTS_PER_TIME_SALE = Integer.getInteger("load.requestsPerTimeSale", 50);
+
+    private static final int REDIS_PORT = freePort();
+    private static RedisServer redisServer;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+    @Autowired
+    private ConcurrentKafkaListenerContainerFactory<String, PurchaseRequestMessage> kafkaListenerContainerFactory;
+    @Autowired
+    private TimeSaleConsumer timeSaleConsumer;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private TimeSaleRepository timeSaleRepository;
+    @Autowired
+    private TimeSaleOrderRepository timeSaleOrderRepository;
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", () -> "localhost");
+        registry.add("spring.data.redis.port", () -> REDIS_PORT);
+    }
+
+    // 컨텍스트(Redisson)가 뜨기 전에 Redis 를 먼저 띄운다.
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("파티션과 리스너 수를 늘리면 v3 Consumer 처리량이 늘고 타임세일별 순서는 유지")
+    void throughputScalesWithPartitions() throws Exception {
+        Map<Integer, Double> throughputs = new LinkedHashMap<>();
+        for (int partitions : new int[]{1, 2, 4, 8}) {
+            throughputs.put(partitions, measure(partitions));
+        }
+
+        System.out.printf("timeSales=%d, requestsPerTimeSale=%d%n", TIME_SALES, REQUESTS_PER_TIME_SALE);
+        throughputs.forEach((partitions, throughput) ->
+                System.out.printf("partitions=%d, concurrency=%d -> %.0f records/s%n", partitions, partitions, throughput));
+        // 키 분포가 고르지 않고 H2/Redis 를 모든 리스너가 함께 쓰므로 선형 증가까지는 기대하지 않는다.
+        assertThat(throughputs.get(4)).isGreaterThan(throughputs.get(1) * 1.5);
+    }
+
+    private double measure(int partitions) throws Exception {
+        String topic = "time-sale-requests-load-" + partitions;
+        broker.addTopics(new NewTopic(topic, partitions, (short) 1));
+        List<Long> timeSaleIds = createTimeSales();
+        send(topic, timeSaleIds);
+
+        int total = TIME_SALES * REQUESTS_PER_TIME_SALE;
+        CountDownLatch latch = new CountDownLatch(total);
+        AtomicLong firstConsumedAt = new AtomicLong();
+
+        ConcurrentMessageListenerContainer<String, PurchaseRequestMessage> container = kafkaListenerContainerFactory.createContainer(topic);
+        container.getContainerProperties().setGroupId(topic + "-group");
+        container.getContainerProperties().getKafkaConsumerProperties()
+                .setProperty(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        container.getContainerProperties().setMessageListener((MessageListener<String, PurchaseRequestMessage>) record -> {
+            firstConsumedAt.compareAndSet(0L, System.nanoTime());
+            try {
+                timeSaleConsumer.consumePurchaseRequest(record.value()); // 트랜잭션 프록시를 거치는 실제 빈
+            } finally {
+                latch.countDown();
+            }
+        });
+        container.setConcurrency(partitions);
+        container.start();
+        try {
+            assertThat(latch.await(5, TimeUnit.MINUTES)).isTrue();
+        } finally {
+            container.stop();
+        }
+
+        // 파티션 할당(rebalance) 시간은 빼고 첫 레코드를 받은 시점부터 측정
+        double seconds = (System.nanoTime() - firstConsumedAt.get()) / 1_000_000_000.0;
+        assertOrderedPerTimeSale(timeSaleIds);
+        return total / seconds;
+    }
+
+    // 주문 ID 는 저장된 순서이고 userId 에 보낸 순서를 담았으므로, 타임세일마다 주문 ID 순으로 userId 가 오름차순이어야 한다.
+    private void assertOrderedPerTimeSale(List<Long> timeSaleIds) {
+        Set<Long> ids = new HashSet<>(timeSaleIds);
+        Map<Long, List<Long>> userIdsByTimeSale = timeSaleOrderRepository.findAll().stream()
+                .filter(order -> ids.contains(order.getTimeSale().getId()))
+                .sorted(Comparator.comparing(TimeSaleOrder::getId))
+                .collect(Collectors.groupingBy(order -> order.getTimeSale().getId(),
+                        Collectors.mapping(TimeSaleOrder::getUserId, Collectors.toList())));
+
+        assertThat(userIdsByTimeSale).hasSize(TIME_SALES);
+        userIdsByTimeSale.values().forEach(userIds -> assertThat(userIds).hasSize(REQUESTS_PER_TIME_SALE).isSorted());
+    }
+
+    private List<Long> createTimeSales() {
+        Product product = productRepository.save(Product.builder()
+                .name("load-test-product")
+                .price(10000L)
+                .description("partition load test")
+                .build());
+        List<Long> timeSaleIds = new ArrayList<>();
+        for (int i = 0; i < TIME_SALES; i++) {
+            TimeSale timeSale = timeSaleRepository.save(TimeSale.builder()
+                    .product(product)
+                    .quantity((long) REQUESTS_PER_TIME_SALE)
+                    .remainingQuantity((long) REQUESTS_PER_TIME_SALE)
+                    .discountPrice(5000L)
+                    .startAt(LocalDateTime.now().minusMinutes(1))
+                    .endAt(LocalDateTime.now().plusHours(1))
+                    .status(TimeSaleStatus.ACTIVE)
+                    .build());
+            timeSaleIds.add(timeSale.getId());
+        }
+        return timeSaleIds;
+    }
+
+    // 운영과 같이 timeSaleId 를 키로 보낸다. (userId = 보낸 순서)
+    private void send(String topic, List<Long> timeSaleIds) {
+        Map<String, Object> config = KafkaTestUtils.producerProps(broker);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        DefaultKafkaProducerFactory<String, PurchaseRequestMessage> producerFactory = new DefaultKafkaProducerFactory<>(config);
+        KafkaTemplate<String, PurchaseRequestMessage> kafkaTemplate = new KafkaTemplate<>(producerFactory);
+
+        for (long sequence = 1; sequence <= REQUESTS_PER_TIME_SALE; sequence++) {
+            for (Long timeSaleId : timeSaleIds) {
+                PurchaseRequestMessage message = PurchaseRequestMessage.builder()
+                        .requestId(UUID.randomUUID().toString())
+                        .timeSaleId(timeSaleId)
+                        .userId(sequence)
+                        .quantity(1L)
+                        .build();
+                kafkaTemplate.send(topic, String.valueOf(timeSaleId), message);
+            }
+        }
+        kafkaTemplate.flush();
+        producerFactory.destroy();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.timesaleservice.repository;
+
+import com.example.timesaleservice.config.JpaConfig;
+import com.example.timesaleservice.domain.OrderStatus;
+import com.example.timesaleservice.domain.Product;
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleOrder;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 재고 정합성 점검용 주문 수량 합계 쿼리를 H2 에 실제로 실행해서 확인하는 테스트
+ */
+@DataJpaTest(properties = "eureka.client.enabled=false")
+@Import(JpaConfig.class)
+class TimeSaleOrderRepositoryTest {
+    @Autowired
+    private TimeSaleOrderRepository timeSaleOrderRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("주문 수량 합계 - 완료 처리 전(PENDING, v2) 주문도 포함")
+    void sumQuantityByTimeSaleIds_IncludesPending() {
+        // given
+        TimeSale timeSale = timeSale();
+        entityManager.persist(order(timeSale, 2L, true));
+        entityManager.persist(order(timeSale, 3L, false)); // v2 로 저장된 주문 (PENDING 그대로)
+        entityManager.flush();
+
+        // when
+        List<TimeSaleOrderRepository.OrderedQuantity> result =
+                timeSaleOrderRepository.sumQuantityByTimeSaleIds(List.of(timeSale.getId()), OrderStatus.FAILED);
+
+        // then
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getTimeSaleId()).isEqualTo(timeSale.getId());
+        assertThat(result.get(0).getQuantity()).isEqualTo(5L);
+    }
+
+    private TimeSale timeSale() {
+        Product product = entityManager.persist(Product.builder()
+                .name("Test Product")
+                .price(10000L)
+                .description("repository test")
+                .build());
+        return entityManager.persist(TimeSale.builder()
+                .product(product)
+                .quantity(10L)
+                .remainingQuantity(5L)
+                .discountPrice(5000L)
+                .startAt(LocalDateTime.now().minusHours(1))
+                .endAt(LocalDateTime.now().plusHours(1))
+                .status(TimeSaleStatus.ACTIVE)
+                .build());
+    }
+
+    private TimeSaleOrder order(TimeSale timeSale, Long quantity, boolean completed) {
+        TimeSaleOrder order = TimeSaleOrder.builder()
+                .userId(1L)
+                .timeSale(timeSale)
+                .quantity(quantity)
+                .discountPrice(5000L)
+                .build();
+        if (completed) {
+            order.complete();
+        }
+        return order;
+    }
+}
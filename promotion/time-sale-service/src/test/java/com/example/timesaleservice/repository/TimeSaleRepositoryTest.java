@@ -0,0 +1,100 @@
+package com.example.timesaleservice.repository;
+
+import com.example.timesaleservice.config.JpaConfig;
+import com.example.timesaleservice.domain.Product;
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * v4 벌크 재고 차감 쿼리를 H2 에 실제로 실행해서 v2 의 이전 버전 사본이 차감분을 덮어쓰지 못하는지 확인하는 테스트
+ */
+@DataJpaTest(properties = "eureka.client.enabled=false")
+@Import(JpaConfig.class)
+class TimeSaleRepositoryTest {
+    @Autowired
+    private TimeSaleRepository timeSaleRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long timeSaleId;
+
+    @BeforeEach
+    void setUp() {
+        Product product = entityManager.persist(Product.builder()
+                .name("Test Product")
+                .price(10000L)
+                .description("repository test")
+                .build());
+        timeSaleId = entityManager.persist(TimeSale.builder()
+                .product(product)
+                .quantity(10L)
+                .remainingQuantity(10L)
+                .discountPrice(5000L)
+                .startAt(LocalDateTime.now().minusHours(1))
+                .endAt(LocalDateTime.now().plusHours(1))
+                .status(TimeSaleStatus.ACTIVE)
+                .build()).getId();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("벌크 재고 차감 - 버전을 올려서 이전 버전으로 읽은 사본(v2)은 저장되지 않음")
+    void decreaseRemainingQuantity_BumpsVersion() {
+        // given - v2 가 Redis 에서 읽은 사본
+        TimeSale stale = timeSaleRepository.findById(timeSaleId).orElseThrow();
+        entityManager.detach(stale);
+
+        // when - v4 구매
+        int updated = timeSaleRepository.decreaseRemainingQuantity(timeSaleId, 3L);
+
+        // then
+        assertThat(updated).isEqualTo(1);
+        TimeSale current = timeSaleRepository.findById(timeSaleId).orElseThrow();
+        assertThat(current.getRemainingQuantity()).isEqualTo(7L);
+        assertThat(current.getVersion()).isEqualTo(stale.getVersion() + 1);
+
+        stale.purchase(1L); // 차감 전 수량(10)에서 계산한 9
+        assertThatThrownBy(() -> timeSaleRepository.saveAndFlush(stale))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+
+    @Test
+    @DisplayName("벌크 재고 차감 - 남은 수량보다 많으면 바꾸지 않음")
+    void decreaseRemainingQuantity_NotEnough() {
+        // when
+        int updated = timeSaleRepository.decreaseRemainingQuantity(timeSaleId, 11L);
+
+        // then
+        assertThat(updated).isZero();
+        TimeSale current = timeSaleRepository.findById(timeSaleId).orElseThrow();
+        assertThat(current.getRemainingQuantity()).isEqualTo(10L);
+        assertThat(current.getVersion()).isZero();
+    }
+
+    @Test
+    @DisplayName("닫힌 타임세일 ID 조회 - ACTIVE 가 아닌 타임세일만")
+    void findIdsByStatusNot() {
+        // given
+        assertThat(timeSaleRepository.findIdsByStatusNot(TimeSaleStatus.ACTIVE)).isEmpty();
+
+        // when
+        timeSaleRepository.updateStatus(timeSaleId, TimeSaleStatus.ACTIVE, TimeSaleStatus.ENDED);
+
+        // then
+        assertThat(timeSaleRepository.findIdsByStatusNot(TimeSaleStatus.ACTIVE)).containsExactly(timeSaleId);
+    }
+}
@@ -5,9 +5,12 @@ import com.example.timesaleservice.domain.TimeSale;
 import com.example.timesaleservice.domain.TimeSaleOrder;
 import com.example.timesaleservice.domain.TimeSaleStatus;
 import com.example.timesaleservice.dto.TimeSaleDto;
+import com.example.timesaleservice.exception.PurchaseLimitExceededException;
 import com.example.timesaleservice.repository.ProductRepository;
 import com.example.timesaleservice.repository.TimeSaleOrderRepository;
 import com.example.timesaleservice.repository.TimeSaleRepository;
+import com.example.timesaleservice.service.v2.TimeSalePurchaseLimitService;
+import com.example.timesaleservice.service.v2.TimeSaleStatusService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -45,6 +48,12 @@ class TimeSaleServiceTest {
     @Mock
     private TimeSaleOrderRepository timeSaleOrderRepository;
 
+    @Mock
+    private TimeSaleStatusService timeSaleStatusService;
+
+    @Mock
+    private TimeSalePurchaseLimitService timeSalePurchaseLimitService;
+
     private Product product;
     private TimeSale timeSale;
     private TimeSaleDto.CreateRequest createRequest;
@@ -243,6 +252,39 @@ class TimeSaleServiceTest {
         verify(timeSaleOrderRepository, never()).save(any(TimeSaleOrder.class)); // TimeSaleOrder에 저장이 안되는지 검증
     }
 
+    @Test
+    @DisplayName("1인당 구매 제한을 넘으면 구매 실패")
+    void purchaseTimeSale_PurchaseLimitExceeded() {
+        // given
+        TimeSale limitedTimeSale = TimeSale.builder()
+                .id(1L)
+                .product(product)
+                .quantity(100L)
+                .remainingQuantity(100L)
+                .discountPrice(5000L)
+                .startAt(LocalDateTime.now())
+                .endAt(LocalDateTime.now().plusHours(1))
+                .status(TimeSaleStatus.ACTIVE)
+                .maxPurchasePerUser(1L)
+                .build();
+
+        TimeSaleDto.PurchaseRequest request = TimeSaleDto.PurchaseRequest.builder()
+                .userId(1L)
+                .quantity(2L)
+                .build();
+
+        when(timeSaleRepository.findByIdWithPessimisticLock(1L)).thenReturn(Optional.of(limitedTimeSale));
+        doThrow(new PurchaseLimitExceededException("Purchase limit exceeded"))
+                .when(timeSalePurchaseLimitService).acquire(limitedTimeSale, 1L, 2L);
+
+        // when & then
+        assertThrows(PurchaseLimitExceededException.class,
+                () -> timeSaleService.purchaseTimeSale(1L, request));
+
+        assertThat(limitedTimeSale.getRemainingQuantity()).isEqualTo(100L); // 재고는 그대로
+        verify(timeSaleOrderRepository, never()).save(any(TimeSaleOrder.class));
+    }
+
     @Test
     @DisplayName("타임세일 기간이 아닌 경우 구매 실패")
     void purchaseTimeSale_NotInProgress() {
@@ -0,0 +1,135 @@
+package com.example.timesaleservice.service.v2;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 진행 중 목록 페이지 Lua 스크립트를 embedded Redis 에 실제로 실행해서 확인하는 테스트
+ */
+class TimeSaleIndexServiceRedisTest {
+    private static final int REDIS_PORT = freePort();
+    private static RedisServer redisServer;
+    private static RedissonClient redissonClient;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private TimeSaleIndexService timeSaleIndexService;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://localhost:" + REDIS_PORT);
+        redissonClient = Redisson.create(config);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        if (redissonClient != null) {
+            redissonClient.shutdown();
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        redissonClient.getKeys().flushall();
+        timeSaleIndexService = new TimeSaleIndexService(redissonClient);
+
+        // 진행 중: 1~5 (ID 와 반대로 5 가 가장 먼저 시작)
+        for (long id = 1; id <= 5; id++) {
+            timeSaleIndexService.add(timeSale(id, now.minusMinutes(id), now.plusHours(1)));
+        }
+        // 종료 타이머가 아직 닫지 않은 타임세일 (가장 먼저 시작했으므로 offset 보정이 필요)
+        timeSaleIndexService.add(timeSale(6L, now.minusHours(2), now.minusSeconds(1)));
+        // 시작 전
+        timeSaleIndexService.add(timeSale(7L, now.plusMinutes(10), now.plusHours(2)));
+    }
+
+    @Test
+    @DisplayName("진행 중 목록 - 시작 시각 순으로 페이지를 나누고 종료/시작 전 타임세일은 제외")
+    void findOngoingIds_Paging() {
+        // when
+        Page<Long> first = timeSaleIndexService.findOngoingIds(now, PageRequest.of(0, 2));
+        Page<Long> second = timeSaleIndexService.findOngoingIds(now, PageRequest.of(1, 2));
+        Page<Long> last = timeSaleIndexService.findOngoingIds(now, PageRequest.of(2, 2));
+
+        // then
+        assertThat(first.getContent()).containsExactly(5L, 4L);
+        assertThat(second.getContent()).containsExactly(3L, 2L);
+        assertThat(last.getContent()).containsExactly(1L);
+        assertThat(first.getTotalElements()).isEqualTo(5L);
+        assertThat(first.getTotalPages()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("진행 중 목록 - startAt 내림차순 정렬")
+    void findOngoingIds_StartAtDesc() {
+        // when
+        Page<Long> first = timeSaleIndexService.findOngoingIds(now, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "startAt")));
+        Page<Long> last = timeSaleIndexService.findOngoingIds(now, PageRequest.of(2, 2, Sort.by(Sort.Direction.DESC, "startAt")));
+
+        // then
+        assertThat(first.getContent()).containsExactly(1L, 2L);
+        assertThat(last.getContent()).containsExactly(5L); // 종료된 6번은 마지막 페이지에도 나오지 않음
+    }
+
+    @Test
+    @DisplayName("진행 중 목록 - 페이지 없이 요청하면 전체 반환")
+    void findOngoingIds_Unpaged() {
+        // when
+        Page<Long> all = timeSaleIndexService.findOngoingIds(now, Pageable.unpaged());
+
+        // then
+        assertThat(all.getContent()).containsExactly(5L, 4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    @DisplayName("진행 중 목록 - 인덱스 순서로 읽을 수 없는 정렬은 예외")
+    void findOngoingIds_UnsupportedSort() {
+        assertThatThrownBy(() -> timeSaleIndexService.findOngoingIds(now, PageRequest.of(0, 2, Sort.by("discountPrice"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private TimeSale timeSale(Long id, LocalDateTime startAt, LocalDateTime endAt) {
+        return TimeSale.builder()
+                .id(id)
+                .quantity(100L)
+                .remainingQuantity(100L)
+                .discountPrice(1000L)
+                .startAt(startAt)
+                .endAt(endAt)
+                .status(TimeSaleStatus.ACTIVE)
+                .build();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
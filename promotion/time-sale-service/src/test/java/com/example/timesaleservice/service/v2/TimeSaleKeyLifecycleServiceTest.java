@@ -0,0 +1,84 @@
+package com.example.timesaleservice.service.v2;
+
+import com.example.timesaleservice.domain.TimeSale;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBatch;
+import org.redisson.api.RKeysAsync;
+import org.redisson.api.RScript;
+import org.redisson.api.RScriptAsync;
+import org.redisson.api.RSetAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimeSaleKeyLifecycleServiceTest {
+    @InjectMocks
+    private TimeSaleKeyLifecycleService timeSaleKeyLifecycleService;
+
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RBatch rBatch;
+    @Mock
+    private RKeysAsync rKeys;
+    @Mock
+    private RSetAsync<Object> shardedIds;
+    @Mock
+    private RScriptAsync rScript;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(timeSaleKeyLifecycleService, "retention", Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("만료 시각 - 종료 시각 + retention")
+    void getExpireAt() {
+        // given
+        LocalDateTime endAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        TimeSale timeSale = TimeSale.builder().id(1L).endAt(endAt).build();
+
+        // when & then
+        assertThat(timeSaleKeyLifecycleService.getExpireAt(timeSale))
+                .isEqualTo(endAt.plusMinutes(10).atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    @Test
+    @DisplayName("키 정리 - 입장 슬롯/대기실은 삭제, 샤드 등록 해제, 구매 결과 등은 만료 시각이 없을 때만 retention 뒤 만료")
+    void sweep() {
+        // given
+        given(redissonClient.createBatch()).willReturn(rBatch);
+        given(rBatch.getKeys()).willReturn(rKeys);
+        given(rBatch.getSet(eq("time-sale-stock-sharded"), any(Codec.class))).willReturn(shardedIds);
+        given(rBatch.getScript(any(Codec.class))).willReturn(rScript);
+
+        // when
+        timeSaleKeyLifecycleService.sweep(1L);
+
+        // then
+        verify(rKeys).deleteAsync("time-sale-admission-slots:1", "time-sale-waiting-room:1",
+                "time-sale-waiting-seen:1", "time-sale-total-requests:1");
+        verify(shardedIds).removeAsync("1");
+        verify(rScript).evalAsync(eq(RScript.Mode.READ_WRITE), anyString(), eq(RScript.ReturnType.INTEGER),
+                eq(List.of("purchase-results:1", "time-sale-queue:1", "time-sale-queue-seq:1", "time-sale-user-purchases:1", "time-sale-stock:1")),
+                eq(String.valueOf(Duration.ofMinutes(10).toMillis())));
+        verify(rBatch).execute();
+    }
+}
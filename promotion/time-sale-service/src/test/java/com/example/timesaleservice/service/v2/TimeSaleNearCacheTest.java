@@ -0,0 +1,111 @@
+package com.example.timesaleservice.service.v2;
+
+import com.example.timesaleservice.domain.Product;
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.dto.TimeSaleUpdateEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RedissonClient;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class TimeSaleNearCacheTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    private TimeSaleNearCache timeSaleNearCache;
+    private TimeSale timeSale;
+
+    @BeforeEach
+    void setUp() {
+        timeSaleNearCache = new TimeSaleNearCache(redissonClient, new SimpleMeterRegistry());
+
+        Product product = Product.builder()
+                .id(1L)
+                .name("Test Product")
+                .price(10000L)
+                .build();
+
+        timeSale = TimeSale.builder()
+                .id(1L)
+                .product(product)
+                .quantity(100L)
+                .remainingQuantity(100L)
+                .discountPrice(5000L)
+                .startAt(LocalDateTime.now().minusHours(1))
+                .endAt(LocalDateTime.now().plusHours(1))
+                .status(TimeSaleStatus.ACTIVE)
+                .build();
+    }
+
+    @Test
+    @DisplayName("두 번째 조회부터는 loader 를 호출하지 않음")
+    void get_LoadsOnce() {
+        // given
+        AtomicInteger loadCount = new AtomicInteger();
+
+        // when
+        timeSaleNearCache.get(1L, () -> {
+            loadCount.incrementAndGet();
+            return timeSale;
+        });
+        TimeSale result = timeSaleNearCache.get(1L, () -> {
+            loadCount.incrementAndGet();
+            return timeSale;
+        });
+
+        // then
+        assertThat(loadCount.get()).isEqualTo(1);
+        assertThat(result).isNotSameAs(timeSale); // 캐시 원본이 아닌 사본을 반환
+        assertThat(result.getProduct().getId()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("갱신 메시지를 받으면 수량과 상태만 바뀜")
+    void applyUpdate_RefreshesStock() {
+        // given
+        timeSaleNearCache.put(timeSale);
+
+        // when
+        timeSaleNearCache.applyUpdate(TimeSaleUpdateEvent.builder()
+                .timeSaleId(1L)
+                .remainingQuantity(0L)
+                .status(TimeSaleStatus.SOLD_OUT)
+                .version(1L)
+                .publishedAt(System.currentTimeMillis())
+                .build());
+        TimeSale result = timeSaleNearCache.get(1L, () -> timeSale);
+
+        // then
+        assertThat(result.getRemainingQuantity()).isEqualTo(0L);
+        assertThat(result.getStatus()).isEqualTo(TimeSaleStatus.SOLD_OUT);
+        assertThat(result.getDiscountPrice()).isEqualTo(5000L);
+    }
+
+    @Test
+    @DisplayName("이전 버전의 갱신 메시지는 무시")
+    void applyUpdate_IgnoresOlderVersion() {
+        // given
+        timeSaleNearCache.put(timeSale); // version 0
+        timeSaleNearCache.applyUpdate(TimeSaleUpdateEvent.builder()
+                .timeSaleId(1L).remainingQuantity(50L).status(TimeSaleStatus.ACTIVE).version(2L).build());
+
+        // when
+        timeSaleNearCache.applyUpdate(TimeSaleUpdateEvent.builder()
+                .timeSaleId(1L).remainingQuantity(80L).status(TimeSaleStatus.ACTIVE).version(1L).build());
+
+        // then
+        assertThat(timeSaleNearCache.get(1L, () -> timeSale).getRemainingQuantity()).isEqualTo(50L);
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.timesaleservice.service.v2;
 
+import com.example.timesaleservice.codec.TimeSaleCacheCodec;
+import com.example.timesaleservice.domain.OrderStatus;
 import com.example.timesaleservice.domain.Product;
 import com.example.timesaleservice.domain.TimeSale;
 import com.example.timesaleservice.domain.TimeSaleOrder;
@@ -9,24 +11,29 @@ import com.example.timesaleservice.exception.TimeSaleException;
 import com.example.timesaleservice.repository.ProductRepository;
 import com.example.timesaleservice.repository.TimeSaleOrderRepository;
 import com.example.timesaleservice.repository.TimeSaleRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.redisson.api.RBucket;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -50,11 +57,25 @@ class TimeSaleRedisServiceTest {
     @Mock
     private RedissonClient redissonClient;
     @Mock
-    private ObjectMapper objectMapper;
+    private TimeSaleCacheCodec timeSaleCacheCodec;
     @Mock
     private RLock rLock;
     @Mock
-    private RBucket<String> rBucket;
+    private RBucket<byte[]> rBucket;
+    @Mock
+    private RBucket<Object> staleBucket;
+    @Mock
+    private TimeSaleNearCache timeSaleNearCache;
+    @Mock
+    private TimeSaleIndexService timeSaleIndexService;
+    @Mock
+    private TimeSaleStatusService timeSaleStatusService;
+    @Mock
+    private PurchaseIdempotencyService purchaseIdempotencyService;
+    @Mock
+    private TimeSalePurchaseLimitService timeSalePurchaseLimitService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     private TimeSale timeSale;
     private Product product;
@@ -111,8 +132,8 @@ class TimeSaleRedisServiceTest {
 
         given(productRepository.findById(1L)).willReturn(Optional.of(product));
         given(timeSaleRepository.save(any(TimeSale.class))).willReturn(timeSale);
-        given(objectMapper.writeValueAsString(any(TimeSale.class))).willReturn("json");
-        given(redissonClient.<String>getBucket(anyString())).willReturn(rBucket);
+        given(timeSaleCacheCodec.encode(any(TimeSale.class))).willReturn(new byte[]{1});
+        given(redissonClient.<byte[]>getBucket(anyString(), any(Codec.class))).willReturn(rBucket);
 
         // when
         TimeSale result = timeSaleRedisService.createTimeSale(request);
@@ -122,17 +143,49 @@ class TimeSaleRedisServiceTest {
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getProduct().getId()).isEqualTo(1L);
         verify(timeSaleRepository).save(any(TimeSale.class));
-        verify(rBucket).set(anyString());
+        verify(rBucket).set(any(byte[].class));
+        verify(timeSaleIndexService).add(timeSale); // 진행 중 목록 인덱스에 추가
+        verify(timeSaleStatusService).scheduleEnd(timeSale); // 종료 타이머 등록
+    }
+
+    @Test
+    @DisplayName("서버 시작 - 닫힌 타임세일 복원, 종료 시각이 지난 타임세일 전환, 진행 중인 타임세일만 인덱스에 추가")
+    void warmUp() {
+        // given - 서버가 꺼져 있는 동안 종료 시각이 지난 타임세일
+        TimeSale expired = TimeSale.builder()
+                .id(2L)
+                .product(product)
+                .quantity(100L)
+                .remainingQuantity(10L)
+                .discountPrice(5000L)
+                .startAt(now.minusHours(2))
+                .endAt(now.minusMinutes(1))
+                .status(TimeSaleStatus.ACTIVE)
+                .build();
+        given(timeSaleRepository.findAllByEndAtLessThanEqualAndStatus(any(LocalDateTime.class), eq(TimeSaleStatus.ACTIVE)))
+                .willReturn(List.of(expired));
+        given(timeSaleRepository.findAllByEndAtAfterAndStatus(any(LocalDateTime.class), eq(TimeSaleStatus.ACTIVE)))
+                .willReturn(List.of(timeSale));
+
+        // when
+        timeSaleRedisService.warmUp();
+
+        // then
+        verify(timeSaleStatusService).restoreClosed();
+        verify(timeSaleStatusService).scheduleEnd(expired);
+        verify(timeSaleStatusService).scheduleEnd(timeSale);
+        verify(timeSaleIndexService).add(timeSale);
+        verify(timeSaleIndexService, never()).add(expired);
     }
 
     @Test
-    @DisplayName("진행 중인 타임세일 조회 성공")
+    @DisplayName("진행 중인 타임세일 조회 성공 - Redis 인덱스 사용")
     void getOngoingTimeSales_Success() {
         // given
         PageRequest pageRequest = PageRequest.of(0, 10);
-        given(timeSaleRepository.findAllByStartAtBeforeAndEndAtAfterAndStatus(
-                any(LocalDateTime.class), eq(TimeSaleStatus.ACTIVE), eq(pageRequest)))
-                .willReturn(new PageImpl<>(List.of(timeSale)));
+        given(timeSaleIndexService.findOngoingIds(any(LocalDateTime.class), eq(pageRequest)))
+                .willReturn(new PageImpl<>(List.of(1L), pageRequest, 1L));
+        given(timeSaleNearCache.get(eq(1L), any())).willReturn(timeSale);
 
         // when
         var result = timeSaleRedisService.getOngoingTimeSales(pageRequest);
@@ -140,15 +193,36 @@ class TimeSaleRedisServiceTest {
         // then
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().get(0).getId()).isEqualTo(1L);
+        verify(timeSaleRepository, never()).findAllByStartAtBeforeAndEndAtAfterAndStatus(any(), any(), any()); // DB 조회 없음
+    }
+
+    @Test
+    @DisplayName("진행 중인 타임세일 조회 - 인덱스에서 읽은 페이지의 ID 만 상세 조회")
+    void getOngoingTimeSales_Paging() {
+        // given
+        PageRequest pageRequest = PageRequest.of(1, 2);
+        given(timeSaleIndexService.findOngoingIds(any(LocalDateTime.class), eq(pageRequest)))
+                .willReturn(new PageImpl<>(List.of(3L), pageRequest, 3L));
+        given(timeSaleNearCache.get(eq(3L), any())).willReturn(timeSale);
+
+        // when
+        var result = timeSaleRedisService.getOngoingTimeSales(pageRequest);
+
+        // then
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getTotalElements()).isEqualTo(3L);
+        assertThat(result.getTotalPages()).isEqualTo(2);
+        verify(timeSaleNearCache, never()).get(eq(1L), any());
     }
 
     @Test
     @DisplayName("타임세일 조회 성공 - Redis Cache Hit")
     void getTimeSale_Success_CacheHit() throws Exception {
         // given
-        given(redissonClient.<String>getBucket(anyString())).willReturn(rBucket);
-        given(rBucket.get()).willReturn("json");
-        given(objectMapper.readValue(anyString(), eq(TimeSale.class))).willReturn(timeSale);
+        givenNearCacheMiss();
+        given(redissonClient.<byte[]>getBucket(anyString(), any(Codec.class))).willReturn(rBucket);
+        given(rBucket.get()).willReturn(new byte[]{1});
+        given(timeSaleCacheCodec.decode(any(byte[].class))).willReturn(timeSale);
 
         // when
         TimeSale result = timeSaleRedisService.getTimeSale(1L);
@@ -156,17 +230,18 @@ class TimeSaleRedisServiceTest {
         // then
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
-        verify(timeSaleRepository, never()).findById(anyLong());
+        verify(timeSaleRepository, never()).findWithProductById(anyLong());
     }
 
     @Test
     @DisplayName("타임세일 조회 성공 - Redis Cache Miss")
     void getTimeSale_Success_CacheMiss() throws Exception {
         // given
-        given(redissonClient.<String>getBucket(anyString())).willReturn(rBucket);
+        givenNearCacheMiss();
+        given(redissonClient.<byte[]>getBucket(anyString(), any(Codec.class))).willReturn(rBucket);
         given(rBucket.get()).willReturn(null);
-        given(timeSaleRepository.findById(1L)).willReturn(Optional.of(timeSale));
-        given(objectMapper.writeValueAsString(any(TimeSale.class))).willReturn("json");
+        given(timeSaleRepository.findWithProductById(1L)).willReturn(Optional.of(timeSale));
+        given(timeSaleCacheCodec.encode(any(TimeSale.class))).willReturn(new byte[]{1});
 
         // when
         TimeSale result = timeSaleRedisService.getTimeSale(1L);
@@ -174,8 +249,27 @@ class TimeSaleRedisServiceTest {
         // then
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
-        verify(timeSaleRepository).findById(1L);
-        verify(rBucket).set(anyString());
+        verify(timeSaleRepository).findWithProductById(1L);
+        verify(rBucket).set(any(byte[].class));
+    }
+
+    @Test
+    @DisplayName("타임세일 조회 성공 - 읽을 수 없는 형식이면 DB 에서 다시 적재")
+    void getTimeSale_Success_UnreadableFormat() {
+        // given
+        givenNearCacheMiss();
+        given(redissonClient.<byte[]>getBucket(anyString(), any(Codec.class))).willReturn(rBucket);
+        given(rBucket.get()).willReturn(new byte[]{1});
+        given(timeSaleCacheCodec.decode(any(byte[].class))).willThrow(new TimeSaleException("Failed to parse TimeSale from Redis"));
+        given(timeSaleRepository.findWithProductById(1L)).willReturn(Optional.of(timeSale));
+        given(timeSaleCacheCodec.encode(any(TimeSale.class))).willReturn(new byte[]{2});
+
+        // when
+        TimeSale result = timeSaleRedisService.getTimeSale(1L);
+
+        // then
+        assertThat(result.getId()).isEqualTo(1L);
+        verify(rBucket).set(new byte[]{2});
     }
 
     @Test
@@ -184,9 +278,10 @@ class TimeSaleRedisServiceTest {
         // given
         given(redissonClient.getLock(anyString())).willReturn(rLock);
         given(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).willReturn(true); // 락을 성공적으로 획득
-        given(redissonClient.<String>getBucket(anyString())).willReturn(rBucket);
+        given(transactionTemplate.execute(any())).willAnswer(this::runInTransaction);
+        given(redissonClient.<byte[]>getBucket(anyString(), any(Codec.class))).willReturn(rBucket);
         given(rBucket.get()).willReturn(null); // Redis에 데이터가 없는 상황
-        given(timeSaleRepository.findById(1L)).willReturn(Optional.of(timeSale)); // DB에서 조회
+        given(timeSaleRepository.findWithProductById(1L)).willReturn(Optional.of(timeSale)); // DB에서 조회
         given(timeSaleRepository.save(any(TimeSale.class))).willReturn(timeSale);
         given(timeSaleOrderRepository.save(any(TimeSaleOrder.class))).willReturn(order);
 
@@ -197,9 +292,30 @@ class TimeSaleRedisServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getRemainingQuantity()).isEqualTo(98L);
-        verify(timeSaleOrderRepository).save(any(TimeSaleOrder.class));
+        verify(timeSaleOrderRepository).save(argThat(saved -> saved.getStatus() == OrderStatus.COMPLETED));
         verify(rLock).unlock();
-        verify(timeSaleRepository).findById(1L); // DB 조회 검증
+        verify(timeSaleRepository).findWithProductById(1L); // DB 조회 검증
+    }
+
+    @Test
+    @DisplayName("타임세일 구매 - 같은 멱등성 키로 재시도하면 다시 구매하지 않음")
+    void purchaseTimeSale_DuplicateIdempotencyKey() {
+        // given
+        TimeSaleDto.PurchaseRequest retryRequest = TimeSaleDto.PurchaseRequest.builder()
+                .userId(1L)
+                .quantity(2L)
+                .idempotencyKey("retry-key")
+                .build();
+        given(purchaseIdempotencyService.claim(eq(1L), eq(1L), eq("retry-key"), anyString())).willReturn("first-request-id");
+        given(timeSaleNearCache.get(eq(1L), any())).willReturn(timeSale);
+
+        // when
+        TimeSale result = timeSaleRedisService.purchaseTimeSale(1L, retryRequest);
+
+        // then
+        assertThat(result.getRemainingQuantity()).isEqualTo(100L);
+        verify(redissonClient, never()).getLock(anyString());
+        verify(timeSaleOrderRepository, never()).save(any(TimeSaleOrder.class));
     }
 
     @Test
@@ -224,9 +340,10 @@ class TimeSaleRedisServiceTest {
         // given
         given(redissonClient.getLock(anyString())).willReturn(rLock);
         given(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).willReturn(true);
-        given(redissonClient.<String>getBucket(anyString())).willReturn(rBucket);
+        given(transactionTemplate.execute(any())).willAnswer(this::runInTransaction);
+        given(redissonClient.<byte[]>getBucket(anyString(), any(Codec.class))).willReturn(rBucket);
         given(rBucket.get()).willReturn(null);
-        given(timeSaleRepository.findById(anyLong())).willReturn(Optional.empty()); // db 에도 없음
+        given(timeSaleRepository.findWithProductById(anyLong())).willReturn(Optional.empty()); // db 에도 없음
 
         // when & then
         assertThatThrownBy(() -> timeSaleRedisService.purchaseTimeSale(1L, purchaseRequest))
@@ -236,4 +353,55 @@ class TimeSaleRedisServiceTest {
         verify(rLock).unlock();
         verify(timeSaleOrderRepository, never()).save(any(TimeSaleOrder.class)); // save가 호출되면 안된다.
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("타임세일 구매 실패 - Redis 사본이 이전 버전이면 사본을 지우고 재시도하도록 예외")
+    void purchaseTimeSale_StaleCopy() throws Exception {
+        // given - v4 가 벌크 쿼리로 차감해서 DB 버전이 올라간 상황
+        given(redissonClient.getLock(anyString())).willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).willReturn(true);
+        given(transactionTemplate.execute(any())).willAnswer(this::runInTransaction);
+        given(redissonClient.<byte[]>getBucket(anyString(), any(Codec.class))).willReturn(rBucket);
+        given(redissonClient.getBucket("time-sale:1")).willReturn(staleBucket);
+        given(rBucket.get()).willReturn(null);
+        given(timeSaleRepository.findWithProductById(1L)).willReturn(Optional.of(timeSale));
+        given(timeSaleRepository.save(any(TimeSale.class)))
+                .willThrow(new ObjectOptimisticLockingFailureException(TimeSale.class, 1L));
+
+        // when & then
+        assertThatThrownBy(() -> timeSaleRedisService.purchaseTimeSale(1L, purchaseRequest))
+                .isInstanceOf(TimeSaleException.class);
+        verify(staleBucket).delete();
+        verify(timeSalePurchaseLimitService).release(timeSale, 1L, 2L);
+        verify(timeSaleOrderRepository, never()).save(any(TimeSaleOrder.class));
+        verify(rLock).unlock();
+    }
+
+    @Test
+    @DisplayName("타임세일 조회 성공 - Near Cache Hit")
+    void getTimeSale_Success_NearCacheHit() {
+        // given
+        given(timeSaleNearCache.get(eq(1L), any())).willReturn(timeSale);
+
+        // when
+        TimeSale result = timeSaleRedisService.getTimeSale(1L);
+
+        // then
+        assertThat(result.getId()).isEqualTo(1L);
+        verify(redissonClient, never()).getBucket(anyString(), any(Codec.class)); // Redis 조회 없음
+        verify(timeSaleRepository, never()).findWithProductById(anyLong());
+    }
+
+    // near cache 에 없어서 loader(Redis -> DB)가 실행되는 상황
+    @SuppressWarnings("unchecked")
+    private void givenNearCacheMiss() {
+        given(timeSaleNearCache.get(eq(1L), any())).willAnswer(invocation ->
+                ((Supplier<TimeSale>) invocation.getArgument(1)).get());
+    }
+
+    // 트랜잭션 없이 콜백만 실행
+    private Object runInTransaction(InvocationOnMock invocation) {
+        TransactionCallback<?> callback = invocation.getArgument(0);
+        return callback.doInTransaction(null);
+    }
+}
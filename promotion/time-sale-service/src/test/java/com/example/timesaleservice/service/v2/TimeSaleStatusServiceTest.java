@@ -0,0 +1,232 @@
+package com.example.timesaleservice.service.v2;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.dto.TimeSaleStatusEvent;
+import com.example.timesaleservice.exception.TimeSaleClosedException;
+import com.example.timesaleservice.repository.TimeSaleRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBucket;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimeSaleStatusServiceTest {
+    @InjectMocks
+    private TimeSaleStatusService timeSaleStatusService;
+
+    @Mock
+    private TimeSaleRepository timeSaleRepository;
+    @Mock
+    private TimeSaleIndexService timeSaleIndexService;
+    @Mock
+    private TimeSaleNearCache timeSaleNearCache;
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RTopic rTopic;
+    @Mock
+    private RBucket<String> rBucket;
+    @Mock
+    private TimeSaleKeyLifecycleService timeSaleKeyLifecycleService;
+
+    @Test
+    @DisplayName("상태 전환 - DB 반영 후 Redis 사본 삭제, 인덱스 제거, 전파")
+    void close_Success() {
+        // given
+        given(timeSaleRepository.updateStatus(1L, TimeSaleStatus.ACTIVE, TimeSaleStatus.ENDED)).willReturn(1);
+        given(redissonClient.<String>getBucket(anyString())).willReturn(rBucket);
+        given(redissonClient.getTopic(anyString(), any(Codec.class))).willReturn(rTopic);
+
+        // when
+        timeSaleStatusService.close(1L, TimeSaleStatus.ENDED);
+
+        // then
+        assertThat(timeSaleStatusService.isClosed(1L)).isTrue();
+        verify(rBucket).delete();
+        verify(timeSaleIndexService).remove(1L);
+        verify(timeSaleNearCache).updateStatus(1L, TimeSaleStatus.ENDED);
+        verify(rTopic).publish(any(TimeSaleStatusEvent.class));
+    }
+
+    @Test
+    @DisplayName("상태 전환 - 다른 인스턴스가 먼저 바꿨으면 Redis 사본은 그대로 둠")
+    void close_AlreadyClosedInDb() {
+        // given - 다른 인스턴스가 재고 소진으로 먼저 닫음
+        given(timeSaleRepository.updateStatus(1L, TimeSaleStatus.ACTIVE, TimeSaleStatus.ENDED)).willReturn(0);
+        given(timeSaleRepository.findById(1L)).willReturn(Optional.of(timeSale(TimeSaleStatus.SOLD_OUT)));
+        given(redissonClient.getTopic(anyString(), any(Codec.class))).willReturn(rTopic);
+
+        // when
+        timeSaleStatusService.close(1L, TimeSaleStatus.ENDED);
+
+        // then - DB 에 있는 상태로 전파
+        assertThat(timeSaleStatusService.isClosed(1L)).isTrue();
+        verify(redissonClient, never()).getBucket(anyString());
+        verify(timeSaleNearCache).updateStatus(1L, TimeSaleStatus.SOLD_OUT);
+    }
+
+    @Test
+    @DisplayName("상태 전환 실패 - DB 오류면 전파하지 않고 다시 시도")
+    void close_DbError_Retries() {
+        // given
+        given(redissonClient.getTopic(anyString(), any(Codec.class))).willReturn(rTopic);
+        given(redissonClient.<String>getBucket(anyString())).willReturn(rBucket);
+        given(timeSaleRepository.updateStatus(1L, TimeSaleStatus.ACTIVE, TimeSaleStatus.ENDED))
+                .willThrow(new RuntimeException("DB connection lost"))
+                .willReturn(1);
+        timeSaleStatusService.init();
+        try {
+            // when
+            timeSaleStatusService.close(1L, TimeSaleStatus.ENDED);
+
+            // then - DB 는 ACTIVE 이므로 아직 열린 상태
+            assertThat(timeSaleStatusService.isClosed(1L)).isFalse();
+            verify(rTopic, never()).publish(any(TimeSaleStatusEvent.class));
+
+            // then - 재시도에서 DB 반영 후 전파
+            verify(rTopic, timeout(5000)).publish(any(TimeSaleStatusEvent.class));
+            verify(timeSaleRepository, times(2)).updateStatus(1L, TimeSaleStatus.ACTIVE, TimeSaleStatus.ENDED);
+            assertThat(timeSaleStatusService.isClosed(1L)).isTrue();
+        } finally {
+            timeSaleStatusService.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("종료 시각이 지난 타임세일 - 트랜잭션 안이면 커밋된 뒤에 전환")
+    void scheduleEnd_Expired_AfterCommit() {
+        // given
+        given(redissonClient.getTopic(anyString(), any(Codec.class))).willReturn(rTopic);
+        given(redissonClient.<String>getBucket(anyString())).willReturn(rBucket);
+        given(timeSaleRepository.updateStatus(1L, TimeSaleStatus.ACTIVE, TimeSaleStatus.ENDED)).willReturn(1);
+        timeSaleStatusService.init();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when - 커밋 전
+            timeSaleStatusService.scheduleEnd(timeSale(TimeSaleStatus.ACTIVE));
+
+            // then
+            verify(timeSaleRepository, never()).updateStatus(anyLong(), any(), any());
+
+            // when - 커밋
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // then
+            verify(rTopic, timeout(5000)).publish(any(TimeSaleStatusEvent.class));
+            assertThat(timeSaleStatusService.isClosed(1L)).isTrue();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            timeSaleStatusService.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("재시작 - DB 에서 닫힌 타임세일을 복원해서 구매 전 검증에서 거절")
+    void restoreClosed() {
+        // given
+        given(timeSaleRepository.findIdsByStatusNot(TimeSaleStatus.ACTIVE)).willReturn(List.of(1L, 2L));
+
+        // when
+        timeSaleStatusService.restoreClosed();
+
+        // then
+        assertThatThrownBy(() -> timeSaleStatusService.validateOpen(1L))
+                .isInstanceOf(TimeSaleClosedException.class);
+        assertThat(timeSaleStatusService.isClosed(2L)).isTrue();
+        assertThat(timeSaleStatusService.isClosed(3L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("매진 전파 - 같은 타임세일은 한 번만 발행")
+    void markClosed_PublishOnce() {
+        // given
+        given(redissonClient.getTopic(anyString(), any(Codec.class))).willReturn(rTopic);
+
+        // when
+        timeSaleStatusService.markClosed(1L, TimeSaleStatus.SOLD_OUT);
+        timeSaleStatusService.markClosed(1L, TimeSaleStatus.SOLD_OUT);
+
+        // then
+        verify(rTopic, times(1)).publish(any(TimeSaleStatusEvent.class));
+        verify(timeSaleKeyLifecycleService, times(1)).sweep(1L);
+    }
+
+    @Test
+    @DisplayName("매진 전파 - 트랜잭션 안에서 호출되면 커밋된 뒤에만 전파")
+    void markClosed_AfterCommit() {
+        // given
+        given(redissonClient.getTopic(anyString(), any(Codec.class))).willReturn(rTopic);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when - 롤백된 트랜잭션
+            timeSaleStatusService.markClosed(1L, TimeSaleStatus.SOLD_OUT);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            TransactionSynchronizationManager.clearSynchronization();
+
+            // then
+            assertThat(timeSaleStatusService.isClosed(1L)).isFalse();
+            verifyNoInteractions(rTopic, timeSaleIndexService, timeSaleKeyLifecycleService);
+
+            // when - 커밋된 트랜잭션
+            TransactionSynchronizationManager.initSynchronization();
+            timeSaleStatusService.markClosed(1L, TimeSaleStatus.SOLD_OUT);
+            assertThat(timeSaleStatusService.isClosed(1L)).isFalse();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // then
+            assertThat(timeSaleStatusService.isClosed(1L)).isTrue();
+            verify(rTopic).publish(any(TimeSaleStatusEvent.class));
+            verify(timeSaleKeyLifecycleService).sweep(1L);
+        } finally {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("구매 전 검증 - 닫힌 타임세일은 예외")
+    void validateOpen_Closed() {
+        // given
+        given(redissonClient.getTopic(anyString(), any(Codec.class))).willReturn(rTopic);
+        timeSaleStatusService.markClosed(1L, TimeSaleStatus.SOLD_OUT);
+
+        // when & then
+        assertThatThrownBy(() -> timeSaleStatusService.validateOpen(1L))
+                .isInstanceOf(TimeSaleClosedException.class)
+                .hasMessage("Time sale is closed: 1");
+        timeSaleStatusService.validateOpen(2L); // 열린 타임세일은 통과
+    }
+
+    private TimeSale timeSale(TimeSaleStatus status) {
+        return TimeSale.builder()
+                .id(1L)
+                .quantity(100L)
+                .remainingQuantity(0L)
+                .discountPrice(5000L)
+                .startAt(LocalDateTime.now().minusHours(2))
+                .endAt(LocalDateTime.now().minusHours(1))
+                .status(status)
+                .build();
+    }
+}
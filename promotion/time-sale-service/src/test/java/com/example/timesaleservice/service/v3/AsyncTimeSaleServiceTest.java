@@ -1,56 +1,139 @@
 package com.example.timesaleservice.service.v3;
 
+import com.example.timesaleservice.domain.TimeSale;
 import com.example.timesaleservice.dto.TimeSaleDto;
+import com.example.timesaleservice.service.v2.TimeSaleRedisService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.redisson.api.RBucket;
+import org.redisson.api.RMap;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class) // @Mock, @InjectMocks 이런 Mockito 어노테이션들이 자동으로 초기화되도록 만들어준다
 class AsyncTimeSaleServiceTest {
 
+    @Mock
+    private TimeSaleRedisService timeSaleRedisService;
+
     @Mock
     private TimeSaleProducer timeSaleProducer;
 
+    @Mock
+    private TimeSaleAdmissionService timeSaleAdmissionService;
+
     @Mock
     private RedissonClient redissonClient;
 
     @Mock
-    private RBucket<String> rBucket;
+    private RMap<String, String> results;
 
     private AsyncTimeSaleService asyncTimeSaleService;
 
     @BeforeEach
     void setUp() {
-        asyncTimeSaleService = new AsyncTimeSaleService(null, timeSaleProducer, redissonClient);
+        asyncTimeSaleService = new AsyncTimeSaleService(timeSaleRedisService, timeSaleProducer, redissonClient, timeSaleAdmissionService);
     }
 
     @Test
     @DisplayName("비동기 구매 요청 성공")
     void purchaseTimeSale_Success() {
         // given
-        String expectedRequestId = "test-request-id";
         TimeSaleDto.PurchaseRequest request = TimeSaleDto.PurchaseRequest.builder()
                 .userId(1L)
                 .quantity(1L)
                 .build();
-        given(timeSaleProducer.sendPurchaseRequest(1L, 1L, 1L)).willReturn(expectedRequestId);
+        TimeSale timeSale = TimeSale.builder().id(1L).build();
+        given(timeSaleRedisService.getTimeSale(1L)).willReturn(timeSale);
+        given(timeSaleAdmissionService.admit(eq(timeSale), anyString(), isNull())).willReturn(TimeSaleAdmissionService.Admission.admitted());
+        given(timeSaleProducer.sendPurchaseRequest(anyString(), eq(timeSale), eq(1L), eq(1L), isNull()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        // when
+        TimeSaleDto.AsyncPurchaseResponse response = asyncTimeSaleService.purchaseTimeSale(1L, request);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo("PENDING");
+        assertThat(response.getRequestId()).isNotNull();
+        verify(timeSaleAdmissionService, never()).release(anyLong(), anyString());
+    }
+
+    @Test
+    @DisplayName("비동기 구매 요청 - 입장 슬롯이 없으면 Kafka 로 보내지 않고 대기 토큰 반환")
+    void purchaseTimeSale_Waiting() {
+        // given
+        TimeSaleDto.PurchaseRequest request = TimeSaleDto.PurchaseRequest.builder()
+                .userId(1L)
+                .quantity(1L)
+                .build();
+        TimeSale timeSale = TimeSale.builder().id(1L).build();
+        given(timeSaleRedisService.getTimeSale(1L)).willReturn(timeSale);
+        given(timeSaleAdmissionService.admit(eq(timeSale), anyString(), isNull()))
+                .willReturn(TimeSaleAdmissionService.Admission.waiting("waiting-token", 3L, 200L));
 
         // when
-        String requestId = asyncTimeSaleService.purchaseTimeSale(1L, request);
+        TimeSaleDto.AsyncPurchaseResponse response = asyncTimeSaleService.purchaseTimeSale(1L, request);
 
         // then
-        assertThat(requestId).isEqualTo(expectedRequestId);
-        verify(timeSaleProducer).sendPurchaseRequest(1L, 1L, 1L);
+        assertThat(response.getStatus()).isEqualTo("WAITING");
+        assertThat(response.getRequestId()).isNull();
+        assertThat(response.getWaitingToken()).isEqualTo("waiting-token");
+        assertThat(response.getQueuePosition()).isEqualTo(3);
+        assertThat(response.getEstimatedWaitMillis()).isEqualTo(200L);
+        verifyNoInteractions(timeSaleProducer);
+    }
+
+    @Test
+    @DisplayName("비동기 구매 요청 - 중복 요청이면 처음 요청 ID 를 반환하고 슬롯 반환")
+    void purchaseTimeSale_Duplicate_ReleaseSlot() {
+        // given
+        TimeSaleDto.PurchaseRequest request = TimeSaleDto.PurchaseRequest.builder()
+                .userId(1L)
+                .quantity(1L)
+                .idempotencyKey("retry-key")
+                .build();
+        TimeSale timeSale = TimeSale.builder().id(1L).build();
+        given(timeSaleRedisService.getTimeSale(1L)).willReturn(timeSale);
+        given(timeSaleAdmissionService.admit(eq(timeSale), anyString(), isNull())).willReturn(TimeSaleAdmissionService.Admission.admitted());
+        given(timeSaleProducer.sendPurchaseRequest(anyString(), eq(timeSale), eq(1L), eq(1L), eq("retry-key")))
+                .willReturn("first-request-id");
+
+        // when
+        TimeSaleDto.AsyncPurchaseResponse response = asyncTimeSaleService.purchaseTimeSale(1L, request);
+
+        // then
+        assertThat(response.getRequestId()).isEqualTo("first-request-id");
+        verify(timeSaleAdmissionService).release(1L, admittedRequestId()); // 이번 요청이 잡은 슬롯만 반환
+    }
+
+    @Test
+    @DisplayName("비동기 구매 요청 실패 - outbox 기록 실패 시 슬롯 반환")
+    void purchaseTimeSale_SendFailed_ReleaseSlot() {
+        // given
+        TimeSaleDto.PurchaseRequest request = TimeSaleDto.PurchaseRequest.builder()
+                .userId(1L)
+                .quantity(1L)
+                .build();
+        TimeSale timeSale = TimeSale.builder().id(1L).build();
+        given(timeSaleRedisService.getTimeSale(1L)).willReturn(timeSale);
+        given(timeSaleAdmissionService.admit(eq(timeSale), anyString(), isNull())).willReturn(TimeSaleAdmissionService.Admission.admitted());
+        given(timeSaleProducer.sendPurchaseRequest(anyString(), eq(timeSale), eq(1L), eq(1L), isNull()))
+                .willThrow(new IllegalStateException("Redis unavailable"));
+
+        // when & then
+        assertThatThrownBy(() -> asyncTimeSaleService.purchaseTimeSale(1L, request))
+                .isInstanceOf(IllegalStateException.class);
+        verify(timeSaleAdmissionService).release(1L, admittedRequestId());
     }
 
     @Test
@@ -59,8 +142,8 @@ class AsyncTimeSaleServiceTest {
         // given
         Long timeSaleId = 1L;
         String requestId = "test-request-id";
-        given(redissonClient.<String>getBucket(anyString())).willReturn(rBucket);
-        given(rBucket.get()).willReturn(null);
+        given(redissonClient.<String, String>getMap(eq("purchase-results:1"), any(Codec.class))).willReturn(results);
+        given(results.get(requestId)).willReturn(null);
         given(timeSaleProducer.getQueuePosition(timeSaleId, requestId)).willReturn(5);
         given(timeSaleProducer.getTotalWaiting(timeSaleId)).willReturn(10L);
 
@@ -79,8 +162,8 @@ class AsyncTimeSaleServiceTest {
         // given
         Long timeSaleId = 1L;
         String requestId = "test-request-id";
-        given(redissonClient.<String>getBucket(anyString())).willReturn(rBucket);
-        given(rBucket.get()).willReturn("SUCCESS");
+        given(redissonClient.<String, String>getMap(eq("purchase-results:1"), any(Codec.class))).willReturn(results);
+        given(results.get(requestId)).willReturn("SUCCESS");
 
         // when
         TimeSaleDto.AsyncPurchaseResponse response = asyncTimeSaleService.getPurchaseResult(timeSaleId, requestId);
@@ -97,8 +180,8 @@ class AsyncTimeSaleServiceTest {
         // given
         Long timeSaleId = 1L;
         String requestId = "test-request-id";
-        given(redissonClient.<String>getBucket(anyString())).willReturn(rBucket);
-        given(rBucket.get()).willReturn("FAIL");
+        given(redissonClient.<String, String>getMap(eq("purchase-results:1"), any(Codec.class))).willReturn(results);
+        given(results.get(requestId)).willReturn("FAIL");
 
         // when
         TimeSaleDto.AsyncPurchaseResponse response = asyncTimeSaleService.getPurchaseResult(timeSaleId, requestId);
@@ -108,4 +191,11 @@ class AsyncTimeSaleServiceTest {
         assertThat(response.getQueuePosition()).isNull();
         assertThat(response.getTotalWaiting()).isEqualTo(0L);
     }
-}
\ No newline at end of file
+
+    // 입장할 때 슬롯을 잡은 요청 ID
+    private String admittedRequestId() {
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(timeSaleAdmissionService).admit(any(TimeSale.class), captor.capture(), any());
+        return captor.getValue();
+    }
+}
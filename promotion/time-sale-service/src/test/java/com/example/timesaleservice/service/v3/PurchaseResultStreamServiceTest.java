@@ -0,0 +1,174 @@
+package com.example.timesaleservice.service.v3;
+
+import com.example.timesaleservice.dto.PurchaseResultEvent;
+import com.example.timesaleservice.dto.TimeSaleDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.client.codec.Codec;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PurchaseResultStreamServiceTest {
+
+    @Mock
+    private AsyncTimeSaleService asyncTimeSaleService;
+    @Mock
+    private TimeSaleProducer timeSaleProducer;
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RTopic rTopic;
+    @Mock
+    private SseEmitter emitter;
+    @Mock
+    private SseEmitter otherEmitter;
+
+    private PurchaseResultStreamService purchaseResultStreamService;
+    private MessageListener<PurchaseResultEvent> listener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        given(redissonClient.getTopic(anyString(), any(Codec.class))).willReturn(rTopic);
+        purchaseResultStreamService = spy(new PurchaseResultStreamService(asyncTimeSaleService, timeSaleProducer, redissonClient));
+        purchaseResultStreamService.subscribe();
+
+        ArgumentCaptor<MessageListener<PurchaseResultEvent>> captor = ArgumentCaptor.forClass(MessageListener.class);
+        verify(rTopic).addListener(eq(PurchaseResultEvent.class), captor.capture());
+        listener = captor.getValue();
+    }
+
+    @Test
+    @DisplayName("연결 - 연결하자마자 현재 상태(대기 순번)를 queue 이벤트로 전송")
+    void connect_SendsCurrentStatus() throws IOException {
+        // given
+        givenConnected(emitter, "request-1", pending("request-1", 3));
+
+        // then
+        TimeSaleDto.AsyncPurchaseResponse response = sentResponses(emitter).get(0);
+        assertThat(response.getStatus()).isEqualTo("PENDING");
+        assertThat(response.getQueuePosition()).isEqualTo(3);
+        verify(emitter, never()).complete();
+    }
+
+    @Test
+    @DisplayName("결과 수신 - 해당 요청의 연결에만 result 이벤트를 보내고 연결 종료")
+    void onPurchaseResult_SendsResultAndCompletes() throws IOException {
+        // given
+        givenConnected(emitter, "request-1", pending("request-1", 1));
+        givenConnected(otherEmitter, "request-2", pending("request-2", 2));
+
+        // when
+        listener.onMessage("purchase-result-channel", new PurchaseResultEvent(1L, "request-1", "SUCCESS"));
+
+        // then
+        List<TimeSaleDto.AsyncPurchaseResponse> responses = sentResponses(emitter);
+        assertThat(responses).hasSize(2);
+        assertThat(responses.get(1).getStatus()).isEqualTo("SUCCESS");
+        verify(emitter).complete();
+        verify(otherEmitter, times(1)).send(any(SseEmitter.SseEventBuilder.class)); // 연결할 때 보낸 상태만
+        verify(otherEmitter, never()).complete();
+    }
+
+    @Test
+    @DisplayName("대기 순번 갱신 - 결과가 나온 타임세일의 남은 연결에 새 순번을 한 번에 조회해서 전송")
+    void refreshQueuePositions() throws IOException {
+        // given
+        givenConnected(emitter, "request-1", pending("request-1", 1));
+        givenConnected(otherEmitter, "request-2", pending("request-2", 2));
+        listener.onMessage("purchase-result-channel", new PurchaseResultEvent(1L, "request-1", "SUCCESS"));
+        given(timeSaleProducer.getQueuePositions(eq(1L), anyCollection())).willReturn(Map.of("request-2", 1));
+        given(timeSaleProducer.getTotalWaiting(1L)).willReturn(1L);
+
+        // when
+        purchaseResultStreamService.refreshQueuePositions();
+        purchaseResultStreamService.refreshQueuePositions(); // 새 결과가 없으면 다시 조회하지 않음
+
+        // then
+        TimeSaleDto.AsyncPurchaseResponse response = sentResponses(otherEmitter).get(1);
+        assertThat(response.getQueuePosition()).isEqualTo(1);
+        assertThat(response.getTotalWaiting()).isEqualTo(1L);
+        verify(timeSaleProducer, times(1)).getQueuePositions(eq(1L), anyCollection());
+    }
+
+    @Test
+    @DisplayName("전송 실패 - 클라이언트가 연결을 끊었으면 오류로 종료")
+    void send_ClientDisconnected() throws IOException {
+        // given
+        doThrow(new IOException("Broken pipe")).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+
+        // when
+        givenConnected(emitter, "request-1", pending("request-1", 1));
+
+        // then
+        verify(emitter).completeWithError(any(IOException.class));
+    }
+
+    @Test
+    @DisplayName("재연결 - 이전 연결이 늦게 끝나도 새 연결은 남아서 result 이벤트를 받음")
+    void connect_Reconnect() throws IOException {
+        // given
+        givenConnected(emitter, "request-1", pending("request-1", 1));
+        ArgumentCaptor<Runnable> onCompletion = ArgumentCaptor.forClass(Runnable.class);
+        verify(emitter).onCompletion(onCompletion.capture());
+        givenConnected(otherEmitter, "request-1", pending("request-1", 1)); // EventSource 재연결
+        verify(emitter).complete(); // 이전 연결은 닫음
+
+        // when - 이전 연결의 종료 콜백이 새 연결 뒤에 실행됨
+        onCompletion.getValue().run();
+        listener.onMessage("purchase-result-channel", new PurchaseResultEvent(1L, "request-1", "SUCCESS"));
+
+        // then
+        List<TimeSaleDto.AsyncPurchaseResponse> responses = sentResponses(otherEmitter);
+        assertThat(responses).hasSize(2);
+        assertThat(responses.get(1).getStatus()).isEqualTo("SUCCESS");
+        verify(otherEmitter).complete();
+    }
+
+    private void givenConnected(SseEmitter sseEmitter, String requestId, TimeSaleDto.AsyncPurchaseResponse current) {
+        doReturn(sseEmitter).when(purchaseResultStreamService).createEmitter();
+        given(asyncTimeSaleService.getPurchaseResult(1L, requestId)).willReturn(current);
+        purchaseResultStreamService.connect(1L, requestId);
+    }
+
+    private TimeSaleDto.AsyncPurchaseResponse pending(String requestId, int queuePosition) {
+        return TimeSaleDto.AsyncPurchaseResponse.builder()
+                .requestId(requestId)
+                .status("PENDING")
+                .queuePosition(queuePosition)
+                .totalWaiting(10L)
+                .build();
+    }
+
+    // 전송된 이벤트에서 응답 객체만 꺼낸다.
+    private List<TimeSaleDto.AsyncPurchaseResponse> sentResponses(SseEmitter sseEmitter) throws IOException {
+        ArgumentCaptor<SseEmitter.SseEventBuilder> captor = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(sseEmitter, atLeastOnce()).send(captor.capture());
+        return captor.getAllValues().stream()
+                .map(SseEmitter.SseEventBuilder::build)
+                .flatMap(Set::stream)
+                .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                .filter(TimeSaleDto.AsyncPurchaseResponse.class::isInstance)
+                .map(TimeSaleDto.AsyncPurchaseResponse.class::cast)
+                .toList();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.timesaleservice.service.v3;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.service.v2.TimeSaleKeyLifecycleService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 입장 Lua 스크립트(요청 ID 별 슬롯 임대)를 embedded Redis 에 실제로 실행해서 반환/회수가 맞는지 확인하는 테스트
+ */
+class TimeSaleAdmissionServiceRedisTest {
+    private static final int REDIS_PORT = freePort();
+    private static RedisServer redisServer;
+    private static RedissonClient redissonClient;
+
+    private TimeSaleAdmissionService timeSaleAdmissionService;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://localhost:" + REDIS_PORT);
+        redissonClient = Redisson.create(config);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        if (redissonClient != null) {
+            redissonClient.shutdown();
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        redissonClient.getKeys().flushall();
+        TimeSaleKeyLifecycleService timeSaleKeyLifecycleService = new TimeSaleKeyLifecycleService(redissonClient);
+        ReflectionTestUtils.setField(timeSaleKeyLifecycleService, "retention", Duration.ofMinutes(10));
+        timeSaleAdmissionService = new TimeSaleAdmissionService(redissonClient, timeSaleKeyLifecycleService);
+        ReflectionTestUtils.setField(timeSaleAdmissionService, "enabled", true);
+        ReflectionTestUtils.setField(timeSaleAdmissionService, "factor", 1.5);
+        ReflectionTestUtils.setField(timeSaleAdmissionService, "slotHoldMillis", 200L);
+        ReflectionTestUtils.setField(timeSaleAdmissionService, "waitingTokenTtlMillis", 30000L);
+        ReflectionTestUtils.setField(timeSaleAdmissionService, "slotLeaseMillis", 60000L);
+    }
+
+    @Test
+    @DisplayName("슬롯 반환 - 같은 요청을 두 번 반환해도 다른 요청의 슬롯은 그대로")
+    void release_Twice_KeepsOtherSlots() {
+        // given - 남은 재고 1 -> 슬롯 2개
+        TimeSale timeSale = timeSale();
+        assertThat(timeSaleAdmissionService.admit(timeSale, "request-1", null).isAdmitted()).isTrue();
+        assertThat(timeSaleAdmissionService.admit(timeSale, "request-2", null).isAdmitted()).isTrue();
+        TimeSaleAdmissionService.Admission waiting = timeSaleAdmissionService.admit(timeSale, "request-3", null);
+        assertThat(waiting.isAdmitted()).isFalse();
+
+        // when
+        timeSaleAdmissionService.release(1L, "request-1");
+        timeSaleAdmissionService.release(1L, "request-1"); // 중복 반환 (Kafka 재전달 등)
+
+        // then - 빈 슬롯은 하나뿐이므로 줄 선 토큰만 들어가고 새 요청은 대기
+        assertThat(timeSaleAdmissionService.admit(timeSale, "request-3", waiting.getWaitingToken()).isAdmitted()).isTrue();
+        assertThat(timeSaleAdmissionService.admit(timeSale, "request-4", null).isAdmitted()).isFalse();
+        assertThat(redissonClient.getScoredSortedSet("time-sale-admission-slots:1").remainTimeToLive()).isPositive();
+    }
+
+    @Test
+    @DisplayName("슬롯 회수 - 임대 시간 안에 반환되지 않은 슬롯은 다음 입장 시도에서 회수")
+    void admit_ReclaimsExpiredLeases() throws InterruptedException {
+        // given - 반환하지 못하고 죽은 요청 두 개가 슬롯을 모두 잡고 있음
+        ReflectionTestUtils.setField(timeSaleAdmissionService, "slotLeaseMillis", 50L);
+        TimeSale timeSale = timeSale();
+        timeSaleAdmissionService.admit(timeSale, "request-1", null);
+        timeSaleAdmissionService.admit(timeSale, "request-2", null);
+        TimeSaleAdmissionService.Admission waiting = timeSaleAdmissionService.admit(timeSale, "request-3", null);
+        assertThat(waiting.isAdmitted()).isFalse();
+
+        // when
+        Thread.sleep(100);
+        TimeSaleAdmissionService.Admission admission = timeSaleAdmissionService.admit(timeSale, "request-3", waiting.getWaitingToken());
+
+        // then - 만료된 두 슬롯은 지워지고 새로 들어온 요청의 슬롯만 남음
+        assertThat(admission.isAdmitted()).isTrue();
+        assertThat(redissonClient.getScoredSortedSet("time-sale-admission-slots:1").size()).isEqualTo(1);
+    }
+
+    private TimeSale timeSale() {
+        return TimeSale.builder()
+                .id(1L)
+                .quantity(100L)
+                .remainingQuantity(1L)
+                .discountPrice(1000L)
+                .startAt(LocalDateTime.now().minusHours(1))
+                .endAt(LocalDateTime.now().plusHours(1))
+                .status(TimeSaleStatus.ACTIVE)
+                .build();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.timesaleservice.service.v3;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.service.v2.TimeSaleKeyLifecycleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimeSaleAdmissionServiceTest {
+    @InjectMocks
+    private TimeSaleAdmissionService timeSaleAdmissionService;
+
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RScript rScript;
+    @Mock
+    private RScoredSortedSet<String> slots;
+    @Mock
+    private TimeSaleKeyLifecycleService timeSaleKeyLifecycleService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(timeSaleAdmissionService, "enabled", true);
+        ReflectionTestUtils.setField(timeSaleAdmissionService, "factor", 1.5);
+        ReflectionTestUtils.setField(timeSaleAdmissionService, "slotHoldMillis", 200L);
+        ReflectionTestUtils.setField(timeSaleAdmissionService, "waitingTokenTtlMillis", 30000L);
+        ReflectionTestUtils.setField(timeSaleAdmissionService, "slotLeaseMillis", 60000L);
+    }
+
+    @Test
+    @DisplayName("입장 슬롯 수 - 남은 재고 × factor (재고가 남아 있으면 최소 1, 없으면 0)")
+    void getCapacity() {
+        assertThat(timeSaleAdmissionService.getCapacity(timeSale(100L))).isEqualTo(150L);
+        assertThat(timeSaleAdmissionService.getCapacity(timeSale(1L))).isEqualTo(2L);
+        assertThat(timeSaleAdmissionService.getCapacity(timeSale(0L))).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("예상 대기 시간 - 앞사람 수를 슬롯 수로 나눈 바퀴 수 × 슬롯 점유 시간")
+    void estimateWaitMillis() {
+        assertThat(timeSaleAdmissionService.estimateWaitMillis(0L, 10L)).isEqualTo(200L);
+        assertThat(timeSaleAdmissionService.estimateWaitMillis(25L, 10L)).isEqualTo(600L);
+        assertThat(timeSaleAdmissionService.estimateWaitMillis(25L, 0L)).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("입장 - 슬롯이 남아 있으면 입장")
+    void admit_Admitted() {
+        // given
+        given(timeSaleKeyLifecycleService.getExpireAt(any(TimeSale.class))).willReturn(Instant.now().plusSeconds(3600));
+        given(redissonClient.getScript(any(Codec.class))).willReturn(rScript);
+        given(rScript.eval(eq(RScript.Mode.READ_WRITE), anyString(), eq(RScript.ReturnType.INTEGER), anyList(), any(Object[].class)))
+                .willReturn(-1L);
+
+        // when
+        TimeSaleAdmissionService.Admission admission = timeSaleAdmissionService.admit(timeSale(10L), "request-1", null);
+
+        // then
+        assertThat(admission.isAdmitted()).isTrue();
+        assertThat(admission.getWaitingToken()).isNull();
+    }
+
+    @Test
+    @DisplayName("입장 - 슬롯이 없으면 대기 토큰, 순번(1부터), 예상 대기 시간 반환")
+    void admit_Waiting() {
+        // given
+        given(timeSaleKeyLifecycleService.getExpireAt(any(TimeSale.class))).willReturn(Instant.now().plusSeconds(3600));
+        given(redissonClient.getScript(any(Codec.class))).willReturn(rScript);
+        given(rScript.eval(eq(RScript.Mode.READ_WRITE), anyString(), eq(RScript.ReturnType.INTEGER), anyList(), any(Object[].class)))
+                .willReturn(30L);
+
+        // when
+        TimeSaleAdmissionService.Admission admission = timeSaleAdmissionService.admit(timeSale(10L), "request-1", "waiting-token");
+
+        // then
+        assertThat(admission.isAdmitted()).isFalse();
+        assertThat(admission.getWaitingToken()).isEqualTo("waiting-token");
+        assertThat(admission.getPosition()).isEqualTo(31L);
+        assertThat(admission.getEstimatedWaitMillis()).isEqualTo(600L); // 슬롯 15개, 앞에 30명 -> 세 바퀴째
+    }
+
+    @Test
+    @DisplayName("입장 - 비활성화하면 Redis 를 거치지 않고 입장")
+    void admit_Disabled() {
+        // given
+        ReflectionTestUtils.setField(timeSaleAdmissionService, "enabled", false);
+
+        // when
+        TimeSaleAdmissionService.Admission admission = timeSaleAdmissionService.admit(timeSale(10L), "request-1", null);
+
+        // then
+        assertThat(admission.isAdmitted()).isTrue();
+        verifyNoInteractions(redissonClient);
+    }
+
+    @Test
+    @DisplayName("슬롯 반환 - 요청 ID 로 잡은 슬롯만 지움")
+    void release_ByRequestId() {
+        // given
+        given(redissonClient.<String>getScoredSortedSet(eq("time-sale-admission-slots:1"), any(Codec.class))).willReturn(slots);
+
+        // when
+        timeSaleAdmissionService.release(1L, List.of("request-1", "request-2"));
+
+        // then
+        verify(slots).removeAll(List.of("request-1", "request-2"));
+    }
+
+    @Test
+    @DisplayName("슬롯 반환 - 반환할 요청이 없으면 Redis 를 거치지 않음")
+    void release_Empty() {
+        // when
+        timeSaleAdmissionService.release(1L, List.of());
+
+        // then
+        verifyNoInteractions(redissonClient);
+    }
+
+    private TimeSale timeSale(Long remainingQuantity) {
+        return TimeSale.builder()
+                .id(1L)
+                .quantity(100L)
+                .remainingQuantity(remainingQuantity)
+                .build();
+    }
+}
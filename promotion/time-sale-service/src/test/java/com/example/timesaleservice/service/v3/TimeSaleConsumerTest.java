@@ -1,13 +1,19 @@
 package com.example.timesaleservice.service.v3;
 
+import com.example.timesaleservice.aop.TimeSaleMetrics;
 import com.example.timesaleservice.domain.Product;
 import com.example.timesaleservice.domain.TimeSale;
 import com.example.timesaleservice.domain.TimeSaleOrder;
 import com.example.timesaleservice.domain.TimeSaleStatus;
 import com.example.timesaleservice.dto.PurchaseRequestMessage;
+import com.example.timesaleservice.dto.PurchaseResultEvent;
 import com.example.timesaleservice.repository.TimeSaleOrderRepository;
 import com.example.timesaleservice.repository.TimeSaleRepository;
+import com.example.timesaleservice.service.v2.PurchaseIdempotencyService;
+import com.example.timesaleservice.service.v2.TimeSalePurchaseLimitService;
 import com.example.timesaleservice.service.v2.TimeSaleRedisService;
+import com.example.timesaleservice.service.v4.TimeSaleOrderService;
+import com.example.timesaleservice.service.v4.TimeSaleStockService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,9 +21,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.redisson.api.RAtomicLong;
-import org.redisson.api.RBucket;
+import org.redisson.api.RMap;
+import org.redisson.api.RScoredSortedSet;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -41,10 +50,31 @@ class TimeSaleConsumerTest {
     private RedissonClient redissonClient;
 
     @Mock
-    private RBucket<String> resultBucket;
+    private RMap<String, String> results;
 
     @Mock
-    private RAtomicLong totalCounter;
+    private RScoredSortedSet<String> queue;
+
+    @Mock
+    private PurchaseResultStreamService purchaseResultStreamService;
+
+    @Mock
+    private PurchaseIdempotencyService purchaseIdempotencyService;
+
+    @Mock
+    private TimeSalePurchaseLimitService timeSalePurchaseLimitService;
+
+    @Mock
+    private TimeSaleMetrics timeSaleMetrics;
+
+    @Mock
+    private TimeSaleAdmissionService timeSaleAdmissionService;
+
+    @Mock
+    private TimeSaleOrderService timeSaleOrderService;
+
+    @Mock
+    private TimeSaleStockService timeSaleStockService;
 
     @InjectMocks
     private TimeSaleConsumer timeSaleConsumer;
@@ -58,8 +88,9 @@ class TimeSaleConsumerTest {
     void setUp() {
         now = LocalDateTime.now();
 
-        when(redissonClient.<String>getBucket(anyString())).thenReturn(resultBucket);
-        when(redissonClient.getAtomicLong(anyString())).thenReturn(totalCounter);
+        // 이미 처리된 요청은 Redis 를 건드리지 않으므로 lenient 로 둔다.
+        lenient().when(redissonClient.<String, String>getMap(anyString(), any(Codec.class))).thenReturn(results);
+        lenient().when(redissonClient.<String>getScoredSortedSet(anyString(), any(Codec.class))).thenReturn(queue);
 
         product = Product.builder()
                 .id(1L)
@@ -106,13 +137,63 @@ class TimeSaleConsumerTest {
         timeSaleConsumer.consumePurchaseRequest(message);
 
         // then
-        verify(resultBucket).set("SUCCESS");
+        verify(results).fastReplace("test-request-id", "SUCCESS");
         verify(timeSaleRedisService).saveToRedis(timeSale);
-        verify(totalCounter).decrementAndGet();
+        verify(queue).remove("test-request-id");
+        verify(purchaseResultStreamService).publish(new PurchaseResultEvent(1L, "test-request-id", "SUCCESS"));
+        verify(timeSaleAdmissionService).release(1L, "test-request-id");
         verify(timeSaleRepository).findById(1L);
         verify(timeSaleRepository).save(any(TimeSale.class));
     }
 
+    @Test
+    @DisplayName("구매 요청 처리 - 트랜잭션 안에서는 커밋된 뒤에 결과를 저장/발행하고, 롤백되면 FAIL")
+    void consumePurchaseRequest_ResultAfterCommit() {
+        // given
+        PurchaseRequestMessage message = PurchaseRequestMessage.builder()
+                .requestId("test-request-id")
+                .timeSaleId(1L)
+                .userId(1L)
+                .quantity(2L)
+                .build();
+
+        when(timeSaleRepository.findById(1L)).thenReturn(Optional.of(timeSale));
+        when(timeSaleRepository.save(any(TimeSale.class))).thenReturn(timeSale);
+        when(timeSaleOrderRepository.save(any(TimeSaleOrder.class))).thenReturn(order);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when - 커밋 전
+            timeSaleConsumer.consumePurchaseRequest(message);
+
+            // then - 아직 SUCCESS 를 알리지 않음
+            verify(results, never()).fastReplace(anyString(), anyString());
+            verify(purchaseResultStreamService, never()).publish(any(PurchaseResultEvent.class));
+
+            // when - 커밋
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+
+            // then
+            verify(results).fastReplace("test-request-id", "SUCCESS");
+            verify(purchaseResultStreamService).publish(new PurchaseResultEvent(1L, "test-request-id", "SUCCESS"));
+
+            // when - 같은 요청이 롤백된 경우
+            TransactionSynchronizationManager.initSynchronization();
+            timeSaleConsumer.consumePurchaseRequest(message);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // then - 주문이 없으므로 FAIL
+            verify(results).fastReplace("test-request-id", "FAIL");
+            verify(purchaseResultStreamService).publish(new PurchaseResultEvent(1L, "test-request-id", "FAIL"));
+        } finally {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+    }
+
     @Test
     @DisplayName("구매 요청 처리 실패 - 타임세일 없음")
     void consumePurchaseRequest_TimeSaleNotFound() {
@@ -130,8 +211,8 @@ class TimeSaleConsumerTest {
         timeSaleConsumer.consumePurchaseRequest(message);
 
         // then
-        verify(resultBucket).set("FAIL");
-        verify(totalCounter).decrementAndGet();
+        verify(results).fastReplace("test-request-id", "FAIL");
+        verify(queue).remove("test-request-id");
         verify(timeSaleOrderRepository, never()).save(any(TimeSaleOrder.class));
         verify(timeSaleRepository).findById(1L);
         verify(timeSaleRepository, never()).save(any(TimeSale.class));
@@ -165,10 +246,85 @@ class TimeSaleConsumerTest {
         timeSaleConsumer.consumePurchaseRequest(message);
 
         // then
-        verify(resultBucket).set("FAIL");
-        verify(totalCounter).decrementAndGet();
+        verify(results).fastReplace("test-request-id", "FAIL");
+        verify(queue).remove("test-request-id");
+        verify(timeSaleAdmissionService).release(1L, "test-request-id"); // 실패해도 슬롯은 반환
         verify(timeSaleOrderRepository, never()).save(any(TimeSaleOrder.class));
         verify(timeSaleRepository).findById(1L);
         verify(timeSaleRepository, never()).save(any(TimeSale.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("구매 요청 처리 - 이미 처리된 요청은 다시 처리하지 않음")
+    void consumePurchaseRequest_AlreadyProcessed() {
+        // given
+        PurchaseRequestMessage message = PurchaseRequestMessage.builder()
+                .requestId("test-request-id")
+                .timeSaleId(1L)
+                .userId(1L)
+                .quantity(2L)
+                .build();
+
+        when(purchaseIdempotencyService.isProcessed(1L, "test-request-id")).thenReturn(true);
+
+        // when
+        timeSaleConsumer.consumePurchaseRequest(message);
+
+        // then
+        verify(timeSaleRepository, never()).findById(anyLong());
+        verify(timeSaleOrderRepository, never()).save(any(TimeSaleOrder.class));
+        verify(results, never()).fastReplace(anyString(), anyString());
+        verify(queue, never()).remove(anyString());
+        verify(timeSaleAdmissionService, never()).release(anyLong(), anyString()); // 처음 처리할 때 이미 반환
+    }
+
+    @Test
+    @DisplayName("구매 요청 처리 - 재고를 이미 차감한 요청(v5)은 검증 없이 주문만 저장")
+    void consumePurchaseRequest_StockReserved() {
+        // given
+        PurchaseRequestMessage message = PurchaseRequestMessage.builder()
+                .requestId("test-request-id")
+                .timeSaleId(1L)
+                .userId(1L)
+                .quantity(2L)
+                .stockReserved(true)
+                .build();
+
+        when(timeSaleRedisService.getTimeSale(1L)).thenReturn(timeSale);
+
+        // when
+        timeSaleConsumer.consumePurchaseRequest(message);
+
+        // then
+        verify(timeSaleOrderService).createOrder(1L, 1L, 2L, 5000L);
+        verify(results).fastReplace("test-request-id", "SUCCESS");
+        verify(queue).remove("test-request-id");
+        verify(timeSalePurchaseLimitService, never()).acquire(any(), anyLong(), anyLong());
+        verify(timeSaleRepository, never()).save(any(TimeSale.class));
+        verify(timeSaleAdmissionService, never()).release(anyLong(), anyString()); // 입장 제어를 거치지 않은 요청
+    }
+
+    @Test
+    @DisplayName("구매 요청 처리 실패 - 재고를 이미 차감한 요청(v5)의 주문 저장에 실패하면 재고를 되돌림")
+    void consumePurchaseRequest_StockReserved_Failure() {
+        // given
+        PurchaseRequestMessage message = PurchaseRequestMessage.builder()
+                .requestId("test-request-id")
+                .timeSaleId(1L)
+                .userId(1L)
+                .quantity(2L)
+                .stockReserved(true)
+                .build();
+
+        when(timeSaleRedisService.getTimeSale(1L)).thenReturn(timeSale);
+        when(timeSaleOrderService.createOrder(1L, 1L, 2L, 5000L)).thenThrow(new RuntimeException("DB down"));
+
+        // when
+        timeSaleConsumer.consumePurchaseRequest(message);
+
+        // then
+        verify(timeSaleStockService).release(1L, 1L, 2L);
+        verify(results).fastReplace("test-request-id", "FAIL");
+        verify(queue).remove("test-request-id");
+    }
+}
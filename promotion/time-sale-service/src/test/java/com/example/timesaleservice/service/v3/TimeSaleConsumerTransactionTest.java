@@ -0,0 +1,143 @@
+package com.example.timesaleservice.service.v3;
+
+import com.example.timesaleservice.aop.TimeSaleMetrics;
+import com.example.timesaleservice.config.JpaConfig;
+import com.example.timesaleservice.domain.Product;
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.dto.PurchaseRequestMessage;
+import com.example.timesaleservice.repository.ProductRepository;
+import com.example.timesaleservice.repository.TimeSaleOrderRepository;
+import com.example.timesaleservice.repository.TimeSaleRepository;
+import com.example.timesaleservice.service.v2.PurchaseIdempotencyService;
+import com.example.timesaleservice.service.v2.TimeSalePurchaseLimitService;
+import com.example.timesaleservice.service.v2.TimeSaleRedisService;
+import com.example.timesaleservice.service.v4.TimeSaleOrderService;
+import com.example.timesaleservice.service.v4.TimeSaleStockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RMap;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+/**
+ * 재고를 이미 차감한 요청(v5)을 실제 트랜잭션 매니저(H2)로 처리해서 리스너 트랜잭션이 커밋되는지 확인하는 테스트
+ * - 테스트 메서드 트랜잭션은 끄고 리스너의 @Transactional 이 바깥 트랜잭션이 되게 한다.
+ */
+@DataJpaTest(properties = "eureka.client.enabled=false")
+@Import({JpaConfig.class, TimeSaleConsumer.class, TimeSaleOrderService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TimeSaleConsumerTransactionTest {
+    @Autowired
+    private TimeSaleConsumer timeSaleConsumer;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private TimeSaleRepository timeSaleRepository;
+    @Autowired
+    private TimeSaleOrderRepository timeSaleOrderRepository;
+
+    @MockBean
+    private TimeSaleRedisService timeSaleRedisService;
+    @MockBean
+    private RedissonClient redissonClient;
+    @MockBean
+    private PurchaseResultStreamService purchaseResultStreamService;
+    @MockBean
+    private PurchaseIdempotencyService purchaseIdempotencyService;
+    @MockBean
+    private TimeSalePurchaseLimitService timeSalePurchaseLimitService;
+    @MockBean
+    private TimeSaleMetrics timeSaleMetrics;
+    @MockBean
+    private TimeSaleAdmissionService timeSaleAdmissionService;
+    @MockBean
+    private TimeSaleStockService timeSaleStockService;
+
+    @SuppressWarnings("unchecked")
+    private final RMap<String, String> results = mock(RMap.class);
+
+    @BeforeEach
+    void setUp() {
+        timeSaleOrderRepository.deleteAll();
+        timeSaleRepository.deleteAll();
+        given(redissonClient.<String, String>getMap(anyString(), any(Codec.class))).willReturn(results);
+        given(redissonClient.<String>getScoredSortedSet(anyString(), any(Codec.class))).willReturn(mock(RScoredSortedSet.class));
+    }
+
+    @Test
+    @DisplayName("재고 선차감 요청 - DB 재고 차감에 실패해도 리스너 트랜잭션은 커밋되고 재고를 되돌린 뒤 FAIL")
+    void consumeReservedPurchaseRequest_DecreaseFailed() {
+        // given - Redis 카운터는 차감됐지만 DB 재고는 이미 0
+        TimeSale timeSale = saveTimeSale(0L);
+        PurchaseRequestMessage message = reservedMessage(timeSale.getId());
+
+        // when & then - 재전달(UnexpectedRollbackException) 없음
+        assertThatCode(() -> timeSaleConsumer.consumePurchaseRequest(message)).doesNotThrowAnyException();
+        verify(timeSaleStockService).release(timeSale.getId(), 1L, 1L);
+        verify(results).fastReplace("reserved-request-id", "FAIL");
+        assertThat(timeSaleOrderRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("재고 선차감 요청 - 주문을 저장하고 커밋된 뒤에 SUCCESS")
+    void consumeReservedPurchaseRequest_Success() {
+        // given
+        TimeSale timeSale = saveTimeSale(5L);
+        PurchaseRequestMessage message = reservedMessage(timeSale.getId());
+
+        // when
+        timeSaleConsumer.consumePurchaseRequest(message);
+
+        // then
+        verify(results).fastReplace("reserved-request-id", "SUCCESS");
+        verify(timeSaleStockService, never()).release(anyLong(), anyLong(), anyLong());
+        assertThat(timeSaleOrderRepository.count()).isEqualTo(1L);
+        assertThat(timeSaleRepository.findById(timeSale.getId()).orElseThrow().getRemainingQuantity()).isEqualTo(4L);
+    }
+
+    private TimeSale saveTimeSale(Long remainingQuantity) {
+        Product product = productRepository.save(Product.builder()
+                .name("Test Product")
+                .price(10000L)
+                .description("transaction test")
+                .build());
+        TimeSale timeSale = timeSaleRepository.save(TimeSale.builder()
+                .product(product)
+                .quantity(10L)
+                .remainingQuantity(remainingQuantity)
+                .discountPrice(5000L)
+                .startAt(LocalDateTime.now().minusHours(1))
+                .endAt(LocalDateTime.now().plusHours(1))
+                .status(TimeSaleStatus.ACTIVE)
+                .build());
+        given(timeSaleRedisService.getTimeSale(timeSale.getId())).willReturn(timeSale);
+        return timeSale;
+    }
+
+    private PurchaseRequestMessage reservedMessage(Long timeSaleId) {
+        return PurchaseRequestMessage.builder()
+                .requestId("reserved-request-id")
+                .timeSaleId(timeSaleId)
+                .userId(1L)
+                .quantity(1L)
+                .stockReserved(true)
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.timesaleservice.service.v3;
+
+import com.example.timesaleservice.dto.PurchaseRequestMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.AutoClaimResult;
+import org.redisson.api.RBatch;
+import org.redisson.api.RStream;
+import org.redisson.api.RStreamAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.api.stream.StreamReadGroupArgs;
+import org.redisson.client.codec.Codec;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimeSaleOutboxRelayTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private KafkaTemplate<String, PurchaseRequestMessage> kafkaTemplate;
+
+    @Mock
+    private RStream<String, String> outbox;
+
+    @Mock
+    private RBatch rBatch;
+
+    @Mock
+    private RStreamAsync<String, String> outboxAsync;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry registry;
+    private TimeSaleOutboxRelay timeSaleOutboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        timeSaleOutboxRelay = new TimeSaleOutboxRelay(redissonClient, kafkaTemplate, objectMapper, registry);
+        ReflectionTestUtils.setField(timeSaleOutboxRelay, "batchSize", 500);
+        when(redissonClient.<String, String>getStream(eq("time-sale-outbox"), any(Codec.class))).thenReturn(outbox);
+    }
+
+    @Test
+    @DisplayName("outbox 전달 - 브로커가 받은 레코드만 ack 후 삭제")
+    void relay_AckOnlyDispatched() throws Exception {
+        // given
+        StreamMessageId sentId = new StreamMessageId(1L, 0L);
+        StreamMessageId failedId = new StreamMessageId(2L, 0L);
+        Map<StreamMessageId, Map<String, String>> records = new LinkedHashMap<>();
+        records.put(sentId, record("request-1"));
+        records.put(failedId, record("request-2"));
+
+        when(outbox.readGroup(eq("time-sale-outbox-relay"), anyString(), any(StreamReadGroupArgs.class))).thenReturn(records);
+        // 레코드 키는 timeSaleId
+        when(kafkaTemplate.send(eq("time-sale-requests"), eq("1"), argThat((PurchaseRequestMessage m) -> m != null && "request-1".equals(m.getRequestId()))))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(kafkaTemplate.send(eq("time-sale-requests"), eq("1"), argThat((PurchaseRequestMessage m) -> m != null && "request-2".equals(m.getRequestId()))))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        when(redissonClient.createBatch()).thenReturn(rBatch);
+        when(rBatch.<String, String>getStream(eq("time-sale-outbox"), any(Codec.class))).thenReturn(outboxAsync);
+
+        // when
+        timeSaleOutboxRelay.relay();
+
+        // then
+        verify(outboxAsync).ackAsync("time-sale-outbox-relay", sentId);
+        verify(outboxAsync).removeAsync(sentId);
+        verify(rBatch).execute();
+        assertThat(registry.get("time.sale.outbox.relay.batch.size").summary().totalAmount()).isEqualTo(2.0);
+        assertThat(registry.get("time.sale.outbox.relay.lag").timer().count()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("outbox 전달 - 같은 키에서 실패한 레코드 뒤의 레코드는 성공했어도 ack 하지 않음")
+    void relay_StopKeyAtFirstFailure() throws Exception {
+        // given
+        StreamMessageId failedId = new StreamMessageId(1L, 0L);
+        StreamMessageId laterId = new StreamMessageId(2L, 0L);
+        StreamMessageId otherKeyId = new StreamMessageId(3L, 0L);
+        Map<StreamMessageId, Map<String, String>> records = new LinkedHashMap<>();
+        records.put(failedId, record("request-1", 1L));
+        records.put(laterId, record("request-2", 1L));
+        records.put(otherKeyId, record("request-3", 2L));
+
+        when(outbox.readGroup(eq("time-sale-outbox-relay"), anyString(), any(StreamReadGroupArgs.class))).thenReturn(records);
+        when(kafkaTemplate.send(eq("time-sale-requests"), anyString(), argThat((PurchaseRequestMessage m) -> m != null && "request-1".equals(m.getRequestId()))))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        when(kafkaTemplate.send(eq("time-sale-requests"), anyString(), argThat((PurchaseRequestMessage m) -> m != null && !"request-1".equals(m.getRequestId()))))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(redissonClient.createBatch()).thenReturn(rBatch);
+        when(rBatch.<String, String>getStream(eq("time-sale-outbox"), any(Codec.class))).thenReturn(outboxAsync);
+
+        // when
+        timeSaleOutboxRelay.relay();
+
+        // then - 남겨둔 레코드는 다음 relay 에서 새 레코드보다 먼저 다시 읽는다
+        verify(outboxAsync).ackAsync("time-sale-outbox-relay", otherKeyId);
+        verify(outboxAsync).removeAsync(otherKeyId);
+        verify(outbox, times(1)).readGroup(eq("time-sale-outbox-relay"), anyString(), any(StreamReadGroupArgs.class));
+    }
+
+    @Test
+    @DisplayName("outbox 전달 - 읽을 레코드가 없으면 전송하지 않음")
+    @SuppressWarnings("unchecked")
+    void relay_Empty() {
+        // given
+        AutoClaimResult<String, String> claimResult = mock(AutoClaimResult.class);
+        when(claimResult.getMessages()).thenReturn(Map.of());
+        when(outbox.readGroup(eq("time-sale-outbox-relay"), anyString(), any(StreamReadGroupArgs.class))).thenReturn(Map.of());
+        when(outbox.autoClaim(eq("time-sale-outbox-relay"), anyString(), anyLong(), any(), any(StreamMessageId.class), anyInt()))
+                .thenReturn(claimResult);
+
+        // when
+        timeSaleOutboxRelay.relay();
+
+        // then
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any(PurchaseRequestMessage.class));
+        verify(redissonClient, never()).createBatch();
+    }
+
+    private Map<String, String> record(String requestId) throws Exception {
+        return record(requestId, 1L);
+    }
+
+    private Map<String, String> record(String requestId, Long timeSaleId) throws Exception {
+        PurchaseRequestMessage message = PurchaseRequestMessage.builder()
+                .requestId(requestId)
+                .timeSaleId(timeSaleId)
+                .userId(1L)
+                .quantity(1L)
+                .build();
+        return Map.of(
+                "payload", objectMapper.writeValueAsString(message),
+                "createdAt", String.valueOf(System.currentTimeMillis()));
+    }
+}
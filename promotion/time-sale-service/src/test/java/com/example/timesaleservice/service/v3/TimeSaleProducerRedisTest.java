@@ -0,0 +1,109 @@
+package com.example.timesaleservice.service.v3;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.service.v2.PurchaseIdempotencyService;
+import com.example.timesaleservice.service.v2.TimeSaleKeyLifecycleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 대기열 등록 Lua 스크립트(시퀀스 score)를 embedded Redis 에 실제로 실행해서 도착 순서가 유지되는지 확인하는 테스트
+ */
+class TimeSaleProducerRedisTest {
+    private static final int REDIS_PORT = freePort();
+    private static RedisServer redisServer;
+    private static RedissonClient redissonClient;
+
+    private TimeSaleProducer timeSaleProducer;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://localhost:" + REDIS_PORT);
+        redissonClient = Redisson.create(config);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        if (redissonClient != null) {
+            redissonClient.shutdown();
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        redissonClient.getKeys().flushall();
+        TimeSaleKeyLifecycleService timeSaleKeyLifecycleService = new TimeSaleKeyLifecycleService(redissonClient);
+        ReflectionTestUtils.setField(timeSaleKeyLifecycleService, "retention", Duration.ofMinutes(10));
+        timeSaleProducer = new TimeSaleProducer(
+                redissonClient, mock(PurchaseIdempotencyService.class), timeSaleKeyLifecycleService, new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("대기열 등록 - 같은 밀리초에 들어온 요청도 도착 순서대로 대기열 위치가 매겨짐")
+    void sendPurchaseRequest_FifoWithinMillisecond() {
+        // given - 요청 ID 는 무작위 UUID 이므로 score 가 같으면 도착 순서와 다르게 정렬됨
+        TimeSale timeSale = timeSale();
+        List<String> requestIds = new ArrayList<>();
+
+        // when
+        for (long userId = 1; userId <= 200; userId++) {
+            requestIds.add(timeSaleProducer.sendPurchaseRequest(timeSale, userId, 1L, null));
+        }
+
+        // then
+        Map<String, Integer> positions = timeSaleProducer.getQueuePositions(timeSale.getId(), requestIds);
+        for (int i = 0; i < requestIds.size(); i++) {
+            assertThat(positions.get(requestIds.get(i))).isEqualTo(i + 1);
+        }
+        assertThat(timeSaleProducer.getTotalWaiting(timeSale.getId())).isEqualTo(200L);
+        assertThat(redissonClient.getScoredSortedSet("time-sale-queue:1").remainTimeToLive()).isPositive();
+        assertThat(redissonClient.getAtomicLong("time-sale-queue-seq:1").remainTimeToLive()).isPositive();
+    }
+
+    private TimeSale timeSale() {
+        return TimeSale.builder()
+                .id(1L)
+                .quantity(100L)
+                .remainingQuantity(100L)
+                .discountPrice(1000L)
+                .startAt(LocalDateTime.now().minusHours(1))
+                .endAt(LocalDateTime.now().plusHours(1))
+                .status(TimeSaleStatus.ACTIVE)
+                .build();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,19 +1,26 @@
 package com.example.timesaleservice.service.v3;
 
-import com.example.timesaleservice.dto.PurchaseRequestMessage;
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.service.v2.PurchaseIdempotencyService;
+import com.example.timesaleservice.service.v2.TimeSaleKeyLifecycleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.redisson.api.RAtomicLong;
-import org.redisson.api.RBucket;
-import org.redisson.api.RedissonClient;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.redisson.api.*;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.client.codec.Codec;
+
+import java.time.Instant;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -26,50 +33,83 @@ class TimeSaleProducerTest {
     private TimeSaleProducer timeSaleProducer;
 
     @Mock
-    private KafkaTemplate<String, PurchaseRequestMessage> kafkaTemplate;
+    private RedissonClient redissonClient;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
     @Mock
-    private RedissonClient redissonClient;
+    private RBatch rBatch;
+
+    @Mock
+    private RMapAsync<String, String> results;
+
+    @Mock
+    private RScriptAsync enqueueScript;
+
+    @Mock
+    private RStreamAsync<String, String> outbox;
 
     @Mock
-    private RBucket<String> resultBucket;
+    private RScoredSortedSet<String> queue;
 
     @Mock
-    private RBucket<String> queueBucket;
+    private PurchaseIdempotencyService purchaseIdempotencyService;
 
     @Mock
-    private RAtomicLong totalCounter;
+    private TimeSaleKeyLifecycleService timeSaleKeyLifecycleService;
+
+    private final TimeSale timeSale = TimeSale.builder().id(1L).build();
 
     @Test
-    @DisplayName("구매 요청 전송 성공")
+    @DisplayName("구매 요청 전송 성공 - 상태, 대기열, outbox 를 한 번에 기록하고 상태/대기열에 만료 시각 설정")
     void sendPurchaseRequest_Success() {
         // given
-        Long timeSaleId = 1L;
         Long userId = 1L;
         Long quantity = 2L;
-        when(redissonClient.<String>getBucket(matches("purchase-result:.*"))).thenReturn(resultBucket);
-        when(redissonClient.<String>getBucket(matches("time-sale-queue:.*"))).thenReturn(queueBucket);
-        when(redissonClient.getAtomicLong(anyString())).thenReturn(totalCounter);
+        Instant expireAt = Instant.now().plusSeconds(3600);
+        when(timeSaleKeyLifecycleService.getExpireAt(timeSale)).thenReturn(expireAt);
+        when(redissonClient.createBatch(any(BatchOptions.class))).thenReturn(rBatch);
+        when(rBatch.<String, String>getMap(eq("purchase-results:1"), any(Codec.class))).thenReturn(results);
+        when(rBatch.getScript(any(Codec.class))).thenReturn(enqueueScript);
+        when(rBatch.<String, String>getStream(eq("time-sale-outbox"), any(Codec.class))).thenReturn(outbox);
 
         // when
-        String requestId = timeSaleProducer.sendPurchaseRequest(timeSaleId, userId, quantity);
+        String requestId = timeSaleProducer.sendPurchaseRequest(timeSale, userId, quantity, null);
 
         // then
-        verify(resultBucket).set("PENDING"); // consumer에서는 success로 변경 producer니까 pending 상태여야한다.
-        verify(queueBucket).set(requestId);
-        verify(totalCounter).incrementAndGet();
-        verify(kafkaTemplate).send(eq("time-sale-requests"), eq(requestId), any(PurchaseRequestMessage.class));
+        verify(results).fastPutAsync(requestId, "PENDING"); // consumer에서는 success로 변경 producer니까 pending 상태여야한다.
+        verify(results).expireAsync(expireAt);
+        // 시퀀스를 score 로 대기열에 추가 (덮어쓰지 않음)
+        verify(enqueueScript).evalAsync(eq(RScript.Mode.READ_WRITE), eq(TimeSaleProducer.ENQUEUE_SCRIPT), eq(RScript.ReturnType.INTEGER),
+                eq(List.of("time-sale-queue:1", "time-sale-queue-seq:1")), eq(requestId), eq(String.valueOf(expireAt.toEpochMilli())));
+        verify(outbox).addAsync(any(StreamAddArgs.class)); // Kafka 전송은 relay 가 담당
+        verify(rBatch).execute();
         assertThat(requestId).isNotNull();
     }
 
+    @Test
+    @DisplayName("구매 요청 전송 - 같은 멱등성 키로 재시도하면 처음 요청 ID 반환")
+    void sendPurchaseRequest_DuplicateIdempotencyKey() {
+        // given
+        when(purchaseIdempotencyService.claim(eq(1L), eq(1L), eq("retry-key"), anyString())).thenReturn("first-request-id");
+
+        // when
+        String requestId = timeSaleProducer.sendPurchaseRequest(timeSale, 1L, 2L, "retry-key");
+
+        // then
+        assertThat(requestId).isEqualTo("first-request-id");
+        verify(redissonClient, never()).createBatch(any(BatchOptions.class)); // 대기열/outbox 에 다시 넣지 않음
+    }
+
     @Test
     @DisplayName("대기열 위치 조회 성공")
     void getQueuePosition_Success() {
         // given
         Long timeSaleId = 1L;
         String requestId = "test-request-id";
-        when(redissonClient.<String>getBucket(matches("time-sale-queue:.*"))).thenReturn(queueBucket);
-        when(queueBucket.get()).thenReturn("request-1,test-request-id,request-3"); // 대기열 위치가 2번째에 있음
+        when(redissonClient.<String>getScoredSortedSet(matches("time-sale-queue:.*"), any(Codec.class))).thenReturn(queue);
+        when(queue.rank(requestId)).thenReturn(1); // 대기열 위치가 2번째에 있음 (rank는 0부터 시작)
 
         // when
         Integer position = timeSaleProducer.getQueuePosition(timeSaleId, requestId);
@@ -84,8 +124,8 @@ class TimeSaleProducerTest {
         // given
         Long timeSaleId = 1L;
         String requestId = "test-request-id";
-        when(redissonClient.<String>getBucket(matches("time-sale-queue:.*"))).thenReturn(queueBucket);
-        when(queueBucket.get()).thenReturn("request-1,request-2,request-3");
+        when(redissonClient.<String>getScoredSortedSet(matches("time-sale-queue:.*"), any(Codec.class))).thenReturn(queue);
+        when(queue.rank(requestId)).thenReturn(null);
 
         // when
         Integer position = timeSaleProducer.getQueuePosition(timeSaleId, requestId);
@@ -95,18 +135,18 @@ class TimeSaleProducerTest {
     }
 
     @Test
-    @DisplayName("총 대기 수 조회 성공")
+    @DisplayName("총 대기 수 조회 성공 - 대기열 크기")
     void getTotalWaiting_Success() {
         // given
         Long timeSaleId = 1L;
-        when(redissonClient.getAtomicLong(anyString())).thenReturn(totalCounter);
-        when(totalCounter.get()).thenReturn(5L); // 5개의 대기 수가 있다고 가정
+        when(redissonClient.<String>getScoredSortedSet(matches("time-sale-queue:.*"), any(Codec.class))).thenReturn(queue);
+        when(queue.size()).thenReturn(5); // 5개의 대기 수가 있다고 가정
 
         // when
         Long total = timeSaleProducer.getTotalWaiting(timeSaleId);
 
         // then
         assertThat(total).isEqualTo(5L); // 총 대기 수가 5임을 검증
-        verify(totalCounter).get();
+        verify(redissonClient, never()).getAtomicLong(anyString()); // 별도 카운터 없음
     }
 }
\ No newline at end of file
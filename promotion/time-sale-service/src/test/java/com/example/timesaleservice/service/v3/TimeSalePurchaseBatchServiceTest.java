@@ -0,0 +1,152 @@
+package com.example.timesaleservice.service.v3;
+
+import com.example.timesaleservice.aop.TimeSaleMetrics;
+import com.example.timesaleservice.domain.Product;
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleOrder;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.dto.PurchaseRequestMessage;
+import com.example.timesaleservice.exception.PurchaseLimitExceededException;
+import com.example.timesaleservice.repository.TimeSaleOrderRepository;
+import com.example.timesaleservice.repository.TimeSaleRepository;
+import com.example.timesaleservice.service.v2.TimeSalePurchaseLimitService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimeSalePurchaseBatchServiceTest {
+
+    @Mock
+    private TimeSaleRepository timeSaleRepository;
+
+    @Mock
+    private TimeSaleOrderRepository timeSaleOrderRepository;
+
+    @Mock
+    private TimeSalePurchaseLimitService timeSalePurchaseLimitService;
+
+    @Mock
+    private TimeSaleMetrics timeSaleMetrics;
+
+    @InjectMocks
+    private TimeSalePurchaseBatchService timeSalePurchaseBatchService;
+
+    private TimeSale timeSale;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+
+        Product product = Product.builder()
+                .id(1L)
+                .name("Test Product")
+                .price(10000L)
+                .build();
+
+        timeSale = TimeSale.builder()
+                .id(1L)
+                .product(product)
+                .status(TimeSaleStatus.ACTIVE)
+                .quantity(100L)
+                .remainingQuantity(3L)
+                .discountPrice(5000L)
+                .startAt(now.minusHours(1))
+                .endAt(now.plusHours(1))
+                .build();
+    }
+
+    @Test
+    @DisplayName("배치 구매 처리 - 재고가 부족한 요청만 실패")
+    void applyPurchases_PartialFailure() {
+        // given
+        List<PurchaseRequestMessage> messages = List.of(
+                message("request-1", 2L),
+                message("request-2", 2L), // 남은 수량 1개라 실패
+                message("request-3", 1L));
+
+        when(timeSaleRepository.findById(1L)).thenReturn(Optional.of(timeSale));
+        when(timeSaleRepository.save(any(TimeSale.class))).thenReturn(timeSale);
+
+        // when
+        TimeSalePurchaseBatchService.Result result = timeSalePurchaseBatchService.applyPurchases(1L, messages);
+
+        // then
+        assertThat(result.getSucceededRequestIds()).containsExactlyInAnyOrder("request-1", "request-3");
+        assertThat(result.getTimeSale().getRemainingQuantity()).isEqualTo(0L);
+        verify(timeSaleRepository, times(1)).findById(1L); // 타임세일은 한 번만 조회
+        verify(timeSaleRepository, times(1)).save(any(TimeSale.class));
+        verify(timeSaleOrderRepository).saveAll(argThat((List<TimeSaleOrder> orders) -> orders.size() == 2));
+    }
+
+    @Test
+    @DisplayName("배치 구매 처리 - 1인당 구매 제한을 넘는 요청은 재고를 차감하지 않음")
+    void applyPurchases_PurchaseLimitExceeded() {
+        // given
+        List<PurchaseRequestMessage> messages = List.of(message("request-1", 1L), message("request-2", 1L));
+
+        when(timeSaleRepository.findById(1L)).thenReturn(Optional.of(timeSale));
+        when(timeSaleRepository.save(any(TimeSale.class))).thenReturn(timeSale);
+        PurchaseLimitExceededException exception = new PurchaseLimitExceededException("Purchase limit exceeded");
+        doNothing().doThrow(exception)
+                .when(timeSalePurchaseLimitService).acquire(any(TimeSale.class), eq(1L), eq(1L));
+
+        // when
+        TimeSalePurchaseBatchService.Result result = timeSalePurchaseBatchService.applyPurchases(1L, messages);
+
+        // then
+        assertThat(result.getSucceededRequestIds()).containsExactly("request-1");
+        assertThat(result.getTimeSale().getRemainingQuantity()).isEqualTo(2L);
+        verify(timeSaleMetrics).recordFailure("v3", "consumePurchaseRequests", exception);
+    }
+
+    @Test
+    @DisplayName("배치 구매 처리 - 모두 실패하면 저장하지 않음")
+    void applyPurchases_AllFailed() {
+        // given
+        when(timeSaleRepository.findById(1L)).thenReturn(Optional.of(timeSale));
+
+        // when
+        TimeSalePurchaseBatchService.Result result = timeSalePurchaseBatchService.applyPurchases(1L, List.of(message("request-1", 5L)));
+
+        // then
+        assertThat(result.getSucceededRequestIds()).isEmpty();
+        verify(timeSaleRepository, never()).save(any(TimeSale.class));
+        verify(timeSaleOrderRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("배치 구매 처리 실패 - 타임세일 없음")
+    void applyPurchases_TimeSaleNotFound() {
+        // given
+        when(timeSaleRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // when & then
+        assertThatThrownBy(() -> timeSalePurchaseBatchService.applyPurchases(1L, List.of(message("request-1", 1L))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("TimeSale not found");
+        verify(timeSaleOrderRepository, never()).saveAll(anyList());
+    }
+
+    private PurchaseRequestMessage message(String requestId, Long quantity) {
+        return PurchaseRequestMessage.builder()
+                .requestId(requestId)
+                .timeSaleId(1L)
+                .userId(1L)
+                .quantity(quantity)
+                .build();
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.timesaleservice.service.v4;
+
+import com.example.timesaleservice.domain.Product;
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.dto.TimeSaleDto;
+import com.example.timesaleservice.exception.TimeSaleException;
+import com.example.timesaleservice.service.v2.TimeSaleRedisService;
+import com.example.timesaleservice.service.v2.TimeSaleStatusService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimeSaleAtomicServiceTest {
+    @InjectMocks
+    private TimeSaleAtomicService timeSaleAtomicService;
+
+    @Mock
+    private TimeSaleRedisService timeSaleRedisService;
+    @Mock
+    private TimeSaleStockService timeSaleStockService;
+    @Mock
+    private TimeSaleShardedStockService timeSaleShardedStockService;
+    @Mock
+    private TimeSaleOrderService timeSaleOrderService;
+    @Mock
+    private TimeSaleStatusService timeSaleStatusService;
+
+    private TimeSale timeSale;
+    private TimeSaleDto.PurchaseRequest purchaseRequest;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+
+        Product product = Product.builder()
+                .id(1L)
+                .name("Test Product")
+                .price(10000L)
+                .build();
+
+        timeSale = TimeSale.builder()
+                .id(1L)
+                .product(product)
+                .quantity(100L)
+                .remainingQuantity(100L)
+                .discountPrice(5000L)
+                .startAt(now.minusHours(1))
+                .endAt(now.plusHours(1))
+                .status(TimeSaleStatus.ACTIVE)
+                .build();
+
+        purchaseRequest = TimeSaleDto.PurchaseRequest.builder()
+                .userId(1L)
+                .quantity(2L)
+                .build();
+    }
+
+    @Test
+    @DisplayName("타임세일 구매 성공 - 락 없이 재고 차감 후 주문 저장")
+    void purchaseTimeSale_Success() {
+        // given
+        given(timeSaleStockService.reserve(1L, 1L, 2L)).willReturn(98L);
+        given(timeSaleRedisService.getTimeSale(1L)).willReturn(timeSale);
+
+        // when
+        TimeSale result = timeSaleAtomicService.purchaseTimeSale(1L, purchaseRequest);
+
+        // then
+        assertThat(result.getRemainingQuantity()).isEqualTo(98L);
+        verify(timeSaleOrderService).createOrder(1L, 1L, 2L, 5000L);
+        verify(timeSaleStockService, never()).release(anyLong(), anyLong(), anyLong());
+        verify(timeSaleStatusService, never()).close(anyLong(), any(TimeSaleStatus.class));
+    }
+
+    @Test
+    @DisplayName("타임세일 구매 성공 - 마지막 재고를 팔면 매진 처리")
+    void purchaseTimeSale_SoldOut() {
+        // given
+        given(timeSaleStockService.reserve(1L, 1L, 2L)).willReturn(0L);
+        given(timeSaleRedisService.getTimeSale(1L)).willReturn(timeSale);
+
+        // when
+        TimeSale result = timeSaleAtomicService.purchaseTimeSale(1L, purchaseRequest);
+
+        // then
+        assertThat(result.getRemainingQuantity()).isEqualTo(0L);
+        verify(timeSaleStatusService).close(1L, TimeSaleStatus.SOLD_OUT);
+    }
+
+    @Test
+    @DisplayName("타임세일 구매 실패 - 재고 부족")
+    void purchaseTimeSale_NotEnoughQuantity() {
+        // given
+        given(timeSaleRedisService.getTimeSale(1L)).willReturn(timeSale);
+        given(timeSaleStockService.reserve(1L, 1L, 2L))
+                .willThrow(new IllegalStateException("Not enough quantity available"));
+
+        // when & then
+        assertThatThrownBy(() -> timeSaleAtomicService.purchaseTimeSale(1L, purchaseRequest))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Not enough quantity available");
+
+        verify(timeSaleOrderService, never()).createOrder(anyLong(), anyLong(), anyLong(), anyLong());
+        verify(timeSaleStockService, never()).release(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("타임세일 구매 실패 - 주문 저장 실패 시 재고 복구")
+    void purchaseTimeSale_OrderFailed_ReleaseStock() {
+        // given
+        given(timeSaleStockService.reserve(1L, 1L, 2L)).willReturn(98L);
+        given(timeSaleRedisService.getTimeSale(1L)).willReturn(timeSale);
+        given(timeSaleOrderService.createOrder(1L, 1L, 2L, 5000L))
+                .willThrow(new TimeSaleException("Failed to decrease remaining quantity: 1"));
+
+        // when & then
+        assertThatThrownBy(() -> timeSaleAtomicService.purchaseTimeSale(1L, purchaseRequest))
+                .isInstanceOf(TimeSaleException.class);
+
+        verify(timeSaleStockService).release(1L, 1L, 2L);
+    }
+
+    @Test
+    @DisplayName("타임세일 구매 성공 - 샤드 재고를 사용하는 타임세일은 샤드에서 차감")
+    void purchaseTimeSale_ShardedStock() {
+        // given
+        TimeSale shardedTimeSale = shardedTimeSale();
+        given(timeSaleRedisService.getTimeSale(1L)).willReturn(shardedTimeSale);
+        given(timeSaleShardedStockService.reserve(shardedTimeSale, 1L, 2L)).willReturn(0L);
+
+        // when
+        timeSaleAtomicService.purchaseTimeSale(1L, purchaseRequest);
+
+        // then
+        verify(timeSaleStockService, never()).reserve(anyLong(), anyLong(), anyLong());
+        verify(timeSaleOrderService).createOrder(1L, 1L, 2L, 5000L);
+        verify(timeSaleStatusService).close(1L, TimeSaleStatus.SOLD_OUT);
+    }
+
+    @Test
+    @DisplayName("타임세일 구매 실패 - 샤드 재고 주문 저장 실패 시 샤드 재고 복구")
+    void purchaseTimeSale_ShardedStock_OrderFailed_ReleaseStock() {
+        // given
+        TimeSale shardedTimeSale = shardedTimeSale();
+        given(timeSaleRedisService.getTimeSale(1L)).willReturn(shardedTimeSale);
+        given(timeSaleShardedStockService.reserve(shardedTimeSale, 1L, 2L)).willReturn(10L);
+        given(timeSaleOrderService.createOrder(1L, 1L, 2L, 5000L))
+                .willThrow(new TimeSaleException("Failed to decrease remaining quantity: 1"));
+
+        // when & then
+        assertThatThrownBy(() -> timeSaleAtomicService.purchaseTimeSale(1L, purchaseRequest))
+                .isInstanceOf(TimeSaleException.class);
+
+        verify(timeSaleShardedStockService).release(shardedTimeSale, 1L, 2L);
+        verify(timeSaleStockService, never()).release(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("타임세일 조회 - 샤드 재고의 합계를 남은 수량으로 반영")
+    void getTimeSale_WithShardedStock() {
+        // given
+        TimeSale shardedTimeSale = shardedTimeSale();
+        given(timeSaleRedisService.getTimeSale(1L)).willReturn(shardedTimeSale);
+        given(timeSaleShardedStockService.getRemainingQuantity(shardedTimeSale)).willReturn(70L);
+
+        // when
+        TimeSale result = timeSaleAtomicService.getTimeSale(1L);
+
+        // then
+        assertThat(result.getRemainingQuantity()).isEqualTo(70L);
+        verify(timeSaleStockService, never()).getRemainingQuantity(anyLong());
+    }
+
+    @Test
+    @DisplayName("타임세일 조회 - Redis 재고 카운터의 남은 수량 반영")
+    void getTimeSale_WithStockCounter() {
+        // given
+        given(timeSaleRedisService.getTimeSale(1L)).willReturn(timeSale);
+        given(timeSaleStockService.getRemainingQuantity(1L)).willReturn(40L);
+
+        // when
+        TimeSale result = timeSaleAtomicService.getTimeSale(1L);
+
+        // then
+        assertThat(result.getRemainingQuantity()).isEqualTo(40L);
+    }
+
+    private TimeSale shardedTimeSale() {
+        return TimeSale.builder()
+                .id(1L)
+                .product(timeSale.getProduct())
+                .quantity(100L)
+                .remainingQuantity(100L)
+                .discountPrice(5000L)
+                .startAt(timeSale.getStartAt())
+                .endAt(timeSale.getEndAt())
+                .status(TimeSaleStatus.ACTIVE)
+                .stockShards(4)
+                .build();
+    }
+}
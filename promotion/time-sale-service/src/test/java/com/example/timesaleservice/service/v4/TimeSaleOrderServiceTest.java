@@ -0,0 +1,82 @@
+package com.example.timesaleservice.service.v4;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleOrder;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.exception.TimeSaleException;
+import com.example.timesaleservice.repository.TimeSaleOrderRepository;
+import com.example.timesaleservice.repository.TimeSaleRepository;
+import com.example.timesaleservice.service.v2.TimeSaleRedisService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimeSaleOrderServiceTest {
+    @InjectMocks
+    private TimeSaleOrderService timeSaleOrderService;
+
+    @Mock
+    private TimeSaleRepository timeSaleRepository;
+    @Mock
+    private TimeSaleOrderRepository timeSaleOrderRepository;
+    @Mock
+    private TimeSaleRedisService timeSaleRedisService;
+
+    @Test
+    @DisplayName("주문 저장 - 차감된 행을 다시 읽어서 커밋된 뒤에 Redis 사본 갱신")
+    void createOrder_RefreshesRedisAfterCommit() {
+        // given
+        TimeSale decreased = TimeSale.builder()
+                .id(1L)
+                .quantity(100L)
+                .remainingQuantity(98L)
+                .discountPrice(5000L)
+                .status(TimeSaleStatus.ACTIVE)
+                .build();
+        given(timeSaleRepository.decreaseRemainingQuantity(1L, 2L)).willReturn(1);
+        given(timeSaleRepository.findWithProductById(1L)).willReturn(Optional.of(decreased));
+        given(timeSaleOrderRepository.save(any(TimeSaleOrder.class))).willAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when - 커밋 전
+            timeSaleOrderService.createOrder(1L, 1L, 2L, 5000L);
+
+            // then
+            verify(timeSaleRedisService, never()).saveToRedis(any(TimeSale.class));
+
+            // when - 커밋
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // then
+            verify(timeSaleRedisService).saveToRedis(decreased);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("주문 저장 실패 - DB 재고가 부족하면 예외, Redis 사본은 그대로")
+    void createOrder_NotEnoughStock() {
+        // given
+        given(timeSaleRepository.decreaseRemainingQuantity(1L, 2L)).willReturn(0);
+
+        // when & then
+        assertThatThrownBy(() -> timeSaleOrderService.createOrder(1L, 1L, 2L, 5000L))
+                .isInstanceOf(TimeSaleException.class);
+        verify(timeSaleOrderRepository, never()).save(any(TimeSaleOrder.class));
+        verifyNoInteractions(timeSaleRedisService);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.timesaleservice.service.v4;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.repository.TimeSaleRepository;
+import com.example.timesaleservice.service.v2.TimeSaleKeyLifecycleService;
+import com.example.timesaleservice.service.v2.TimeSalePurchaseLimitService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 샤드 재고 Lua 스크립트(차감/옆 샤드 시도/리밸런싱/재적재)를 embedded Redis 에 실제로 실행해서 확인하는 테스트
+ */
+class TimeSaleShardedStockServiceRedisTest {
+    private static final int REDIS_PORT = freePort();
+    private static RedisServer redisServer;
+    private static RedissonClient redissonClient;
+
+    private final TimeSaleRepository timeSaleRepository = mock(TimeSaleRepository.class);
+    private TimeSaleShardedStockService timeSaleShardedStockService;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://localhost:" + REDIS_PORT);
+        redissonClient = Redisson.create(config);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        if (redissonClient != null) {
+            redissonClient.shutdown();
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        redissonClient.getKeys().flushall();
+        TimeSaleKeyLifecycleService timeSaleKeyLifecycleService = new TimeSaleKeyLifecycleService(redissonClient);
+        ReflectionTestUtils.setField(timeSaleKeyLifecycleService, "retention", Duration.ofMinutes(10));
+        timeSaleShardedStockService = new TimeSaleShardedStockService(
+                timeSaleRepository, redissonClient, mock(TimeSalePurchaseLimitService.class), timeSaleKeyLifecycleService);
+    }
+
+    @Test
+    @DisplayName("차감 - 샤드 하나에서 차감하고 전체 남은 수량은 모든 샤드의 합")
+    void reserve() {
+        // given
+        TimeSale timeSale = timeSale(10L, 4);
+        timeSaleShardedStockService.initStock(timeSale);
+
+        // when
+        Long remaining = timeSaleShardedStockService.reserve(timeSale, 1L, 1L);
+
+        // then
+        assertThat(remaining).isBetween(1L, 2L); // 3 또는 2 인 샤드에서 1개 차감
+        assertThat(timeSaleShardedStockService.getRemainingQuantity(timeSale)).isEqualTo(9L);
+        assertThat(shard(timeSale, 0).remainTimeToLive()).isPositive(); // 적재할 때 종료 시각 + retention 에 만료
+    }
+
+    @Test
+    @DisplayName("옆 샤드 시도 - 시작 샤드가 부족하면 남은 샤드에서 차감하고, 모두 부족하면 실패")
+    void reserve_FallbackToNeighbour() {
+        // given - 수량이 한 샤드에만 남아 있음
+        TimeSale timeSale = timeSale(0L, 4);
+        timeSaleShardedStockService.initStock(timeSale);
+        shard(timeSale, 2).put("remaining", "3");
+
+        // when - 시작 샤드는 임의이므로 여러 번 차감해도 항상 2번 샤드에서 차감됨
+        for (long i = 0; i < 3; i++) {
+            timeSaleShardedStockService.reserve(timeSale, i, 1L);
+        }
+
+        // then
+        assertThat(timeSaleShardedStockService.getRemainingQuantity(timeSale)).isZero();
+        assertThatThrownBy(() -> timeSaleShardedStockService.reserve(timeSale, 9L, 1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Not enough quantity available");
+    }
+
+    @Test
+    @DisplayName("리밸런싱 - 남는 샤드에서 부족한 샤드로 옮기고 합계는 유지")
+    void rebalance() {
+        // given
+        TimeSale timeSale = timeSale(0L, 4);
+        timeSaleShardedStockService.initStock(timeSale);
+        shard(timeSale, 1).put("remaining", "12");
+
+        // when
+        timeSaleShardedStockService.rebalance(timeSale);
+
+        // then
+        for (int shard = 0; shard < 4; shard++) {
+            assertThat(shard(timeSale, shard).get("remaining")).isEqualTo("3");
+        }
+        assertThat(timeSaleShardedStockService.getRemainingQuantity(timeSale)).isEqualTo(12L);
+    }
+
+    @Test
+    @DisplayName("재적재 - 등록 집합에는 남아 있어도 샤드 키가 모두 없으면 DB 수량으로 다시 적재")
+    void reserve_ReloadWhenShardsMissing() {
+        // given
+        TimeSale timeSale = timeSale(8L, 4);
+        timeSaleShardedStockService.initStock(timeSale);
+        for (int shard = 0; shard < 4; shard++) {
+            shard(timeSale, shard).delete();
+        }
+        given(timeSaleRepository.findById(timeSale.getId())).willReturn(Optional.of(timeSale));
+
+        // when
+        timeSaleShardedStockService.reserve(timeSale, 1L, 1L);
+
+        // then
+        assertThat(timeSaleShardedStockService.getRemainingQuantity(timeSale)).isEqualTo(7L);
+        assertThat(timeSaleShardedStockService.getShardedTimeSaleIds()).containsExactly(timeSale.getId());
+    }
+
+    @Test
+    @DisplayName("재적재 - 샤드가 일부만 없어지면 DB 수량으로 덮지 않고 남은 샤드에서 차감")
+    void reserve_NoReloadWhenSomeShardsRemain() {
+        // given
+        TimeSale timeSale = timeSale(8L, 4);
+        timeSaleShardedStockService.initStock(timeSale);
+        shard(timeSale, 0).delete();
+
+        // when
+        timeSaleShardedStockService.reserve(timeSale, 1L, 1L);
+
+        // then - 남아 있던 6개에서 1개 차감 (DB 의 8개로 다시 채우지 않음)
+        assertThat(timeSaleShardedStockService.getRemainingQuantity(timeSale)).isEqualTo(5L);
+    }
+
+    private RMap<String, String> shard(TimeSale timeSale, int shard) {
+        return redissonClient.getMap("time-sale-stock:" + timeSale.getId() + ":" + shard, StringCodec.INSTANCE);
+    }
+
+    private TimeSale timeSale(Long remainingQuantity, int stockShards) {
+        return TimeSale.builder()
+                .id(1L)
+                .quantity(100L)
+                .remainingQuantity(remainingQuantity)
+                .discountPrice(1000L)
+                .startAt(LocalDateTime.now().minusHours(1))
+                .endAt(LocalDateTime.now().plusHours(1))
+                .status(TimeSaleStatus.ACTIVE)
+                .stockShards(stockShards)
+                .build();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
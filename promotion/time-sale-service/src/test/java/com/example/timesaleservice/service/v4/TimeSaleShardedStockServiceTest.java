@@ -0,0 +1,51 @@
+package com.example.timesaleservice.service.v4;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeSaleShardedStockServiceTest {
+
+    @Test
+    @DisplayName("재고 분할 - 나머지는 앞 샤드부터 1개씩")
+    void split() {
+        // when
+        long[] quantities = TimeSaleShardedStockService.split(10L, 4);
+
+        // then
+        assertThat(quantities).containsExactly(3L, 3L, 2L, 2L);
+        assertThat(Arrays.stream(quantities).sum()).isEqualTo(10L);
+    }
+
+    @Test
+    @DisplayName("리밸런싱 계획 - 남는 샤드에서 빈 샤드로 옮기고 합계는 유지")
+    void planMoves() {
+        // given
+        long[] remainings = {0L, 9L, 1L, 2L};
+
+        // when
+        List<TimeSaleShardedStockService.Move> moves = TimeSaleShardedStockService.planMoves(remainings);
+
+        // then
+        for (TimeSaleShardedStockService.Move move : moves) {
+            remainings[move.getFrom()] -= move.getAmount();
+            remainings[move.getTo()] += move.getAmount();
+        }
+        assertThat(remainings).containsExactly(3L, 3L, 3L, 3L);
+        assertThat(moves).allMatch(move -> move.getFrom() == 1);
+    }
+
+    @Test
+    @DisplayName("리밸런싱 계획 - 차이가 1 이하면 옮기지 않음")
+    void planMoves_AlreadyBalanced() {
+        // when
+        List<TimeSaleShardedStockService.Move> moves = TimeSaleShardedStockService.planMoves(new long[]{2L, 3L, 2L, 3L});
+
+        // then
+        assertThat(moves).isEmpty();
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.timesaleservice.service.v4;
+
+import com.example.timesaleservice.domain.OrderStatus;
+import com.example.timesaleservice.domain.Product;
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.repository.TimeSaleOrderRepository;
+import com.example.timesaleservice.repository.TimeSaleRepository;
+import com.example.timesaleservice.service.v2.TimeSaleRedisService;
+import com.example.timesaleservice.service.v3.TimeSaleProducer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RedissonClient;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimeSaleStockReconcilerTest {
+
+    @Mock
+    private TimeSaleRepository timeSaleRepository;
+
+    @Mock
+    private TimeSaleOrderRepository timeSaleOrderRepository;
+
+    @Mock
+    private TimeSaleRedisService timeSaleRedisService;
+
+    @Mock
+    private TimeSaleStockService timeSaleStockService;
+
+    @Mock
+    private TimeSaleShardedStockService timeSaleShardedStockService;
+
+    @Mock
+    private TimeSaleProducer timeSaleProducer;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    private SimpleMeterRegistry registry;
+    private TimeSaleStockReconciler timeSaleStockReconciler;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        timeSaleStockReconciler = new TimeSaleStockReconciler(timeSaleRepository, timeSaleOrderRepository, timeSaleRedisService,
+                timeSaleStockService, timeSaleShardedStockService, timeSaleProducer, redissonClient, registry);
+        ReflectionTestUtils.setField(timeSaleStockReconciler, "pageSize", 100);
+        ReflectionTestUtils.setField(timeSaleStockReconciler, "repair", true);
+    }
+
+    @Test
+    @DisplayName("정합성 점검 - 같은 차이가 연속 두 번 보이면 Redis 재고 카운터를 DB 기준으로 보정")
+    void reconcile_RepairStockCounter() {
+        // given
+        TimeSale timeSale = timeSale(60L);
+        givenPage(timeSale, 40L);
+        when(timeSaleRedisService.findAllInRedis(List.of(1L))).thenReturn(Map.of());
+        when(timeSaleStockService.getRemainingQuantity(1L)).thenReturn(55L);
+
+        // when
+        timeSaleStockReconciler.reconcileNextPage();
+        verify(timeSaleStockService, never()).adjustRemainingQuantity(anyLong(), anyLong()); // 첫 번째는 구매 중일 수 있으므로 보류
+        timeSaleStockReconciler.reconcileNextPage();
+
+        // then
+        verify(timeSaleStockService).adjustRemainingQuantity(1L, 5L);
+        assertThat(registry.get("time.sale.reconciliation.mismatch").tag("source", "stock").tag("action", "repaired").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("정합성 점검 - consumer 가 밀려 대기열에 요청이 남아 있으면 재고 카운터를 보정하지 않음")
+    void reconcile_SkipStockRepairWhileConsumerLags() {
+        // given
+        TimeSale timeSale = timeSale(60L);
+        givenPage(timeSale, 40L);
+        when(timeSaleRedisService.findAllInRedis(List.of(1L))).thenReturn(Map.of());
+        when(timeSaleStockService.getRemainingQuantity(1L)).thenReturn(55L); // v5 가 5개를 먼저 차감했지만 DB 에는 아직 반영 전
+        when(timeSaleProducer.getTotalWaiting(1L)).thenReturn(5L, 5L, 5L, 0L);
+
+        // when - 같은 차이가 여러 번 보여도 대기열이 빌 때까지 보정하지 않음
+        timeSaleStockReconciler.reconcileNextPage();
+        timeSaleStockReconciler.reconcileNextPage();
+        timeSaleStockReconciler.reconcileNextPage();
+        timeSaleStockReconciler.reconcileNextPage();
+
+        // then - 대기열이 빈 뒤 처음 본 차이는 보류
+        verify(timeSaleStockService, never()).adjustRemainingQuantity(anyLong(), anyLong());
+        assertThat(registry.get("time.sale.reconciliation.mismatch").tag("source", "stock").tag("action", "deferred").counter().count())
+                .isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("정합성 점검 - 차이가 사라지면 보정하지 않음")
+    void reconcile_TransientMismatch() {
+        // given
+        TimeSale timeSale = timeSale(60L);
+        givenPage(timeSale, 40L);
+        when(timeSaleRedisService.findAllInRedis(List.of(1L))).thenReturn(Map.of());
+        when(timeSaleStockService.getRemainingQuantity(1L)).thenReturn(58L, 60L);
+
+        // when
+        timeSaleStockReconciler.reconcileNextPage();
+        timeSaleStockReconciler.reconcileNextPage();
+
+        // then
+        verify(timeSaleStockService, never()).adjustRemainingQuantity(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("정합성 점검 - Redis 사본의 남은 수량이 다르면 DB 값으로 다시 저장")
+    void reconcile_RepairCache() {
+        // given
+        TimeSale timeSale = timeSale(60L);
+        givenPage(timeSale, 40L);
+        when(timeSaleRedisService.findAllInRedis(List.of(1L))).thenReturn(Map.of(1L, timeSale(70L)));
+
+        // when
+        timeSaleStockReconciler.reconcileNextPage();
+        timeSaleStockReconciler.reconcileNextPage();
+
+        // then
+        verify(timeSaleRedisService).saveToRedis(argThat(saved -> saved.getRemainingQuantity() == 60L));
+    }
+
+    @Test
+    @DisplayName("정합성 점검 - DB 남은 수량이 주문과 맞지 않으면 보정하지 않고 알림")
+    void reconcile_AlertOrderMismatch() {
+        // given
+        TimeSale timeSale = timeSale(60L);
+        givenPage(timeSale, 30L); // 100 - 30 = 70 이어야 함
+        when(timeSaleRedisService.findAllInRedis(List.of(1L))).thenReturn(Map.of());
+
+        // when
+        timeSaleStockReconciler.reconcileNextPage();
+        timeSaleStockReconciler.reconcileNextPage();
+
+        // then
+        assertThat(registry.get("time.sale.reconciliation.mismatch").tag("source", "orders").tag("action", "alerted").counter().count())
+                .isEqualTo(1.0);
+        verify(timeSaleRedisService, never()).saveToRedis(any(TimeSale.class));
+        verify(timeSaleStockService, never()).adjustRemainingQuantity(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("정합성 점검 - 완료 처리 전(PENDING) 주문도 재고를 차지한 것으로 보고 알리지 않음")
+    void reconcile_PendingOrdersCount() {
+        // given - v2 로 판매해서 COMPLETED 로 바뀌지 않은 주문 40개 (실패 주문만 빼고 합산)
+        TimeSale timeSale = timeSale(60L);
+        givenPage(timeSale, 40L);
+        when(timeSaleRedisService.findAllInRedis(List.of(1L))).thenReturn(Map.of());
+
+        // when
+        timeSaleStockReconciler.reconcileNextPage();
+        timeSaleStockReconciler.reconcileNextPage();
+
+        // then
+        verify(timeSaleOrderRepository, times(2)).sumQuantityByTimeSaleIds(List.of(1L), OrderStatus.FAILED);
+        assertThat(registry.find("time.sale.reconciliation.mismatch").tag("source", "orders").counter()).isNull();
+    }
+
+    private void givenPage(TimeSale timeSale, Long orderedQuantity) {
+        when(timeSaleRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(TimeSaleStatus.ACTIVE), eq(0L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(timeSale)));
+        TimeSaleOrderRepository.OrderedQuantity ordered = mock(TimeSaleOrderRepository.OrderedQuantity.class);
+        when(ordered.getTimeSaleId()).thenReturn(1L);
+        when(ordered.getQuantity()).thenReturn(orderedQuantity);
+        when(timeSaleOrderRepository.sumQuantityByTimeSaleIds(List.of(1L), OrderStatus.FAILED)).thenReturn(List.of(ordered));
+    }
+
+    private TimeSale timeSale(Long remainingQuantity) {
+        LocalDateTime now = LocalDateTime.now();
+        return TimeSale.builder()
+                .id(1L)
+                .product(Product.builder().id(1L).name("Test Product").price(10000L).build())
+                .quantity(100L)
+                .remainingQuantity(remainingQuantity)
+                .discountPrice(5000L)
+                .startAt(now.minusHours(1))
+                .endAt(now.plusHours(1))
+                .status(TimeSaleStatus.ACTIVE)
+                .build();
+    }
+}
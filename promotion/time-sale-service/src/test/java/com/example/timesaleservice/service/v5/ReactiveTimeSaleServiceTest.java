@@ -0,0 +1,186 @@
+package com.example.timesaleservice.service.v5;
+
+import com.example.timesaleservice.domain.TimeSale;
+import com.example.timesaleservice.domain.TimeSaleStatus;
+import com.example.timesaleservice.dto.PurchaseRequestMessage;
+import com.example.timesaleservice.dto.TimeSaleDto;
+import com.example.timesaleservice.exception.TimeSaleClosedException;
+import com.example.timesaleservice.service.v2.PurchaseIdempotencyService;
+import com.example.timesaleservice.service.v2.TimeSaleKeyLifecycleService;
+import com.example.timesaleservice.service.v2.TimeSaleRedisService;
+import com.example.timesaleservice.service.v2.TimeSaleStatusService;
+import com.example.timesaleservice.service.v3.TimeSaleProducer;
+import com.example.timesaleservice.service.v4.TimeSaleStockService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.*;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.client.codec.Codec;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveTimeSaleServiceTest {
+    @InjectMocks
+    private ReactiveTimeSaleService reactiveTimeSaleService;
+
+    @Mock
+    private RedissonReactiveClient redissonReactiveClient;
+    @Mock
+    private TimeSaleRedisService timeSaleRedisService;
+    @Mock
+    private TimeSaleStockService timeSaleStockService;
+    @Mock
+    private TimeSaleStatusService timeSaleStatusService;
+    @Mock
+    private PurchaseIdempotencyService purchaseIdempotencyService;
+    @Mock
+    private TimeSaleKeyLifecycleService timeSaleKeyLifecycleService;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private RBatchReactive rBatch;
+    @Mock
+    private RMapReactive<String, String> results;
+    @Mock
+    private RScriptReactive enqueueScript;
+    @Mock
+    private RStreamReactive<String, String> outbox;
+
+    private final TimeSale timeSale = TimeSale.builder().id(1L).build();
+
+    @Test
+    @DisplayName("구매 접수 성공 - 재고 차감 후 상태, 대기열, outbox 를 한 번에 기록하고 요청 ID 반환")
+    void purchaseTimeSale_Success() throws Exception {
+        // given
+        givenTimeSale();
+        given(timeSaleStockService.reserveReactive(1L, 2L, 1L)).willReturn(Mono.just(9L));
+        givenOutbox(Mono.empty());
+
+        // when
+        TimeSaleDto.AsyncPurchaseResponse response = reactiveTimeSaleService.purchaseTimeSale(1L, purchaseRequest(null)).block();
+
+        // then
+        assertThat(response.getStatus()).isEqualTo("PENDING");
+        verify(results).fastPut(response.getRequestId(), "PENDING");
+        verify(enqueueScript).eval(eq(RScript.Mode.READ_WRITE), eq(TimeSaleProducer.ENQUEUE_SCRIPT), eq(RScript.ReturnType.INTEGER),
+                eq(List.of("time-sale-queue:1", "time-sale-queue-seq:1")), eq(response.getRequestId()), anyString());
+        verify(outbox).add(any(StreamAddArgs.class));
+        verify(objectMapper).writeValueAsString(argThat(message -> ((PurchaseRequestMessage) message).isStockReserved()));
+        verify(rBatch).execute();
+        verify(timeSaleStatusService, never()).close(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("구매 접수 - 마지막 재고를 차감하면 SOLD_OUT 으로 전환")
+    void purchaseTimeSale_SoldOut() {
+        // given
+        givenTimeSale();
+        given(timeSaleStockService.reserveReactive(1L, 2L, 1L)).willReturn(Mono.just(0L));
+        givenOutbox(Mono.empty());
+
+        // when
+        reactiveTimeSaleService.purchaseTimeSale(1L, purchaseRequest(null)).block();
+
+        // then
+        verify(timeSaleStatusService, timeout(1000)).close(1L, TimeSaleStatus.SOLD_OUT);
+    }
+
+    @Test
+    @DisplayName("구매 접수 실패 - 재고가 부족하면 outbox 에 기록하지 않고 멱등성 키를 풀어줌")
+    void purchaseTimeSale_NotEnoughStock() {
+        // given
+        givenTimeSale();
+        given(purchaseIdempotencyService.claimReactive(eq(1L), eq(2L), eq("key-1"), anyString()))
+                .willAnswer(invocation -> Mono.just(invocation.getArgument(3)));
+        given(purchaseIdempotencyService.releaseReactive(eq(1L), eq(2L), eq("key-1"), anyString())).willReturn(Mono.empty());
+        given(timeSaleStockService.reserveReactive(1L, 2L, 1L))
+                .willReturn(Mono.error(new IllegalStateException("Not enough quantity available")));
+
+        // when & then
+        assertThatThrownBy(() -> reactiveTimeSaleService.purchaseTimeSale(1L, purchaseRequest("key-1")).block())
+                .isInstanceOf(IllegalStateException.class);
+        verify(purchaseIdempotencyService).releaseReactive(eq(1L), eq(2L), eq("key-1"), anyString());
+        verifyNoInteractions(redissonReactiveClient);
+    }
+
+    @Test
+    @DisplayName("구매 접수 실패 - outbox 기록에 실패하면 차감한 재고를 되돌림")
+    void purchaseTimeSale_OutboxFailure() {
+        // given
+        givenTimeSale();
+        given(timeSaleStockService.reserveReactive(1L, 2L, 1L)).willReturn(Mono.just(9L));
+        given(timeSaleStockService.releaseReactive(1L, 2L, 1L)).willReturn(Mono.empty());
+        givenOutbox(Mono.error(new RuntimeException("Redis down")));
+
+        // when & then
+        assertThatThrownBy(() -> reactiveTimeSaleService.purchaseTimeSale(1L, purchaseRequest(null)).block())
+                .hasMessage("Redis down");
+        verify(timeSaleStockService).releaseReactive(1L, 2L, 1L);
+    }
+
+    @Test
+    @DisplayName("구매 접수 - 같은 멱등성 키로 재시도하면 재고를 다시 차감하지 않고 처음 요청 ID 반환")
+    void purchaseTimeSale_Duplicate() {
+        // given
+        givenTimeSale();
+        given(purchaseIdempotencyService.claimReactive(eq(1L), eq(2L), eq("key-1"), anyString()))
+                .willReturn(Mono.just("first-request"));
+
+        // when
+        TimeSaleDto.AsyncPurchaseResponse response = reactiveTimeSaleService.purchaseTimeSale(1L, purchaseRequest("key-1")).block();
+
+        // then
+        assertThat(response.getRequestId()).isEqualTo("first-request");
+        verify(timeSaleStockService, never()).reserveReactive(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("구매 접수 실패 - 닫힌 타임세일은 Redis 를 거치지 않고 거절")
+    void purchaseTimeSale_Closed() {
+        // given
+        given(timeSaleStatusService.isClosed(1L)).willReturn(true);
+
+        // when & then
+        assertThatThrownBy(() -> reactiveTimeSaleService.purchaseTimeSale(1L, purchaseRequest(null)).block())
+                .isInstanceOf(TimeSaleClosedException.class);
+        verifyNoInteractions(timeSaleRedisService, timeSaleStockService, redissonReactiveClient);
+    }
+
+    private void givenTimeSale() {
+        given(timeSaleRedisService.getTimeSaleReactive(1L)).willReturn(Mono.just(timeSale));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenOutbox(Mono<?> result) {
+        given(timeSaleKeyLifecycleService.getExpireAt(timeSale)).willReturn(Instant.now().plusSeconds(3600));
+        given(redissonReactiveClient.createBatch(any(BatchOptions.class))).willReturn(rBatch);
+        given(rBatch.<String, String>getMap(eq("purchase-results:1"), any(Codec.class))).willReturn(results);
+        given(rBatch.getScript(any(Codec.class))).willReturn(enqueueScript);
+        given(rBatch.<String, String>getStream(eq("time-sale-outbox"), any(Codec.class))).willReturn(outbox);
+        given(rBatch.execute()).willReturn((Mono) result);
+    }
+
+    private TimeSaleDto.PurchaseRequest purchaseRequest(String idempotencyKey) {
+        return TimeSaleDto.PurchaseRequest.builder()
+                .userId(2L)
+                .quantity(1L)
+                .idempotencyKey(idempotencyKey)
+                .build();
+    }
+}